@@ -0,0 +1,166 @@
+package com.produtos.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Cliente do teste de carga: envia requisições em sequência, sorteando cada operação conforme os pesos da mistura,
+ * até ser encerrado. Cada cliente é executado por uma thread própria.
+ */
+class Cliente implements Runnable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String SEPARADOR = "produtos-carga";
+
+    private final HttpClient http;
+
+    private final URI base;
+
+    private final String[] ids;
+
+    private final Operacao[] sorteio;
+
+    private final int linhasUpload;
+
+    private final Medicao medicao;
+
+    private final SplittableRandom random;
+
+    private final String prefixo;
+
+    private long sequencia;
+
+    private volatile boolean ativo = true;
+
+    /**
+     * Produtos criados por este cliente e ainda não excluídos.
+     */
+    final Deque<String> criados = new ArrayDeque<>();
+
+    /**
+     * Cursor da próxima página da listagem percorrida por {@link Operacao#LISTAR_SIMPLES}.
+     */
+    String cursor;
+
+    Cliente(int numero, HttpClient http, URI base, String[] ids, Map<Operacao, Integer> pesos, int linhasUpload,
+            Medicao medicao) {
+        this.http = http;
+        this.base = base;
+        this.ids = ids;
+        this.linhasUpload = linhasUpload;
+        this.medicao = medicao;
+        this.random = new SplittableRandom(numero);
+        this.prefixo = "Produto carga " + numero + "-";
+        List<Operacao> sorteio = new ArrayList<>();
+        pesos.forEach((operacao, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                sorteio.add(operacao);
+            }
+        });
+        if (sorteio.isEmpty()) {
+            throw new IllegalArgumentException("A mistura não tem nenhuma operação");
+        }
+        this.sorteio = sorteio.toArray(Operacao[]::new);
+    }
+
+    @Override
+    public void run() {
+        while (ativo) {
+            Operacao operacao = sorteio[random.nextInt(sorteio.length)];
+            if (operacao == Operacao.EXCLUIR && criados.isEmpty()) {
+                operacao = Operacao.CRIAR;
+            }
+            boolean sucesso = false;
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<byte[]> resposta = http.send(operacao.requisicao(this), HttpResponse.BodyHandlers.ofByteArray());
+                long duracao = System.nanoTime() - inicio;
+                sucesso = resposta.statusCode() < 400;
+                medicao.registrar(operacao, duracao, sucesso);
+                if (sucesso) {
+                    operacao.concluir(this, resposta);
+                }
+            } catch (IOException e) {
+                if (!sucesso) {
+                    medicao.registrar(operacao, System.nanoTime() - inicio, false);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    void encerrar() {
+        ativo = false;
+    }
+
+    HttpRequest.Builder requisicao(String caminho) {
+        return HttpRequest.newBuilder(URI.create(base + caminho)).timeout(Duration.ofMinutes(1));
+    }
+
+    String idAleatorio() {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    int aleatorio(int limite) {
+        return random.nextInt(limite);
+    }
+
+    HttpRequest.BodyPublisher json(String conteudo) {
+        return HttpRequest.BodyPublishers.ofString(conteudo);
+    }
+
+    JsonNode json(HttpResponse<byte[]> resposta) throws IOException {
+        return MAPPER.readTree(resposta.body());
+    }
+
+    HttpRequest.BodyPublisher produtoJson() {
+        return json("{\"nome\":\"" + prefixo + sequencia++ + "\",\"valor\":" + (1 + random.nextInt(1000))
+                + ".90,\"descricao\":\"Produto criado pelo teste de carga\",\"quantidade_estoque\":1000,\"peso\":1.250}");
+    }
+
+    /**
+     * Arquivo CSV com {@code linhasUpload} produtos ainda não importados.
+     */
+    String csv() {
+        StringBuilder csv = new StringBuilder("nome,valor,descricao,quantidade_estoque,peso\n");
+        for (int i = 0; i < linhasUpload; i++) {
+            csv.append(prefixo).append(sequencia++).append(",10.90,Produto importado pelo teste de carga,1000,1.250\n");
+        }
+        return csv.toString();
+    }
+
+    HttpRequest upload(String caminho, String csv) {
+        return upload(requisicao(caminho), csv);
+    }
+
+    /**
+     * Requisição {@code multipart/form-data} com o arquivo CSV no campo {@code file}, como a enviada por um formulário.
+     */
+    static HttpRequest upload(HttpRequest.Builder requisicao, String csv) {
+        String corpo = "--" + SEPARADOR + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"produtos.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n"
+                + csv + "\r\n"
+                + "--" + SEPARADOR + "--\r\n";
+        return requisicao.header("Content-Type", "multipart/form-data; boundary=" + SEPARADOR)
+                .POST(HttpRequest.BodyPublishers.ofString(corpo, StandardCharsets.UTF_8))
+                .build();
+    }
+}
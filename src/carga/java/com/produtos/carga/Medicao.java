@@ -0,0 +1,68 @@
+package com.produtos.carga;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências e erros das requisições de cada operação, registrados pelos clientes. As latências são gravadas em
+ * histogramas HdrHistogram, em microssegundos, sem bloquear os clientes durante a leitura dos resultados.
+ */
+class Medicao {
+
+    private final Map<Operacao, Recorder> latencias = new EnumMap<>(Operacao.class);
+
+    private final Map<Operacao, LongAdder> erros = new EnumMap<>(Operacao.class);
+
+    Medicao() {
+        for (Operacao operacao : Operacao.values()) {
+            latencias.put(operacao, new Recorder(3));
+            erros.put(operacao, new LongAdder());
+        }
+    }
+
+    void registrar(Operacao operacao, long nanos, boolean sucesso) {
+        latencias.get(operacao).recordValue(Math.max(1, nanos / 1000));
+        if (!sucesso) {
+            erros.get(operacao).increment();
+        }
+    }
+
+    /**
+     * Descarta as requisições registradas até agora, ao fim do aquecimento.
+     */
+    void descartar() {
+        for (Operacao operacao : Operacao.values()) {
+            latencias.get(operacao).getIntervalHistogram();
+            erros.get(operacao).reset();
+        }
+    }
+
+    /**
+     * Resultado das requisições registradas desde o aquecimento, por operação e no total.
+     *
+     * @param segundos Duração da medição.
+     */
+    List<ResultadoCarga.ResultadoOperacao> resultado(double segundos) {
+        List<ResultadoCarga.ResultadoOperacao> resultado = new ArrayList<>();
+        Histogram total = new Histogram(3);
+        long errosTotal = 0;
+        for (Operacao operacao : Operacao.values()) {
+            Histogram histograma = latencias.get(operacao).getIntervalHistogram();
+            long errosOperacao = erros.get(operacao).sum();
+            if (histograma.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histograma);
+            errosTotal += errosOperacao;
+            resultado.add(ResultadoCarga.ResultadoOperacao.of(operacao.getNome(), histograma, errosOperacao, segundos));
+        }
+        resultado.add(ResultadoCarga.ResultadoOperacao.of(ResultadoCarga.TOTAL, total, errosTotal, segundos));
+        return resultado;
+    }
+}
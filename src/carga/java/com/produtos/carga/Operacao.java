@@ -0,0 +1,190 @@
+package com.produtos.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Operações executadas pelo teste de carga, uma para cada rota do {@code ProdutoController}, com o peso padrão de
+ * cada uma na mistura de requisições.
+ */
+enum Operacao {
+
+    OBTER("obter", 25) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("/" + cliente.idAleatorio()).build();
+        }
+    },
+    OBTER_SIMPLES("obter-simples", 10) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("/" + cliente.idAleatorio()).header("Accept", MEDIA_TYPE_SIMPLES).build();
+        }
+    },
+    LISTAR("listar", 8) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("?tamanho=50").build();
+        }
+    },
+    /**
+     * Percorre a listagem página a página, continuando a partir do cursor da requisição anterior do cliente.
+     */
+    LISTAR_SIMPLES("listar-simples", 8) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            String cursor = cliente.cursor == null ? "" : "&cursor=" + URLEncoder.encode(cliente.cursor, StandardCharsets.UTF_8);
+            return cliente.requisicao("?tamanho=50" + cursor).header("Accept", MEDIA_TYPE_SIMPLES).build();
+        }
+
+        @Override
+        void concluir(Cliente cliente, HttpResponse<byte[]> resposta) throws IOException {
+            JsonNode proximoCursor = cliente.json(resposta).get("proximoCursor");
+            cliente.cursor = proximoCursor == null || proximoCursor.isNull() ? null : proximoCursor.asText();
+        }
+    },
+    BUSCAR("buscar", 8) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("/search?tamanho=20&prefixo=" + URLEncoder.encode("Produto " + cliente.aleatorio(100),
+                    StandardCharsets.UTF_8)).build();
+        }
+    },
+    CACHE("cache", 1) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("/cache").build();
+        }
+    },
+    ESTATISTICAS("estatisticas", 1) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("/stats").build();
+        }
+    },
+    TRANSMITIR("transmitir", 1) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("").header("Accept", "application/x-ndjson").build();
+        }
+    },
+    EXPORTAR("exportar", 1) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("/export.csv").header("Accept-Encoding", "gzip").build();
+        }
+    },
+    CRIAR("criar", 10) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("").header("Content-Type", "application/json").POST(cliente.produtoJson()).build();
+        }
+
+        @Override
+        void concluir(Cliente cliente, HttpResponse<byte[]> resposta) throws IOException {
+            cliente.criados.add(cliente.json(resposta).get("id").asText());
+        }
+    },
+    ATUALIZAR("atualizar", 8) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("/" + cliente.idAleatorio()).header("Content-Type", "application/json")
+                    .PUT(cliente.produtoJson()).build();
+        }
+    },
+    ALTERAR("alterar", 8) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("/" + cliente.idAleatorio()).header("Content-Type", "application/json")
+                    .method("PATCH", cliente.json("{\"valor\":" + (1 + cliente.aleatorio(1000)) + ".90}"))
+                    .build();
+        }
+    },
+    AJUSTAR_ESTOQUE("ajustar-estoque", 8) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("/" + cliente.idAleatorio() + "/estoque").header("Content-Type", "application/json")
+                    .POST(cliente.json("{\"delta\":" + (cliente.aleatorio(2) == 0 ? -1 : 1) + "}"))
+                    .build();
+        }
+    },
+    /**
+     * Exclui um dos produtos criados pelo próprio cliente, de forma que as demais operações não encontrem produtos
+     * excluídos. Sem nenhum produto criado, o cliente executa {@link #CRIAR} no lugar.
+     */
+    EXCLUIR("excluir", 3) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.requisicao("/" + cliente.criados.poll()).DELETE().build();
+        }
+    },
+    UPLOAD("upload", 1) {
+        @Override
+        HttpRequest requisicao(Cliente cliente) {
+            return cliente.upload("/upload", cliente.csv());
+        }
+    };
+
+    static final String MEDIA_TYPE_SIMPLES = "application/vnd.produtos.simples+json";
+
+    private final String nome;
+
+    private final int peso;
+
+    Operacao(String nome, int peso) {
+        this.nome = nome;
+        this.peso = peso;
+    }
+
+    String getNome() {
+        return nome;
+    }
+
+    /**
+     * Monta a próxima requisição desta operação.
+     */
+    abstract HttpRequest requisicao(Cliente cliente);
+
+    /**
+     * Processa uma resposta de sucesso, para as operações que dependem do resultado das anteriores.
+     */
+    void concluir(Cliente cliente, HttpResponse<byte[]> resposta) throws IOException {
+    }
+
+    static Operacao of(String nome) {
+        return Arrays.stream(values())
+                .filter(operacao -> operacao.nome.equals(nome))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Operação desconhecida: " + nome));
+    }
+
+    /**
+     * Pesos das operações, no formato {@code obter:25,criar:10,...}; as operações não informadas não são executadas.
+     * Sem a mistura, usa o peso padrão de cada operação.
+     */
+    static Map<Operacao, Integer> pesos(String mistura) {
+        Map<Operacao, Integer> pesos = new EnumMap<>(Operacao.class);
+        if (mistura == null || mistura.isBlank()) {
+            for (Operacao operacao : values()) {
+                pesos.put(operacao, operacao.peso);
+            }
+            return pesos;
+        }
+        for (String item : mistura.split(",")) {
+            String[] partes = item.trim().split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Item inválido na mistura: " + item);
+            }
+            pesos.put(of(partes[0].trim()), Integer.parseInt(partes[1].trim()));
+        }
+        return pesos;
+    }
+}
@@ -0,0 +1,92 @@
+package com.produtos.carga;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resultado de uma execução do teste de carga, gravado em JSON e usado como baseline das execuções seguintes.
+ *
+ * @param parametros        Parâmetros da execução.
+ * @param segundos          Duração da medição, sem o aquecimento.
+ * @param operacoes         Resultado de cada operação executada e, por último, o {@link #TOTAL}.
+ * @param eventosRecebidos  Eventos recebidos pelos assinantes de {@code /api/produtos/changes}, somados.
+ * @param resets            Eventos {@code RESET} recebidos pelos assinantes, que indicam que algum deles não
+ *                          acompanhou o ritmo das alterações.
+ */
+record ResultadoCarga(Map<String, String> parametros, double segundos, List<ResultadoOperacao> operacoes,
+                      long eventosRecebidos, long resets) {
+
+    static final String TOTAL = "total";
+
+    /**
+     * Resultado de uma operação. As latências estão em milissegundos.
+     */
+    record ResultadoOperacao(String operacao, long requisicoes, long erros, double porSegundo, double taxaErros,
+                             double p50, double p99, double p999) {
+
+        static ResultadoOperacao of(String operacao, Histogram latencias, long erros, double segundos) {
+            long requisicoes = latencias.getTotalCount();
+            return new ResultadoOperacao(operacao, requisicoes, erros, requisicoes / segundos,
+                    requisicoes == 0 ? 0 : (double) erros / requisicoes,
+                    latencias.getValueAtPercentile(50) / 1000.0,
+                    latencias.getValueAtPercentile(99) / 1000.0,
+                    latencias.getValueAtPercentile(99.9) / 1000.0);
+        }
+    }
+
+    String tabela() {
+        StringBuilder tabela = new StringBuilder(String.format(Locale.ROOT, "%-16s %12s %10s %9s %10s %10s %10s%n",
+                "Operação", "Requisições", "Req/s", "Erros", "p50 (ms)", "p99 (ms)", "p99,9 (ms)"));
+        for (ResultadoOperacao operacao : operacoes) {
+            tabela.append(String.format(Locale.ROOT, "%-16s %12d %10.1f %8.2f%% %10.3f %10.3f %10.3f%n",
+                    operacao.operacao(), operacao.requisicoes(), operacao.porSegundo(), operacao.taxaErros() * 100,
+                    operacao.p50(), operacao.p99(), operacao.p999()));
+        }
+        return tabela.toString();
+    }
+
+    /**
+     * Compara este resultado com o de uma execução anterior. Uma operação regrediu se as requisições por segundo
+     * caíram, ou a latência p50 ou p99 subiu, mais que a {@code tolerancia}, ou se a taxa de erros subiu mais que a
+     * {@code toleranciaErros}. O p99,9 não é comparado, já que em execuções curtas depende de poucas requisições.
+     *
+     * @param baseline         Resultado da execução anterior; as operações ausentes nele não são comparadas.
+     * @param tolerancia       Variação relativa aceita, por exemplo {@code 0.2} para 20%.
+     * @param toleranciaErros  Aumento absoluto aceito da taxa de erros, por exemplo {@code 0.01} para 1 ponto percentual.
+     * @return Descrição de cada regressão encontrada.
+     */
+    List<String> regressoes(ResultadoCarga baseline, double tolerancia, double toleranciaErros) {
+        Map<String, ResultadoOperacao> anteriores = baseline.operacoes().stream()
+                .collect(Collectors.toMap(ResultadoOperacao::operacao, Function.identity()));
+        List<String> regressoes = new ArrayList<>();
+        for (ResultadoOperacao atual : operacoes) {
+            ResultadoOperacao anterior = anteriores.get(atual.operacao());
+            if (anterior == null) {
+                continue;
+            }
+            if (atual.porSegundo() < anterior.porSegundo() * (1 - tolerancia)) {
+                regressoes.add(regressao(atual.operacao(), "req/s", atual.porSegundo(), anterior.porSegundo()));
+            }
+            if (atual.p50() > anterior.p50() * (1 + tolerancia)) {
+                regressoes.add(regressao(atual.operacao(), "p50 (ms)", atual.p50(), anterior.p50()));
+            }
+            if (atual.p99() > anterior.p99() * (1 + tolerancia)) {
+                regressoes.add(regressao(atual.operacao(), "p99 (ms)", atual.p99(), anterior.p99()));
+            }
+            if (atual.taxaErros() > anterior.taxaErros() + toleranciaErros) {
+                regressoes.add(regressao(atual.operacao(), "erros (%)", atual.taxaErros() * 100, anterior.taxaErros() * 100));
+            }
+        }
+        return regressoes;
+    }
+
+    private static String regressao(String operacao, String medida, double atual, double anterior) {
+        return String.format(Locale.ROOT, "%s: %s %.3f, baseline %.3f", operacao, medida, atual, anterior);
+    }
+}
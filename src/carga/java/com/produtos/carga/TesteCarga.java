@@ -0,0 +1,299 @@
+package com.produtos.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.produtos.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Teste de carga da API de produtos. Inicia a aplicação com o servidor web numa porta livre e, no lugar do
+ * PostgreSQL, um banco H2 em memória no modo de compatibilidade com o PostgreSQL (ou o armazenamento embarcado, com
+ * {@code armazenamento=log}). Depois de gravar {@code produtos} produtos, {@code concorrencia} clientes enviam
+ * requisições sobre todas as rotas do {@code ProdutoController}, sorteadas conforme a {@code mistura}, enquanto
+ * {@code assinantes} clientes acompanham as alterações em {@code /api/produtos/changes}.
+ * <p>
+ * Os clientes trabalham em ciclo fechado: cada um envia a próxima requisição assim que recebe a resposta da
+ * anterior. Ao fim da {@code duracao}, descontado o {@code aquecimento}, imprime por operação as requisições por
+ * segundo, as latências p50, p99 e p99,9 e a taxa de erros (respostas 4xx e 5xx ou falhas de conexão), e grava o
+ * resultado em JSON no arquivo {@code resultado}. Com {@code baseline=arquivo.json}, compara o resultado com o de uma
+ * execução anterior e termina com código 1 se alguma operação regrediu além da {@code tolerancia}.
+ * <p>
+ * Os parâmetros são informados como {@code nome=valor}; os nomes com ponto são repassados à aplicação como
+ * propriedades, por exemplo {@code produtos.threads-virtuais=true}:
+ * {@code mvn -Pcarga -DskipTests test-compile exec:exec -Dcarga.args="concorrencia=64 duracao=PT1M"}.
+ */
+public class TesteCarga {
+
+    private static final Map<String, String> PADROES = new LinkedHashMap<>();
+
+    static {
+        PADROES.put("concorrencia", "16");
+        PADROES.put("aquecimento", "PT10S");
+        PADROES.put("duracao", "PT30S");
+        PADROES.put("produtos", "10000");
+        PADROES.put("mistura", "");
+        PADROES.put("linhas-upload", "100");
+        PADROES.put("assinantes", "2");
+        PADROES.put("armazenamento", "jpa");
+        PADROES.put("url", "jdbc:h2:mem:carga;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        PADROES.put("usuario", "sa");
+        PADROES.put("senha", "");
+        PADROES.put("resultado", "target/carga-resultado.json");
+        PADROES.put("baseline", "");
+        PADROES.put("tolerancia", "0.2");
+        PADROES.put("tolerancia-erros", "0.01");
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final int PRODUTOS_POR_ARQUIVO = 1000;
+
+    private final Map<String, String> parametros;
+
+    private final Map<String, String> propriedades;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final LongAdder eventosRecebidos = new LongAdder();
+
+    private final LongAdder resets = new LongAdder();
+
+    private URI base;
+
+    TesteCarga(Map<String, String> parametros, Map<String, String> propriedades) {
+        this.parametros = parametros;
+        this.propriedades = propriedades;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = new LinkedHashMap<>(PADROES);
+        Map<String, String> propriedades = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separador = arg.indexOf('=');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Parâmetro sem valor: " + arg);
+            }
+            String nome = arg.substring(0, separador);
+            if (PADROES.containsKey(nome)) {
+                parametros.put(nome, arg.substring(separador + 1));
+            } else if (nome.contains(".")) {
+                propriedades.put(nome, arg.substring(separador + 1));
+            } else {
+                throw new IllegalArgumentException("Parâmetro desconhecido: " + nome + ". Parâmetros: " + PADROES.keySet());
+            }
+        }
+        System.exit(new TesteCarga(parametros, propriedades).executar());
+    }
+
+    /**
+     * Executa o teste de carga.
+     *
+     * @return Código de saída: 1 se houve regressão em relação à baseline, 0 caso contrário.
+     */
+    int executar() throws IOException, InterruptedException {
+        Path diretorio = Files.createTempDirectory("carga-produtos");
+        ConfigurableApplicationContext contexto = iniciarAplicacao(diretorio);
+        ResultadoCarga resultado;
+        try {
+            base = URI.create("http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort()
+                    + "/api/produtos");
+            String[] ids = popular(Integer.parseInt(parametros.get("produtos")));
+            for (int i = 0; i < Integer.parseInt(parametros.get("assinantes")); i++) {
+                assinar();
+            }
+            resultado = medir(ids);
+        } finally {
+            contexto.close();
+            excluir(diretorio);
+        }
+
+        System.out.println();
+        System.out.print(resultado.tabela());
+        System.out.println("Eventos recebidos pelos assinantes: " + resultado.eventosRecebidos()
+                + " (" + resultado.resets() + " RESET)");
+        Path arquivo = Path.of(parametros.get("resultado"));
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        MAPPER.writeValue(arquivo.toFile(), resultado);
+        System.out.println("Resultado gravado em " + arquivo.toAbsolutePath());
+
+        if (parametros.get("baseline").isBlank()) {
+            return 0;
+        }
+        return comparar(resultado, MAPPER.readValue(Path.of(parametros.get("baseline")).toFile(), ResultadoCarga.class));
+    }
+
+    private ConfigurableApplicationContext iniciarAplicacao(Path diretorio) {
+        String url = parametros.get("url");
+        List<String> argumentos = new ArrayList<>(List.of(
+                // A configuração da aplicação, e não a dos testes, que também está no classpath
+                "--spring.config.location=" + Application.class.getProtectionDomain().getCodeSource().getLocation(),
+                "--server.port=0",
+                "--management.server.port=-1",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + parametros.get("usuario"),
+                "--spring.datasource.password=" + parametros.get("senha"),
+                // O driver é escolhido pela URL
+                "--spring.datasource.driver-class-name=",
+                "--produtos.armazenamento.log.diretorio=" + diretorio,
+                "--logging.level.com.produtos=WARN"));
+        if (url.startsWith("jdbc:h2:")) {
+            argumentos.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+        propriedades.forEach((nome, valor) -> argumentos.add("--" + nome + "=" + valor));
+        SpringApplicationBuilder aplicacao = new SpringApplicationBuilder(Application.class);
+        if ("log".equals(parametros.get("armazenamento"))) {
+            aplicacao.profiles("embarcado");
+        }
+        return aplicacao.run(argumentos.toArray(String[]::new));
+    }
+
+    /**
+     * Grava os produtos iniciais pela rota de upload e obtém os seus IDs pela listagem em NDJSON.
+     */
+    private String[] popular(int produtos) throws IOException, InterruptedException {
+        System.out.println("Gravando " + produtos + " produtos");
+        for (int inicio = 0; inicio < produtos; inicio += PRODUTOS_POR_ARQUIVO) {
+            StringBuilder csv = new StringBuilder("nome,valor,descricao,quantidade_estoque,peso\n");
+            for (int i = inicio; i < Math.min(produtos, inicio + PRODUTOS_POR_ARQUIVO); i++) {
+                csv.append("Produto ").append(i).append(",").append(1 + i % 1000)
+                        .append(".90,Descricao do produto ").append(i).append(",1000,1.250\n");
+            }
+            verificar(http.send(Cliente.upload(HttpRequest.newBuilder(URI.create(base + "/upload")), csv.toString()),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        HttpResponse<Stream<String>> resposta = http.send(HttpRequest.newBuilder(base)
+                .header("Accept", "application/x-ndjson").build(), HttpResponse.BodyHandlers.ofLines());
+        List<String> ids = new ArrayList<>(produtos);
+        try (Stream<String> linhas = resposta.body()) {
+            for (String linha : (Iterable<String>) linhas::iterator) {
+                JsonNode produto = MAPPER.readTree(linha);
+                ids.add(produto.get("id").asText());
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Nenhum produto gravado; informe produtos maior que zero");
+        }
+        return ids.toArray(String[]::new);
+    }
+
+    private static void verificar(HttpResponse<String> resposta) {
+        if (resposta.statusCode() >= 400) {
+            throw new IllegalStateException("Falha ao gravar os produtos iniciais: " + resposta.statusCode() + " " + resposta.body());
+        }
+    }
+
+    /**
+     * Abre uma assinatura de {@code /api/produtos/changes}, que conta os eventos recebidos até o encerramento da
+     * aplicação.
+     */
+    private void assinar() {
+        http.sendAsync(HttpRequest.newBuilder(URI.create(base + "/changes")).build(), HttpResponse.BodyHandlers.ofLines())
+                .thenAccept(resposta -> {
+                    try (Stream<String> linhas = resposta.body()) {
+                        linhas.forEach(linha -> {
+                            if (linha.startsWith("id:")) {
+                                eventosRecebidos.increment();
+                            } else if (linha.equals("event:RESET")) {
+                                resets.increment();
+                            }
+                        });
+                    } catch (UncheckedIOException e) {
+                        // A aplicação foi encerrada
+                    }
+                });
+    }
+
+    private ResultadoCarga medir(String[] ids) throws InterruptedException {
+        Duration aquecimento = Duration.parse(parametros.get("aquecimento"));
+        Duration duracao = Duration.parse(parametros.get("duracao"));
+        Medicao medicao = new Medicao();
+        List<Cliente> clientes = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < Integer.parseInt(parametros.get("concorrencia")); i++) {
+            Cliente cliente = new Cliente(i, http, base, ids, Operacao.pesos(parametros.get("mistura")),
+                    Integer.parseInt(parametros.get("linhas-upload")), medicao);
+            Thread thread = new Thread(cliente, "carga-" + i);
+            clientes.add(cliente);
+            threads.add(thread);
+            thread.start();
+        }
+
+        System.out.println("Aquecimento por " + aquecimento);
+        Thread.sleep(aquecimento.toMillis());
+        medicao.descartar();
+        long eventosAquecimento = eventosRecebidos.sum();
+        long resetsAquecimento = resets.sum();
+        long inicio = System.nanoTime();
+        System.out.println("Medição por " + duracao);
+        Thread.sleep(duracao.toMillis());
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        List<ResultadoCarga.ResultadoOperacao> operacoes = medicao.resultado(segundos);
+        ResultadoCarga resultado = new ResultadoCarga(parametros, segundos, operacoes,
+                eventosRecebidos.sum() - eventosAquecimento, resets.sum() - resetsAquecimento);
+
+        for (Cliente cliente : clientes) {
+            cliente.encerrar();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return resultado;
+    }
+
+    private int comparar(ResultadoCarga resultado, ResultadoCarga baseline) {
+        if (!parametrosComparaveis(resultado.parametros()).equals(parametrosComparaveis(baseline.parametros()))) {
+            System.out.println("Aviso: parâmetros diferentes dos da baseline " + baseline.parametros());
+        }
+        List<String> regressoes = resultado.regressoes(baseline, Double.parseDouble(parametros.get("tolerancia")),
+                Double.parseDouble(parametros.get("tolerancia-erros")));
+        if (regressoes.isEmpty()) {
+            System.out.println("Nenhuma regressão em relação à baseline " + parametros.get("baseline"));
+            return 0;
+        }
+        System.out.println("Regressões em relação à baseline " + parametros.get("baseline") + ":");
+        regressoes.forEach(regressao -> System.out.println("  " + regressao));
+        return 1;
+    }
+
+    /**
+     * Parâmetros que determinam a carga, sem os da comparação com a baseline.
+     */
+    private static Map<String, String> parametrosComparaveis(Map<String, String> parametros) {
+        Map<String, String> comparaveis = new LinkedHashMap<>(parametros);
+        comparaveis.keySet().removeAll(List.of("resultado", "baseline", "tolerancia", "tolerancia-erros"));
+        return comparaveis;
+    }
+
+    private static void excluir(Path diretorio) throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(arquivo);
+            }
+        }
+    }
+}
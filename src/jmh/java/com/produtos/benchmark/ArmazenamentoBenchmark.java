@@ -0,0 +1,139 @@
+package com.produtos.benchmark;
+
+import com.produtos.Application;
+import com.produtos.model.ProdutoModel;
+import com.produtos.repository.ArmazenamentoProdutos;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Latência das leituras e gravações de um produto no armazenamento JPA e no armazenamento em log
+ * ({@code produtos.armazenamento}), com {@code produtos} produtos já gravados. Cada operação é uma chamada ao
+ * {@link ArmazenamentoProdutos} da aplicação, iniciada sem o servidor web; o modo {@code SampleTime} registra a
+ * distribuição dos tempos (p50, p99, ...).
+ * <p>
+ * O JPA usa por padrão o mesmo PostgreSQL da aplicação, cuja tabela de produtos é recriada como na inicialização da
+ * aplicação; o log é gravado num diretório temporário. Para outro banco ou outro volume:
+ * {@code -Djmh.args="-p url=jdbc:postgresql://host:5432/db -p produtos=1000000 ArmazenamentoBenchmark"}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ArmazenamentoBenchmark {
+
+    @Param({"jpa", "log"})
+    public String armazenamento;
+
+    @Param({"100000"})
+    public int produtos;
+
+    @Param({"jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true"})
+    public String url;
+
+    @Param({"postgres"})
+    public String usuario;
+
+    @Param({"postgres"})
+    public String senha;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ArmazenamentoProdutos armazenamentoProdutos;
+
+    private Path diretorio;
+
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        diretorio = Files.createTempDirectory("armazenamento-benchmark");
+        SpringApplicationBuilder aplicacao = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("produtos.armazenamento.log.diretorio=" + diretorio,
+                        "spring.datasource.url=" + url,
+                        "spring.datasource.username=" + usuario,
+                        "spring.datasource.password=" + senha,
+                        // O driver é escolhido pela URL
+                        "spring.datasource.driver-class-name=",
+                        "logging.level.com.produtos=WARN");
+        if ("log".equals(armazenamento)) {
+            aplicacao.profiles("embarcado");
+        }
+        contexto = aplicacao.run();
+        armazenamentoProdutos = contexto.getBean(ArmazenamentoProdutos.class);
+
+        ids = new UUID[produtos];
+        int gravados = 0;
+        List<ProdutoModel> lote = new ArrayList<>(1000);
+        for (int i = 0; i < produtos; i++) {
+            lote.add(produto(i));
+            if (lote.size() == 1000 || i == produtos - 1) {
+                for (ProdutoModel produto : armazenamentoProdutos.salvarTodos(lote)) {
+                    ids[gravados++] = produto.getId();
+                }
+                lote.clear();
+            }
+        }
+    }
+
+    private static ProdutoModel produto(int i) {
+        return new ProdutoModel(null, "Produto " + i, new BigDecimal("10.50"), "Descrição do produto " + i, 10L,
+                new BigDecimal("1.250"));
+    }
+
+    private UUID idAleatorio() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public ProdutoModel ler() {
+        return armazenamentoProdutos.buscarPorId(idAleatorio()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<ProdutoModel> lerPagina() {
+        return armazenamentoProdutos.buscarPrimeiraPagina(50);
+    }
+
+    @Benchmark
+    public int atualizar() {
+        return armazenamentoProdutos.atualizar(idAleatorio(), "Produto atualizado", new BigDecimal("20.00"), null, 5L, null);
+    }
+
+    @Benchmark
+    public int ajustarEstoque() {
+        return armazenamentoProdutos.ajustarEstoque(idAleatorio(), 1);
+    }
+
+    @Benchmark
+    public ProdutoModel inserir() {
+        return armazenamentoProdutos.salvar(produto(ThreadLocalRandom.current().nextInt()));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        contexto.close();
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(arquivo);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.produtos.benchmark;
+
+import com.opencsv.CSVReader;
+import com.produtos.service.ImportacaoCsv;
+import com.produtos.service.LeitorCsvParalelo;
+import com.produtos.service.ProdutoCsvMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura de um arquivo CSV de {@code linhas} produtos, sem a gravação: {@code sequencial} é o {@link CSVReader}
+ * usado em {@code ProdutoService.importarCsv(Reader, ...)} e {@code paralelo} é o {@link LeitorCsvParalelo} com
+ * {@code threads} threads. O resultado é o tempo para ler o arquivo inteiro.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LeitorCsvParaleloBenchmark {
+
+    @Param({"1000000"})
+    public int linhas;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Path arquivo;
+
+    private LeitorCsvParalelo leitor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        arquivo = Files.createTempFile("produtos-benchmark-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            writer.write("nome,valor,descricao,quantidade_estoque,peso\n");
+            for (int i = 0; i < linhas; i++) {
+                String descricao = i % 10 == 0 ? "\"Descricao, com virgula\ne quebra de linha\"" : "Descricao do produto " + i;
+                writer.write("Produto " + i + "," + i + ".90," + descricao + "," + i + ",1.250\n");
+            }
+        }
+        leitor = new LeitorCsvParalelo();
+        ReflectionTestUtils.setField(leitor, "threads", threads);
+        ReflectionTestUtils.setField(leitor, "tamanhoBloco", DataSize.ofMegabytes(8));
+        ReflectionTestUtils.invokeMethod(leitor, "iniciar");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ReflectionTestUtils.invokeMethod(leitor, "encerrar");
+        Files.deleteIfExists(arquivo);
+    }
+
+    @Benchmark
+    public void sequencial(Blackhole blackhole) throws Exception {
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8);
+             CSVReader csvReader = new CSVReader(reader)) {
+            ProdutoCsvMapper mapper = ProdutoCsvMapper.fromHeader(csvReader.readNext());
+            String[] linha;
+            while ((linha = csvReader.readNext()) != null) {
+                blackhole.consume(mapper.toProduto(linha));
+            }
+        }
+    }
+
+    @Benchmark
+    public void paralelo(Blackhole blackhole) throws Exception {
+        leitor.ler(arquivo, 1000, new ImportacaoCsv(false), blackhole::consume);
+    }
+}
@@ -0,0 +1,43 @@
+package com.produtos.benchmark;
+
+import com.produtos.model.DTO.ProdutoModelDTO;
+import com.produtos.model.ProdutoModel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cópia de um {@link ProdutoModelDTO} para um {@link ProdutoModel}, feita na criação e atualização de produtos.
+ * {@code setters} é a referência de uma cópia escrita à mão.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoCopiaBenchmark {
+
+    private final ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto", new BigDecimal("10.90"), "Descricao",
+            5L, new BigDecimal("1.250"));
+
+    @Benchmark
+    public ProdutoModel copyProperties() {
+        ProdutoModel produto = new ProdutoModel();
+        BeanUtils.copyProperties(produtoDTO, produto);
+        return produto;
+    }
+
+    @Benchmark
+    public ProdutoModel setters() {
+        ProdutoModel produto = new ProdutoModel();
+        produto.setNome(produtoDTO.nome());
+        produto.setValor(produtoDTO.valor());
+        produto.setDescricao(produtoDTO.descricao());
+        produto.setQuantidade_estoque(produtoDTO.quantidade_estoque());
+        produto.setPeso(produtoDTO.peso());
+        return produto;
+    }
+}
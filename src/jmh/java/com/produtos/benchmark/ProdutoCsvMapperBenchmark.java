@@ -0,0 +1,71 @@
+package com.produtos.benchmark;
+
+import com.opencsv.CSVReader;
+import com.produtos.model.ProdutoModel;
+import com.produtos.service.ProdutoCsvMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão das linhas de um arquivo CSV em {@link ProdutoModel}, como feito na importação de produtos.
+ * O resultado é o tempo médio por linha.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoCsvMapperBenchmark {
+
+    private static final int LINHAS = 10_000;
+
+    private static final String[] HEADER = {"nome", "valor", "descricao", "quantidade_estoque", "peso"};
+
+    private ProdutoCsvMapper mapper;
+
+    private String[][] linhas;
+
+    private String arquivo;
+
+    @Setup
+    public void setUp() {
+        mapper = ProdutoCsvMapper.fromHeader(HEADER);
+        linhas = new String[LINHAS][];
+        StringBuilder csv = new StringBuilder(String.join(",", HEADER)).append('\n');
+        for (int i = 0; i < LINHAS; i++) {
+            linhas[i] = new String[]{"Produto " + i, i + ".90", "Descricao do produto " + i, String.valueOf(i), "1.250"};
+            csv.append(String.join(",", linhas[i])).append('\n');
+        }
+        arquivo = csv.toString();
+    }
+
+    /**
+     * Apenas o mapeamento de colunas já separadas para o produto.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void toProduto(Blackhole blackhole) {
+        for (String[] linha : linhas) {
+            blackhole.consume(mapper.toProduto(linha));
+        }
+    }
+
+    /**
+     * Leitura do arquivo com o {@link CSVReader} seguida do mapeamento, como em {@code ProdutoService.importarCsv}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void lerEMapear(Blackhole blackhole) throws Exception {
+        try (CSVReader reader = new CSVReader(new StringReader(arquivo))) {
+            ProdutoCsvMapper mapperArquivo = ProdutoCsvMapper.fromHeader(reader.readNext());
+            String[] linha;
+            while ((linha = reader.readNext()) != null) {
+                blackhole.consume(mapperArquivo.toProduto(linha));
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.produtos.benchmark;
+
+import com.produtos.controller.ProdutoController;
+import com.produtos.controller.ProdutoLinks;
+import com.produtos.model.ProdutoModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Custo de adicionar o link {@code self} aos produtos de uma página da listagem.
+ * O resultado é o tempo médio por página; dividido por {@code tamanho} dá o custo por produto.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoLinksBenchmark {
+
+    @Param({"50", "500"})
+    int tamanho;
+
+    private final ProdutoLinks produtoLinks = new ProdutoLinks();
+
+    private List<ProdutoModel> produtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/produtos");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        produtos = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            produtos.add(new ProdutoModel(UUID.randomUUID(), "Produto " + i, BigDecimal.TEN, "Descricao", 1L, BigDecimal.ONE));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void removerLinks() {
+        produtos.forEach(ProdutoModel::removeLinks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public void linkToMethodOn(Blackhole blackhole) {
+        for (ProdutoModel produto : produtos) {
+            produto.add(linkTo(methodOn(ProdutoController.class).getProduto(produto.getId())).withSelfRel());
+        }
+        blackhole.consume(produtos);
+    }
+
+    @Benchmark
+    public void produtoLinks(Blackhole blackhole) {
+        ProdutoLinks.Base links = produtoLinks.base();
+        for (ProdutoModel produto : produtos) {
+            produto.add(links.produto(produto.getId()));
+        }
+        blackhole.consume(produtos);
+    }
+}
@@ -0,0 +1,53 @@
+package com.produtos.benchmark;
+
+import com.produtos.model.ProdutoModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ordenação de listas grandes de produtos com {@link ProdutoModel#compareTo(ProdutoModel)}.
+ * O resultado é o tempo médio para ordenar a lista inteira.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoOrdenacaoBenchmark {
+
+    @Param({"10000", "100000"})
+    int tamanho;
+
+    private List<ProdutoModel> embaralhados;
+
+    private List<ProdutoModel> produtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        embaralhados = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            embaralhados.add(new ProdutoModel(UUID.randomUUID(), "Produto " + random.nextInt(tamanho),
+                    BigDecimal.TEN, "Descricao", 1L, BigDecimal.ONE));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copiar() {
+        produtos = new ArrayList<>(embaralhados);
+    }
+
+    @Benchmark
+    public List<ProdutoModel> sort() {
+        Collections.sort(produtos);
+        return produtos;
+    }
+}
@@ -0,0 +1,104 @@
+package com.produtos.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.produtos.model.DTO.PaginaProdutosSimplesDTO;
+import com.produtos.model.ProdutoModel;
+import com.produtos.service.ProdutoSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialização de uma página com {@code produtos} produtos em cada representação negociada por
+ * {@code GET /api/produtos}: {@code hal} é a listagem padrão, um {@code CollectionModel<ProdutoModel>} em HAL com o
+ * link de cada produto; {@code json} é a representação sem links ({@code application/vnd.produtos.simples+json}); e
+ * {@code cbor} e {@code smile} são a mesma representação em formato binário. Com {@code compressao=gzip}, a saída é
+ * comprimida com o nível padrão do gzip, o mesmo da compressão das respostas pelo Tomcat. O tamanho de cada
+ * representação é impresso ao fim do setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepresentacaoBenchmark {
+
+    private static final String BASE = "http://localhost:8080/api/produtos";
+
+    @Param({"hal", "json", "cbor", "smile"})
+    public String formato;
+
+    @Param({"nenhuma", "gzip"})
+    public String compressao;
+
+    @Param({"10000"})
+    public int produtos;
+
+    private ObjectMapper mapper;
+
+    private Object pagina;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<ProdutoModel> lista = new ArrayList<>(produtos);
+        for (int i = 0; i < produtos; i++) {
+            lista.add(new ProdutoModel(UUID.randomUUID(), "Produto " + i, new BigDecimal(i + ".90"),
+                    "Descricao do produto " + i, (long) i, new BigDecimal("1.250")));
+        }
+        List<ProdutoSnapshot> simples = lista.stream().map(ProdutoSnapshot::of).toList();
+        switch (formato) {
+            case "hal" -> {
+                mapper = Jackson2ObjectMapperBuilder.json()
+                        .modulesToInstall(new Jackson2HalModule())
+                        .handlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(new DefaultLinkRelationProvider(),
+                                CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY))
+                        .build();
+                for (ProdutoModel produto : lista) {
+                    produto.add(Link.of(BASE + "/" + produto.getId()));
+                }
+                pagina = CollectionModel.of(lista).add(Link.of(BASE + "?cursor=abc").withRel(IanaLinkRelations.NEXT));
+            }
+            case "json" -> {
+                mapper = Jackson2ObjectMapperBuilder.json().build();
+                pagina = new PaginaProdutosSimplesDTO(simples, "abc");
+            }
+            case "cbor" -> {
+                mapper = Jackson2ObjectMapperBuilder.cbor().build();
+                pagina = new PaginaProdutosSimplesDTO(simples, "abc");
+            }
+            case "smile" -> {
+                mapper = Jackson2ObjectMapperBuilder.smile().build();
+                pagina = new PaginaProdutosSimplesDTO(simples, "abc");
+            }
+            default -> throw new IllegalArgumentException("Formato desconhecido: " + formato);
+        }
+        System.out.println();
+        System.out.println(formato + " (" + compressao + "): " + serializar().length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(256 * 1024);
+        OutputStream destino = "gzip".equals(compressao) ? new GZIPOutputStream(saida, 8192) : saida;
+        // Fecha o destino, o que conclui a compressão
+        mapper.writeValue(destino, pagina);
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,35 @@
+package com.produtos.benchmark;
+
+import com.produtos.model.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de gerar um identificador de produto com {@link UuidV7Generator} e com {@link UUID#randomUUID()}, usado antes
+ * pelo {@code @GeneratedValue}. {@code Threads.MAX} mede a disputa pelo contador compartilhado do UUID v7.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidBenchmark {
+
+    @Benchmark
+    public UUID aleatorio() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID v7() {
+        return UuidV7Generator.gerar();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public UUID v7Concorrente() {
+        return UuidV7Generator.gerar();
+    }
+}
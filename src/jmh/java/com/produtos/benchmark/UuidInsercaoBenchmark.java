@@ -0,0 +1,115 @@
+package com.produtos.benchmark;
+
+import com.produtos.model.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Inserção em lote de {@code linhas} registros numa tabela com chave primária UUID, com identificadores aleatórios
+ * (versão 4) e ordenados pelo tempo (versão 7). Cada execução parte de uma tabela vazia; o tempo medido é o da carga
+ * completa, e ao final de cada iteração são impressos as linhas por segundo e o tamanho do índice da chave primária.
+ * <p>
+ * Usa por padrão o mesmo PostgreSQL da aplicação. Para outro banco ou outro volume:
+ * {@code -Djmh.args="-p url=jdbc:postgresql://host:5432/db -p linhas=1000000 UuidInsercaoBenchmark"}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class UuidInsercaoBenchmark {
+
+    private static final String TABELA = "uuid_benchmark";
+
+    @Param({"aleatorio", "v7"})
+    public String tipo;
+
+    @Param({"10000000"})
+    public int linhas;
+
+    @Param({"1000"})
+    public int lote;
+
+    @Param({"jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true"})
+    public String url;
+
+    @Param({"postgres"})
+    public String usuario;
+
+    @Param({"postgres"})
+    public String senha;
+
+    private Connection conexao;
+
+    private Supplier<UUID> gerador;
+
+    private long inicio;
+
+    @Setup(Level.Trial)
+    public void conectar() throws SQLException {
+        conexao = DriverManager.getConnection(url, usuario, senha);
+        conexao.setAutoCommit(false);
+        gerador = "v7".equals(tipo) ? UuidV7Generator::gerar : UUID::randomUUID;
+    }
+
+    @Setup(Level.Iteration)
+    public void recriarTabela() throws SQLException {
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABELA);
+            statement.execute("CREATE TABLE " + TABELA + " (id uuid PRIMARY KEY, nome varchar(255))");
+        }
+        conexao.commit();
+        inicio = System.nanoTime();
+    }
+
+    @Benchmark
+    public void inserir() throws SQLException {
+        try (PreparedStatement insert = conexao.prepareStatement("INSERT INTO " + TABELA + " (id, nome) VALUES (?, ?)")) {
+            for (int i = 1; i <= linhas; i++) {
+                insert.setObject(1, gerador.get());
+                insert.setString(2, "Produto " + i);
+                insert.addBatch();
+                if (i % lote == 0 || i == linhas) {
+                    insert.executeBatch();
+                    conexao.commit();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void relatar() throws SQLException {
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        String relatorio = String.format("%n%s: %.0f linhas/s", tipo, linhas / segundos);
+        if (conexao.getMetaData().getDatabaseProductName().equals("PostgreSQL")) {
+            try (Statement statement = conexao.createStatement();
+                 ResultSet resultado = statement.executeQuery("SELECT pg_relation_size('" + TABELA + "_pkey'), "
+                         + "pg_size_pretty(pg_relation_size('" + TABELA + "_pkey'))")) {
+                resultado.next();
+                relatorio += String.format(", índice da chave primária: %s (%d bytes)", resultado.getString(2),
+                        resultado.getLong(1));
+            }
+            conexao.commit();
+        }
+        System.out.println(relatorio);
+    }
+
+    @TearDown(Level.Trial)
+    public void desconectar() throws SQLException {
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABELA);
+        }
+        conexao.commit();
+        conexao.close();
+    }
+}
@@ -0,0 +1,12 @@
+package com.produtos.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas periódicas ({@code @Scheduled}), como a gravação dos ajustes de estoque acumulados.
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
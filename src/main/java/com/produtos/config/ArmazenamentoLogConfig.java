@@ -0,0 +1,44 @@
+package com.produtos.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Configuração do armazenamento em log ({@code produtos.armazenamento=log}), usado sem banco de dados.
+ */
+@Configuration
+@ConditionalOnProperty(name = "produtos.armazenamento", havingValue = "log")
+public class ArmazenamentoLogConfig {
+
+    /**
+     * O log aplica cada gravação imediatamente e não possui transações. Este gerenciador não faz nada, e permite que
+     * os serviços continuem demarcando transações com {@code @Transactional} e {@code TransactionTemplate}.
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new AbstractPlatformTransactionManager() {
+
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+    }
+}
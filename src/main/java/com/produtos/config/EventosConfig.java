@@ -0,0 +1,33 @@
+package com.produtos.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+
+@Configuration
+public class EventosConfig {
+
+    /**
+     * Executor das transmissões de eventos de produtos, com uma thread por assinante conectado.
+     * Não possui fila: quando todas as threads estão ocupadas novos assinantes são recusados.
+     * As threads são criadas pela {@link ThreadFactory} {@code eventosThreadFactory}, quando existir.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor eventosExecutor(@Value("${produtos.eventos.assinantes-maximo:100}") int assinantes,
+                                                  @Qualifier("eventosThreadFactory") ObjectProvider<ThreadFactory> eventosThreadFactory) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(assinantes);
+        executor.setMaxPoolSize(assinantes);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("eventos-produtos-");
+        eventosThreadFactory.ifAvailable(executor::setThreadFactory);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
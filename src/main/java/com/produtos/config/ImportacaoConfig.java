@@ -0,0 +1,34 @@
+package com.produtos.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+
+@Configuration
+public class ImportacaoConfig {
+
+    /**
+     * Executor responsável pelas importações assíncronas de arquivos CSV.
+     * Possui um número fixo de threads e uma fila limitada; quando a fila está cheia novas importações são recusadas.
+     * As threads são criadas pela {@link ThreadFactory} {@code importacaoThreadFactory}, quando existir.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor importacaoExecutor(@Value("${produtos.csv.jobs.threads:2}") int threads,
+                                                     @Value("${produtos.csv.jobs.fila:10}") int fila,
+                                                     @Qualifier("importacaoThreadFactory") ObjectProvider<ThreadFactory> importacaoThreadFactory) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("importacao-csv-");
+        importacaoThreadFactory.ifAvailable(executor::setThreadFactory);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,94 @@
+package com.produtos.controller;
+
+import com.produtos.model.DTO.ImportacaoCsvDTO;
+import com.produtos.service.ImportacaoCsv;
+import com.produtos.service.ImportacaoCsvService;
+import com.produtos.service.ImportacaoRecusadaException;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping("/api/produtos/importacoes")
+@AllArgsConstructor
+public class ImportacaoController {
+
+    @Autowired
+    ImportacaoCsvService importacaoCsvService;
+
+    /**
+     * Agenda a importação assíncrona de um arquivo CSV contendo dados de produtos.
+     *
+     * @param file   Arquivo CSV a ser importado.
+     * @param upsert Se {@code true}, atualiza os produtos já existentes com a mesma chave natural em vez de
+     *               duplicá-los e ignora um arquivo idêntico a um já importado.
+     * @return ResponseEntity contendo a importação agendada.
+     *         - Retorna status 202 Accepted e o endereço da importação no header Location.
+     *         - Retorna status 409 Conflict se {@code upsert} for {@code true} e o banco de dados não possuir o
+     *           índice único da chave natural.
+     *         - Retorna status 429 Too Many Requests, com o header Retry-After, se o limite de importações pendentes
+     *           for atingido.
+     * @throws IOException Exceção lançada caso ocorra um erro ao gravar o arquivo em disco.
+     */
+    @PostMapping
+    public ResponseEntity<ImportacaoCsvDTO> postImportacao(@RequestParam("file") MultipartFile file,
+                                                           @RequestParam(value = "upsert", defaultValue = "false") boolean upsert) throws IOException {
+        ImportacaoCsv importacao;
+        try {
+            importacao = importacaoCsvService.agendarImportacao(file, upsert);
+        } catch (ImportacaoRecusadaException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getTentarNovamente().toSeconds()))
+                    .build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted()
+                .location(linkTo(methodOn(ImportacaoController.class).getImportacao(importacao.getId())).toUri())
+                .body(ImportacaoCsvDTO.of(importacao));
+    }
+
+    /**
+     * Obtém o andamento de uma importação.
+     *
+     * @param id ID da importação.
+     * @return ResponseEntity contendo o andamento da importação.
+     *         - Retorna status 200 OK se a importação for encontrada.
+     *         - Retorna status 404 Not Found se a importação não for encontrada.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportacaoCsvDTO> getImportacao(@PathVariable("id") UUID id) {
+        ImportacaoCsv importacao = importacaoCsvService.getImportacao(id);
+        if (importacao == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ImportacaoCsvDTO.of(importacao));
+    }
+
+    /**
+     * Cancela uma importação pendente ou em andamento. Os lotes já gravados são mantidos.
+     *
+     * @param id ID da importação.
+     * @return ResponseEntity contendo o andamento da importação.
+     *         - Retorna status 202 Accepted se o cancelamento for solicitado.
+     *         - Retorna status 404 Not Found se a importação não for encontrada.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ImportacaoCsvDTO> deleteImportacao(@PathVariable("id") UUID id) {
+        ImportacaoCsv importacao = importacaoCsvService.cancelarImportacao(id);
+        if (importacao == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.accepted().body(ImportacaoCsvDTO.of(importacao));
+    }
+}
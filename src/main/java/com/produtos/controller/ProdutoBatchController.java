@@ -0,0 +1,55 @@
+package com.produtos.controller;
+
+import com.produtos.model.DTO.OperacaoDTO;
+import com.produtos.model.DTO.ResultadoOperacaoDTO;
+import com.produtos.service.ProdutoBatchService;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/produtos/batch")
+@AllArgsConstructor
+public class ProdutoBatchController {
+
+    @Autowired
+    ProdutoBatchService produtoBatchService;
+
+    /**
+     * Executa um lote de criações, alterações e exclusões de produtos.
+     *
+     * @param operacoes Operações a serem executadas, na ordem em que devem ser aplicadas.
+     * @param atomico   Se {@code true}, o lote só é aplicado se todas as operações forem bem-sucedidas; caso
+     *                  contrário cada operação é aplicada ou recusada individualmente.
+     * @return ResponseEntity contendo o resultado de cada operação, na mesma ordem do lote.
+     *         - Retorna status 200 OK se todas as operações forem aplicadas.
+     *         - Retorna status 207 Multi-Status se, no modo individual, alguma operação falhar.
+     *         - Retorna status 400 Bad Request se o lote exceder a quantidade máxima de operações.
+     *         - Retorna status 409 Conflict se, no modo atômico, o banco de dados recusar o lote por violar o índice
+     *           único da chave natural.
+     *         - Retorna status 422 Unprocessable Entity se, no modo atômico, alguma outra operação falhar.
+     */
+    @PostMapping
+    public ResponseEntity<List<ResultadoOperacaoDTO>> postBatch(@RequestBody List<OperacaoDTO> operacoes,
+                                                                @RequestParam(value = "atomico", defaultValue = "true") boolean atomico) {
+        List<ResultadoOperacaoDTO> resultados;
+        try {
+            resultados = produtoBatchService.executar(operacoes, atomico);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean falhou = resultados.stream().anyMatch(resultado -> resultado.erro() != null);
+        if (!falhou) {
+            return ResponseEntity.ok(resultados);
+        }
+        if (!atomico) {
+            return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(resultados);
+        }
+        boolean conflito = resultados.stream().anyMatch(resultado -> resultado.status() == HttpStatus.CONFLICT.value());
+        return ResponseEntity.status(conflito ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY).body(resultados);
+    }
+}
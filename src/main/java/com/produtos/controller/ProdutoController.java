@@ -1,30 +1,75 @@
 package com.produtos.controller;
 
+import com.produtos.model.DTO.AjusteEstoqueDTO;
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.model.DTO.FiltroBuscaDTO;
+import com.produtos.model.DTO.ImportacaoCsvDTO;
+import com.produtos.model.DTO.PaginaProdutosDTO;
+import com.produtos.model.DTO.PaginaProdutosSimplesDTO;
+import com.produtos.model.DTO.ProdutoCacheDTO;
 import com.produtos.model.DTO.ProdutoModelDTO;
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.DTO.ResultadoBuscaDTO;
 import com.produtos.model.ProdutoModel;
+import com.produtos.service.ImportacaoRecusadaException;
+import com.produtos.service.ProdutoEventos;
 import com.produtos.service.ProdutoService;
+import com.produtos.service.ProdutoSnapshot;
 import com.opencsv.exceptions.CsvValidationException;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.util.List;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
 @RequestMapping("/api/produtos")
 @AllArgsConstructor
 public class ProdutoController {
 
+    static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    static final MediaType MEDIA_TYPE_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    /**
+     * Representação dos produtos sem links, para clientes que não navegam pelos links HATEOAS.
+     */
+    static final String MEDIA_TYPE_SIMPLES = "application/vnd.produtos.simples+json";
+
+    /**
+     * Representações binárias dos produtos sem links, menores e mais rápidas de gerar que o JSON.
+     */
+    static final String MEDIA_TYPE_CBOR = "application/cbor";
+
+    static final String MEDIA_TYPE_SMILE = "application/x-jackson-smile";
+
     @Autowired
     ProdutoService produtoService;
 
+    @Autowired
+    ProdutoEventos produtoEventos;
+
     /**
      * Obtém um produto pelo seu ID.
      *
@@ -43,49 +88,265 @@ public class ProdutoController {
     }
 
     /**
-     * Obtém todos os produtos.
+     * Obtém um produto pelo seu ID, sem links.
+     * Selecionado quando o cliente envia o header {@code Accept: application/vnd.produtos.simples+json}, ou
+     * {@code application/cbor} ou {@code application/x-jackson-smile} para a mesma representação em formato binário.
      *
-     * @return ResponseEntity contendo a lista de produtos.
-     *         - Retorna status 200 OK se existirem produtos cadastrados.
-     *         - Retorna status 404 Not Found se não existirem produtos cadastrados.
+     * @param id ID do produto a ser obtido.
+     * @return ResponseEntity contendo o produto encontrado.
+     *         - Retorna status 200 OK se o produto for encontrado.
+     *         - Retorna status 404 Not Found se o produto não for encontrado.
+     */
+    @GetMapping(value = "/{id}", produces = {MEDIA_TYPE_SIMPLES, MEDIA_TYPE_CBOR, MEDIA_TYPE_SMILE})
+    public ResponseEntity<ProdutoSnapshot> getProdutoSimples(@PathVariable("id") UUID id) {
+        ProdutoModel produto = produtoService.getProduto(id, false);
+        if (produto == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ProdutoSnapshot.of(produto));
+    }
+
+    /**
+     * Obtém uma página da listagem de produtos, ordenada por nome e ID.
+     *
+     * @param cursor  Token da página a ser obtida, retornado no link "next" da página anterior.
+     * @param tamanho Quantidade de produtos por página.
+     * @return ResponseEntity contendo os produtos da página e o link para a próxima página, se houver.
+     *         - Retorna status 200 OK se existirem produtos na página.
+     *         - Retorna status 400 Bad Request se o cursor for inválido.
+     *         - Retorna status 404 Not Found se não existirem produtos na página.
      */
     @GetMapping
-    public ResponseEntity<List<ProdutoModel>> getProdutos() {
-        List<ProdutoModel> produtos = produtoService.getProdutos();
-        if (produtos.isEmpty()) {
+    public ResponseEntity<CollectionModel<ProdutoModel>> getProdutos(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                    @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        PaginaProdutosDTO pagina;
+        try {
+            pagina = produtoService.getProdutos(cursor, tamanho);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (pagina.produtos().isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        CollectionModel<ProdutoModel> produtos = CollectionModel.of(pagina.produtos());
+        if (pagina.proximoCursor() != null) {
+            produtos.add(linkTo(methodOn(ProdutoController.class).getProdutos(pagina.proximoCursor(), pagina.tamanho()))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
         return ResponseEntity.ok(produtos);
     }
 
+    /**
+     * Obtém uma página da listagem de produtos, sem links.
+     * Selecionado quando o cliente envia o header {@code Accept: application/vnd.produtos.simples+json}, ou
+     * {@code application/cbor} ou {@code application/x-jackson-smile} para a mesma representação em formato binário.
+     *
+     * @param cursor  Token da página a ser obtida, retornado no campo "proximoCursor" da página anterior.
+     * @param tamanho Quantidade de produtos por página.
+     * @return ResponseEntity contendo os produtos da página e o token da próxima página, se houver.
+     *         - Retorna status 200 OK se existirem produtos na página.
+     *         - Retorna status 400 Bad Request se o cursor for inválido.
+     *         - Retorna status 404 Not Found se não existirem produtos na página.
+     */
+    @GetMapping(produces = {MEDIA_TYPE_SIMPLES, MEDIA_TYPE_CBOR, MEDIA_TYPE_SMILE})
+    public ResponseEntity<PaginaProdutosSimplesDTO> getProdutosSimples(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                       @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        PaginaProdutosDTO pagina;
+        try {
+            pagina = produtoService.getProdutos(cursor, tamanho, false);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (pagina.produtos().isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(PaginaProdutosSimplesDTO.of(pagina));
+    }
+
+    /**
+     * Busca produtos por nome, descrição, valor e quantidade em estoque.
+     *
+     * @param prefixo    Início do nome do produto.
+     * @param texto      Trecho contido no nome ou na descrição do produto.
+     * @param valorMin   Menor valor aceito.
+     * @param valorMax   Maior valor aceito.
+     * @param estoqueMin Menor quantidade em estoque aceita.
+     * @param estoqueMax Maior quantidade em estoque aceita.
+     * @param pagina     Número da página, iniciando em zero.
+     * @param tamanho    Quantidade de produtos por página.
+     * @return ResponseEntity contendo os produtos encontrados, do mais para o menos relevante.
+     *         - Retorna status 200 OK.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ResultadoBuscaDTO> searchProdutos(@RequestParam(value = "prefixo", required = false) String prefixo,
+                                                            @RequestParam(value = "texto", required = false) String texto,
+                                                            @RequestParam(value = "valorMin", required = false) BigDecimal valorMin,
+                                                            @RequestParam(value = "valorMax", required = false) BigDecimal valorMax,
+                                                            @RequestParam(value = "estoqueMin", required = false) Long estoqueMin,
+                                                            @RequestParam(value = "estoqueMax", required = false) Long estoqueMax,
+                                                            @RequestParam(value = "pagina", defaultValue = "0") int pagina,
+                                                            @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        FiltroBuscaDTO filtro = new FiltroBuscaDTO(prefixo, texto, valorMin, valorMax, estoqueMin, estoqueMax);
+        return ResponseEntity.ok(produtoService.buscarProdutos(filtro, pagina, tamanho));
+    }
+
+    /**
+     * Transmite todos os produtos, ordenados por nome e ID, no formato NDJSON (um objeto JSON por linha).
+     * Selecionado quando o cliente envia o header {@code Accept: application/x-ndjson}.
+     *
+     * @return ResponseEntity cujo corpo é escrito à medida que os produtos são lidos do banco de dados.
+     *         - Retorna status 200 OK.
+     */
+    @GetMapping(produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> getProdutosNdjson() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .body(produtoService::escreverProdutosNdjson);
+    }
+
+    /**
+     * Exporta todos os produtos, ordenados por nome e ID, em um arquivo CSV no mesmo formato aceito por
+     * {@code POST /api/produtos/upload}. O arquivo é escrito à medida que os produtos são lidos do banco de dados
+     * e, se o cliente aceitar, comprimido com gzip.
+     *
+     * @param acceptEncoding Header {@code Accept-Encoding} da requisição.
+     * @return ResponseEntity cujo corpo é o arquivo CSV.
+     *         - Retorna status 200 OK.
+     */
+    @GetMapping("/export.csv")
+    public ResponseEntity<StreamingResponseBody> getProdutosCsv(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(MEDIA_TYPE_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("produtos.csv").build().toString())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (!aceitaGzip(acceptEncoding)) {
+            return resposta.body(produtoService::escreverProdutosCsv);
+        }
+        return resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(outputStream -> {
+                    GZIPOutputStream gzip = new GZIPOutputStream(outputStream, 8192);
+                    produtoService.escreverProdutosCsv(gzip);
+                    gzip.finish();
+                });
+    }
+
+    /**
+     * Transmite as alterações de produtos (criações, atualizações e exclusões) por Server-Sent Events, à medida que
+     * ocorrem. Cada evento tem como ID sua sequência; um cliente que se reconecta com o header {@code Last-Event-ID},
+     * ou com o parâmetro {@code desde}, recebe os eventos posteriores, se ainda estiverem no buffer de retomada.
+     * Caso contrário recebe um evento {@code RESET} e deve recarregar a listagem de produtos.
+     *
+     * @param ultimoEvento Header {@code Last-Event-ID}, enviado automaticamente pelos clientes SSE na reconexão.
+     * @param desde        Sequência do último evento recebido; tem precedência sobre o header.
+     * @return ResponseEntity cujo corpo transmite os eventos.
+     *         - Retorna status 200 OK.
+     *         - Retorna status 503 Service Unavailable se o limite de assinantes simultâneos for atingido.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getAlteracoes(@RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento,
+                                                    @RequestParam(value = "desde", required = false) Long desde) {
+        try {
+            return ResponseEntity.ok(produtoEventos.assinar(desde != null ? desde : ultimoEvento));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    private static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacao : acceptEncoding.split(",")) {
+            String[] partes = codificacao.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtém as estatísticas do cache de produtos.
+     *
+     * @return ResponseEntity contendo a quantidade de entradas, acertos, falhas e remoções do cache.
+     *         - Retorna status 200 OK.
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<ProdutoCacheDTO> getCache() {
+        return ResponseEntity.ok(produtoService.getEstatisticasCache());
+    }
+
+    /**
+     * Obtém os totais do estoque de produtos. Os totais são mantidos em memória a cada alteração dos produtos e
+     * conferidos periodicamente com o banco de dados, de forma que a consulta não percorre os produtos.
+     *
+     * @return ResponseEntity contendo a quantidade de produtos, a quantidade de produtos sem estoque e as somas da
+     *         quantidade em estoque, do valor e do peso do estoque.
+     *         - Retorna status 200 OK.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<EstatisticasProdutosDTO> getEstatisticas() {
+        return ResponseEntity.ok(produtoService.getEstatisticas());
+    }
+
     /**
      * Cria um novo produto.
      *
      * @param produtoDTO Objeto contendo os dados do produto a ser criado.
      * @return ResponseEntity contendo o produto criado.
      *         - Retorna status 201 Created se o produto for criado com sucesso.
+     *         - Retorna status 409 Conflict se o banco de dados possuir o índice único da chave natural e já
+     *           existir um produto com a mesma chave.
      */
     @PostMapping
     public ResponseEntity<ProdutoModel> postProduto(@RequestBody @Valid ProdutoModelDTO produtoDTO) {
-        ProdutoModel produto = produtoService.createProduto(produtoDTO);
+        ProdutoModel produto;
+        try {
+            produto = produtoService.createProduto(produtoDTO);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(produto);
     }
 
     /**
      * Processa o upload de um arquivo CSV contendo dados de produtos.
      *
-     * @param file Arquivo CSV a ser processado.
+     * @param file   Arquivo CSV a ser processado.
+     * @param copy   Se {@code true}, carrega o arquivo com o COPY do PostgreSQL quando disponível.
+     * @param upsert Se {@code true}, atualiza os produtos já existentes com a mesma chave natural em vez de
+     *               duplicá-los e ignora um arquivo idêntico a um já importado; tem precedência sobre {@code copy}.
      * @return ResponseEntity indicando o sucesso do processamento.
-     *         - Retorna status 200 OK se o arquivo for processado com sucesso.
+     *         - Retorna status 200 OK se o arquivo for processado com sucesso; com {@code upsert}, o corpo contém
+     *           a quantidade de produtos inseridos, atualizados e inalterados, e o status {@code IGNORADA} se o
+     *           arquivo já havia sido importado.
+     *         - Retorna status 409 Conflict se {@code upsert} for {@code true} e o banco de dados não possuir o
+     *           índice único da chave natural.
+     *         - Retorna status 429 Too Many Requests, com o header Retry-After, se o limite de importações
+     *           simultâneas for atingido e nenhuma vaga for liberada a tempo.
      * @throws CsvValidationException      Exceção lançada caso ocorra um erro de validação do CSV.
      * @throws IOException                 Exceção lançada caso ocorra um erro de leitura do arquivo.
-     * @throws InvocationTargetException  Exceção lançada caso ocorra um erro na invocação do método.
-     * @throws IllegalAccessException     Exceção lançada caso ocorra um erro de acesso ilegal.
-     * @throws NoSuchMethodException        Exceção lançada caso ocorra um erro de método não encontrado.
+     * @throws SQLException                Exceção lançada caso o banco de dados recuse o conteúdo do arquivo.
      */
     @PostMapping("/upload")
-    public ResponseEntity<Void> postProdutosUpload(@RequestParam("file") MultipartFile file) throws CsvValidationException, IOException, InvocationTargetException, IllegalAccessException, NoSuchMethodException {
-        produtoService.processarArquivoCSV(file);
+    public ResponseEntity<ImportacaoCsvDTO> postProdutosUpload(@RequestParam("file") MultipartFile file,
+                                                               @RequestParam(value = "copy", defaultValue = "false") boolean copy,
+                                                               @RequestParam(value = "upsert", defaultValue = "false") boolean upsert) throws CsvValidationException, IOException, SQLException {
+        try {
+            if (upsert) {
+                try {
+                    produtoService.verificarImportacaoUpsert();
+                } catch (IllegalStateException e) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).build();
+                }
+                return ResponseEntity.ok(ImportacaoCsvDTO.of(produtoService.processarArquivoCSVUpsert(file)));
+            }
+            produtoService.processarArquivoCSV(file, copy);
+        } catch (ImportacaoRecusadaException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getTentarNovamente().toSeconds()))
+                    .build();
+        }
         return ResponseEntity.ok().build();
     }
 
@@ -114,11 +375,79 @@ public class ProdutoController {
      * @return ResponseEntity contendo o produto atualizado.
      *         - Retorna status 200 OK se o produto for atualizado com sucesso.
      *         - Retorna status 404 Not Found se o produto não for encontrado.
+     *         - Retorna status 409 Conflict se o banco de dados possuir o índice único da chave natural e já
+     *           existir outro produto com a mesma chave.
      */
     @PutMapping("/{id}")
     public ResponseEntity<ProdutoModel> putProduto(@PathVariable("id") UUID id,
                                                    @RequestBody @Valid ProdutoModelDTO produtoDTO) {
-        ProdutoModel produto = produtoService.updateProduto(id, produtoDTO);
+        ProdutoModel produto;
+        try {
+            produto = produtoService.updateProduto(id, produtoDTO);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        if (produto == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(produto);
+    }
+
+    /**
+     * Atualiza parcialmente um produto pelo seu ID. Apenas os campos informados são alterados.
+     *
+     * @param id          ID do produto a ser atualizado.
+     * @param produtoDTO  Objeto contendo os campos a serem alterados.
+     * @return ResponseEntity contendo o produto atualizado.
+     *         - Retorna status 200 OK se o produto for atualizado com sucesso.
+     *         - Retorna status 404 Not Found se o produto não for encontrado.
+     *         - Retorna status 409 Conflict se o banco de dados possuir o índice único da chave natural e já
+     *           existir outro produto com a mesma chave.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ProdutoModel> patchProduto(@PathVariable("id") UUID id,
+                                                     @RequestBody @Valid ProdutoPatchDTO produtoDTO) {
+        ProdutoModel produto;
+        try {
+            produto = produtoService.patchProduto(id, produtoDTO);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        if (produto == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(produto);
+    }
+
+    /**
+     * Soma uma quantidade ao estoque de um produto, de forma atômica.
+     *
+     * @param id       ID do produto.
+     * @param ajuste   Quantidade a ser somada ao estoque; negativa para retirar produtos.
+     * @param acumular Se {@code true}, o ajuste é acumulado em memória e gravado em lote posteriormente,
+     *                 para produtos com muitos ajustes simultâneos.
+     * @return ResponseEntity contendo o produto com o estoque atualizado.
+     *         - Retorna status 200 OK se o estoque for ajustado.
+     *         - Retorna status 202 Accepted se o ajuste for acumulado.
+     *         - Retorna status 404 Not Found se o produto não for encontrado.
+     *         - Retorna status 409 Conflict se o estoque resultante ficar negativo.
+     */
+    @PostMapping("/{id}/estoque")
+    public ResponseEntity<ProdutoModel> postEstoque(@PathVariable("id") UUID id,
+                                                    @RequestBody @Valid AjusteEstoqueDTO ajuste,
+                                                    @RequestParam(value = "acumular", defaultValue = "false") boolean acumular) {
+        if (acumular) {
+            if (!produtoService.acumularAjusteEstoque(id, ajuste.delta())) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.accepted().build();
+        }
+        ProdutoModel produto;
+        try {
+            produto = produtoService.ajustarEstoque(id, ajuste.delta());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         if (produto == null) {
             return ResponseEntity.notFound().build();
         }
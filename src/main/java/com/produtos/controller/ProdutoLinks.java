@@ -0,0 +1,56 @@
+package com.produtos.controller;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Monta os links dos produtos sem usar {@code linkTo(methodOn(...))} para cada item.
+ * <p>
+ * O endereço base do {@link ProdutoController} é resolvido uma vez por requisição, com {@link #base()}, e os
+ * links de cada produto são obtidos concatenando o ID a esse endereço. Os links gerados são iguais aos de
+ * {@code linkTo(methodOn(ProdutoController.class).getProduto(id))}.
+ */
+@Component
+public class ProdutoLinks {
+
+    static final LinkRelation LISTA_DE_PRODUTOS = LinkRelation.of("Lista de produtos");
+
+    /**
+     * Parâmetros de query de {@link ProdutoController#getProdutos(String, Integer)}, no formato de URI template.
+     */
+    private static final String PARAMETROS_LISTAGEM = "{?cursor,tamanho}";
+
+    /**
+     * Resolve o endereço base dos produtos (por exemplo {@code http://localhost:8080/api/produtos}) para a
+     * requisição atual.
+     */
+    public Base base() {
+        return new Base(linkTo(ProdutoController.class).toUri().toString());
+    }
+
+    /**
+     * Endereço base dos produtos de uma requisição.
+     */
+    public record Base(String href) {
+
+        /**
+         * Link {@code self} de um produto.
+         */
+        public Link produto(UUID id) {
+            return Link.of(href + "/" + id, IanaLinkRelations.SELF);
+        }
+
+        /**
+         * Link para a listagem de produtos.
+         */
+        public Link listagem() {
+            return Link.of(href + PARAMETROS_LISTAGEM, LISTA_DE_PRODUTOS);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.produtos.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Registro de um arquivo CSV já importado com upsert, identificado pelo hash SHA-256 do seu conteúdo.
+ * Permite ignorar o reenvio de um arquivo idêntico sem lê-lo novamente.
+ */
+@Table(name = "arquivos_importados")
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArquivoImportadoModel {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private Instant dataImportacao;
+
+    private long linhasInseridas;
+
+    private long linhasAtualizadas;
+
+    private long linhasInalteradas;
+
+    private long linhasRejeitadas;
+}
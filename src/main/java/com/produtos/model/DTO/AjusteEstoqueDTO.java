@@ -0,0 +1,11 @@
+package com.produtos.model.DTO;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Ajuste da quantidade em estoque de um produto.
+ *
+ * @param delta Quantidade a ser somada ao estoque; negativa para retirar produtos.
+ */
+public record AjusteEstoqueDTO(@NotNull Long delta) {
+}
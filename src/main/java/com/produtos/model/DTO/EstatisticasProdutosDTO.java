@@ -0,0 +1,29 @@
+package com.produtos.model.DTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais do estoque de produtos. Um produto sem valor, peso ou quantidade em estoque não contribui para os totais que
+ * dependem do campo ausente.
+ *
+ * @param produtos           Quantidade de produtos.
+ * @param produtosSemEstoque Quantidade de produtos com estoque zerado ou sem quantidade informada.
+ * @param quantidadeEstoque  Soma das quantidades em estoque.
+ * @param valorEstoque       Soma do valor multiplicado pela quantidade em estoque de cada produto.
+ * @param pesoEstoque        Soma do peso multiplicado pela quantidade em estoque de cada produto.
+ */
+public record EstatisticasProdutosDTO(long produtos, long produtosSemEstoque, long quantidadeEstoque,
+                                      BigDecimal valorEstoque, BigDecimal pesoEstoque) {
+
+    public static final EstatisticasProdutosDTO VAZIAS = new EstatisticasProdutosDTO(0, 0, 0, BigDecimal.ZERO,
+            BigDecimal.ZERO);
+
+    /**
+     * Compara os totais numericamente, sem considerar a escala dos decimais.
+     */
+    public boolean equivale(EstatisticasProdutosDTO outras) {
+        return produtos == outras.produtos && produtosSemEstoque == outras.produtosSemEstoque
+                && quantidadeEstoque == outras.quantidadeEstoque
+                && valorEstoque.compareTo(outras.valorEstoque) == 0 && pesoEstoque.compareTo(outras.pesoEstoque) == 0;
+    }
+}
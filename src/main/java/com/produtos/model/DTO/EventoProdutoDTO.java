@@ -0,0 +1,22 @@
+package com.produtos.model.DTO;
+
+import com.produtos.service.ProdutoSnapshot;
+
+import java.util.UUID;
+
+/**
+ * Alteração de um produto, transmitida por {@code GET /api/produtos/changes}.
+ *
+ * @param sequencia Posição do evento, crescente; informada em {@code Last-Event-ID} para retomar a transmissão.
+ * @param tipo      Tipo da alteração.
+ * @param id        ID do produto; {@code null} em {@link Tipo#RESET}.
+ * @param produto   Produto após a alteração; {@code null} em exclusões e em {@link Tipo#RESET}.
+ */
+public record EventoProdutoDTO(long sequencia, Tipo tipo, UUID id, ProdutoSnapshot produto) {
+
+    /**
+     * {@code RESET} indica que alterações não podem ser transmitidas individualmente, porque o cliente ficou para
+     * trás e os eventos seguintes à sua posição foram descartados; o cliente deve recarregar a listagem de produtos.
+     */
+    public enum Tipo { CREATE, UPDATE, DELETE, RESET }
+}
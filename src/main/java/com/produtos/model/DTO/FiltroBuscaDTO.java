@@ -0,0 +1,17 @@
+package com.produtos.model.DTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Critérios da busca de produtos. Critérios nulos são ignorados.
+ *
+ * @param prefixo    Início do nome do produto.
+ * @param texto      Trecho contido no nome ou na descrição do produto.
+ * @param valorMin   Menor valor aceito.
+ * @param valorMax   Maior valor aceito.
+ * @param estoqueMin Menor quantidade em estoque aceita.
+ * @param estoqueMax Maior quantidade em estoque aceita.
+ */
+public record FiltroBuscaDTO(String prefixo, String texto, BigDecimal valorMin, BigDecimal valorMax,
+                             Long estoqueMin, Long estoqueMax) {
+}
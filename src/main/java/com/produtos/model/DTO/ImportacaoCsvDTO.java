@@ -0,0 +1,19 @@
+package com.produtos.model.DTO;
+
+import com.produtos.service.ImportacaoCsv;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ImportacaoCsvDTO(UUID id, ImportacaoCsv.Status status, long linhasLidas, long linhasGravadas,
+                               long linhasRejeitadas, long linhasInseridas, long linhasAtualizadas,
+                               long linhasInalteradas, long linhasPorSegundo, Instant inicio, Instant fim,
+                               String erro) {
+
+    public static ImportacaoCsvDTO of(ImportacaoCsv importacao) {
+        return new ImportacaoCsvDTO(importacao.getId(), importacao.getStatus(), importacao.getLinhasLidas(),
+                importacao.getLinhasGravadas(), importacao.getLinhasRejeitadas(), importacao.getLinhasInseridas(),
+                importacao.getLinhasAtualizadas(), importacao.getLinhasInalteradas(), importacao.getLinhasPorSegundo(),
+                importacao.getInicio(), importacao.getFim(), importacao.getErro());
+    }
+}
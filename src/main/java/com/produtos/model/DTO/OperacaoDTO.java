@@ -0,0 +1,15 @@
+package com.produtos.model.DTO;
+
+import java.util.UUID;
+
+/**
+ * Operação de um lote enviado a {@code POST /api/produtos/batch}.
+ *
+ * @param tipo    Tipo da operação.
+ * @param id      ID do produto; obrigatório para alterações e exclusões.
+ * @param produto Dados do produto; obrigatório para criações e alterações.
+ */
+public record OperacaoDTO(Tipo tipo, UUID id, ProdutoModelDTO produto) {
+
+    public enum Tipo { CREATE, UPDATE, DELETE }
+}
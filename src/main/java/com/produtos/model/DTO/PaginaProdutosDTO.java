@@ -0,0 +1,15 @@
+package com.produtos.model.DTO;
+
+import com.produtos.model.ProdutoModel;
+
+import java.util.List;
+
+/**
+ * Página da listagem de produtos.
+ *
+ * @param produtos       Produtos da página, ordenados por nome e ID.
+ * @param proximoCursor  Token da próxima página, ou {@code null} se esta for a última.
+ * @param tamanho        Tamanho de página utilizado na consulta.
+ */
+public record PaginaProdutosDTO(List<ProdutoModel> produtos, String proximoCursor, int tamanho) {
+}
@@ -0,0 +1,20 @@
+package com.produtos.model.DTO;
+
+import com.produtos.service.ProdutoSnapshot;
+
+import java.util.List;
+
+/**
+ * Página da listagem de produtos sem links, retornada para o media type
+ * {@code application/vnd.produtos.simples+json}.
+ *
+ * @param produtos       Produtos da página, ordenados por nome e ID.
+ * @param proximoCursor  Token da próxima página, ou {@code null} se esta for a última.
+ */
+public record PaginaProdutosSimplesDTO(List<ProdutoSnapshot> produtos, String proximoCursor) {
+
+    public static PaginaProdutosSimplesDTO of(PaginaProdutosDTO pagina) {
+        return new PaginaProdutosSimplesDTO(pagina.produtos().stream().map(ProdutoSnapshot::of).toList(),
+                pagina.proximoCursor());
+    }
+}
@@ -0,0 +1,4 @@
+package com.produtos.model.DTO;
+
+public record ProdutoCacheDTO(long tamanho, long acertos, long falhas, long remocoes, double taxaAcerto) {
+}
@@ -1,11 +1,15 @@
 package com.produtos.model.DTO;
 
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.Setter;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
 
-@Setter
-@Getter
-@AllArgsConstructor
-public record ProdutoModelDTO(String nome, String valor, String descricao, String quantidade_estoque, String peso) {
+import java.math.BigDecimal;
+
+public record ProdutoModelDTO(@NotBlank String nome,
+                              @DecimalMin("0.0") @Digits(integer = 10, fraction = 2) BigDecimal valor,
+                              String descricao,
+                              @PositiveOrZero Long quantidade_estoque,
+                              @DecimalMin("0.0") @Digits(integer = 9, fraction = 3) BigDecimal peso) {
 }
@@ -0,0 +1,25 @@
+package com.produtos.model.DTO;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+
+/**
+ * Campos de uma atualização parcial de produto. Campos nulos ou ausentes não são alterados.
+ */
+public record ProdutoPatchDTO(@Pattern(regexp = ".*\\S.*", message = "não deve estar em branco") String nome,
+                              @DecimalMin("0.0") @Digits(integer = 10, fraction = 2) BigDecimal valor,
+                              String descricao,
+                              @PositiveOrZero Long quantidade_estoque,
+                              @DecimalMin("0.0") @Digits(integer = 9, fraction = 3) BigDecimal peso) {
+
+    /**
+     * Indica se nenhum campo foi informado.
+     */
+    public boolean isVazio() {
+        return nome == null && valor == null && descricao == null && quantidade_estoque == null && peso == null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.produtos.model.DTO;
+
+import com.produtos.model.ProdutoModel;
+
+import java.util.List;
+
+/**
+ * Página do resultado de uma busca de produtos.
+ *
+ * @param produtos Produtos da página, do mais para o menos relevante.
+ * @param total    Quantidade total de produtos encontrados.
+ * @param pagina   Número da página, iniciando em zero.
+ * @param tamanho  Tamanho de página utilizado na busca.
+ */
+public record ResultadoBuscaDTO(List<ProdutoModel> produtos, long total, int pagina, int tamanho) {
+}
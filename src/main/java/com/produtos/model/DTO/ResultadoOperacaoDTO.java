@@ -0,0 +1,15 @@
+package com.produtos.model.DTO;
+
+import java.util.UUID;
+
+/**
+ * Resultado de uma operação de um lote.
+ *
+ * @param indice Posição da operação no lote.
+ * @param tipo   Tipo da operação.
+ * @param id     ID do produto afetado.
+ * @param status Status HTTP equivalente ao resultado da operação.
+ * @param erro   Motivo da falha, ou {@code null} se a operação foi aplicada.
+ */
+public record ResultadoOperacaoDTO(int indice, OperacaoDTO.Tipo tipo, UUID id, int status, String erro) {
+}
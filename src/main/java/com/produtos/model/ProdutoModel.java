@@ -7,8 +7,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.hateoas.RepresentationModel;
+
+import java.math.BigDecimal;
 import java.util.UUID;
-@Table(name="Produtos")
+
+@Table(name="Produtos", indexes = @Index(name = "idx_produtos_nome_id", columnList = "nome, id"))
 @Entity
 @Getter
 @Setter
@@ -17,18 +20,21 @@ import java.util.UUID;
 public class ProdutoModel extends RepresentationModel<ProdutoModel> implements Comparable<ProdutoModel> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
 
+    @Column(nullable = false)
     private String nome;
 
-    private String valor;
+    @Column(precision = 12, scale = 2)
+    private BigDecimal valor;
 
     private String descricao;
 
-    private String quantidade_estoque;
+    private Long quantidade_estoque;
 
-    private String peso;
+    @Column(precision = 12, scale = 3)
+    private BigDecimal peso;
 
     @Override
     public int compareTo(@NotNull ProdutoModel produto) {
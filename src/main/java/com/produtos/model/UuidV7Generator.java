@@ -0,0 +1,52 @@
+package com.produtos.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de UUIDs versão 7 (RFC 9562): os 48 bits iniciais são o instante da geração em milissegundos, de forma que
+ * identificadores gerados em sequência ficam próximos no índice da chave primária, em vez de espalhados por ele como
+ * os UUIDs aleatórios.
+ * <p>
+ * Os 12 bits seguintes ({@code rand_a}) são um contador, que garante que os identificadores gerados por esta
+ * aplicação sejam crescentes mesmo dentro do mesmo milissegundo; quando o contador se esgota o instante é avançado
+ * em um milissegundo. Os 62 bits finais são aleatórios.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    /**
+     * Instante (em milissegundos) e contador do último identificador gerado, no formato {@code instante << 12 | contador}.
+     */
+    private static final AtomicLong ULTIMO = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return gerar();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * Gera um novo UUID versão 7.
+     */
+    public static UUID gerar() {
+        long atual = System.currentTimeMillis() << 12;
+        long proximo = ULTIMO.updateAndGet(ultimo -> Math.max(atual, ultimo + 1));
+        long instante = proximo >>> 12;
+        long contador = proximo & 0xFFF;
+
+        long maisSignificativos = instante << 16 | 0x7000L | contador;
+        long menosSignificativos = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+}
@@ -0,0 +1,115 @@
+package com.produtos.repository;
+
+import com.produtos.model.ArquivoImportadoModel;
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.ProdutoModel;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento dos produtos utilizado pelos serviços. A implementação é escolhida pela propriedade
+ * {@code produtos.armazenamento}: {@code jpa} (padrão) grava no banco de dados configurado e {@code log} grava em um
+ * arquivo local, sem servidor de banco de dados (veja {@link ArmazenamentoProdutosLog}).
+ */
+public interface ArmazenamentoProdutos {
+
+    Optional<ProdutoModel> buscarPorId(UUID id);
+
+    /**
+     * Busca os produtos com os IDs informados; IDs inexistentes são ignorados.
+     */
+    List<ProdutoModel> buscarPorIds(Collection<UUID> ids);
+
+    boolean existe(UUID id);
+
+    /**
+     * Obtém os primeiros produtos da listagem ordenada por nome e ID.
+     */
+    List<ProdutoModel> buscarPrimeiraPagina(int tamanho);
+
+    /**
+     * Obtém os produtos posteriores a uma posição da listagem ordenada por nome e ID.
+     */
+    List<ProdutoModel> buscarPaginaApos(String nome, UUID id, int tamanho);
+
+    /**
+     * Percorre todos os produtos, ordenados por nome e ID, sem mantê-los em memória.
+     * Deve ser fechado ao final e, no JPA, consumido dentro de uma transação.
+     */
+    Stream<ProdutoModel> percorrerOrdenados();
+
+    /**
+     * Calcula os totais do estoque a partir de todos os produtos armazenados. Percorre todos os produtos; usado
+     * apenas na reconciliação periódica dos totais mantidos em memória.
+     */
+    EstatisticasProdutosDTO calcularEstatisticas();
+
+    /**
+     * Busca os produtos cujos atributos informados correspondem a alguma das chaves.
+     *
+     * @param atributos Nomes dos atributos que formam a chave.
+     * @param chaves    Valores de cada chave, na mesma ordem dos atributos.
+     * @return Produtos encontrados, em qualquer ordem.
+     */
+    List<ProdutoModel> buscarPorChave(List<String> atributos, Collection<List<Object>> chaves);
+
+    /**
+     * Grava um produto, gerando o ID caso ainda não possua.
+     *
+     * @return Produto gravado, com o ID preenchido.
+     */
+    ProdutoModel salvar(ProdutoModel produto);
+
+    List<ProdutoModel> salvarTodos(Collection<ProdutoModel> produtos);
+
+    /**
+     * @return Quantidade de produtos excluídos (0 se o produto não existir).
+     */
+    int excluir(UUID id);
+
+    void excluirTodos(Collection<UUID> ids);
+
+    /**
+     * Substitui todos os campos de um produto.
+     *
+     * @return Quantidade de produtos atualizados (0 se o produto não existir).
+     */
+    int atualizar(UUID id, String nome, BigDecimal valor, String descricao, Long quantidadeEstoque, BigDecimal peso);
+
+    /**
+     * Atualiza apenas os campos informados de um produto; campos nulos são mantidos.
+     *
+     * @return Quantidade de produtos atualizados (0 se o produto não existir).
+     */
+    int atualizarParcialmente(UUID id, ProdutoPatchDTO produtoDTO);
+
+    /**
+     * Soma {@code delta} à quantidade em estoque de um produto, desde que o resultado não fique negativo.
+     * Uma quantidade nula é tratada como zero.
+     *
+     * @return Quantidade de produtos atualizados (0 se o produto não existir ou se o estoque for insuficiente).
+     */
+    int ajustarEstoque(UUID id, long delta);
+
+    /**
+     * Soma {@code delta} à quantidade em estoque de um produto, limitando o resultado a zero.
+     *
+     * @return Quantidade de produtos atualizados (0 se o produto não existir).
+     */
+    int ajustarEstoqueLimitado(UUID id, long delta);
+
+    /**
+     * Aplica as gravações pendentes da transação corrente, para que eventuais erros sejam lançados imediatamente.
+     */
+    void sincronizar();
+
+    Optional<ArquivoImportadoModel> buscarArquivoImportado(String hash);
+
+    void registrarArquivoImportado(ArquivoImportadoModel arquivo);
+}
@@ -0,0 +1,148 @@
+package com.produtos.repository;
+
+import com.produtos.model.ArquivoImportadoModel;
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.ProdutoModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento dos produtos no banco de dados configurado, através do {@link ProdutosRepository}.
+ */
+@Component
+@ConditionalOnProperty(name = "produtos.armazenamento", havingValue = "jpa", matchIfMissing = true)
+public class ArmazenamentoProdutosJpa implements ArmazenamentoProdutos {
+
+    @Autowired
+    ProdutosRepository produtosRepository;
+
+    @Autowired
+    ArquivosImportadosRepository arquivosImportadosRepository;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Override
+    public Optional<ProdutoModel> buscarPorId(UUID id) {
+        return produtosRepository.findById(id);
+    }
+
+    @Override
+    public List<ProdutoModel> buscarPorIds(Collection<UUID> ids) {
+        return produtosRepository.findAllById(ids);
+    }
+
+    @Override
+    public boolean existe(UUID id) {
+        return produtosRepository.existsById(id);
+    }
+
+    @Override
+    public List<ProdutoModel> buscarPrimeiraPagina(int tamanho) {
+        return produtosRepository.findAllByOrderByNomeAscIdAsc(PageRequest.ofSize(tamanho));
+    }
+
+    @Override
+    public List<ProdutoModel> buscarPaginaApos(String nome, UUID id, int tamanho) {
+        return produtosRepository.findPaginaApos(nome, id, PageRequest.ofSize(tamanho));
+    }
+
+    /**
+     * Os produtos são descartados do contexto de persistência à medida que são lidos, de forma que o consumo de
+     * memória não depende da quantidade de produtos.
+     */
+    @Override
+    public Stream<ProdutoModel> percorrerOrdenados() {
+        return produtosRepository.streamAllOrdenados().peek(entityManager::detach);
+    }
+
+    @Override
+    public EstatisticasProdutosDTO calcularEstatisticas() {
+        Object[] totais = produtosRepository.calcularTotais().get(0);
+        return new EstatisticasProdutosDTO(inteiro(totais[0]), inteiro(totais[1]), inteiro(totais[2]),
+                decimal(totais[3]), decimal(totais[4]));
+    }
+
+    private static long inteiro(Object total) {
+        return total == null ? 0 : ((Number) total).longValue();
+    }
+
+    private static BigDecimal decimal(Object total) {
+        if (total == null) {
+            return BigDecimal.ZERO;
+        }
+        return total instanceof BigDecimal decimal ? decimal : new BigDecimal(total.toString());
+    }
+
+    @Override
+    public List<ProdutoModel> buscarPorChave(List<String> atributos, Collection<List<Object>> chaves) {
+        return produtosRepository.buscarPorChave(atributos, chaves);
+    }
+
+    @Override
+    public ProdutoModel salvar(ProdutoModel produto) {
+        return produtosRepository.save(produto);
+    }
+
+    @Override
+    public List<ProdutoModel> salvarTodos(Collection<ProdutoModel> produtos) {
+        return produtosRepository.saveAll(produtos);
+    }
+
+    @Override
+    public int excluir(UUID id) {
+        return produtosRepository.excluirPorId(id);
+    }
+
+    @Override
+    public void excluirTodos(Collection<UUID> ids) {
+        produtosRepository.deleteAllByIdInBatch(ids);
+    }
+
+    @Override
+    public int atualizar(UUID id, String nome, BigDecimal valor, String descricao, Long quantidadeEstoque, BigDecimal peso) {
+        return produtosRepository.atualizar(id, nome, valor, descricao, quantidadeEstoque, peso);
+    }
+
+    @Override
+    public int atualizarParcialmente(UUID id, ProdutoPatchDTO produtoDTO) {
+        return produtosRepository.atualizarParcialmente(id, produtoDTO);
+    }
+
+    @Override
+    public int ajustarEstoque(UUID id, long delta) {
+        return produtosRepository.ajustarEstoque(id, delta);
+    }
+
+    @Override
+    public int ajustarEstoqueLimitado(UUID id, long delta) {
+        return produtosRepository.ajustarEstoqueLimitado(id, delta);
+    }
+
+    @Override
+    public void sincronizar() {
+        produtosRepository.flush();
+    }
+
+    @Override
+    public Optional<ArquivoImportadoModel> buscarArquivoImportado(String hash) {
+        return arquivosImportadosRepository.findById(hash);
+    }
+
+    @Override
+    public void registrarArquivoImportado(ArquivoImportadoModel arquivo) {
+        arquivosImportadosRepository.save(arquivo);
+    }
+}
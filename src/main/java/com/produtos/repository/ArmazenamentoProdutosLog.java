@@ -0,0 +1,711 @@
+package com.produtos.repository;
+
+import com.produtos.model.ArquivoImportadoModel;
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.ProdutoModel;
+import com.produtos.model.UuidV7Generator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento dos produtos em um arquivo local, para execução sem servidor de banco de dados
+ * ({@code produtos.armazenamento=log}).
+ * <p>
+ * Cada gravação anexa a versão completa do produto (ou a marca de sua exclusão) ao {@link ArquivoLog}, mapeado em
+ * memória; um índice em memória guarda a posição da versão atual de cada produto e outro mantém os produtos
+ * ordenados por nome e ID, para a listagem. As leituras não bloqueiam e as gravações são feitas uma de cada vez.
+ * Não há transações: cada gravação é aplicada imediatamente. Quando as versões obsoletas ultrapassam a proporção
+ * {@code produtos.armazenamento.log.compactacao.proporcao} do arquivo, os produtos atuais são copiados, na ordem da
+ * listagem, para um novo arquivo que substitui o anterior; as gravações aguardam o fim da compactação.
+ */
+@Component
+@ConditionalOnProperty(name = "produtos.armazenamento", havingValue = "log")
+public class ArmazenamentoProdutosLog implements ArmazenamentoProdutos {
+
+    static final String ARQUIVO = "produtos.log";
+
+    private static final String ARQUIVO_COMPACTACAO = ARQUIVO + ".compactacao";
+
+    private static final byte PRODUTO = 1;
+
+    private static final byte EXCLUSAO = 2;
+
+    private static final byte ARQUIVO_IMPORTADO = 3;
+
+    private static final UUID MENOR_ID = new UUID(0, 0);
+
+    private static final UUID MAIOR_ID = new UUID(-1, -1);
+
+    private static final Map<String, Function<ProdutoModel, Object>> GETTERS = Map.of(
+            "nome", ProdutoModel::getNome,
+            "valor", ProdutoModel::getValor,
+            "descricao", ProdutoModel::getDescricao,
+            "quantidade_estoque", ProdutoModel::getQuantidade_estoque,
+            "peso", ProdutoModel::getPeso);
+
+    /**
+     * Posição na listagem. Os IDs são comparados como números sem sinal, na mesma ordem do PostgreSQL.
+     */
+    private record Chave(String nome, UUID id) {
+    }
+
+    private static final Comparator<Chave> ORDEM = Comparator
+            .comparing(Chave::nome, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Chave::id, (id, outro) -> {
+                int comparacao = Long.compareUnsigned(id.getMostSignificantBits(), outro.getMostSignificantBits());
+                return comparacao != 0 ? comparacao
+                        : Long.compareUnsigned(id.getLeastSignificantBits(), outro.getLeastSignificantBits());
+            });
+
+    /**
+     * Versão atual de um produto: posição e tamanho do registro no arquivo, e nome para localizá-lo na listagem.
+     */
+    private record Entrada(long posicao, int tamanho, String nome) {
+    }
+
+    /**
+     * Arquivo aberto e seus índices, substituídos em conjunto pela compactação.
+     */
+    private static final class Estado {
+
+        ArquivoLog log;
+
+        final Map<UUID, Entrada> produtos = new ConcurrentHashMap<>();
+
+        final NavigableSet<Chave> listagem = new ConcurrentSkipListSet<>(ORDEM);
+
+        final Map<String, Long> arquivosImportados = new ConcurrentHashMap<>();
+
+        volatile long bytesObsoletos;
+    }
+
+    /**
+     * Diretório do arquivo de log.
+     */
+    @Value("${produtos.armazenamento.log.diretorio:dados}")
+    Path diretorio = Paths.get("dados");
+
+    /**
+     * Tamanho de cada região mapeada em memória, que limita também o tamanho de um produto.
+     */
+    @Value("${produtos.armazenamento.log.tamanho-regiao:64MB}")
+    DataSize tamanhoRegiao = DataSize.ofMegabytes(64);
+
+    /**
+     * Se cada gravação deve aguardar a escrita em disco. Sem isso, as gravações sobrevivem ao encerramento do
+     * processo, mas as mais recentes podem ser perdidas numa queda do sistema operacional.
+     */
+    @Value("${produtos.armazenamento.log.sincronizar:false}")
+    boolean sincronizar;
+
+    /**
+     * Proporção de versões obsoletas no arquivo a partir da qual ele é compactado.
+     */
+    @Value("${produtos.armazenamento.log.compactacao.proporcao:0.5}")
+    double proporcaoCompactacao = 0.5;
+
+    private final ReentrantLock gravacao = new ReentrantLock();
+
+    private volatile Estado estado;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+    Logger logger = LoggerFactory.getLogger(ArmazenamentoProdutosLog.class);
+
+    /**
+     * Abre o arquivo de log, criando-o se necessário, e reconstrói os índices a partir dos registros.
+     */
+    @PostConstruct
+    public void abrir() throws IOException {
+        long inicio = System.nanoTime();
+        Files.createDirectories(diretorio);
+        Files.deleteIfExists(diretorio.resolve(ARQUIVO_COMPACTACAO));
+        Estado aberto = new Estado();
+        aberto.log = ArquivoLog.abrir(diretorio.resolve(ARQUIVO), (int) tamanhoRegiao.toBytes(),
+                (posicao, conteudo) -> recuperar(aberto, posicao, conteudo));
+        estado = aberto;
+        logger.info("Log de produtos aberto: " + aberto.produtos.size() + " produtos, " + aberto.log.tamanho() / 1024
+                + " KB (" + (System.nanoTime() - inicio) / 1_000_000 + " ms)");
+    }
+
+    /**
+     * Aplica aos índices um registro lido na abertura do arquivo.
+     */
+    private static void recuperar(Estado estado, long posicao, ByteBuffer conteudo) {
+        byte tipo = conteudo.get(0);
+        int tamanho = ArquivoLog.CABECALHO_REGISTRO + conteudo.remaining();
+        switch (tipo) {
+            case PRODUTO -> {
+                UUID id = new UUID(conteudo.getLong(1), conteudo.getLong(9));
+                String nome = texto(conteudo.duplicate().position(17));
+                Entrada anterior = estado.produtos.put(id, new Entrada(posicao, tamanho, nome));
+                if (anterior != null) {
+                    estado.bytesObsoletos += anterior.tamanho();
+                    estado.listagem.remove(new Chave(anterior.nome(), id));
+                }
+                estado.listagem.add(new Chave(nome, id));
+            }
+            case EXCLUSAO -> {
+                UUID id = new UUID(conteudo.getLong(1), conteudo.getLong(9));
+                Entrada anterior = estado.produtos.remove(id);
+                estado.bytesObsoletos += tamanho;
+                if (anterior != null) {
+                    estado.bytesObsoletos += anterior.tamanho();
+                    estado.listagem.remove(new Chave(anterior.nome(), id));
+                }
+            }
+            case ARQUIVO_IMPORTADO -> {
+                if (estado.arquivosImportados.put(texto(conteudo.duplicate().position(1)), posicao) != null) {
+                    estado.bytesObsoletos += tamanho;
+                }
+            }
+            default -> throw new IllegalStateException("Registro desconhecido no log de produtos: tipo " + tipo);
+        }
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        gravacao.lock();
+        try {
+            estado.log.close();
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @Override
+    public Optional<ProdutoModel> buscarPorId(UUID id) {
+        Estado estado = this.estado;
+        return Optional.ofNullable(ler(estado, estado.produtos.get(id)));
+    }
+
+    @Override
+    public List<ProdutoModel> buscarPorIds(Collection<UUID> ids) {
+        Estado estado = this.estado;
+        List<ProdutoModel> produtos = new ArrayList<>(ids.size());
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            ProdutoModel produto = ler(estado, estado.produtos.get(id));
+            if (produto != null) {
+                produtos.add(produto);
+            }
+        }
+        return produtos;
+    }
+
+    @Override
+    public boolean existe(UUID id) {
+        return estado.produtos.containsKey(id);
+    }
+
+    @Override
+    public List<ProdutoModel> buscarPrimeiraPagina(int tamanho) {
+        Estado estado = this.estado;
+        return pagina(estado, estado.listagem, tamanho);
+    }
+
+    @Override
+    public List<ProdutoModel> buscarPaginaApos(String nome, UUID id, int tamanho) {
+        Estado estado = this.estado;
+        return pagina(estado, estado.listagem.tailSet(new Chave(nome, id), false), tamanho);
+    }
+
+    private List<ProdutoModel> pagina(Estado estado, NavigableSet<Chave> chaves, int tamanho) {
+        List<ProdutoModel> produtos = new ArrayList<>(Math.min(tamanho, 1024));
+        Iterator<Chave> iterator = chaves.iterator();
+        while (produtos.size() < tamanho && iterator.hasNext()) {
+            ProdutoModel produto = ler(estado, iterator.next());
+            if (produto != null) {
+                produtos.add(produto);
+            }
+        }
+        return produtos;
+    }
+
+    /**
+     * Percorre a listagem no momento da chamada; gravações posteriores podem ou não aparecer.
+     */
+    @Override
+    public Stream<ProdutoModel> percorrerOrdenados() {
+        Estado estado = this.estado;
+        return estado.listagem.stream().map(chave -> ler(estado, chave)).filter(Objects::nonNull);
+    }
+
+    /**
+     * Lê todos os produtos do arquivo, como a listagem.
+     */
+    @Override
+    public EstatisticasProdutosDTO calcularEstatisticas() {
+        long produtos = 0;
+        long produtosSemEstoque = 0;
+        long quantidadeEstoque = 0;
+        BigDecimal valorEstoque = BigDecimal.ZERO;
+        BigDecimal pesoEstoque = BigDecimal.ZERO;
+        try (Stream<ProdutoModel> todos = percorrerOrdenados()) {
+            for (Iterator<ProdutoModel> iterator = todos.iterator(); iterator.hasNext(); ) {
+                ProdutoModel produto = iterator.next();
+                produtos++;
+                Long quantidade = produto.getQuantidade_estoque();
+                if (quantidade == null || quantidade == 0) {
+                    produtosSemEstoque++;
+                    continue;
+                }
+                quantidadeEstoque += quantidade;
+                if (produto.getValor() != null) {
+                    valorEstoque = valorEstoque.add(produto.getValor().multiply(BigDecimal.valueOf(quantidade)));
+                }
+                if (produto.getPeso() != null) {
+                    pesoEstoque = pesoEstoque.add(produto.getPeso().multiply(BigDecimal.valueOf(quantidade)));
+                }
+            }
+        }
+        return new EstatisticasProdutosDTO(produtos, produtosSemEstoque, quantidadeEstoque, valorEstoque, pesoEstoque);
+    }
+
+    /**
+     * Quando o nome faz parte da chave, os produtos são localizados pela listagem; caso contrário todos os
+     * produtos são comparados.
+     */
+    @Override
+    public List<ProdutoModel> buscarPorChave(List<String> atributos, Collection<List<Object>> chaves) {
+        Estado estado = this.estado;
+        Set<List<Object>> procuradas = new HashSet<>(chaves);
+        List<ProdutoModel> encontrados = new ArrayList<>();
+        int indiceNome = atributos.indexOf("nome");
+        if (indiceNome >= 0) {
+            Set<Object> nomes = new HashSet<>();
+            for (List<Object> chave : chaves) {
+                if (nomes.add(chave.get(indiceNome))) {
+                    String nome = (String) chave.get(indiceNome);
+                    for (Chave posicao : estado.listagem.subSet(new Chave(nome, MENOR_ID), true, new Chave(nome, MAIOR_ID), true)) {
+                        ProdutoModel produto = ler(estado, posicao);
+                        if (produto != null && procuradas.contains(chave(atributos, produto))) {
+                            encontrados.add(produto);
+                        }
+                    }
+                }
+            }
+        } else {
+            for (Entrada entrada : estado.produtos.values()) {
+                ProdutoModel produto = ler(estado, entrada);
+                if (produto != null && procuradas.contains(chave(atributos, produto))) {
+                    encontrados.add(produto);
+                }
+            }
+        }
+        return encontrados;
+    }
+
+    private static List<Object> chave(List<String> atributos, ProdutoModel produto) {
+        List<Object> valores = new ArrayList<>(atributos.size());
+        for (String atributo : atributos) {
+            Object valor = GETTERS.get(atributo).apply(produto);
+            valores.add(valor instanceof BigDecimal decimal ? decimal.stripTrailingZeros() : valor);
+        }
+        return valores;
+    }
+
+    @Override
+    public ProdutoModel salvar(ProdutoModel produto) {
+        gravacao.lock();
+        try {
+            gravar(produto);
+            return produto;
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @Override
+    public List<ProdutoModel> salvarTodos(Collection<ProdutoModel> produtos) {
+        gravacao.lock();
+        try {
+            for (ProdutoModel produto : produtos) {
+                gravar(produto);
+            }
+            return new ArrayList<>(produtos);
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @Override
+    public int excluir(UUID id) {
+        gravacao.lock();
+        try {
+            return remover(id) ? 1 : 0;
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @Override
+    public void excluirTodos(Collection<UUID> ids) {
+        gravacao.lock();
+        try {
+            for (UUID id : ids) {
+                remover(id);
+            }
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @Override
+    public int atualizar(UUID id, String nome, BigDecimal valor, String descricao, Long quantidadeEstoque, BigDecimal peso) {
+        gravacao.lock();
+        try {
+            if (!estado.produtos.containsKey(id)) {
+                return 0;
+            }
+            gravar(new ProdutoModel(id, nome, valor, descricao, quantidadeEstoque, peso));
+            return 1;
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @Override
+    public int atualizarParcialmente(UUID id, ProdutoPatchDTO produtoDTO) {
+        gravacao.lock();
+        try {
+            ProdutoModel produto = ler(estado, estado.produtos.get(id));
+            if (produto == null) {
+                return 0;
+            }
+            if (produtoDTO.nome() != null) {
+                produto.setNome(produtoDTO.nome());
+            }
+            if (produtoDTO.valor() != null) {
+                produto.setValor(produtoDTO.valor());
+            }
+            if (produtoDTO.descricao() != null) {
+                produto.setDescricao(produtoDTO.descricao());
+            }
+            if (produtoDTO.quantidade_estoque() != null) {
+                produto.setQuantidade_estoque(produtoDTO.quantidade_estoque());
+            }
+            if (produtoDTO.peso() != null) {
+                produto.setPeso(produtoDTO.peso());
+            }
+            gravar(produto);
+            return 1;
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @Override
+    public int ajustarEstoque(UUID id, long delta) {
+        return ajustarEstoque(id, delta, false);
+    }
+
+    @Override
+    public int ajustarEstoqueLimitado(UUID id, long delta) {
+        return ajustarEstoque(id, delta, true);
+    }
+
+    private int ajustarEstoque(UUID id, long delta, boolean limitar) {
+        gravacao.lock();
+        try {
+            ProdutoModel produto = ler(estado, estado.produtos.get(id));
+            if (produto == null) {
+                return 0;
+            }
+            long quantidade = (produto.getQuantidade_estoque() == null ? 0 : produto.getQuantidade_estoque()) + delta;
+            if (quantidade < 0) {
+                if (!limitar) {
+                    return 0;
+                }
+                quantidade = 0;
+            }
+            produto.setQuantidade_estoque(quantidade);
+            gravar(produto);
+            return 1;
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    /**
+     * As gravações são aplicadas imediatamente; não há nada pendente.
+     */
+    @Override
+    public void sincronizar() {
+    }
+
+    @Override
+    public Optional<ArquivoImportadoModel> buscarArquivoImportado(String hash) {
+        Estado estado = this.estado;
+        Long posicao = estado.arquivosImportados.get(hash);
+        return posicao == null ? Optional.empty() : Optional.of(lerArquivoImportado(estado.log.ler(posicao)));
+    }
+
+    @Override
+    public void registrarArquivoImportado(ArquivoImportadoModel arquivo) {
+        gravacao.lock();
+        try {
+            Estado estado = this.estado;
+            ByteBuffer conteudo = codificar(arquivo);
+            Long anterior = estado.arquivosImportados.put(arquivo.getHash(), anexar(estado, conteudo));
+            if (anterior != null) {
+                estado.bytesObsoletos += ArquivoLog.CABECALHO_REGISTRO + conteudo.remaining();
+            }
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    /**
+     * Compacta o arquivo se as versões obsoletas ultrapassarem a proporção configurada.
+     */
+    @Scheduled(fixedDelayString = "${produtos.armazenamento.log.compactacao.intervalo:PT1M}")
+    void compactarSeNecessario() throws IOException {
+        Estado estado = this.estado;
+        if (estado.bytesObsoletos > 0 && estado.bytesObsoletos >= proporcaoCompactacao * estado.log.tamanho()) {
+            compactar();
+        }
+    }
+
+    /**
+     * Copia as versões atuais dos produtos, na ordem da listagem, para um novo arquivo que substitui o atual.
+     * As leituras em andamento continuam no arquivo anterior, que permanece mapeado em memória.
+     */
+    public void compactar() throws IOException {
+        gravacao.lock();
+        try {
+            long inicio = System.nanoTime();
+            Estado atual = estado;
+            Path arquivoCompactacao = diretorio.resolve(ARQUIVO_COMPACTACAO);
+            Files.deleteIfExists(arquivoCompactacao);
+            Estado novo = new Estado();
+            novo.log = ArquivoLog.abrir(arquivoCompactacao, atual.log.tamanhoRegiao(), (posicao, conteudo) -> {
+            });
+            try {
+                for (Chave chave : atual.listagem) {
+                    Entrada entrada = atual.produtos.get(chave.id());
+                    novo.produtos.put(chave.id(), new Entrada(novo.log.anexar(atual.log.ler(entrada.posicao())),
+                            entrada.tamanho(), entrada.nome()));
+                    novo.listagem.add(chave);
+                }
+                for (Map.Entry<String, Long> arquivo : atual.arquivosImportados.entrySet()) {
+                    novo.arquivosImportados.put(arquivo.getKey(), novo.log.anexar(atual.log.ler(arquivo.getValue())));
+                }
+                novo.log.forcar();
+                Files.move(arquivoCompactacao, diretorio.resolve(ARQUIVO), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                novo.log.close();
+                Files.deleteIfExists(arquivoCompactacao);
+                throw e;
+            }
+            estado = novo;
+            atual.log.close();
+            logger.info("Log de produtos compactado: " + atual.log.tamanho() / 1024 + " KB -> "
+                    + novo.log.tamanho() / 1024 + " KB (" + (System.nanoTime() - inicio) / 1_000_000 + " ms)");
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    long getTamanho() {
+        return estado.log.tamanho();
+    }
+
+    long getBytesObsoletos() {
+        return estado.bytesObsoletos;
+    }
+
+    private void gravar(ProdutoModel produto) {
+        if (produto.getId() == null) {
+            produto.setId(UuidV7Generator.gerar());
+        }
+        Estado estado = this.estado;
+        ByteBuffer conteudo = codificar(produto);
+        Entrada nova = new Entrada(anexar(estado, conteudo), ArquivoLog.CABECALHO_REGISTRO + conteudo.remaining(),
+                produto.getNome());
+        Entrada anterior = estado.produtos.put(produto.getId(), nova);
+        if (anterior != null) {
+            estado.bytesObsoletos += anterior.tamanho();
+            if (Objects.equals(anterior.nome(), nova.nome())) {
+                return;
+            }
+            estado.listagem.remove(new Chave(anterior.nome(), produto.getId()));
+        }
+        estado.listagem.add(new Chave(nova.nome(), produto.getId()));
+    }
+
+    private boolean remover(UUID id) {
+        Estado estado = this.estado;
+        Entrada anterior = estado.produtos.get(id);
+        if (anterior == null) {
+            return false;
+        }
+        ByteBuffer conteudo = buffer(1 + 16).put(EXCLUSAO).putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits()).flip();
+        anexar(estado, conteudo);
+        estado.produtos.remove(id);
+        estado.listagem.remove(new Chave(anterior.nome(), id));
+        // A marca de exclusão só é necessária até a próxima compactação
+        estado.bytesObsoletos += anterior.tamanho() + ArquivoLog.CABECALHO_REGISTRO + conteudo.remaining();
+        return true;
+    }
+
+    private long anexar(Estado estado, ByteBuffer conteudo) {
+        try {
+            long posicao = estado.log.anexar(conteudo);
+            if (sincronizar) {
+                estado.log.forcar();
+            }
+            return posicao;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar no log de produtos", e);
+        }
+    }
+
+    private ProdutoModel ler(Estado estado, Chave chave) {
+        Entrada entrada = estado.produtos.get(chave.id());
+        // A entrada pode ter sido removida ou renomeada depois que a chave foi obtida da listagem
+        if (entrada == null || !Objects.equals(entrada.nome(), chave.nome())) {
+            return null;
+        }
+        return ler(estado, entrada);
+    }
+
+    private static ProdutoModel ler(Estado estado, Entrada entrada) {
+        return entrada == null ? null : lerProduto(estado.log.ler(entrada.posicao()));
+    }
+
+    private ByteBuffer buffer(int tamanho) {
+        if (buffer.capacity() < tamanho) {
+            buffer = ByteBuffer.allocate(Math.max(tamanho, buffer.capacity() * 2));
+        }
+        return buffer.clear();
+    }
+
+    private ByteBuffer codificar(ProdutoModel produto) {
+        byte[] nome = bytes(produto.getNome());
+        byte[] descricao = bytes(produto.getDescricao());
+        byte[] valor = bytes(produto.getValor());
+        byte[] peso = bytes(produto.getPeso());
+        ByteBuffer conteudo = buffer(1 + 16 + tamanho(nome) + tamanho(descricao) + tamanho(valor) + 4
+                + tamanho(peso) + 4 + 1 + 8);
+        conteudo.put(PRODUTO).putLong(produto.getId().getMostSignificantBits())
+                .putLong(produto.getId().getLeastSignificantBits());
+        escrever(conteudo, nome);
+        escrever(conteudo, valor);
+        if (valor != null) {
+            conteudo.putInt(produto.getValor().scale());
+        }
+        escrever(conteudo, descricao);
+        if (produto.getQuantidade_estoque() == null) {
+            conteudo.put((byte) 0);
+        } else {
+            conteudo.put((byte) 1).putLong(produto.getQuantidade_estoque());
+        }
+        escrever(conteudo, peso);
+        if (peso != null) {
+            conteudo.putInt(produto.getPeso().scale());
+        }
+        return conteudo.flip();
+    }
+
+    private static ProdutoModel lerProduto(ByteBuffer conteudo) {
+        conteudo.get();
+        UUID id = new UUID(conteudo.getLong(), conteudo.getLong());
+        String nome = texto(conteudo);
+        BigDecimal valor = decimal(conteudo);
+        String descricao = texto(conteudo);
+        Long quantidadeEstoque = conteudo.get() == 0 ? null : conteudo.getLong();
+        BigDecimal peso = decimal(conteudo);
+        return new ProdutoModel(id, nome, valor, descricao, quantidadeEstoque, peso);
+    }
+
+    private ByteBuffer codificar(ArquivoImportadoModel arquivo) {
+        byte[] hash = bytes(arquivo.getHash());
+        ByteBuffer conteudo = buffer(1 + tamanho(hash) + 12 + 4 * 8);
+        conteudo.put(ARQUIVO_IMPORTADO);
+        escrever(conteudo, hash);
+        Instant dataImportacao = arquivo.getDataImportacao() == null ? Instant.EPOCH : arquivo.getDataImportacao();
+        conteudo.putLong(dataImportacao.getEpochSecond()).putInt(dataImportacao.getNano())
+                .putLong(arquivo.getLinhasInseridas()).putLong(arquivo.getLinhasAtualizadas())
+                .putLong(arquivo.getLinhasInalteradas()).putLong(arquivo.getLinhasRejeitadas());
+        return conteudo.flip();
+    }
+
+    private static ArquivoImportadoModel lerArquivoImportado(ByteBuffer conteudo) {
+        conteudo.get();
+        String hash = texto(conteudo);
+        Instant dataImportacao = Instant.ofEpochSecond(conteudo.getLong(), conteudo.getInt());
+        return new ArquivoImportadoModel(hash, dataImportacao, conteudo.getLong(), conteudo.getLong(),
+                conteudo.getLong(), conteudo.getLong());
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(BigDecimal decimal) {
+        return decimal == null ? null : decimal.unscaledValue().toByteArray();
+    }
+
+    private static int tamanho(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    /**
+     * Escreve o tamanho seguido dos bytes; um tamanho -1 representa {@code null}.
+     */
+    private static void escrever(ByteBuffer conteudo, byte[] bytes) {
+        if (bytes == null) {
+            conteudo.putInt(-1);
+        } else {
+            conteudo.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static byte[] lerBytes(ByteBuffer conteudo) {
+        int tamanho = conteudo.getInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        conteudo.get(bytes);
+        return bytes;
+    }
+
+    private static String texto(ByteBuffer conteudo) {
+        byte[] bytes = lerBytes(conteudo);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static BigDecimal decimal(ByteBuffer conteudo) {
+        byte[] bytes = lerBytes(conteudo);
+        return bytes == null ? null : new BigDecimal(new BigInteger(bytes), conteudo.getInt());
+    }
+}
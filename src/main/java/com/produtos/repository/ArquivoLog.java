@@ -0,0 +1,251 @@
+package com.produtos.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Arquivo de registros somente de anexação, mapeado em memória em regiões de tamanho fixo.
+ * <p>
+ * O arquivo começa com um cabeçalho de 16 bytes (assinatura, versão e tamanho da região), seguido dos registros.
+ * Cada registro ocupa 8 bytes de cabeçalho (tamanho do conteúdo e CRC32C do conteúdo) mais o conteúdo, e nunca
+ * atravessa o limite de uma região: um tamanho zero, ou um espaço menor que o cabeçalho, indica que os registros
+ * continuam no início da próxima região. Na abertura os registros são percorridos até o primeiro inválido, que marca
+ * o fim do arquivo; um registro incompleto por uma interrupção durante a gravação é descartado.
+ * <p>
+ * As gravações devem ser feitas por uma thread de cada vez. As leituras podem ser feitas por qualquer thread, sem
+ * bloqueio, a partir de uma posição obtida depois da gravação do registro.
+ */
+final class ArquivoLog implements Closeable {
+
+    /**
+     * Assinatura "PRODLOG1".
+     */
+    static final long ASSINATURA = 0x50524F444C4F4731L;
+
+    static final int VERSAO = 1;
+
+    static final int CABECALHO_ARQUIVO = 16;
+
+    static final int CABECALHO_REGISTRO = 8;
+
+    /**
+     * Recebe cada registro lido na abertura do arquivo.
+     */
+    @FunctionalInterface
+    interface Leitor {
+
+        void ler(long posicao, ByteBuffer conteudo);
+    }
+
+    private final FileChannel canal;
+
+    private final int tamanhoRegiao;
+
+    private volatile MappedByteBuffer[] regioes = new MappedByteBuffer[0];
+
+    private long fim;
+
+    private int primeiraRegiaoPendente;
+
+    private static final Logger logger = LoggerFactory.getLogger(ArquivoLog.class);
+
+    private ArquivoLog(FileChannel canal, int tamanhoRegiao) {
+        this.canal = canal;
+        this.tamanhoRegiao = tamanhoRegiao;
+    }
+
+    /**
+     * Abre ou cria um arquivo de log, entregando cada registro válido ao leitor, na ordem em que foram gravados.
+     *
+     * @param tamanhoRegiao Tamanho das regiões de um arquivo novo; um arquivo existente mantém o tamanho com que
+     *                      foi criado.
+     * @throws IOException Exceção lançada caso o arquivo não possa ser aberto ou não seja um log de produtos.
+     */
+    static ArquivoLog abrir(Path caminho, int tamanhoRegiao, Leitor leitor) throws IOException {
+        FileChannel canal = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long tamanhoArquivo = canal.size();
+            ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO_ARQUIVO);
+            if (tamanhoArquivo >= CABECALHO_ARQUIVO) {
+                while (cabecalho.hasRemaining() && canal.read(cabecalho, cabecalho.position()) >= 0) {
+                }
+                cabecalho.flip();
+            }
+            boolean novo = tamanhoArquivo < CABECALHO_ARQUIVO || cabecalho.getLong(0) == 0;
+            if (!novo) {
+                if (cabecalho.getLong(0) != ASSINATURA || cabecalho.getInt(8) != VERSAO) {
+                    throw new IOException("O arquivo " + caminho + " não é um log de produtos");
+                }
+                tamanhoRegiao = cabecalho.getInt(12);
+            }
+            if (tamanhoRegiao < 4096) {
+                throw new IllegalArgumentException("O tamanho da região do log deve ser de pelo menos 4KB");
+            }
+            ArquivoLog log = new ArquivoLog(canal, tamanhoRegiao);
+            long regioesExistentes = Math.max(1, (tamanhoArquivo + tamanhoRegiao - 1) / tamanhoRegiao);
+            for (int i = 0; i < regioesExistentes; i++) {
+                log.mapear(i);
+            }
+            if (novo) {
+                log.regioes[0].putLong(0, ASSINATURA).putInt(8, VERSAO).putInt(12, tamanhoRegiao);
+            }
+            log.recuperar(leitor);
+            return log;
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private void recuperar(Leitor leitor) {
+        long posicao = CABECALHO_ARQUIVO;
+        boolean truncado = false;
+        while (posicao / tamanhoRegiao < regioes.length) {
+            MappedByteBuffer regiao = regioes[(int) (posicao / tamanhoRegiao)];
+            int deslocamento = (int) (posicao % tamanhoRegiao);
+            if (tamanhoRegiao - deslocamento < CABECALHO_REGISTRO || regiao.getInt(deslocamento) == 0) {
+                // Fim dos registros da região: continuam na próxima, se ela começar com um registro válido
+                long proxima = (posicao / tamanhoRegiao + 1) * tamanhoRegiao;
+                if (deslocamento == 0 || proxima / tamanhoRegiao >= regioes.length
+                        || conteudo(regioes[(int) (proxima / tamanhoRegiao)], 0) == null) {
+                    break;
+                }
+                posicao = proxima;
+                continue;
+            }
+            ByteBuffer conteudo = conteudo(regiao, deslocamento);
+            if (conteudo == null) {
+                truncado = true;
+                break;
+            }
+            leitor.ler(posicao, conteudo);
+            posicao += CABECALHO_REGISTRO + conteudo.remaining();
+        }
+        fim = posicao;
+        primeiraRegiaoPendente = (int) (fim / tamanhoRegiao);
+        if (truncado) {
+            logger.warn("Registro inválido na posição " + fim + " do log, descartando o restante do arquivo");
+            MappedByteBuffer regiao = regioes[primeiraRegiaoPendente];
+            byte[] zeros = new byte[4096];
+            for (int i = (int) (fim % tamanhoRegiao); i < tamanhoRegiao; i += zeros.length) {
+                regiao.put(i, zeros, 0, Math.min(zeros.length, tamanhoRegiao - i));
+            }
+        }
+        // Registros além do fim, de uma gravação interrompida, não podem ser lidos numa próxima abertura
+        for (int i = primeiraRegiaoPendente + 1; i < regioes.length; i++) {
+            regioes[i].putLong(0, 0);
+        }
+    }
+
+    /**
+     * Obtém o conteúdo do registro em um deslocamento da região, ou {@code null} se o registro for inválido.
+     */
+    private ByteBuffer conteudo(MappedByteBuffer regiao, int deslocamento) {
+        int tamanho = regiao.getInt(deslocamento);
+        if (tamanho <= 0 || tamanho > tamanhoRegiao - deslocamento - CABECALHO_REGISTRO) {
+            return null;
+        }
+        ByteBuffer conteudo = regiao.slice(deslocamento + CABECALHO_REGISTRO, tamanho);
+        CRC32C crc = new CRC32C();
+        crc.update(conteudo.duplicate());
+        return (int) crc.getValue() == regiao.getInt(deslocamento + 4) ? conteudo : null;
+    }
+
+    private void mapear(int indice) throws IOException {
+        MappedByteBuffer[] novas = Arrays.copyOf(regioes, indice + 1);
+        for (int i = regioes.length; i <= indice; i++) {
+            novas[i] = canal.map(FileChannel.MapMode.READ_WRITE, (long) i * tamanhoRegiao, tamanhoRegiao);
+        }
+        regioes = novas;
+    }
+
+    /**
+     * Anexa um registro ao final do arquivo.
+     *
+     * @param conteudo Conteúdo do registro, entre a posição e o limite do buffer, que não é alterado.
+     * @return Posição do registro, a ser informada em {@link #ler(long)}.
+     * @throws IllegalArgumentException Caso o registro não caiba em uma região.
+     */
+    long anexar(ByteBuffer conteudo) throws IOException {
+        int tamanho = conteudo.remaining();
+        int necessario = CABECALHO_REGISTRO + tamanho;
+        if (tamanho == 0 || necessario > tamanhoRegiao - CABECALHO_ARQUIVO) {
+            throw new IllegalArgumentException("Registro de " + tamanho + " bytes não cabe em uma região do log ("
+                    + tamanhoRegiao + " bytes)");
+        }
+        int deslocamento = (int) (fim % tamanhoRegiao);
+        if (deslocamento + necessario > tamanhoRegiao) {
+            if (tamanhoRegiao - deslocamento >= Integer.BYTES) {
+                regioes[(int) (fim / tamanhoRegiao)].putInt(deslocamento, 0);
+            }
+            fim = (fim / tamanhoRegiao + 1) * tamanhoRegiao;
+            deslocamento = 0;
+        }
+        int indice = (int) (fim / tamanhoRegiao);
+        if (indice >= regioes.length) {
+            mapear(indice);
+        }
+        MappedByteBuffer regiao = regioes[indice];
+        CRC32C crc = new CRC32C();
+        crc.update(conteudo.duplicate());
+        regiao.put(deslocamento + CABECALHO_REGISTRO, conteudo, conteudo.position(), tamanho);
+        regiao.putInt(deslocamento + 4, (int) crc.getValue());
+        regiao.putInt(deslocamento, tamanho);
+        long posicao = fim;
+        fim += necessario;
+        return posicao;
+    }
+
+    /**
+     * Lê o conteúdo de um registro. O buffer retornado compartilha a memória do arquivo e não deve ser alterado.
+     */
+    ByteBuffer ler(long posicao) {
+        MappedByteBuffer regiao = regioes[(int) (posicao / tamanhoRegiao)];
+        int deslocamento = (int) (posicao % tamanhoRegiao);
+        return regiao.slice(deslocamento + CABECALHO_REGISTRO, regiao.getInt(deslocamento));
+    }
+
+    /**
+     * Grava em disco as regiões alteradas desde a última chamada.
+     */
+    void forcar() {
+        MappedByteBuffer[] regioes = this.regioes;
+        int ultima = (int) Math.min(regioes.length - 1, fim / tamanhoRegiao);
+        for (int i = primeiraRegiaoPendente; i <= ultima; i++) {
+            regioes[i].force();
+        }
+        primeiraRegiaoPendente = ultima;
+    }
+
+    /**
+     * Posição do fim dos registros, que corresponde aproximadamente ao tamanho ocupado pelo log.
+     */
+    long tamanho() {
+        return fim;
+    }
+
+    int tamanhoRegiao() {
+        return tamanhoRegiao;
+    }
+
+    /**
+     * Grava as alterações em disco e fecha o arquivo. As regiões continuam mapeadas, e portanto legíveis, até
+     * serem descartadas pelo coletor de lixo.
+     */
+    @Override
+    public void close() throws IOException {
+        forcar();
+        canal.close();
+    }
+}
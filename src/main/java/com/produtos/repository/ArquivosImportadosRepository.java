@@ -0,0 +1,9 @@
+package com.produtos.repository;
+
+import com.produtos.model.ArquivoImportadoModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArquivosImportadosRepository extends JpaRepository<ArquivoImportadoModel, String> {
+}
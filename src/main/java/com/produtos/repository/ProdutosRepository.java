@@ -1,10 +1,97 @@
 package com.produtos.repository;
 
 import com.produtos.model.ProdutoModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 @Repository
-public interface ProdutosRepository extends JpaRepository<ProdutoModel, UUID> {
+public interface ProdutosRepository extends JpaRepository<ProdutoModel, UUID>, ProdutosRepositoryCustom {
+
+    /**
+     * Obtém a primeira página da listagem de produtos, ordenada por nome e ID.
+     */
+    List<ProdutoModel> findAllByOrderByNomeAscIdAsc(Pageable pageable);
+
+    /**
+     * Obtém os produtos posteriores a uma posição da listagem ordenada por nome e ID.
+     */
+    @Query("select p from ProdutoModel p where p.nome > :nome or (p.nome = :nome and p.id > :id) order by p.nome, p.id")
+    List<ProdutoModel> findPaginaApos(@Param("nome") String nome, @Param("id") UUID id, Pageable pageable);
+
+    /**
+     * Percorre todos os produtos, ordenados por nome e ID, lendo-os do banco de dados em blocos.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from ProdutoModel p order by p.nome, p.id")
+    Stream<ProdutoModel> streamAllOrdenados();
+
+    /**
+     * Calcula, numa única linha, a quantidade de produtos, a quantidade de produtos sem estoque e as somas da
+     * quantidade em estoque, do valor e do peso multiplicados pela quantidade em estoque. As somas são nulas se não
+     * houver produtos.
+     */
+    @Query("select count(p), sum(case when coalesce(p.quantidade_estoque, 0) = 0 then 1 else 0 end), "
+            + "sum(p.quantidade_estoque), sum(p.valor * p.quantidade_estoque), sum(p.peso * p.quantidade_estoque) "
+            + "from ProdutoModel p")
+    List<Object[]> calcularTotais();
+
+    /**
+     * Exclui um produto com um único comando DELETE.
+     *
+     * @return Quantidade de produtos excluídos (0 se o produto não existir).
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ProdutoModel p where p.id = :id")
+    int excluirPorId(@Param("id") UUID id);
+
+    /**
+     * Substitui todos os campos de um produto com um único comando UPDATE, sem carregá-lo antes.
+     *
+     * @return Quantidade de produtos atualizados (0 se o produto não existir).
+     */
+    @Transactional
+    @Modifying
+    @Query("update ProdutoModel p set p.nome = :nome, p.valor = :valor, p.descricao = :descricao, "
+            + "p.quantidade_estoque = :quantidadeEstoque, p.peso = :peso where p.id = :id")
+    int atualizar(@Param("id") UUID id, @Param("nome") String nome, @Param("valor") BigDecimal valor,
+                  @Param("descricao") String descricao, @Param("quantidadeEstoque") Long quantidadeEstoque,
+                  @Param("peso") BigDecimal peso);
+
+    /**
+     * Soma {@code delta} à quantidade em estoque de um produto com um único comando UPDATE, desde que o resultado
+     * não fique negativo. Uma quantidade nula é tratada como zero.
+     *
+     * @return Quantidade de produtos atualizados (0 se o produto não existir ou se o estoque for insuficiente).
+     */
+    @Transactional
+    @Modifying
+    @Query("update ProdutoModel p set p.quantidade_estoque = coalesce(p.quantidade_estoque, 0) + :delta "
+            + "where p.id = :id and coalesce(p.quantidade_estoque, 0) + :delta >= 0")
+    int ajustarEstoque(@Param("id") UUID id, @Param("delta") long delta);
+
+    /**
+     * Soma {@code delta} à quantidade em estoque de um produto com um único comando UPDATE, limitando o resultado
+     * a zero. Usado para aplicar os ajustes acumulados, que já foram aceitos e não podem mais ser recusados.
+     *
+     * @return Quantidade de produtos atualizados (0 se o produto não existir).
+     */
+    @Transactional
+    @Modifying
+    @Query("update ProdutoModel p set p.quantidade_estoque = case when coalesce(p.quantidade_estoque, 0) + :delta < 0 "
+            + "then 0 else coalesce(p.quantidade_estoque, 0) + :delta end where p.id = :id")
+    int ajustarEstoqueLimitado(@Param("id") UUID id, @Param("delta") long delta);
 }
@@ -0,0 +1,29 @@
+package com.produtos.repository;
+
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.ProdutoModel;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ProdutosRepositoryCustom {
+
+    /**
+     * Atualiza apenas os campos informados de um produto, com um comando UPDATE montado a partir deles.
+     *
+     * @param id         ID do produto a ser atualizado.
+     * @param produtoDTO Campos a serem atualizados; campos nulos são mantidos.
+     * @return Quantidade de produtos atualizados (0 se o produto não existir).
+     */
+    int atualizarParcialmente(UUID id, ProdutoPatchDTO produtoDTO);
+
+    /**
+     * Busca os produtos cujos atributos informados correspondem a alguma das chaves.
+     *
+     * @param atributos Nomes dos atributos que formam a chave.
+     * @param chaves    Valores de cada chave, na mesma ordem dos atributos.
+     * @return Produtos encontrados, em qualquer ordem.
+     */
+    List<ProdutoModel> buscarPorChave(List<String> atributos, Collection<List<Object>> chaves);
+}
@@ -0,0 +1,72 @@
+package com.produtos.repository;
+
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.ProdutoModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+class ProdutosRepositoryCustomImpl implements ProdutosRepositoryCustom {
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int atualizarParcialmente(UUID id, ProdutoPatchDTO produtoDTO) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<ProdutoModel> update = builder.createCriteriaUpdate(ProdutoModel.class);
+        Root<ProdutoModel> produto = update.from(ProdutoModel.class);
+        if (produtoDTO.nome() != null) {
+            update.set(produto.<String>get("nome"), produtoDTO.nome());
+        }
+        if (produtoDTO.valor() != null) {
+            update.set(produto.get("valor"), produtoDTO.valor());
+        }
+        if (produtoDTO.descricao() != null) {
+            update.set(produto.<String>get("descricao"), produtoDTO.descricao());
+        }
+        if (produtoDTO.quantidade_estoque() != null) {
+            update.set(produto.get("quantidade_estoque"), produtoDTO.quantidade_estoque());
+        }
+        if (produtoDTO.peso() != null) {
+            update.set(produto.get("peso"), produtoDTO.peso());
+        }
+        update.where(builder.equal(produto.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<ProdutoModel> buscarPorChave(List<String> atributos, Collection<List<Object>> chaves) {
+        if (chaves.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProdutoModel> query = builder.createQuery(ProdutoModel.class);
+        Root<ProdutoModel> produto = query.from(ProdutoModel.class);
+        if (atributos.size() == 1) {
+            query.where(produto.get(atributos.get(0)).in(chaves.stream().map(chave -> chave.get(0)).toList()));
+        } else {
+            List<Predicate> alternativas = new ArrayList<>(chaves.size());
+            for (List<Object> chave : chaves) {
+                Predicate[] iguais = new Predicate[atributos.size()];
+                for (int i = 0; i < iguais.length; i++) {
+                    iguais[i] = builder.equal(produto.get(atributos.get(i)), chave.get(i));
+                }
+                alternativas.add(builder.and(iguais));
+            }
+            query.where(builder.or(alternativas.toArray(new Predicate[0])));
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+}
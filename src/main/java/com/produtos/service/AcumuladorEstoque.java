@@ -0,0 +1,143 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+import com.produtos.repository.ArmazenamentoProdutos;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Acumula em memória os ajustes de estoque de produtos muito disputados e os grava em lote periodicamente.
+ * <p>
+ * Cada produto possui um {@link LongAdder}, que distribui as somas concorrentes entre células independentes, de
+ * forma que pedidos simultâneos do mesmo produto não disputam um único contador nem a mesma linha do banco de
+ * dados. A cada {@code produtos.estoque.acumulador.intervalo} o saldo de cada produto é retirado com
+ * {@link LongAdder#sumThenReset()} e todos os saldos são gravados em uma única transação, um UPDATE por produto.
+ * Um ajuste feito durante a gravação entra no lote seguinte; se a gravação falhar, os saldos são devolvidos ao
+ * acumulador. Como os ajustes já foram aceitos, o estoque resultante é limitado a zero em vez de recusado, e os
+ * ajustes de produtos inexistentes são descartados.
+ * <p>
+ * O contador de um produto sem ajustes desde a gravação anterior é removido, de forma que a memória ocupada depende
+ * apenas dos produtos ajustados recentemente. Um ajuste somado a um contador durante a sua remoção é transferido
+ * para um novo contador por {@link #acumular(UUID, long)}.
+ */
+@Component
+public class AcumuladorEstoque {
+
+    private final Map<UUID, LongAdder> pendentes = new ConcurrentHashMap<>();
+
+    private final ReentrantLock gravacao = new ReentrantLock();
+
+    @Autowired
+    ArmazenamentoProdutos armazenamentoProdutos;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ProdutoCache produtoCache;
+
+    @Autowired
+    ProdutoSearchIndex produtoSearchIndex;
+
+    @Autowired
+    ProdutoEventos produtoEventos;
+
+    Logger logger = LoggerFactory.getLogger(AcumuladorEstoque.class);
+
+    /**
+     * Registra um ajuste de estoque, que será gravado na próxima gravação do acumulador.
+     */
+    public void acumular(UUID id, long delta) {
+        LongAdder adder = pendentes.computeIfAbsent(id, chave -> new LongAdder());
+        adder.add(delta);
+        if (pendentes.get(id) != adder) {
+            // O contador foi removido pela gravação; o que ela não retirou dele é somado a um novo contador
+            long resto = adder.sumThenReset();
+            if (resto != 0) {
+                acumular(id, resto);
+            }
+        }
+    }
+
+    /**
+     * Soma dos ajustes ainda não gravados de um produto.
+     */
+    public long pendente(UUID id) {
+        LongAdder adder = pendentes.get(id);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Quantidade de produtos com contador, incluindo os já gravados que ainda não foram removidos.
+     */
+    int produtosPendentes() {
+        return pendentes.size();
+    }
+
+    @Scheduled(fixedDelayString = "${produtos.estoque.acumulador.intervalo:PT1S}")
+    @PreDestroy
+    void gravarPendentes() {
+        gravar();
+    }
+
+    /**
+     * Grava os ajustes acumulados desde a última gravação. Gravações simultâneas são executadas uma de cada vez.
+     *
+     * @return Quantidade de produtos atualizados.
+     */
+    public int gravar() {
+        gravacao.lock();
+        try {
+            return gravarLote();
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    private int gravarLote() {
+        Map<UUID, Long> lote = new HashMap<>();
+        pendentes.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta == 0 && pendentes.remove(id, adder)) {
+                // Retira os ajustes somados antes da remoção; os posteriores são transferidos por acumular
+                delta = adder.sumThenReset();
+            }
+            if (delta != 0) {
+                lote.put(id, delta);
+            }
+        });
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        List<UUID> atualizados = new ArrayList<>(lote.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> lote.forEach((id, delta) -> {
+                if (armazenamentoProdutos.ajustarEstoqueLimitado(id, delta) > 0) {
+                    atualizados.add(id);
+                } else {
+                    logger.warn("Ajuste de estoque descartado, produto não encontrado: " + id);
+                }
+            }));
+        } catch (RuntimeException e) {
+            logger.error("Falha ao gravar os ajustes de estoque acumulados de " + lote.size() + " produtos", e);
+            lote.forEach(this::acumular);
+            throw e;
+        }
+        atualizados.forEach(produtoCache::invalidate);
+        List<ProdutoModel> produtos = armazenamentoProdutos.buscarPorIds(atualizados);
+        produtoSearchIndex.indexar(produtos);
+        produtoEventos.atualizados(produtos);
+        logger.info("Ajustes de estoque acumulados gravados para " + atualizados.size() + " produtos");
+        return atualizados.size();
+    }
+}
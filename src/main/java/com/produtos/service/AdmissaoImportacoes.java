@@ -0,0 +1,131 @@
+package com.produtos.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Controle de admissão das importações de arquivos CSV, para que elas não ocupem todas as conexões do banco de dados
+ * e as leituras continuem sendo atendidas durante uma carga do catálogo.
+ * <p>
+ * No máximo {@code produtos.csv.admissao.simultaneas} importações, entre uploads e importações em segundo plano, são
+ * executadas ao mesmo tempo. Cada importação grava seus lotes em sequência, usando uma conexão por vez, de forma que
+ * as importações juntas nunca ocupam mais que esse número de conexões do pool. Um upload que chega com todas as vagas
+ * ocupadas aguarda numa fila de até {@code produtos.csv.admissao.fila} uploads, por até
+ * {@code produtos.csv.admissao.espera-maxima}; com a fila cheia, ou ao fim da espera, é recusado com uma
+ * {@link ImportacaoRecusadaException}. As importações em segundo plano já aguardam na fila do
+ * {@code importacaoExecutor} e aguardam a vaga sem limite de tempo.
+ */
+@Component
+public class AdmissaoImportacoes {
+
+    /**
+     * Quantidade máxima de importações executadas ao mesmo tempo.
+     */
+    @Value("${produtos.csv.admissao.simultaneas:2}")
+    int simultaneas = 2;
+
+    /**
+     * Quantidade máxima de uploads aguardando uma vaga.
+     */
+    @Value("${produtos.csv.admissao.fila:4}")
+    int fila = 4;
+
+    /**
+     * Tempo máximo que um upload aguarda uma vaga antes de ser recusado.
+     */
+    @Value("${produtos.csv.admissao.espera-maxima:PT30S}")
+    Duration esperaMaxima = Duration.ofSeconds(30);
+
+    /**
+     * Tempo informado aos clientes recusados no header {@code Retry-After}.
+     */
+    @Value("${produtos.csv.admissao.tentar-novamente:PT10S}")
+    Duration tentarNovamente = Duration.ofSeconds(10);
+
+    @Autowired
+    ImportacaoMetricas importacaoMetricas;
+
+    private final AtomicInteger aguardando = new AtomicInteger();
+
+    private Semaphore vagas;
+
+    Logger logger = LoggerFactory.getLogger(AdmissaoImportacoes.class);
+
+    @PostConstruct
+    void iniciar() {
+        vagas = new Semaphore(simultaneas, true);
+    }
+
+    /**
+     * Ocupa uma vaga para um upload, aguardando na fila caso não haja nenhuma livre. A vaga deve ser devolvida com
+     * {@link #liberar()} ao fim da importação.
+     *
+     * @throws ImportacaoRecusadaException Exceção lançada caso a fila esteja cheia, ou nenhuma vaga seja liberada
+     *                                     dentro da espera máxima.
+     */
+    public void admitir() {
+        try {
+            // O tryAcquire sem tempo de espera passaria à frente dos uploads que já aguardam na fila
+            if (vagas.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            if (aguardando.incrementAndGet() > fila) {
+                aguardando.decrementAndGet();
+                throw recusar("fila de importações cheia");
+            }
+            try {
+                if (!vagas.tryAcquire(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw recusar("nenhuma vaga liberada em " + esperaMaxima);
+                }
+            } finally {
+                aguardando.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw recusar("espera interrompida");
+        }
+    }
+
+    /**
+     * Ocupa uma vaga para uma importação em segundo plano, aguardando o tempo necessário.
+     */
+    public void aguardar() throws InterruptedException {
+        vagas.acquire();
+    }
+
+    /**
+     * Devolve a vaga ocupada por {@link #admitir()} ou {@link #aguardar()}.
+     */
+    public void liberar() {
+        vagas.release();
+    }
+
+    /**
+     * Registra a recusa de uma importação.
+     *
+     * @param motivo Motivo da recusa, registrado no log.
+     * @return Exceção a ser lançada ao cliente.
+     */
+    public ImportacaoRecusadaException recusar(String motivo) {
+        logger.warn("Importação recusada: " + motivo);
+        importacaoMetricas.importacaoRecusada();
+        return new ImportacaoRecusadaException("Importação recusada: " + motivo, tentarNovamente);
+    }
+
+    public int getAguardando() {
+        return aguardando.get();
+    }
+
+    public int getVagasLivres() {
+        return vagas.availablePermits();
+    }
+}
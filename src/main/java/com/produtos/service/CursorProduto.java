@@ -0,0 +1,48 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Posição de um produto na listagem ordenada por nome e ID, utilizada na paginação por cursor.
+ * O cursor é enviado aos clientes como um token opaco.
+ * <p>
+ * O nome é obrigatório em todas as gravações, inclusive nas importações; um produto sem nome não tem posição na
+ * listagem, já que a comparação com {@code nome > :nome} nunca o alcançaria.
+ */
+public record CursorProduto(String nome, UUID id) {
+
+    private static final char SEPARADOR = ':';
+
+    public CursorProduto {
+        Objects.requireNonNull(nome, "Produto sem nome não pode ser usado como cursor");
+        Objects.requireNonNull(id, "Produto sem ID não pode ser usado como cursor");
+    }
+
+    public static CursorProduto of(ProdutoModel produto) {
+        return new CursorProduto(produto.getNome(), produto.getId());
+    }
+
+    public String codificar() {
+        String conteudo = id.toString() + SEPARADOR + nome;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Obtém a posição representada por um token.
+     *
+     * @throws IllegalArgumentException Caso o token seja inválido.
+     */
+    public static CursorProduto decodificar(String token) {
+        String conteudo = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separador = conteudo.indexOf(SEPARADOR);
+        if (separador < 0) {
+            throw new IllegalArgumentException("Cursor inválido: " + token);
+        }
+        return new CursorProduto(conteudo.substring(separador + 1), UUID.fromString(conteudo.substring(0, separador)));
+    }
+}
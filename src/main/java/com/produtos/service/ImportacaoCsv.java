@@ -0,0 +1,244 @@
+package com.produtos.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Acompanha o andamento de uma importação de arquivo CSV.
+ * Os contadores são atualizados pela thread que processa o arquivo e podem ser lidos a qualquer momento.
+ */
+public class ImportacaoCsv {
+
+    public enum Status { PENDENTE, EM_ANDAMENTO, CONCLUIDA, FALHA, CANCELADA, IGNORADA }
+
+    private final UUID id = UUID.randomUUID();
+
+    private final boolean rejeitarLinhasInvalidas;
+
+    private final boolean upsert;
+
+    private final AtomicLong linhasLidas = new AtomicLong();
+
+    private final AtomicLong linhasGravadas = new AtomicLong();
+
+    private final AtomicLong linhasRejeitadas = new AtomicLong();
+
+    private final AtomicLong linhasInseridas = new AtomicLong();
+
+    private final AtomicLong linhasAtualizadas = new AtomicLong();
+
+    private final AtomicLong linhasInalteradas = new AtomicLong();
+
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.PENDENTE);
+
+    private volatile Instant inicio;
+
+    private volatile Instant fim;
+
+    private volatile String erro;
+
+    private volatile boolean cancelamentoSolicitado;
+
+    /**
+     * Instante, em {@link System#nanoTime()}, a partir do qual o próximo lote pode ser gravado sem exceder o limite
+     * de linhas por segundo. Usado apenas pela thread que grava os lotes.
+     */
+    private long proximaGravacao = System.nanoTime();
+
+    /**
+     * @param rejeitarLinhasInvalidas Se {@code true}, linhas inválidas são contabilizadas como rejeitadas e a
+     *                                importação continua; caso contrário a importação é interrompida.
+     */
+    public ImportacaoCsv(boolean rejeitarLinhasInvalidas) {
+        this(rejeitarLinhasInvalidas, false);
+    }
+
+    /**
+     * @param rejeitarLinhasInvalidas Se {@code true}, linhas inválidas são contabilizadas como rejeitadas e a
+     *                                importação continua; caso contrário a importação é interrompida.
+     * @param upsert                  Se {@code true}, produtos já existentes com a mesma chave natural são
+     *                                atualizados em vez de duplicados, e um arquivo idêntico a um já importado
+     *                                é ignorado.
+     */
+    public ImportacaoCsv(boolean rejeitarLinhasInvalidas, boolean upsert) {
+        this.rejeitarLinhasInvalidas = rejeitarLinhasInvalidas;
+        this.upsert = upsert;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public boolean isRejeitarLinhasInvalidas() {
+        return rejeitarLinhasInvalidas;
+    }
+
+    public boolean isUpsert() {
+        return upsert;
+    }
+
+    public long getLinhasLidas() {
+        return linhasLidas.get();
+    }
+
+    public long getLinhasGravadas() {
+        return linhasGravadas.get();
+    }
+
+    public long getLinhasRejeitadas() {
+        return linhasRejeitadas.get();
+    }
+
+    public long getLinhasInseridas() {
+        return linhasInseridas.get();
+    }
+
+    public long getLinhasAtualizadas() {
+        return linhasAtualizadas.get();
+    }
+
+    public long getLinhasInalteradas() {
+        return linhasInalteradas.get();
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    public Instant getInicio() {
+        return inicio;
+    }
+
+    public Instant getFim() {
+        return fim;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public boolean isCancelamentoSolicitado() {
+        return cancelamentoSolicitado;
+    }
+
+    public boolean isFinalizada() {
+        Status status = this.status.get();
+        return status == Status.CONCLUIDA || status == Status.FALHA || status == Status.CANCELADA
+                || status == Status.IGNORADA;
+    }
+
+    /**
+     * Calcula a vazão da importação em linhas gravadas por segundo.
+     */
+    public long getLinhasPorSegundo() {
+        Instant inicio = this.inicio;
+        if (inicio == null) {
+            return 0;
+        }
+        Instant fim = this.fim != null ? this.fim : Instant.now();
+        long duracaoMs = Math.max(1, Duration.between(inicio, fim).toMillis());
+        return getLinhasGravadas() * 1000 / duracaoMs;
+    }
+
+    void linhaLida() {
+        linhasLidas.incrementAndGet();
+    }
+
+    void linhasLidas(int quantidade) {
+        linhasLidas.addAndGet(quantidade);
+    }
+
+    void linhasGravadas(int quantidade) {
+        linhasGravadas.addAndGet(quantidade);
+    }
+
+    void linhaRejeitada() {
+        linhasRejeitadas.incrementAndGet();
+    }
+
+    void linhasRejeitadas(int quantidade) {
+        linhasRejeitadas.addAndGet(quantidade);
+    }
+
+    /**
+     * Contabiliza o resultado de um lote gravado com upsert; as linhas inseridas e atualizadas também contam como
+     * gravadas.
+     */
+    void linhasUpsert(int inseridas, int atualizadas, int inalteradas) {
+        linhasInseridas.addAndGet(inseridas);
+        linhasAtualizadas.addAndGet(atualizadas);
+        linhasInalteradas.addAndGet(inalteradas);
+        linhasGravadas.addAndGet(inseridas + atualizadas);
+    }
+
+    /**
+     * Reserva a gravação de um lote dentro de um limite de linhas por segundo. Uma importação que ficou abaixo do
+     * limite, por exemplo enquanto lia o arquivo, não acumula crédito para gravar lotes seguidos depois.
+     *
+     * @param linhas           Quantidade de linhas do lote.
+     * @param linhasPorSegundo Limite de linhas gravadas por segundo.
+     * @return Tempo, em nanossegundos, que a gravação do lote deve aguardar.
+     */
+    long reservarGravacao(int linhas, long linhasPorSegundo) {
+        long agora = System.nanoTime();
+        long espera = Math.max(0, proximaGravacao - agora);
+        proximaGravacao = agora + espera + linhas * 1_000_000_000L / linhasPorSegundo;
+        return espera;
+    }
+
+    /**
+     * Marca a importação como em andamento.
+     *
+     * @return {@code false} se a importação foi cancelada antes de começar.
+     */
+    boolean iniciar() {
+        if (status.compareAndSet(Status.PENDENTE, Status.EM_ANDAMENTO)) {
+            inicio = Instant.now();
+            return true;
+        }
+        return false;
+    }
+
+    void concluir() {
+        fim = Instant.now();
+        status.set(cancelamentoSolicitado ? Status.CANCELADA : Status.CONCLUIDA);
+    }
+
+    /**
+     * Finaliza sem processar uma importação cujo arquivo já foi importado.
+     *
+     * @return {@code false} se a importação já havia começado ou sido cancelada.
+     */
+    boolean ignorar() {
+        if (status.compareAndSet(Status.PENDENTE, Status.IGNORADA)) {
+            inicio = Instant.now();
+            fim = inicio;
+            return true;
+        }
+        return false;
+    }
+
+    void falhar(String erro) {
+        this.erro = erro;
+        fim = Instant.now();
+        status.set(Status.FALHA);
+    }
+
+    /**
+     * Solicita o cancelamento da importação. Uma importação que ainda não começou é descartada; uma importação
+     * em andamento é interrompida ao final da linha atual, mantendo os lotes já gravados.
+     *
+     * @return {@code true} se a importação ainda não havia sido finalizada.
+     */
+    boolean cancelar() {
+        cancelamentoSolicitado = true;
+        if (status.compareAndSet(Status.PENDENTE, Status.CANCELADA)) {
+            fim = Instant.now();
+            return true;
+        }
+        return status.get() == Status.EM_ANDAMENTO;
+    }
+}
@@ -0,0 +1,148 @@
+package com.produtos.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class ImportacaoCsvService {
+
+    @Autowired
+    ProdutoService produtoService;
+
+    @Autowired
+    ThreadPoolTaskExecutor importacaoExecutor;
+
+    @Autowired
+    AdmissaoImportacoes admissaoImportacoes;
+
+    /**
+     * Diretório onde os arquivos enviados são gravados até serem processados.
+     */
+    @Value("${produtos.csv.jobs.diretorio:${java.io.tmpdir}}")
+    String diretorio = System.getProperty("java.io.tmpdir");
+
+    /**
+     * Tempo pelo qual uma importação finalizada continua disponível para consulta.
+     */
+    @Value("${produtos.csv.jobs.retencao:PT1H}")
+    Duration retencao = Duration.ofHours(1);
+
+    private final Map<UUID, ImportacaoCsv> importacoes = new ConcurrentHashMap<>();
+
+    Logger logger = LoggerFactory.getLogger(ImportacaoCsvService.class);
+
+    public ImportacaoCsv agendarImportacao(MultipartFile file) throws IOException {
+        return agendarImportacao(file, false);
+    }
+
+    /**
+     * Grava o arquivo em disco e agenda sua importação em segundo plano.
+     *
+     * @param file   Arquivo CSV a ser importado.
+     * @param upsert Se {@code true}, a importação atualiza os produtos já existentes com a mesma chave natural.
+     * @return Importação agendada.
+     * @throws IOException                 Exceção lançada caso ocorra um erro ao gravar o arquivo em disco.
+     * @throws ImportacaoRecusadaException Exceção lançada caso o limite de importações pendentes tenha sido atingido.
+     * @throws IllegalStateException       Caso {@code upsert} seja {@code true} e o banco de dados não possua o
+     *                                     índice único da chave natural.
+     */
+    public ImportacaoCsv agendarImportacao(MultipartFile file, boolean upsert) throws IOException {
+        if (upsert) {
+            produtoService.verificarImportacaoUpsert();
+        }
+        removerImportacoesExpiradas();
+        Path arquivo = Files.createTempFile(Paths.get(diretorio), "importacao-", ".csv");
+        try {
+            file.transferTo(arquivo);
+            ImportacaoCsv importacao = new ImportacaoCsv(true, upsert);
+            importacoes.put(importacao.getId(), importacao);
+            try {
+                importacaoExecutor.execute(() -> executar(importacao, arquivo));
+            } catch (TaskRejectedException e) {
+                importacoes.remove(importacao.getId());
+                throw admissaoImportacoes.recusar("fila de importações em segundo plano cheia");
+            }
+            logger.info("Importação " + importacao.getId() + " agendada");
+            return importacao;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(arquivo);
+            throw e;
+        }
+    }
+
+    public ImportacaoCsv getImportacao(UUID id) {
+        return importacoes.get(id);
+    }
+
+    /**
+     * Solicita o cancelamento de uma importação.
+     *
+     * @param id ID da importação.
+     * @return Importação encontrada, ou {@code null} caso não exista.
+     */
+    public ImportacaoCsv cancelarImportacao(UUID id) {
+        ImportacaoCsv importacao = importacoes.get(id);
+        if (importacao != null && importacao.cancelar()) {
+            logger.info("Cancelamento da importação " + id + " solicitado");
+        }
+        return importacao;
+    }
+
+    /**
+     * Executa uma importação agendada, depois de obter uma vaga do {@link AdmissaoImportacoes}. Uma importação
+     * cancelada enquanto pendente não disputa vaga, e a que for cancelada enquanto aguarda devolve a vaga sem ler o
+     * arquivo.
+     */
+    void executar(ImportacaoCsv importacao, Path arquivo) {
+        try {
+            if (importacao.isCancelamentoSolicitado()) {
+                logger.info("Importação " + importacao.getId() + " cancelada antes de obter vaga");
+                return;
+            }
+            admissaoImportacoes.aguardar();
+            try {
+                if (importacao.isCancelamentoSolicitado()) {
+                    logger.info("Importação " + importacao.getId() + " cancelada enquanto aguardava vaga");
+                    return;
+                }
+                produtoService.importarCsv(arquivo, importacao);
+            } finally {
+                admissaoImportacoes.liberar();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            importacao.falhar("Importação interrompida antes de começar");
+        } catch (Exception e) {
+            logger.error("Falha na importação " + importacao.getId(), e);
+            importacao.falhar(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException e) {
+                logger.warn("Falha ao remover o arquivo temporário " + arquivo, e);
+            }
+        }
+    }
+
+    private void removerImportacoesExpiradas() {
+        Instant limite = Instant.now().minus(retencao);
+        importacoes.values().removeIf(importacao -> importacao.isFinalizada()
+                && importacao.getFim() != null && importacao.getFim().isBefore(limite));
+    }
+}
@@ -0,0 +1,88 @@
+package com.produtos.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Métricas das importações de arquivos CSV de produtos.
+ * <ul>
+ *     <li>{@code produtos.importacao.linhas}: contador de linhas, com a tag {@code situacao} igual a
+ *     {@code lidas}, {@code gravadas} ou {@code rejeitadas}.</li>
+ *     <li>{@code produtos.importacao.linhas.por.segundo}: soma da vazão das importações em andamento.</li>
+ *     <li>{@code produtos.importacao.em.andamento}: quantidade de importações em andamento.</li>
+ *     <li>{@code produtos.importacao.recusadas}: contador de importações recusadas pelo controle de admissão.</li>
+ * </ul>
+ */
+@Component
+public class ImportacaoMetricas {
+
+    private final Counter linhasLidas;
+
+    private final Counter linhasGravadas;
+
+    private final Counter linhasRejeitadas;
+
+    private final Counter recusadas;
+
+    private final Set<ImportacaoCsv> emAndamento = ConcurrentHashMap.newKeySet();
+
+    public ImportacaoMetricas(MeterRegistry registry) {
+        this.linhasLidas = linhas(registry, "lidas");
+        this.linhasGravadas = linhas(registry, "gravadas");
+        this.linhasRejeitadas = linhas(registry, "rejeitadas");
+        this.recusadas = Counter.builder("produtos.importacao.recusadas")
+                .description("Importações de CSV recusadas por excesso de importações em andamento")
+                .register(registry);
+        Gauge.builder("produtos.importacao.linhas.por.segundo", emAndamento,
+                        importacoes -> importacoes.stream().mapToLong(ImportacaoCsv::getLinhasPorSegundo).sum())
+                .description("Linhas gravadas por segundo pelas importações em andamento")
+                .register(registry);
+        Gauge.builder("produtos.importacao.em.andamento", emAndamento, Set::size)
+                .description("Importações de CSV em andamento")
+                .register(registry);
+    }
+
+    private static Counter linhas(MeterRegistry registry, String situacao) {
+        return Counter.builder("produtos.importacao.linhas")
+                .description("Linhas de arquivos CSV de produtos processadas")
+                .tag("situacao", situacao)
+                .register(registry);
+    }
+
+    void iniciar(ImportacaoCsv importacao) {
+        emAndamento.add(importacao);
+    }
+
+    void finalizar(ImportacaoCsv importacao) {
+        emAndamento.remove(importacao);
+    }
+
+    void linhaLida() {
+        linhasLidas.increment();
+    }
+
+    void linhasLidas(long quantidade) {
+        linhasLidas.increment(quantidade);
+    }
+
+    void linhasGravadas(long quantidade) {
+        linhasGravadas.increment(quantidade);
+    }
+
+    void linhaRejeitada() {
+        linhasRejeitadas.increment();
+    }
+
+    void linhasRejeitadas(long quantidade) {
+        linhasRejeitadas.increment(quantidade);
+    }
+
+    void importacaoRecusada() {
+        recusadas.increment();
+    }
+}
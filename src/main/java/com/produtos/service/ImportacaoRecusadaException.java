@@ -0,0 +1,24 @@
+package com.produtos.service;
+
+import java.time.Duration;
+
+/**
+ * Lançada quando uma importação de arquivo CSV é recusada pelo controle de admissão, por haver importações demais em
+ * andamento ou aguardando.
+ */
+public class ImportacaoRecusadaException extends RuntimeException {
+
+    private final Duration tentarNovamente;
+
+    public ImportacaoRecusadaException(String message, Duration tentarNovamente) {
+        super(message);
+        this.tentarNovamente = tentarNovamente;
+    }
+
+    /**
+     * Tempo sugerido ao cliente antes de enviar o arquivo novamente.
+     */
+    public Duration getTentarNovamente() {
+        return tentarNovamente;
+    }
+}
@@ -0,0 +1,454 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Lê arquivos CSV grandes em paralelo.
+ * <p>
+ * O arquivo é mapeado em memória e dividido em blocos de bytes que começam e terminam em limites de registro:
+ * uma varredura sequencial dos bytes acompanha as aspas (com as mesmas regras do leitor RFC 4180 de
+ * {@link ProdutoCsvMapper#leitor}), de forma que quebras de linha dentro de campos entre aspas não são usadas como
+ * divisão, e conta as linhas anteriores a cada bloco para que os erros informem a linha correta do arquivo. Cada
+ * bloco é convertido em produtos pelo {@link CSVReader} em uma tarefa de um {@link ForkJoinPool}, e os lotes
+ * resultantes são entregues à thread chamadora por uma fila limitada, que segura a leitura quando a gravação não
+ * acompanha.
+ * <p>
+ * Como os lotes são entregues na ordem em que ficam prontos, uma linha inválida encontrada em um bloco não impede a
+ * gravação dos blocos seguintes. Por isso, quando a importação não rejeita linhas inválidas, todos os blocos são
+ * validados em paralelo antes de qualquer entrega, e a primeira linha inválida do arquivo interrompe a importação
+ * sem que nenhum produto seja gravado.
+ */
+@Component
+public class LeitorCsvParalelo {
+
+    /**
+     * Trecho do arquivo mapeado de cada vez na varredura dos limites de registro.
+     */
+    private static final long JANELA_VARREDURA = 64L * 1024 * 1024;
+
+    /**
+     * Bytes que alteram o estado da varredura: aspas, separador e quebras de linha.
+     */
+    private static final boolean[] ESPECIAL = new boolean[256];
+
+    static {
+        for (char caractere : new char[]{'"', ',', '\n', '\r'}) {
+            ESPECIAL[caractere] = true;
+        }
+    }
+
+    /**
+     * Quantidade de threads de leitura; 0 utiliza a quantidade de processadores disponíveis.
+     */
+    @Value("${produtos.csv.paralelo.threads:0}")
+    int threads;
+
+    /**
+     * Tamanho aproximado dos blocos lidos por cada tarefa.
+     */
+    @Value("${produtos.csv.paralelo.tamanho-bloco:8MB}")
+    DataSize tamanhoBloco = DataSize.ofMegabytes(8);
+
+    private ForkJoinPool pool;
+
+    private int capacidadeFila;
+
+    Logger logger = LoggerFactory.getLogger(LeitorCsvParalelo.class);
+
+    /**
+     * Lote de produtos convertidos de um trecho do arquivo.
+     *
+     * @param produtos         Produtos convertidos das linhas válidas.
+     * @param linhasLidas      Quantidade de linhas lidas, incluindo as rejeitadas.
+     * @param linhasRejeitadas Quantidade de linhas inválidas descartadas.
+     */
+    public record LoteCsv(List<ProdutoModel> produtos, int linhasLidas, int linhasRejeitadas) {
+    }
+
+    /**
+     * Trecho do arquivo com registros completos.
+     *
+     * @param inicio        Posição do primeiro byte do trecho.
+     * @param fim           Posição seguinte ao último byte do trecho.
+     * @param linhaAnterior Quantidade de linhas do arquivo anteriores ao trecho.
+     */
+    record BlocoCsv(long inicio, long fim, long linhaAnterior) {
+
+        long tamanho() {
+            return fim - inicio;
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        int paralelismo = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        capacidadeFila = 2 * paralelismo;
+        pool = new ForkJoinPool(paralelismo, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("leitura-csv-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Lê um arquivo CSV, incluindo o cabeçalho, entregando os produtos em lotes à thread chamadora.
+     * A leitura é interrompida caso o cancelamento da importação seja solicitado.
+     *
+     * @param arquivo     Arquivo CSV em UTF-8.
+     * @param tamanhoLote Quantidade máxima de produtos por lote.
+     * @param importacao  Importação em andamento, que define o tratamento das linhas inválidas.
+     * @param gravacao    Recebe cada lote, na thread chamadora e na ordem em que os lotes ficam prontos.
+     * @throws CsvValidationException   Exceção lançada caso ocorra um erro de validação do CSV.
+     * @throws IOException              Exceção lançada caso ocorra um erro de leitura do arquivo.
+     * @throws IllegalArgumentException Caso o cabeçalho seja inválido ou, se a importação não rejeitar linhas
+     *                                  inválidas, alguma linha seja inválida; nesse caso nenhum lote é entregue.
+     */
+    public void ler(Path arquivo, int tamanhoLote, ImportacaoCsv importacao, Consumer<LoteCsv> gravacao) throws CsvValidationException, IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            List<BlocoCsv> blocos = dividir(canal, tamanhoBloco.toBytes());
+            if (blocos.isEmpty()) {
+                throw new IllegalArgumentException("Arquivo CSV sem cabeçalho");
+            }
+            ProdutoCsvMapper mapper;
+            try (CSVReader csvReader = abrir(canal, blocos.get(0))) {
+                mapper = ProdutoCsvMapper.fromHeader(csvReader.readNext());
+            }
+            logger.info("Lendo arquivo CSV de " + canal.size() + " bytes em " + (blocos.size() - 1) + " blocos");
+
+            if (!importacao.isRejeitarLinhasInvalidas()) {
+                validar(canal, mapper, blocos.subList(1, blocos.size()), importacao);
+                if (importacao.isCancelamentoSolicitado()) {
+                    return;
+                }
+            }
+            Leitura leitura = new Leitura(canal, mapper, tamanhoLote, importacao.isRejeitarLinhasInvalidas());
+            List<ForkJoinTask<?>> tarefas = new ArrayList<>(blocos.size() - 1);
+            try {
+                for (BlocoCsv bloco : blocos.subList(1, blocos.size())) {
+                    tarefas.add(pool.submit(() -> leitura.lerBloco(bloco)));
+                }
+                leitura.consumir(blocos.size() - 1, importacao, gravacao);
+            } finally {
+                leitura.interromper();
+                tarefas.forEach(ForkJoinTask::quietlyJoin);
+            }
+        }
+    }
+
+    /**
+     * Converte todas as linhas dos blocos, sem entregá-las, e lança a exceção da primeira linha inválida do arquivo.
+     * Um bloco deixa de ser lido assim que um bloco anterior a ele tiver uma linha inválida.
+     */
+    private void validar(FileChannel canal, ProdutoCsvMapper mapper, List<BlocoCsv> blocos, ImportacaoCsv importacao) throws CsvValidationException, IOException {
+        AtomicInteger primeiroInvalido = new AtomicInteger(Integer.MAX_VALUE);
+        List<ForkJoinTask<Exception>> tarefas = new ArrayList<>(blocos.size());
+        for (int i = 0; i < blocos.size(); i++) {
+            int indice = i;
+            tarefas.add(pool.submit(() -> validarBloco(canal, mapper, blocos.get(indice), indice, primeiroInvalido, importacao)));
+        }
+        Exception falha = null;
+        // Na ordem dos blocos, de forma que prevalece a primeira linha inválida do arquivo
+        for (ForkJoinTask<Exception> tarefa : tarefas) {
+            Exception falhaBloco = tarefa.join();
+            if (falha == null) {
+                falha = falhaBloco;
+            }
+        }
+        if (falha != null) {
+            lancar(falha);
+        }
+    }
+
+    /**
+     * @return Exceção da primeira linha inválida do bloco, ou {@code null} se todas forem válidas.
+     */
+    private Exception validarBloco(FileChannel canal, ProdutoCsvMapper mapper, BlocoCsv bloco, int indice,
+                                   AtomicInteger primeiroInvalido, ImportacaoCsv importacao) {
+        try (CSVReader csvReader = abrir(canal, bloco)) {
+            String[] linhaCsv;
+            while (indice < primeiroInvalido.get() && !importacao.isCancelamentoSolicitado()
+                    && (linhaCsv = csvReader.readNext()) != null) {
+                try {
+                    mapper.toProduto(linhaCsv);
+                } catch (IllegalArgumentException e) {
+                    primeiroInvalido.accumulateAndGet(indice, Math::min);
+                    return new IllegalArgumentException(mensagemLinhaInvalida(bloco, csvReader, e), e);
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            primeiroInvalido.accumulateAndGet(indice, Math::min);
+            return e;
+        }
+    }
+
+    private static String mensagemLinhaInvalida(BlocoCsv bloco, CSVReader csvReader, IllegalArgumentException e) {
+        return "Linha " + (bloco.linhaAnterior() + csvReader.getLinesRead()) + " do CSV inválida: " + e.getMessage();
+    }
+
+    private static void lancar(Exception falha) throws CsvValidationException, IOException {
+        if (falha instanceof CsvValidationException e) {
+            throw e;
+        }
+        if (falha instanceof IOException e) {
+            throw e;
+        }
+        if (falha instanceof RuntimeException e) {
+            throw e;
+        }
+        throw new IllegalStateException(falha);
+    }
+
+    /**
+     * Divide o arquivo em trechos de aproximadamente {@code tamanhoBloco} bytes terminados em um fim de registro.
+     * O primeiro trecho contém apenas o cabeçalho.
+     */
+    static List<BlocoCsv> dividir(FileChannel canal, long tamanhoBloco) throws IOException {
+        return dividir(canal, tamanhoBloco, JANELA_VARREDURA);
+    }
+
+    /**
+     * Reproduz as regras do {@link com.opencsv.RFC4180Parser}: um campo iniciado por aspas termina em uma aspa
+     * seguida do separador, desde que a quantidade de aspas do campo até ela seja par; os demais campos terminam no
+     * separador. Uma quebra de linha continua o registro se o último campo tiver uma quantidade ímpar de aspas ou,
+     * iniciado por aspas, não terminar em uma aspa. Quando a linha termina no separador, o parser considera como
+     * último o campo anterior a ele, e um campo sem aspas com quantidade ímpar de aspas continua na próxima linha
+     * descartando o separador.
+     *
+     * @param janelaVarredura Quantidade de bytes mapeada de cada vez.
+     */
+    static List<BlocoCsv> dividir(FileChannel canal, long tamanhoBloco, long janelaVarredura) throws IOException {
+        long tamanho = canal.size();
+        List<BlocoCsv> blocos = new ArrayList<>();
+        long inicioBloco = 0;
+        long linhaAnterior = 0;
+        long linhas = 0;
+        // Estado do campo atual: se já tem algum caractere, se começou com aspas, se a quantidade de aspas é ímpar
+        // e se o último caractere é uma aspa
+        boolean campo = false;
+        boolean entreAspas = false;
+        boolean aspasImpares = false;
+        boolean terminaEmAspas = false;
+        // Se o último caractere foi um separador que terminou um campo sem aspas com quantidade ímpar de aspas
+        boolean aposSeparadorPendente = false;
+        int salto = 0;
+        for (long inicioJanela = 0; inicioJanela < tamanho; inicioJanela += janelaVarredura) {
+            int tamanhoJanela = (int) Math.min(janelaVarredura, tamanho - inicioJanela);
+            MappedByteBuffer janela = canal.map(FileChannel.MapMode.READ_ONLY, inicioJanela, tamanhoJanela);
+            int i = salto;
+            for (; i < tamanhoJanela; i++) {
+                int atual = janela.get(i);
+                if (!ESPECIAL[atual & 0xFF]) {
+                    campo = true;
+                    terminaEmAspas = false;
+                    aposSeparadorPendente = false;
+                    continue;
+                }
+                if (atual == '"') {
+                    aposSeparadorPendente = false;
+                    if (!campo) {
+                        entreAspas = true;
+                    }
+                    campo = true;
+                    aspasImpares = !aspasImpares;
+                    terminaEmAspas = true;
+                } else if (atual == ',') {
+                    if (!entreAspas || (terminaEmAspas && !aspasImpares)) {
+                        // Fim do campo: o próximo começa vazio
+                        aposSeparadorPendente = !entreAspas && aspasImpares;
+                        campo = false;
+                        entreAspas = false;
+                        aspasImpares = false;
+                    }
+                    terminaEmAspas = false;
+                } else {
+                    // Assim como no CSVReader, "\r\n", "\n" e "\r" terminam uma linha
+                    int proximo = i + 1 < tamanhoJanela ? janela.get(i + 1) : byteEm(canal, inicioJanela + i + 1);
+                    if (atual == '\r' && proximo == '\n') {
+                        i++;
+                    }
+                    linhas++;
+                    if (aposSeparadorPendente) {
+                        // O campo anterior ao separador continua na próxima linha
+                        campo = true;
+                        aspasImpares = true;
+                        aposSeparadorPendente = false;
+                    }
+                    if (aspasImpares || (entreAspas && !terminaEmAspas)) {
+                        // O campo continua na próxima linha, incluindo a quebra de linha
+                        terminaEmAspas = false;
+                        continue;
+                    }
+                    campo = false;
+                    entreAspas = false;
+                    terminaEmAspas = false;
+                    long fimRegistro = inicioJanela + i + 1;
+                    if (blocos.isEmpty() || fimRegistro - inicioBloco >= tamanhoBloco) {
+                        blocos.add(new BlocoCsv(inicioBloco, fimRegistro, linhaAnterior));
+                        inicioBloco = fimRegistro;
+                        linhaAnterior = linhas;
+                    }
+                }
+            }
+            // Um "\r\n" no fim da janela consome o primeiro caractere da próxima
+            salto = i - tamanhoJanela;
+        }
+        if (inicioBloco < tamanho) {
+            blocos.add(new BlocoCsv(inicioBloco, tamanho, linhaAnterior));
+        }
+        return blocos;
+    }
+
+    /**
+     * Lê um único byte do arquivo, usado quando o próximo caractere está fora da janela mapeada.
+     *
+     * @return Byte na posição informada, ou -1 após o fim do arquivo.
+     */
+    private static int byteEm(FileChannel canal, long posicao) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        return canal.read(buffer, posicao) == 1 ? buffer.get(0) : -1;
+    }
+
+    private static CSVReader abrir(FileChannel canal, BlocoCsv bloco) throws IOException {
+        MappedByteBuffer conteudo = canal.map(FileChannel.MapMode.READ_ONLY, bloco.inicio(), bloco.tamanho());
+        return ProdutoCsvMapper.leitor(new InputStreamReader(new ByteBufferBackedInputStream(conteudo), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Estado compartilhado entre as tarefas de leitura dos blocos e a thread que consome os lotes.
+     */
+    private class Leitura {
+
+        private final FileChannel canal;
+
+        private final ProdutoCsvMapper mapper;
+
+        private final int tamanhoLote;
+
+        private final boolean rejeitarLinhasInvalidas;
+
+        private final BlockingQueue<LoteCsv> fila = new ArrayBlockingQueue<>(capacidadeFila);
+
+        private final AtomicInteger blocosLidos = new AtomicInteger();
+
+        private final AtomicReference<Exception> falha = new AtomicReference<>();
+
+        private volatile boolean interrompida;
+
+        Leitura(FileChannel canal, ProdutoCsvMapper mapper, int tamanhoLote, boolean rejeitarLinhasInvalidas) {
+            this.canal = canal;
+            this.mapper = mapper;
+            this.tamanhoLote = tamanhoLote;
+            this.rejeitarLinhasInvalidas = rejeitarLinhasInvalidas;
+        }
+
+        void lerBloco(BlocoCsv bloco) {
+            try (CSVReader csvReader = abrir(canal, bloco)) {
+                List<ProdutoModel> produtos = new ArrayList<>(tamanhoLote);
+                int linhasLidas = 0;
+                int linhasRejeitadas = 0;
+                String[] linhaCsv;
+                while (!interrompida && (linhaCsv = csvReader.readNext()) != null) {
+                    linhasLidas++;
+                    try {
+                        produtos.add(mapper.toProduto(linhaCsv));
+                    } catch (IllegalArgumentException e) {
+                        String mensagem = mensagemLinhaInvalida(bloco, csvReader, e);
+                        if (!rejeitarLinhasInvalidas) {
+                            throw new IllegalArgumentException(mensagem, e);
+                        }
+                        logger.warn(mensagem);
+                        linhasRejeitadas++;
+                        continue;
+                    }
+                    if (produtos.size() >= tamanhoLote) {
+                        entregar(new LoteCsv(produtos, linhasLidas, linhasRejeitadas));
+                        produtos = new ArrayList<>(tamanhoLote);
+                        linhasLidas = 0;
+                        linhasRejeitadas = 0;
+                    }
+                }
+                if (linhasLidas > 0) {
+                    entregar(new LoteCsv(produtos, linhasLidas, linhasRejeitadas));
+                }
+            } catch (Exception e) {
+                if (falha.compareAndSet(null, e)) {
+                    interrompida = true;
+                }
+            } finally {
+                blocosLidos.incrementAndGet();
+            }
+        }
+
+        private void entregar(LoteCsv lote) throws InterruptedException {
+            while (!interrompida) {
+                if (fila.offer(lote, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+
+        void consumir(int blocos, ImportacaoCsv importacao, Consumer<LoteCsv> gravacao) throws CsvValidationException, IOException {
+            try {
+                while (!importacao.isCancelamentoSolicitado()) {
+                    // Verificado antes da fila: um bloco concluído já entregou todos os seus lotes
+                    boolean concluida = blocosLidos.get() == blocos;
+                    LoteCsv lote = fila.poll(100, TimeUnit.MILLISECONDS);
+                    Exception falha = this.falha.get();
+                    if (falha != null) {
+                        lancar(falha);
+                    }
+                    if (lote != null) {
+                        gravacao.accept(lote);
+                    } else if (concluida) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Leitura do arquivo CSV interrompida");
+            }
+        }
+
+        void interromper() {
+            interrompida = true;
+            fila.clear();
+        }
+    }
+}
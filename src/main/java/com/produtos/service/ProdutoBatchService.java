@@ -0,0 +1,285 @@
+package com.produtos.service;
+
+import com.produtos.model.DTO.OperacaoDTO;
+import com.produtos.model.DTO.ResultadoOperacaoDTO;
+import com.produtos.model.ProdutoModel;
+import com.produtos.repository.ArmazenamentoProdutos;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Executa lotes de criações, alterações e exclusões de produtos.
+ * <p>
+ * Os produtos alterados e excluídos são carregados com uma única consulta, as criações e alterações são gravadas
+ * em lotes JDBC e as exclusões com um único comando. No modo atômico, qualquer falha impede que o lote seja
+ * aplicado; se o banco de dados recusar o lote, todas as operações válidas recebem a falha. No modo individual, as operações inválidas são recusadas e as demais aplicadas; caso o banco de dados
+ * recuse o lote, cada operação é repetida em sua própria transação.
+ */
+@Service
+public class ProdutoBatchService {
+
+    private record Alteracoes(List<ProdutoModel> criados, List<ProdutoModel> alterados, Set<UUID> excluidos) {
+
+        static Alteracoes vazia() {
+            return new Alteracoes(new ArrayList<>(), new ArrayList<>(), new LinkedHashSet<>());
+        }
+
+        void adicionar(Alteracoes outras) {
+            criados.addAll(outras.criados());
+            alterados.addAll(outras.alterados());
+            excluidos.addAll(outras.excluidos());
+        }
+    }
+
+    @Autowired
+    ArmazenamentoProdutos armazenamentoProdutos;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    ProdutoCache produtoCache;
+
+    @Autowired
+    ProdutoSearchIndex produtoSearchIndex;
+
+    @Autowired
+    ProdutoEventos produtoEventos;
+
+    /**
+     * Maior quantidade de operações aceita em um lote.
+     */
+    @Value("${produtos.batch.tamanho-maximo:10000}")
+    int tamanhoMaximo = 10000;
+
+    Logger logger = LoggerFactory.getLogger(ProdutoBatchService.class);
+
+    /**
+     * Executa um lote de operações.
+     *
+     * @param operacoes Operações, aplicadas na ordem em que aparecem no lote.
+     * @param atomico   Se {@code true}, o lote só é aplicado se todas as operações forem válidas.
+     * @return Resultado de cada operação, na mesma ordem do lote.
+     * @throws IllegalArgumentException Caso o lote exceda a quantidade máxima de operações.
+     */
+    public List<ResultadoOperacaoDTO> executar(List<OperacaoDTO> operacoes, boolean atomico) {
+        if (operacoes.size() > tamanhoMaximo) {
+            throw new IllegalArgumentException("O lote excede o limite de " + tamanhoMaximo + " operações");
+        }
+        try {
+            logger.info("Executando lote de " + operacoes.size() + " operações");
+            ResultadoOperacaoDTO[] validacao = new ResultadoOperacaoDTO[operacoes.size()];
+            List<Integer> validas = new ArrayList<>();
+            for (int i = 0; i < operacoes.size(); i++) {
+                validacao[i] = validar(i, operacoes.get(i));
+                if (validacao[i] == null) {
+                    validas.add(i);
+                }
+            }
+            if (atomico && validas.size() < operacoes.size()) {
+                return naoAplicadas(operacoes, validacao);
+            }
+
+            ResultadoOperacaoDTO[] resultados = validacao.clone();
+            Alteracoes alteracoes;
+            try {
+                alteracoes = transactionTemplate.execute(status -> aplicar(operacoes, validas, resultados, atomico, status));
+            } catch (RuntimeException e) {
+                if (atomico) {
+                    // A falha na gravação não indica a operação responsável, e nenhuma delas foi aplicada
+                    logger.warn("Falha ao gravar o lote atômico, nenhuma operação aplicada", e);
+                    for (int i : validas) {
+                        resultados[i] = falha(i, operacoes.get(i), statusDaFalha(e), "Lote não aplicado: " + e.getMessage());
+                    }
+                    return naoAplicadas(operacoes, resultados);
+                }
+                logger.warn("Falha ao gravar o lote, aplicando as operações individualmente", e);
+                System.arraycopy(validacao, 0, resultados, 0, resultados.length);
+                alteracoes = aplicarIndividualmente(operacoes, validas, resultados);
+            }
+            atualizarCaches(alteracoes);
+            return atomico && temFalhas(resultados) ? naoAplicadas(operacoes, resultados) : Arrays.asList(resultados);
+        } catch (Exception e) {
+            logger.error("Falha ao executar o lote de operações", e);
+            throw e;
+        }
+    }
+
+    private ResultadoOperacaoDTO validar(int indice, OperacaoDTO operacao) {
+        if (operacao == null || operacao.tipo() == null) {
+            return falha(indice, operacao, HttpStatus.BAD_REQUEST, "Tipo da operação não informado");
+        }
+        if (operacao.tipo() != OperacaoDTO.Tipo.CREATE && operacao.id() == null) {
+            return falha(indice, operacao, HttpStatus.BAD_REQUEST, "ID do produto não informado");
+        }
+        if (operacao.tipo() != OperacaoDTO.Tipo.DELETE) {
+            if (operacao.produto() == null) {
+                return falha(indice, operacao, HttpStatus.BAD_REQUEST, "Dados do produto não informados");
+            }
+            Set<ConstraintViolation<Object>> violacoes = validator.validate(operacao.produto());
+            if (!violacoes.isEmpty()) {
+                String erro = violacoes.stream()
+                        .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                return falha(indice, operacao, HttpStatus.BAD_REQUEST, erro);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Aplica as operações indicadas na transação corrente, registrando o resultado de cada uma.
+     * No modo atômico, uma operação sem produto correspondente desfaz a transação.
+     */
+    private Alteracoes aplicar(List<OperacaoDTO> operacoes, List<Integer> indices, ResultadoOperacaoDTO[] resultados,
+                               boolean atomico, TransactionStatus status) {
+        Set<UUID> ids = new HashSet<>();
+        for (int i : indices) {
+            if (operacoes.get(i).tipo() != OperacaoDTO.Tipo.CREATE) {
+                ids.add(operacoes.get(i).id());
+            }
+        }
+        Map<UUID, ProdutoModel> existentes = new HashMap<>();
+        for (ProdutoModel produto : armazenamentoProdutos.buscarPorIds(ids)) {
+            existentes.put(produto.getId(), produto);
+        }
+
+        Map<Integer, ProdutoModel> criados = new LinkedHashMap<>();
+        Map<UUID, ProdutoModel> alterados = new LinkedHashMap<>();
+        Set<UUID> excluidos = new LinkedHashSet<>();
+        for (int i : indices) {
+            OperacaoDTO operacao = operacoes.get(i);
+            switch (operacao.tipo()) {
+                case CREATE -> {
+                    ProdutoModel produto = new ProdutoModel();
+                    BeanUtils.copyProperties(operacao.produto(), produto);
+                    criados.put(i, produto);
+                }
+                case UPDATE -> {
+                    ProdutoModel produto = existentes.get(operacao.id());
+                    if (produto == null) {
+                        resultados[i] = falha(i, operacao, HttpStatus.NOT_FOUND, "Produto não encontrado");
+                    } else {
+                        BeanUtils.copyProperties(operacao.produto(), produto);
+                        alterados.put(produto.getId(), produto);
+                        resultados[i] = sucesso(i, operacao, operacao.id(), HttpStatus.OK);
+                    }
+                }
+                case DELETE -> {
+                    if (existentes.remove(operacao.id()) == null) {
+                        resultados[i] = falha(i, operacao, HttpStatus.NOT_FOUND, "Produto não encontrado");
+                    } else {
+                        alterados.remove(operacao.id());
+                        excluidos.add(operacao.id());
+                        resultados[i] = sucesso(i, operacao, operacao.id(), HttpStatus.NO_CONTENT);
+                    }
+                }
+            }
+        }
+        if (atomico && temFalhas(resultados)) {
+            status.setRollbackOnly();
+            return Alteracoes.vazia();
+        }
+
+        armazenamentoProdutos.salvarTodos(criados.values());
+        armazenamentoProdutos.salvarTodos(alterados.values());
+        if (!excluidos.isEmpty()) {
+            armazenamentoProdutos.excluirTodos(excluidos);
+        }
+        armazenamentoProdutos.sincronizar();
+        criados.forEach((i, produto) -> resultados[i] = sucesso(i, operacoes.get(i), produto.getId(), HttpStatus.CREATED));
+        return new Alteracoes(new ArrayList<>(criados.values()), new ArrayList<>(alterados.values()), excluidos);
+    }
+
+    private Alteracoes aplicarIndividualmente(List<OperacaoDTO> operacoes, List<Integer> indices,
+                                              ResultadoOperacaoDTO[] resultados) {
+        Alteracoes alteracoes = Alteracoes.vazia();
+        for (int i : indices) {
+            try {
+                alteracoes.adicionar(transactionTemplate.execute(
+                        status -> aplicar(operacoes, List.of(i), resultados, false, status)));
+            } catch (RuntimeException e) {
+                logger.warn("Falha ao aplicar a operação " + i + " do lote", e);
+                resultados[i] = falha(i, operacoes.get(i), statusDaFalha(e), e.getMessage());
+            }
+        }
+        return alteracoes;
+    }
+
+    private void atualizarCaches(Alteracoes alteracoes) {
+        for (ProdutoModel produto : alteracoes.criados()) {
+            produtoCache.put(produto);
+        }
+        for (ProdutoModel produto : alteracoes.alterados()) {
+            produtoCache.invalidate(produto.getId());
+        }
+        for (UUID id : alteracoes.excluidos()) {
+            produtoCache.invalidate(id);
+            produtoSearchIndex.remover(id);
+        }
+        produtoSearchIndex.indexar(alteracoes.criados());
+        produtoSearchIndex.indexar(alteracoes.alterados());
+        produtoEventos.criados(alteracoes.criados());
+        produtoEventos.atualizados(alteracoes.alterados());
+        produtoEventos.excluidos(alteracoes.excluidos());
+    }
+
+    /**
+     * Status de uma operação recusada pelo banco de dados: 409 Conflict para a violação do índice único da chave
+     * natural, 500 Internal Server Error para as demais falhas.
+     */
+    private static HttpStatus statusDaFalha(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException ? HttpStatus.CONFLICT : HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static boolean temFalhas(ResultadoOperacaoDTO[] resultados) {
+        for (ResultadoOperacaoDTO resultado : resultados) {
+            if (resultado != null && resultado.erro() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mantém as falhas e marca as demais operações como não aplicadas.
+     */
+    private static List<ResultadoOperacaoDTO> naoAplicadas(List<OperacaoDTO> operacoes, ResultadoOperacaoDTO[] resultados) {
+        List<ResultadoOperacaoDTO> lista = new ArrayList<>(resultados.length);
+        for (int i = 0; i < resultados.length; i++) {
+            if (resultados[i] != null && resultados[i].erro() != null) {
+                lista.add(resultados[i]);
+            } else {
+                lista.add(falha(i, operacoes.get(i), HttpStatus.FAILED_DEPENDENCY,
+                        "Operação não aplicada: o lote possui operações com falha"));
+            }
+        }
+        return lista;
+    }
+
+    private static ResultadoOperacaoDTO sucesso(int indice, OperacaoDTO operacao, UUID id, HttpStatus status) {
+        return new ResultadoOperacaoDTO(indice, operacao.tipo(), id, status.value(), null);
+    }
+
+    private static ResultadoOperacaoDTO falha(int indice, OperacaoDTO operacao, HttpStatus status, String erro) {
+        return new ResultadoOperacaoDTO(indice, operacao == null ? null : operacao.tipo(),
+                operacao == null ? null : operacao.id(), status.value(), erro);
+    }
+}
@@ -0,0 +1,101 @@
+package com.produtos.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.produtos.model.DTO.ProdutoCacheDTO;
+import com.produtos.model.ProdutoModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache de leitura dos produtos por ID, limitado em quantidade de entradas e tempo de vida.
+ * <p>
+ * A carga de uma entrada é feita pela própria thread que a solicitou, fora dos bloqueios internos do Caffeine
+ * (que usam {@code synchronized} e prenderiam a thread de plataforma de uma thread virtual durante a consulta ao
+ * banco de dados). Leituras concorrentes da mesma chave aguardam a mesma carga. Uma invalidação feita durante uma
+ * carga descarta o valor que está sendo carregado. Por isso as escritas devem invalidar a entrada somente depois
+ * de gravadas no banco de dados, garantindo que leituras posteriores não obtenham dados antigos.
+ * Produtos inexistentes não são armazenados, então inserções (inclusive as importações de CSV) não precisam
+ * invalidar o cache.
+ */
+@Component
+public class ProdutoCache {
+
+    private final AsyncCache<UUID, ProdutoSnapshot> cache;
+
+    public ProdutoCache(@Value("${produtos.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                        @Value("${produtos.cache.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Obtém um produto do cache, carregando-o caso não esteja presente.
+     *
+     * @param id     ID do produto.
+     * @param loader Função que obtém o produto do banco de dados, ou {@code null} caso não exista.
+     * @return Nova instância do produto, ou {@code null} caso não exista.
+     */
+    public ProdutoModel get(UUID id, Function<UUID, ProdutoModel> loader) {
+        CompletableFuture<ProdutoSnapshot> carga = new CompletableFuture<>();
+        CompletableFuture<ProdutoSnapshot> entrada = cache.get(id, (chave, executor) -> carga);
+        if (entrada == carga) {
+            try {
+                ProdutoModel produto = loader.apply(id);
+                carga.complete(produto == null ? null : ProdutoSnapshot.of(produto));
+            } catch (RuntimeException | Error e) {
+                carga.completeExceptionally(e);
+                throw e;
+            }
+        }
+        ProdutoSnapshot snapshot;
+        try {
+            snapshot = entrada.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+        return snapshot == null ? null : snapshot.toModel();
+    }
+
+    /**
+     * Armazena um produto recém-criado.
+     */
+    public void put(ProdutoModel produto) {
+        cache.put(produto.getId(), CompletableFuture.completedFuture(ProdutoSnapshot.of(produto)));
+    }
+
+    /**
+     * Remove um produto do cache. Deve ser chamado depois que a alteração ou exclusão for gravada.
+     */
+    public void invalidate(UUID id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    /**
+     * Executa imediatamente as remoções pendentes, que normalmente são processadas de forma assíncrona.
+     */
+    void executarManutencao() {
+        cache.synchronous().cleanUp();
+    }
+
+    public ProdutoCacheDTO estatisticas() {
+        Cache<UUID, ProdutoSnapshot> cache = this.cache.synchronous();
+        CacheStats stats = cache.stats();
+        return new ProdutoCacheDTO(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.hitRate());
+    }
+}
@@ -0,0 +1,221 @@
+package com.produtos.service;
+
+import com.opencsv.RFC4180Parser;
+import com.produtos.model.ProdutoModel;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Importa arquivos CSV de produtos diretamente no PostgreSQL através do comando {@code COPY ... FROM STDIN}.
+ * As linhas são copiadas para uma tabela temporária, cujas colunas seguem o cabeçalho do arquivo, e então
+ * inseridas na tabela de produtos com um único comando, na mesma transação. Os IDs inseridos são guardados em outra
+ * tabela temporária, da sessão, e depois da confirmação os produtos gravados são lidos de volta em lotes, por um
+ * cursor, de forma que a memória usada não cresce com o tamanho do arquivo.
+ * <p>
+ * Assim como a importação pelo JPA, um registro sem nome ou com valores inválidos interrompe a importação sem gravar
+ * nenhum produto. A validação é feita por expressões regulares no banco de dados, que aceitam apenas valores não
+ * negativos dentro dos limites de dígitos das colunas, de forma que a conversão nunca interrompe o {@code COPY}.
+ * <p>
+ * Experimental: os comandos não são exercitados pelos testes automatizados, que não dispõem de um PostgreSQL.
+ */
+@Component
+public class ProdutoCopyImporter {
+
+    /**
+     * A coluna {@code registro} numera os registros na ordem do arquivo, sem contar o cabeçalho.
+     */
+    static final String CRIAR_TABELA_TEMPORARIA = "CREATE TEMP TABLE produtos_staging (registro bigserial, "
+            + "nome text, valor text, descricao text, quantidade_estoque text, peso text) ON COMMIT DROP";
+
+    /**
+     * Até 10 dígitos inteiros e 2 decimais significativos, os limites de {@code numeric(12, 2)}.
+     */
+    static final String VALOR = "^\\s*0*[0-9]{1,10}(\\.[0-9]{0,2}0*)?\\s*$";
+
+    /**
+     * Até 9 dígitos inteiros e 3 decimais significativos, os limites de {@code numeric(12, 3)}.
+     */
+    static final String PESO = "^\\s*0*[0-9]{1,9}(\\.[0-9]{0,3}0*)?\\s*$";
+
+    /**
+     * Até 18 dígitos significativos, que sempre cabem em um {@code bigint}.
+     */
+    static final String INTEIRO = "^\\s*0*[0-9]{1,18}\\s*$";
+
+    /**
+     * Nome com ao menos um caractere que não seja espaço, como exige o {@code @NotBlank} do DTO. Sem essa verificação, um
+     * campo vazio sem aspas seria copiado como NULL.
+     */
+    static final String NOME = "\\S";
+
+    private static final String REGISTRO_VALIDO = "coalesce(nome ~ '" + NOME + "', false) "
+            + "AND (NULLIF(btrim(valor), '') IS NULL OR valor ~ '" + VALOR + "') "
+            + "AND (NULLIF(btrim(quantidade_estoque), '') IS NULL OR quantidade_estoque ~ '" + INTEIRO + "') "
+            + "AND (NULLIF(btrim(peso), '') IS NULL OR peso ~ '" + PESO + "')";
+
+    /**
+     * Quantidade de registros inválidos e o primeiro deles.
+     */
+    static final String CONTAR_INVALIDOS = "SELECT count(*), min(registro) FROM produtos_staging "
+            + "WHERE NOT (" + REGISTRO_VALIDO + ")";
+
+    /**
+     * UUID versão 7 gerado no banco, equivalente a {@link com.produtos.model.UuidV7Generator}: os 48 bits iniciais de
+     * um UUID aleatório são substituídos pelo instante em milissegundos e a versão é trocada de 4 para 7.
+     */
+    static final String UUID_V7 = "encode(set_bit(set_bit(overlay(uuid_send(gen_random_uuid()) placing "
+            + "substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3) "
+            + "FROM 1 FOR 6), 52, 1), 53, 1), 'hex')::uuid";
+
+    /**
+     * Mantida depois da confirmação, para a leitura dos produtos gravados. Uma tabela deixada por uma importação
+     * interrompida na mesma conexão é descartada antes.
+     */
+    static final String REMOVER_TABELA_IMPORTADOS = "DROP TABLE IF EXISTS pg_temp.produtos_importados";
+
+    static final String CRIAR_TABELA_IMPORTADOS = "CREATE TEMP TABLE produtos_importados (id uuid)";
+
+    /**
+     * Converte as colunas numéricas da tabela temporária, já validadas por {@link #CONTAR_INVALIDOS}, e guarda os IDs
+     * dos produtos gravados.
+     */
+    static final String INSERIR_PRODUTOS = "WITH inseridos AS ("
+            + "INSERT INTO produtos (id, nome, valor, descricao, quantidade_estoque, peso) "
+            + "SELECT " + UUID_V7 + ", nome, NULLIF(btrim(valor), '')::numeric(12, 2), descricao, "
+            + "NULLIF(btrim(quantidade_estoque), '')::bigint, NULLIF(btrim(peso), '')::numeric(12, 3) "
+            + "FROM produtos_staging ORDER BY registro RETURNING id) "
+            + "INSERT INTO produtos_importados SELECT id FROM inseridos";
+
+    /**
+     * Produtos gravados, como estão após a confirmação; um produto excluído nesse meio tempo não é lido.
+     */
+    static final String LER_IMPORTADOS = "SELECT p.id, p.nome, p.valor, p.descricao, p.quantidade_estoque, p.peso "
+            + "FROM produtos_importados i JOIN produtos p ON p.id = i.id";
+
+    @Autowired(required = false)
+    DataSource dataSource;
+
+    private volatile Boolean disponivel;
+
+    Logger logger = LoggerFactory.getLogger(ProdutoCopyImporter.class);
+
+    /**
+     * Indica se o banco de dados configurado é um PostgreSQL acessado pelo driver JDBC oficial.
+     * Sem banco de dados (armazenamento em log) o COPY nunca está disponível.
+     */
+    public boolean isDisponivel() {
+        Boolean disponivel = this.disponivel;
+        if (disponivel == null) {
+            if (dataSource == null) {
+                return false;
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                disponivel = connection.isWrapperFor(PGConnection.class);
+            } catch (SQLException e) {
+                logger.warn("Não foi possível verificar o suporte ao COPY", e);
+                return false;
+            }
+            this.disponivel = disponivel;
+        }
+        return disponivel;
+    }
+
+    /**
+     * Importa o conteúdo de um arquivo CSV.
+     *
+     * @param reader      Conteúdo do arquivo CSV, incluindo o cabeçalho.
+     * @param tamanhoLote Quantidade máxima de produtos em cada lote entregue a {@code gravados}.
+     * @param gravados    Recebe os produtos gravados, em lotes, depois da confirmação da transação. Se a leitura
+     *                    falhar, os produtos continuam gravados, mas parte deles não é entregue.
+     * @return Quantidade de produtos gravados.
+     * @throws IOException  Exceção lançada caso ocorra um erro de leitura do arquivo.
+     * @throws SQLException Exceção lançada caso o banco de dados recuse o conteúdo do arquivo.
+     * @throws IllegalArgumentException Caso algum registro não possua nome ou possua valores inválidos; nenhum produto
+     *                                  é gravado.
+     */
+    public long importar(Reader reader, int tamanhoLote, Consumer<List<ProdutoModel>> gravados) throws IOException, SQLException {
+        BufferedReader bufferedReader = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+        String header = bufferedReader.readLine();
+        String comandoCopy = comandoCopy(header == null ? null : new RFC4180Parser().parseLine(header));
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CRIAR_TABELA_TEMPORARIA);
+                statement.execute(REMOVER_TABELA_IMPORTADOS);
+                statement.execute(CRIAR_TABELA_IMPORTADOS);
+                long linhasCopiadas = connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(comandoCopy, bufferedReader);
+                try (ResultSet invalidos = statement.executeQuery(CONTAR_INVALIDOS)) {
+                    invalidos.next();
+                    long quantidade = invalidos.getLong(1);
+                    if (quantidade > 0) {
+                        throw new IllegalArgumentException("Registro " + invalidos.getLong(2) + " do CSV inválido: "
+                                + quantidade + " registros sem nome ou com valores inválidos");
+                    }
+                }
+                long linhasGravadas = statement.executeUpdate(INSERIR_PRODUTOS);
+                connection.commit();
+                logger.info("COPY concluído: " + linhasCopiadas + " linhas copiadas, " + linhasGravadas + " produtos gravados");
+                entregar(statement, tamanhoLote, gravados);
+                statement.execute(REMOVER_TABELA_IMPORTADOS);
+                connection.commit();
+                return linhasGravadas;
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Lê os produtos gravados por um cursor ({@code fetchSize}, com a transação aberta), entregando um lote por vez.
+     */
+    private static void entregar(Statement statement, int tamanhoLote, Consumer<List<ProdutoModel>> gravados) throws SQLException {
+        statement.setFetchSize(tamanhoLote);
+        try (ResultSet resultSet = statement.executeQuery(LER_IMPORTADOS)) {
+            List<ProdutoModel> lote = new ArrayList<>(tamanhoLote);
+            while (resultSet.next()) {
+                lote.add(new ProdutoModel(resultSet.getObject(1, UUID.class), resultSet.getString(2),
+                        resultSet.getBigDecimal(3), resultSet.getString(4), resultSet.getObject(5, Long.class),
+                        resultSet.getBigDecimal(6)));
+                if (lote.size() >= tamanhoLote) {
+                    gravados.accept(lote);
+                    lote = new ArrayList<>(tamanhoLote);
+                }
+            }
+            if (!lote.isEmpty()) {
+                gravados.accept(lote);
+            }
+        }
+    }
+
+    /**
+     * Monta o comando COPY para a tabela temporária, com as colunas na ordem do cabeçalho do arquivo.
+     *
+     * @throws IllegalArgumentException Caso alguma coluna não corresponda a um atributo do produto.
+     */
+    static String comandoCopy(String[] header) {
+        List<String> colunas = ProdutoCsvMapper.resolverColunas(header);
+        return "COPY produtos_staging (" + String.join(", ", colunas) + ") FROM STDIN WITH (FORMAT csv)";
+    }
+}
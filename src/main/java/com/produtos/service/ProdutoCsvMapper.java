@@ -0,0 +1,156 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.RFC4180Parser;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static org.springframework.util.StringUtils.uncapitalize;
+
+/**
+ * Converte linhas de um arquivo CSV em {@link ProdutoModel}.
+ * O cabeçalho é resolvido uma única vez por arquivo, associando cada coluna ao setter correspondente,
+ * de forma que a conversão de cada linha não utiliza reflexão nem buscas pelo nome da coluna.
+ * <p>
+ * Cada linha é validada com as mesmas regras de {@link com.produtos.model.DTO.ProdutoModelDTO}: nome preenchido,
+ * valores não negativos e a quantidade de dígitos das colunas decimais. Valores com mais casas decimais do que a
+ * coluna comporta são recusados em vez de arredondados, para que o produto gravado seja igual ao mantido em memória.
+ */
+public class ProdutoCsvMapper {
+
+    private static final Map<String, BiConsumer<ProdutoModel, String>> SETTERS = Map.of(
+            "nome", ProdutoModel::setNome,
+            "valor", (produto, valor) -> produto.setValor(decimal(valor, 10, 2)),
+            "descricao", ProdutoModel::setDescricao,
+            "quantidade_estoque", (produto, valor) -> produto.setQuantidade_estoque(inteiro(valor)),
+            "peso", (produto, valor) -> produto.setPeso(decimal(valor, 9, 3)));
+
+    private final String[] colunas;
+
+    private final BiConsumer<ProdutoModel, String>[] setters;
+
+    private ProdutoCsvMapper(String[] colunas, BiConsumer<ProdutoModel, String>[] setters) {
+        this.colunas = colunas;
+        this.setters = setters;
+    }
+
+    /**
+     * Cria um leitor de CSV no formato da RFC 4180, o mesmo do CSV exportado: aspas dentro de um campo são escapadas
+     * apenas pela duplicação, e a barra invertida é um caractere comum.
+     *
+     * @param reader Conteúdo do arquivo CSV.
+     * @return Leitor dos registros do arquivo.
+     */
+    public static CSVReader leitor(Reader reader) {
+        return new CSVReaderBuilder(reader).withCSVParser(new RFC4180Parser()).build();
+    }
+
+    /**
+     * Cria um mapper a partir do cabeçalho do arquivo CSV.
+     *
+     * @param header Nomes das colunas, na ordem em que aparecem no arquivo.
+     * @return Mapper com os setters associados a cada coluna.
+     * @throws IllegalArgumentException Caso alguma coluna não corresponda a um atributo do produto.
+     */
+    @SuppressWarnings("unchecked")
+    public static ProdutoCsvMapper fromHeader(String[] header) {
+        List<String> colunas = resolverColunas(header);
+        BiConsumer<ProdutoModel, String>[] setters = new BiConsumer[colunas.size()];
+        for (int i = 0; i < setters.length; i++) {
+            setters[i] = SETTERS.get(colunas.get(i));
+        }
+        return new ProdutoCsvMapper(colunas.toArray(new String[0]), setters);
+    }
+
+    /**
+     * Valida o cabeçalho do arquivo CSV e obtém o nome do atributo do produto correspondente a cada coluna.
+     *
+     * @param header Nomes das colunas, na ordem em que aparecem no arquivo.
+     * @return Nomes dos atributos, na mesma ordem do cabeçalho.
+     * @throws IllegalArgumentException Caso alguma coluna não corresponda a um atributo do produto.
+     */
+    public static List<String> resolverColunas(String[] header) {
+        if (header == null || header.length == 0) {
+            throw new IllegalArgumentException("Arquivo CSV sem cabeçalho");
+        }
+        List<String> colunas = new ArrayList<>(header.length);
+        for (String nomeColuna : header) {
+            String coluna = uncapitalize(nomeColuna.trim());
+            if (!SETTERS.containsKey(coluna)) {
+                throw new IllegalArgumentException("Coluna desconhecida no CSV: " + nomeColuna);
+            }
+            colunas.add(coluna);
+        }
+        return colunas;
+    }
+
+    /**
+     * Converte uma linha do CSV em um novo produto.
+     *
+     * @param linhaCsv Valores da linha, na mesma ordem do cabeçalho.
+     * @return Produto preenchido com os valores da linha.
+     * @throws IllegalArgumentException Caso a linha não possua a mesma quantidade de colunas do cabeçalho, não
+     *                                  informe o nome ou contenha um valor numérico inválido.
+     */
+    public ProdutoModel toProduto(String[] linhaCsv) {
+        if (linhaCsv.length != setters.length) {
+            throw new IllegalArgumentException("Linha com " + linhaCsv.length
+                    + " colunas, esperado " + setters.length);
+        }
+        ProdutoModel produto = new ProdutoModel();
+        for (int i = 0; i < setters.length; i++) {
+            try {
+                setters[i].accept(produto, linhaCsv[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido para a coluna " + colunas[i] + ": " + linhaCsv[i], e);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Valor inválido para a coluna " + colunas[i] + ": " + linhaCsv[i]
+                        + " (" + e.getMessage() + ")", e);
+            }
+        }
+        if (produto.getNome() == null || produto.getNome().isBlank()) {
+            throw new IllegalArgumentException("Nome do produto não informado");
+        }
+        return produto;
+    }
+
+    /**
+     * Converte um valor decimal, recusando-o nos mesmos casos que {@code @DecimalMin("0.0")} e {@code @Digits}.
+     *
+     * @param inteiros Quantidade máxima de dígitos da parte inteira.
+     * @param fracao   Quantidade máxima de casas decimais, desconsiderando zeros à direita.
+     */
+    private static BigDecimal decimal(String valor, int inteiros, int fracao) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        BigDecimal decimal = new BigDecimal(valor.trim());
+        if (decimal.signum() < 0) {
+            throw new IllegalArgumentException("Valor negativo");
+        }
+        BigDecimal significativo = decimal.stripTrailingZeros();
+        if (significativo.precision() - significativo.scale() > inteiros || significativo.scale() > fracao) {
+            throw new IllegalArgumentException("Valor excede " + inteiros + " dígitos inteiros e " + fracao
+                    + " casas decimais");
+        }
+        return decimal;
+    }
+
+    private static Long inteiro(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        long inteiro = Long.parseLong(valor.trim());
+        if (inteiro < 0) {
+            throw new IllegalArgumentException("Valor negativo");
+        }
+        return inteiro;
+    }
+}
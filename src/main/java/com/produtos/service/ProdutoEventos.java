@@ -0,0 +1,240 @@
+package com.produtos.service;
+
+import com.produtos.model.DTO.EventoProdutoDTO;
+import com.produtos.model.ProdutoModel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Eventos de alteração de produtos, transmitidos por Server-Sent Events em {@code GET /api/produtos/changes}.
+ * <p>
+ * Os serviços publicam um evento para cada produto criado, alterado ou excluído, depois que a alteração é gravada.
+ * Cada evento recebe uma sequência crescente e é mantido num buffer circular com os últimos
+ * {@code produtos.eventos.buffer} eventos. Um cliente que se reconecta informando o último evento recebido recebe os
+ * eventos seguintes, desde que ainda estejam no buffer; caso contrário recebe um evento {@code RESET} e deve recarregar
+ * a listagem. A sequência começa no instante da inicialização, em microssegundos, de forma que uma posição obtida
+ * antes de um reinício é sempre anterior ao início do buffer.
+ * <p>
+ * A publicação apenas grava o evento no buffer e nunca aguarda os assinantes. Cada assinante é atendido por uma
+ * thread do {@code eventosExecutor}, que lê o buffer a partir da posição do assinante e escreve na conexão; um
+ * assinante lento que deixa seus eventos pendentes serem sobrescritos recebe um {@code RESET} e é desconectado.
+ */
+@Component
+public class ProdutoEventos {
+
+    /**
+     * Quantidade máxima de eventos lidos do buffer de uma vez por assinante.
+     */
+    private static final int EVENTOS_POR_LEITURA = 256;
+
+    /**
+     * Quantidade de eventos mantidos em memória para a retomada das transmissões.
+     */
+    @Value("${produtos.eventos.buffer:10000}")
+    int tamanhoBuffer = 10000;
+
+    /**
+     * Intervalo sem eventos após o qual um comentário é enviado, para detectar clientes desconectados.
+     */
+    @Value("${produtos.eventos.heartbeat:PT15S}")
+    Duration heartbeat = Duration.ofSeconds(15);
+
+    @Autowired
+    ThreadPoolTaskExecutor eventosExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition novosEventos = lock.newCondition();
+
+    private EventoProdutoDTO[] buffer;
+
+    private long inicio;
+
+    private long proximaSequencia;
+
+    Logger logger = LoggerFactory.getLogger(ProdutoEventos.class);
+
+    @PostConstruct
+    void iniciar() {
+        buffer = new EventoProdutoDTO[tamanhoBuffer];
+        inicio = System.currentTimeMillis() * 1000;
+        proximaSequencia = inicio;
+    }
+
+    public void criado(ProdutoModel produto) {
+        criados(List.of(produto));
+    }
+
+    public void criados(Collection<ProdutoModel> produtos) {
+        publicar(EventoProdutoDTO.Tipo.CREATE, produtos);
+    }
+
+    public void atualizado(ProdutoModel produto) {
+        atualizados(List.of(produto));
+    }
+
+    public void atualizados(Collection<ProdutoModel> produtos) {
+        publicar(EventoProdutoDTO.Tipo.UPDATE, produtos);
+    }
+
+    public void excluido(UUID id) {
+        excluidos(List.of(id));
+    }
+
+    public void excluidos(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (UUID id : ids) {
+                adicionar(EventoProdutoDTO.Tipo.DELETE, id, null);
+            }
+            novosEventos.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publicar(EventoProdutoDTO.Tipo tipo, Collection<ProdutoModel> produtos) {
+        if (produtos.isEmpty()) {
+            return;
+        }
+        List<ProdutoSnapshot> representacoes = new ArrayList<>(produtos.size());
+        for (ProdutoModel produto : produtos) {
+            representacoes.add(ProdutoSnapshot.of(produto));
+        }
+        lock.lock();
+        try {
+            for (ProdutoSnapshot produto : representacoes) {
+                adicionar(tipo, produto.id(), produto);
+            }
+            novosEventos.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adicionar(EventoProdutoDTO.Tipo tipo, UUID id, ProdutoSnapshot produto) {
+        long sequencia = proximaSequencia++;
+        buffer[(int) (sequencia % buffer.length)] = new EventoProdutoDTO(sequencia, tipo, id, produto);
+    }
+
+    /**
+     * Sequência do último evento publicado, ou a anterior ao primeiro evento se nenhum foi publicado.
+     */
+    public long getUltimaSequencia() {
+        lock.lock();
+        try {
+            return proximaSequencia - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtém os eventos posteriores a uma posição, aguardando até {@code espera} caso ainda não haja nenhum.
+     *
+     * @param posicao Sequência do último evento recebido.
+     * @param maximo  Quantidade máxima de eventos retornados.
+     * @return Eventos seguintes à posição, possivelmente nenhum; ou {@code null} se algum deles já foi descartado do
+     *         buffer, ou se a posição for posterior ao último evento publicado.
+     */
+    List<EventoProdutoDTO> aguardar(long posicao, int maximo, Duration espera) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = espera.toNanos();
+            while (posicao + 1 == proximaSequencia && nanos > 0) {
+                nanos = novosEventos.awaitNanos(nanos);
+            }
+            if (posicao + 1 < Math.max(inicio, proximaSequencia - buffer.length) || posicao + 1 > proximaSequencia) {
+                return null;
+            }
+            int quantidade = (int) Math.min(maximo, proximaSequencia - posicao - 1);
+            List<EventoProdutoDTO> eventos = new ArrayList<>(quantidade);
+            for (long sequencia = posicao + 1; sequencia <= posicao + quantidade; sequencia++) {
+                eventos.add(buffer[(int) (sequencia % buffer.length)]);
+            }
+            return eventos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Abre uma transmissão dos eventos posteriores a uma posição.
+     *
+     * @param desde Sequência do último evento recebido pelo cliente, ou {@code null} para receber apenas os eventos
+     *              publicados a partir de agora.
+     * @return Emitter que transmite os eventos até o cliente se desconectar ou o tempo limite da requisição acabar.
+     * @throws TaskRejectedException Exceção lançada caso o limite de assinantes simultâneos tenha sido atingido.
+     */
+    public SseEmitter assinar(Long desde) {
+        long posicao = desde == null ? getUltimaSequencia() : desde;
+        SseEmitter emitter = new SseEmitter();
+        AtomicBoolean ativa = new AtomicBoolean(true);
+        emitter.onCompletion(() -> ativa.set(false));
+        emitter.onError(e -> ativa.set(false));
+        emitter.onTimeout(() -> {
+            ativa.set(false);
+            emitter.complete();
+        });
+        eventosExecutor.execute(() -> transmitir(emitter, posicao, ativa));
+        logger.info("Assinante conectado aos eventos de produtos a partir da sequência " + posicao);
+        return emitter;
+    }
+
+    private void transmitir(SseEmitter emitter, long posicao, AtomicBoolean ativa) {
+        try {
+            while (ativa.get()) {
+                List<EventoProdutoDTO> eventos = aguardar(posicao, EVENTOS_POR_LEITURA, heartbeat);
+                if (eventos == null) {
+                    long ultima = getUltimaSequencia();
+                    logger.warn("Eventos posteriores à sequência " + posicao
+                            + " não estão mais disponíveis, enviando RESET ao assinante");
+                    enviar(emitter, new EventoProdutoDTO(ultima, EventoProdutoDTO.Tipo.RESET, null, null));
+                    emitter.complete();
+                    return;
+                }
+                if (eventos.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                for (EventoProdutoDTO evento : eventos) {
+                    enviar(emitter, evento);
+                    posicao = evento.sequencia();
+                }
+            }
+        } catch (InterruptedException e) {
+            // A aplicação está sendo encerrada, e o servidor web já fechou as conexões
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // O cliente se desconectou ou a transmissão foi encerrada
+            logger.info("Assinante desconectado dos eventos de produtos na sequência " + posicao);
+        }
+    }
+
+    private static void enviar(SseEmitter emitter, EventoProdutoDTO evento) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(evento.sequencia()))
+                .name(evento.tipo().name())
+                .data(evento, MediaType.APPLICATION_JSON));
+    }
+}
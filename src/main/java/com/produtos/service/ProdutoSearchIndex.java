@@ -0,0 +1,527 @@
+package com.produtos.service;
+
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.model.DTO.FiltroBuscaDTO;
+import com.produtos.model.ProdutoModel;
+import com.produtos.repository.ArmazenamentoProdutos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória para a busca de produtos por nome e descrição.
+ * <p>
+ * Os nomes ficam em um mapa ordenado, usado nas buscas por prefixo, os trigramas do nome e da descrição em um
+ * índice invertido, usado nas buscas por trecho do texto, e o valor e a quantidade em estoque em mapas ordenados,
+ * usados nas buscas por faixa. Cada busca percorre apenas o menor desses conjuntos de candidatos e mantém somente
+ * os melhores resultados até a página pedida, em um heap limitado. Os trigramas de cada produto não são guardados:
+ * na remoção eles são recalculados a partir do nome e da descrição. Os textos são comparados sem diferenciar
+ * maiúsculas, minúsculas e acentos. O índice é construído na inicialização da aplicação e atualizado pelas operações de escrita
+ * do {@link ProdutoService}. As escritas são serializadas entre si; as buscas não utilizam bloqueios.
+ * <p>
+ * Como o índice contém todos os produtos e recebe todas as suas alterações, ele também mantém os totais do estoque
+ * ({@link #getEstatisticas()}): cada escrita soma a nova versão dos produtos e subtrai a anterior, e publica os totais
+ * ao final, de forma que a leitura não depende da quantidade de produtos e nunca vê uma escrita pela metade.
+ * <p>
+ * A reconstrução lê o banco de dados sem o bloqueio de escrita, montando um novo conjunto de índices enquanto as
+ * buscas e as escritas continuam no atual. As escritas feitas nesse intervalo também são anotadas e, ao final, são
+ * reaplicadas nos novos índices sob o bloqueio, que só então substituem os atuais.
+ */
+@Component
+public class ProdutoSearchIndex {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private static final char SEPARADOR = '\u0000';
+
+    private record Documento(ProdutoSnapshot produto, String nome, String descricao) {
+    }
+
+    private record Resultado(Documento documento, int pontuacao) {
+    }
+
+    private static final Comparator<Resultado> RELEVANCIA = Comparator.comparingInt(Resultado::pontuacao).reversed()
+            .thenComparing(resultado -> resultado.documento().nome())
+            .thenComparing(resultado -> resultado.documento().produto().id());
+
+    private volatile Indices indices = new Indices();
+
+    private final ReentrantLock escrita = new ReentrantLock();
+
+    /**
+     * Serializa as reconstruções entre si, sem bloquear as escritas.
+     */
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+
+    private volatile EstatisticasProdutosDTO estatisticas = EstatisticasProdutosDTO.VAZIAS;
+
+    /**
+     * Quantidade de escritas no índice, alterada apenas sob o bloqueio de escrita.
+     */
+    private long versao;
+
+    /**
+     * IDs dos produtos alterados desde o início da reconstrução em andamento, ou {@code null} fora de uma
+     * reconstrução. Alterado apenas sob o bloqueio de escrita.
+     */
+    private Set<UUID> alteradosNaReconstrucao;
+
+    @Autowired
+    ArmazenamentoProdutos armazenamentoProdutos;
+
+    Logger logger = LoggerFactory.getLogger(ProdutoSearchIndex.class);
+
+    /**
+     * Reconstrói o índice a partir de todos os produtos armazenados. Os produtos são lidos sem o bloqueio de escrita;
+     * as escritas feitas durante a leitura, detectadas pela versão do índice, são reaplicadas nos novos índices antes
+     * da troca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        reconstrucao.lock();
+        try {
+            long versaoInicial;
+            escrita.lock();
+            try {
+                versaoInicial = versao;
+                alteradosNaReconstrucao = new LinkedHashSet<>();
+            } finally {
+                escrita.unlock();
+            }
+            try {
+                Indices novos = new Indices();
+                try (Stream<ProdutoModel> produtos = armazenamentoProdutos.percorrerOrdenados()) {
+                    produtos.forEach(produto -> novos.adicionar(documento(produto)));
+                }
+                escrita.lock();
+                try {
+                    if (versao != versaoInicial) {
+                        // A versão atual de cada produto alterado durante a leitura está nos índices atuais
+                        for (UUID id : alteradosNaReconstrucao) {
+                            novos.excluir(id);
+                            Documento documento = indices.documentos.get(id);
+                            if (documento != null) {
+                                novos.adicionar(documento);
+                            }
+                        }
+                    }
+                    indices = novos;
+                    publicar();
+                } finally {
+                    escrita.unlock();
+                }
+            } finally {
+                escrita.lock();
+                try {
+                    alteradosNaReconstrucao = null;
+                } finally {
+                    escrita.unlock();
+                }
+            }
+        } finally {
+            reconstrucao.unlock();
+        }
+        logger.info("Índice de busca construído: " + tamanho() + " produtos em "
+                + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Adiciona um produto ao índice, substituindo a versão anterior caso já esteja indexado.
+     */
+    public void indexar(ProdutoModel produto) {
+        if (produto.getId() == null) {
+            return;
+        }
+        escrita.lock();
+        try {
+            substituir(produto);
+            publicar();
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    public void indexar(Collection<ProdutoModel> produtos) {
+        escrita.lock();
+        try {
+            for (ProdutoModel produto : produtos) {
+                if (produto.getId() != null) {
+                    substituir(produto);
+                }
+            }
+            publicar();
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    public void remover(UUID id) {
+        escrita.lock();
+        try {
+            indices.excluir(id);
+            anotar(id);
+            publicar();
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    public int tamanho() {
+        return indices.documentos.size();
+    }
+
+    /**
+     * Totais do estoque dos produtos indexados, atualizados a cada escrita no índice.
+     */
+    public EstatisticasProdutosDTO getEstatisticas() {
+        return estatisticas;
+    }
+
+    /**
+     * Totais do estoque e a versão do índice em que foram publicados, lidos sob o bloqueio de escrita. Duas leituras
+     * com a mesma versão garantem que nenhuma escrita chegou ao índice entre elas.
+     */
+    public InstantaneoEstatisticas getInstantaneoEstatisticas() {
+        escrita.lock();
+        try {
+            return new InstantaneoEstatisticas(versao, estatisticas);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    public record InstantaneoEstatisticas(long versao, EstatisticasProdutosDTO estatisticas) {
+    }
+
+    /**
+     * Busca os produtos que atendem a todos os critérios do filtro, ordenados por relevância: nome igual ao texto
+     * buscado, nome iniciando pelo texto, nome contendo o texto e, por último, descrição contendo o texto.
+     * Produtos com a mesma relevância são ordenados por nome e ID.
+     *
+     * @param filtro  Critérios da busca.
+     * @param pagina  Número da página, iniciando em zero.
+     * @param tamanho Quantidade de produtos por página.
+     * @return Produtos da página e a quantidade total de produtos encontrados.
+     */
+    public ResultadoBusca buscar(FiltroBuscaDTO filtro, int pagina, int tamanho) {
+        String prefixo = filtro.prefixo() == null || filtro.prefixo().isBlank() ? null : normalizar(filtro.prefixo());
+        String texto = filtro.texto() == null || filtro.texto().isBlank() ? null : normalizar(filtro.texto());
+
+        // Os mesmos índices em toda a busca, mesmo que uma reconstrução os substitua
+        Indices indices = this.indices;
+        Iterable<UUID> candidatos = candidatos(indices, filtro, prefixo, texto);
+
+        // Heap com os melhores resultados até o fim da página, cuja raiz é o pior deles
+        long limite = (long) pagina * tamanho + tamanho;
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>((int) Math.max(1, Math.min(limite, 1024)),
+                RELEVANCIA.reversed());
+        long total = 0;
+        for (UUID id : candidatos) {
+            Documento documento = indices.documentos.get(id);
+            if (documento == null || !atende(documento, filtro, prefixo, texto)) {
+                continue;
+            }
+            total++;
+            Resultado resultado = new Resultado(documento, pontuacao(documento, texto));
+            if (melhores.size() < limite) {
+                melhores.add(resultado);
+            } else if (limite > 0 && RELEVANCIA.compare(resultado, melhores.peek()) < 0) {
+                melhores.poll();
+                melhores.add(resultado);
+            }
+        }
+
+        List<Resultado> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(RELEVANCIA);
+        int inicio = (int) Math.min((long) pagina * tamanho, ordenados.size());
+        List<ProdutoModel> produtos = new ArrayList<>(ordenados.size() - inicio);
+        for (Resultado resultado : ordenados.subList(inicio, ordenados.size())) {
+            produtos.add(resultado.documento().produto().toModel());
+        }
+        return new ResultadoBusca(produtos, total);
+    }
+
+    public record ResultadoBusca(List<ProdutoModel> produtos, long total) {
+    }
+
+    /**
+     * Escolhe, entre todos os produtos e os índices aplicáveis aos critérios do filtro, o menor conjunto de
+     * candidatos. Os conjuntos são contados apenas até o tamanho do menor encontrado até então.
+     */
+    private static Iterable<UUID> candidatos(Indices indices, FiltroBuscaDTO filtro, String prefixo, String texto) {
+        Iterable<UUID> candidatos = indices.documentos.keySet();
+        long quantidade = indices.documentos.size();
+        if (prefixo != null) {
+            Collection<UUID> porPrefixo = indices.nomes.subMap(prefixo, true, prefixo + Character.MAX_VALUE, true)
+                    .values();
+            long tamanho = contar(porPrefixo, quantidade);
+            if (tamanho < quantidade) {
+                candidatos = porPrefixo;
+                quantidade = tamanho;
+            }
+        }
+        if (filtro.valorMin() != null || filtro.valorMax() != null) {
+            Collection<Set<UUID>> porValor = faixa(indices.valores, filtro.valorMin(), filtro.valorMax());
+            long tamanho = contarGrupos(porValor, quantidade);
+            if (tamanho < quantidade) {
+                candidatos = unir(porValor);
+                quantidade = tamanho;
+            }
+        }
+        if (filtro.estoqueMin() != null || filtro.estoqueMax() != null) {
+            Collection<Set<UUID>> porEstoque = faixa(indices.estoques, filtro.estoqueMin(), filtro.estoqueMax());
+            long tamanho = contarGrupos(porEstoque, quantidade);
+            if (tamanho < quantidade) {
+                candidatos = unir(porEstoque);
+                quantidade = tamanho;
+            }
+        }
+        if (texto != null && texto.length() >= 3) {
+            Set<UUID> comTrigramas = candidatosPorTrigramas(indices, texto);
+            if (comTrigramas.size() < quantidade) {
+                candidatos = comTrigramas;
+            }
+        } else if (texto != null) {
+            // Um texto curto está contido em algum trigrama de cada nome ou descrição com três ou mais caracteres
+            List<Set<UUID>> grupos = new ArrayList<>();
+            grupos.add(indices.textosCurtos);
+            for (Map.Entry<String, Set<UUID>> trigrama : indices.trigramas.entrySet()) {
+                if (trigrama.getKey().contains(texto)) {
+                    grupos.add(trigrama.getValue());
+                }
+            }
+            if (contarGrupos(grupos, quantidade) < quantidade) {
+                Set<UUID> comTexto = new HashSet<>();
+                grupos.forEach(comTexto::addAll);
+                candidatos = comTexto;
+            }
+        }
+        return candidatos;
+    }
+
+    private static <K extends Comparable<K>> Collection<Set<UUID>> faixa(NavigableMap<K, Set<UUID>> indice, K minimo,
+                                                                         K maximo) {
+        if (minimo != null && maximo != null) {
+            return minimo.compareTo(maximo) > 0 ? List.of() : indice.subMap(minimo, true, maximo, true).values();
+        }
+        return minimo != null ? indice.tailMap(minimo, true).values() : indice.headMap(maximo, true).values();
+    }
+
+    /**
+     * Conta os elementos da coleção, parando ao atingir o limite.
+     */
+    private static long contar(Collection<UUID> ids, long limite) {
+        long quantidade = 0;
+        Iterator<UUID> iterator = ids.iterator();
+        while (quantidade < limite && iterator.hasNext()) {
+            iterator.next();
+            quantidade++;
+        }
+        return quantidade;
+    }
+
+    /**
+     * Soma o tamanho dos grupos, parando ao atingir o limite. Um produto só pertence a mais de um grupo na busca
+     * por texto curto, em que a soma é uma estimativa do tamanho da união.
+     */
+    private static long contarGrupos(Collection<Set<UUID>> grupos, long limite) {
+        long quantidade = 0;
+        Iterator<Set<UUID>> iterator = grupos.iterator();
+        while (quantidade < limite && iterator.hasNext()) {
+            quantidade += iterator.next().size();
+        }
+        return quantidade;
+    }
+
+    private static Iterable<UUID> unir(Collection<Set<UUID>> grupos) {
+        return () -> grupos.stream().flatMap(Set::stream).iterator();
+    }
+
+    private static Set<UUID> candidatosPorTrigramas(Indices indices, String texto) {
+        List<Set<UUID>> listas = new ArrayList<>();
+        for (String trigrama : trigramas(texto)) {
+            Set<UUID> ids = indices.trigramas.get(trigrama);
+            if (ids == null) {
+                return Set.of();
+            }
+            listas.add(ids);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+        Set<UUID> resultado = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !resultado.isEmpty(); i++) {
+            resultado.retainAll(listas.get(i));
+        }
+        return resultado;
+    }
+
+    private static boolean atende(Documento documento, FiltroBuscaDTO filtro, String prefixo, String texto) {
+        ProdutoSnapshot produto = documento.produto();
+        if (prefixo != null && !documento.nome().startsWith(prefixo)) {
+            return false;
+        }
+        if (texto != null && !documento.nome().contains(texto) && !documento.descricao().contains(texto)) {
+            return false;
+        }
+        if (filtro.valorMin() != null && (produto.valor() == null || produto.valor().compareTo(filtro.valorMin()) < 0)) {
+            return false;
+        }
+        if (filtro.valorMax() != null && (produto.valor() == null || produto.valor().compareTo(filtro.valorMax()) > 0)) {
+            return false;
+        }
+        if (filtro.estoqueMin() != null && (produto.quantidade_estoque() == null
+                || produto.quantidade_estoque() < filtro.estoqueMin())) {
+            return false;
+        }
+        return filtro.estoqueMax() == null || (produto.quantidade_estoque() != null
+                && produto.quantidade_estoque() <= filtro.estoqueMax());
+    }
+
+    private static int pontuacao(Documento documento, String texto) {
+        if (texto == null) {
+            return 0;
+        }
+        if (documento.nome().equals(texto)) {
+            return 4;
+        }
+        if (documento.nome().startsWith(texto)) {
+            return 3;
+        }
+        return documento.nome().contains(texto) ? 2 : 1;
+    }
+
+    private void publicar() {
+        versao++;
+        estatisticas = indices.totais.toDTO();
+    }
+
+    private void substituir(ProdutoModel produto) {
+        indices.excluir(produto.getId());
+        indices.adicionar(documento(produto));
+        anotar(produto.getId());
+    }
+
+    /**
+     * Anota um produto alterado durante a reconstrução, para que a alteração seja reaplicada nos novos índices.
+     */
+    private void anotar(UUID id) {
+        if (alteradosNaReconstrucao != null) {
+            alteradosNaReconstrucao.add(id);
+        }
+    }
+
+    private static Documento documento(ProdutoModel produto) {
+        return new Documento(ProdutoSnapshot.of(produto), normalizar(produto.getNome()),
+                normalizar(produto.getDescricao()));
+    }
+
+    /**
+     * Índices e totais de um conjunto de produtos. As buscas leem os índices atuais sem bloqueio; a reconstrução
+     * monta um novo conjunto e o substitui por inteiro.
+     */
+    private static final class Indices {
+
+        private final Map<UUID, Documento> documentos = new ConcurrentHashMap<>();
+
+        private final ConcurrentSkipListMap<String, UUID> nomes = new ConcurrentSkipListMap<>();
+
+        private final Map<String, Set<UUID>> trigramas = new ConcurrentHashMap<>();
+
+        /**
+         * Produtos com nome ou descrição de um ou dois caracteres, que não geram trigramas mas podem conter um texto
+         * buscado de mesmo tamanho.
+         */
+        private final Set<UUID> textosCurtos = ConcurrentHashMap.newKeySet();
+
+        private final ConcurrentSkipListMap<BigDecimal, Set<UUID>> valores = new ConcurrentSkipListMap<>();
+
+        private final ConcurrentSkipListMap<Long, Set<UUID>> estoques = new ConcurrentSkipListMap<>();
+
+        private final TotaisProdutos totais = new TotaisProdutos();
+
+        private void adicionar(Documento documento) {
+            ProdutoSnapshot produto = documento.produto();
+            UUID id = produto.id();
+            documentos.put(id, documento);
+            totais.somar(produto);
+            nomes.put(documento.nome() + SEPARADOR + id, id);
+            for (String trigrama : trigramas(documento.nome(), documento.descricao())) {
+                trigramas.computeIfAbsent(trigrama, chave -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            if (isCurto(documento.nome()) || isCurto(documento.descricao())) {
+                textosCurtos.add(id);
+            }
+            if (produto.valor() != null) {
+                valores.computeIfAbsent(produto.valor(), chave -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            if (produto.quantidade_estoque() != null) {
+                estoques.computeIfAbsent(produto.quantidade_estoque(), chave -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        private void excluir(UUID id) {
+            Documento documento = documentos.remove(id);
+            if (documento == null) {
+                return;
+            }
+            ProdutoSnapshot produto = documento.produto();
+            totais.subtrair(produto);
+            nomes.remove(documento.nome() + SEPARADOR + id);
+            for (String trigrama : trigramas(documento.nome(), documento.descricao())) {
+                removerDoGrupo(trigramas, trigrama, id);
+            }
+            textosCurtos.remove(id);
+            if (produto.valor() != null) {
+                removerDoGrupo(valores, produto.valor(), id);
+            }
+            if (produto.quantidade_estoque() != null) {
+                removerDoGrupo(estoques, produto.quantidade_estoque(), id);
+            }
+        }
+    }
+
+    private static <K> void removerDoGrupo(Map<K, Set<UUID>> indice, K chave, UUID id) {
+        Set<UUID> ids = indice.get(chave);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                indice.remove(chave);
+            }
+        }
+    }
+
+    private static boolean isCurto(String texto) {
+        return !texto.isEmpty() && texto.length() < 3;
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigramas(String... textos) {
+        Set<String> resultado = new HashSet<>();
+        for (String texto : textos) {
+            for (int i = 0; i + 3 <= texto.length(); i++) {
+                resultado.add(texto.substring(i, i + 3));
+            }
+        }
+        return resultado;
+    }
+}
@@ -1,43 +1,165 @@
 package com.produtos.service;
 
-import com.produtos.controller.ProdutoController;
+import com.produtos.controller.ProdutoLinks;
+import com.produtos.model.ArquivoImportadoModel;
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.model.DTO.FiltroBuscaDTO;
+import com.produtos.model.DTO.PaginaProdutosDTO;
+import com.produtos.model.DTO.ProdutoCacheDTO;
 import com.produtos.model.DTO.ProdutoModelDTO;
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.DTO.ResultadoBuscaDTO;
 import com.produtos.model.ProdutoModel;
-import com.produtos.repository.ProdutosRepository;
+import com.produtos.repository.ArmazenamentoProdutos;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.lang.reflect.InvocationTargetException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.util.*;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-import static org.springframework.util.StringUtils.capitalize;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 @Service
 public class ProdutoService {
 
     @Autowired
-    ProdutosRepository produtosRepository;
+    ArmazenamentoProdutos armazenamentoProdutos;
+
+    @Autowired
+    ProdutoCopyImporter produtoCopyImporter;
+
+    @Autowired
+    ProdutoCache produtoCache;
+
+    @Autowired
+    ProdutoSearchIndex produtoSearchIndex;
+
+    @Autowired
+    ProdutoEventos produtoEventos;
+
+    @Autowired
+    ProdutoLinks produtoLinks;
+
+    @Autowired
+    ImportacaoMetricas importacaoMetricas;
+
+    @Autowired
+    AcumuladorEstoque acumuladorEstoque;
+
+    @Autowired
+    LeitorCsvParalelo leitorCsvParalelo;
+
+    @Autowired
+    ProdutoUpsertImporter produtoUpsertImporter;
+
+    @Autowired
+    AdmissaoImportacoes admissaoImportacoes;
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .build();
+
+    /**
+     * Colunas do CSV exportado, na mesma ordem e com os mesmos nomes aceitos pelo upload.
+     */
+    static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("nome")
+            .addColumn("valor")
+            .addColumn("descricao")
+            .addColumn("quantidade_estoque")
+            .addColumn("peso")
+            .setUseHeader(true)
+            .build();
+
+    /**
+     * Maior intervalo entre as verificações de cancelamento enquanto uma importação aguarda o limite de linhas por
+     * segundo.
+     */
+    private static final long ESPERA_MAXIMA_LIMITE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Quantidade de produtos persistidos por transação na importação de arquivos CSV.
+     */
+    @Value("${produtos.csv.tamanho-lote:1000}")
+    int tamanhoLote = 1000;
+
+    /**
+     * Tamanho a partir do qual os arquivos CSV importados pelo JPA são lidos em paralelo.
+     */
+    @Value("${produtos.csv.paralelo.tamanho-minimo:64MB}")
+    DataSize tamanhoMinimoParalelo = DataSize.ofMegabytes(64);
+
+    /**
+     * Limite de linhas gravadas por segundo em cada importação de arquivo CSV; {@code 0} para não limitar.
+     */
+    @Value("${produtos.csv.linhas-por-segundo:0}")
+    long linhasPorSegundo = 0;
+
+    /**
+     * Quantidade de produtos por página na listagem, quando o cliente não informa o tamanho.
+     */
+    @Value("${produtos.listagem.tamanho-padrao:50}")
+    int tamanhoPadraoPagina = 50;
+
+    /**
+     * Maior quantidade de produtos por página aceita na listagem.
+     */
+    @Value("${produtos.listagem.tamanho-maximo:500}")
+    int tamanhoMaximoPagina = 500;
 
     Logger logger = LoggerFactory.getLogger(ProdutoService.class);
 
     public ProdutoModel getProduto(UUID id) {
+        return getProduto(id, true);
+    }
+
+    /**
+     * Obtém um produto pelo seu ID.
+     *
+     * @param comLinks Se o link para a listagem de produtos deve ser adicionado ao produto.
+     */
+    public ProdutoModel getProduto(UUID id, boolean comLinks) {
         try {
             logger.info("Obtendo produto com ID: " + id);
-            Optional<ProdutoModel> produto = produtosRepository.findById(id);
-            if (produto.isPresent()) {
-                produto.get().add(WebMvcLinkBuilder.linkTo(methodOn(ProdutoController.class).getProdutos()).withRel("Lista de produtos"));
-                return produto.get();
+            ProdutoModel produto = produtoCache.get(id, chave -> armazenamentoProdutos.buscarPorId(chave).orElse(null));
+            if (produto != null) {
+                if (comLinks) {
+                    produto.add(produtoLinks.base().listagem());
+                }
+                return produto;
             } else {
                 return null;
             }
@@ -47,62 +169,474 @@ public class ProdutoService {
         }
     }
 
-    public List<ProdutoModel> getProdutos() {
+    /**
+     * Obtém uma página da listagem de produtos, ordenada por nome e ID.
+     *
+     * @param cursor  Token da página a ser obtida, ou {@code null} para a primeira página.
+     * @param tamanho Quantidade de produtos por página, limitada a {@code produtos.listagem.tamanho-maximo}.
+     * @throws IllegalArgumentException Caso o cursor seja inválido.
+     */
+    public PaginaProdutosDTO getProdutos(String cursor, Integer tamanho) {
+        return getProdutos(cursor, tamanho, true);
+    }
+
+    /**
+     * Obtém uma página da listagem de produtos, ordenada por nome e ID.
+     *
+     * @param comLinks Se o link {@code self} deve ser adicionado a cada produto da página.
+     * @throws IllegalArgumentException Caso o cursor seja inválido.
+     */
+    public PaginaProdutosDTO getProdutos(String cursor, Integer tamanho, boolean comLinks) {
         try {
             logger.info("Obtendo lista de produtos");
-            List<ProdutoModel> listaProdutos = produtosRepository.findAll();
-            for (ProdutoModel produto : listaProdutos) {
-                UUID idProduto = produto.getId();
-                produto.add(linkTo(methodOn(ProdutoController.class).getProduto(idProduto)).withSelfRel());
+            int tamanhoPagina = tamanho == null ? tamanhoPadraoPagina : Math.max(1, Math.min(tamanho, tamanhoMaximoPagina));
+            List<ProdutoModel> listaProdutos;
+            if (cursor == null) {
+                listaProdutos = armazenamentoProdutos.buscarPrimeiraPagina(tamanhoPagina + 1);
+            } else {
+                CursorProduto posicao = CursorProduto.decodificar(cursor);
+                listaProdutos = armazenamentoProdutos.buscarPaginaApos(posicao.nome(), posicao.id(), tamanhoPagina + 1);
+            }
+
+            String proximoCursor = null;
+            if (listaProdutos.size() > tamanhoPagina) {
+                listaProdutos = listaProdutos.subList(0, tamanhoPagina);
+                proximoCursor = CursorProduto.of(listaProdutos.get(tamanhoPagina - 1)).codificar();
+            }
+            if (comLinks) {
+                ProdutoLinks.Base links = produtoLinks.base();
+                for (ProdutoModel produto : listaProdutos) {
+                    produto.add(links.produto(produto.getId()));
+                }
             }
-            Collections.sort(listaProdutos);
-            return listaProdutos;
+            return new PaginaProdutosDTO(listaProdutos, proximoCursor, tamanhoPagina);
         } catch (Exception e) {
             logger.error("Falha ao obter a lista de produtos", e);
             throw e;
         }
     }
 
+    /**
+     * Busca produtos no índice em memória.
+     *
+     * @param filtro  Critérios da busca.
+     * @param pagina  Número da página, iniciando em zero.
+     * @param tamanho Quantidade de produtos por página, limitada a {@code produtos.listagem.tamanho-maximo}.
+     */
+    public ResultadoBuscaDTO buscarProdutos(FiltroBuscaDTO filtro, int pagina, Integer tamanho) {
+        try {
+            logger.info("Buscando produtos");
+            int tamanhoPagina = tamanho == null ? tamanhoPadraoPagina : Math.max(1, Math.min(tamanho, tamanhoMaximoPagina));
+            ProdutoSearchIndex.ResultadoBusca resultado = produtoSearchIndex.buscar(filtro, Math.max(0, pagina), tamanhoPagina);
+            ProdutoLinks.Base links = produtoLinks.base();
+            for (ProdutoModel produto : resultado.produtos()) {
+                produto.add(links.produto(produto.getId()));
+            }
+            return new ResultadoBuscaDTO(resultado.produtos(), resultado.total(), Math.max(0, pagina), tamanhoPagina);
+        } catch (Exception e) {
+            logger.error("Falha ao buscar produtos", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Escreve todos os produtos, ordenados por nome e ID, no formato NDJSON (um objeto JSON por linha).
+     * Os produtos são lidos do armazenamento à medida que são escritos, de forma que o consumo de memória não
+     * depende da quantidade de produtos.
+     *
+     * @param outputStream Destino dos produtos.
+     * @throws IOException Exceção lançada caso ocorra um erro ao escrever os produtos.
+     */
+    @Transactional(readOnly = true)
+    public void escreverProdutosNdjson(OutputStream outputStream) throws IOException {
+        try {
+            logger.info("Transmitindo lista de produtos");
+            long total = 0;
+            try (Stream<ProdutoModel> produtos = armazenamentoProdutos.percorrerOrdenados();
+                 JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                Iterator<ProdutoModel> iterator = produtos.iterator();
+                while (iterator.hasNext()) {
+                    ProdutoModel produto = iterator.next();
+                    escreverProduto(generator, produto);
+                    generator.writeRaw('\n');
+                    if (total++ == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+            logger.info("Lista de produtos transmitida: " + total + " produtos");
+        } catch (Exception e) {
+            logger.error("Falha ao transmitir a lista de produtos", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Escreve todos os produtos, ordenados por nome e ID, no formato CSV aceito por {@link #processarArquivoCSV},
+     * com o cabeçalho na primeira linha. Assim como em {@link #escreverProdutosNdjson}, os produtos são lidos do
+     * armazenamento à medida que são escritos.
+     *
+     * @param outputStream Destino do CSV.
+     * @throws IOException Exceção lançada caso ocorra um erro ao escrever os produtos.
+     */
+    @Transactional(readOnly = true)
+    public void escreverProdutosCsv(OutputStream outputStream) throws IOException {
+        try {
+            logger.info("Exportando produtos em CSV");
+            long total = 0;
+            try (Stream<ProdutoModel> produtos = armazenamentoProdutos.percorrerOrdenados();
+                 SequenceWriter writer = CSV_MAPPER.writer(CSV_SCHEMA).writeValues(outputStream)) {
+                Iterator<ProdutoModel> iterator = produtos.iterator();
+                while (iterator.hasNext()) {
+                    ProdutoModel produto = iterator.next();
+                    writer.write(new ProdutoModelDTO(produto.getNome(), produto.getValor(), produto.getDescricao(),
+                            produto.getQuantidade_estoque(), produto.getPeso()));
+                    total++;
+                }
+            }
+            logger.info("Produtos exportados em CSV: " + total + " produtos");
+        } catch (Exception e) {
+            logger.error("Falha ao exportar os produtos em CSV", e);
+            throw e;
+        }
+    }
+
+    private static void escreverProduto(JsonGenerator generator, ProdutoModel produto) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", produto.getId() == null ? null : produto.getId().toString());
+        generator.writeStringField("nome", produto.getNome());
+        escreverNumero(generator, "valor", produto.getValor());
+        generator.writeStringField("descricao", produto.getDescricao());
+        escreverNumero(generator, "quantidade_estoque", produto.getQuantidade_estoque());
+        escreverNumero(generator, "peso", produto.getPeso());
+        generator.writeEndObject();
+    }
+
+    private static void escreverNumero(JsonGenerator generator, String campo, Number numero) throws IOException {
+        generator.writeFieldName(campo);
+        if (numero == null) {
+            generator.writeNull();
+        } else if (numero instanceof BigDecimal decimal) {
+            generator.writeNumber(decimal);
+        } else {
+            generator.writeNumber(numero.longValue());
+        }
+    }
+
+    public ProdutoCacheDTO getEstatisticasCache() {
+        return produtoCache.estatisticas();
+    }
+
+    /**
+     * Obtém os totais do estoque, mantidos pelo {@link ProdutoSearchIndex} a cada alteração dos produtos, sem
+     * consultar o armazenamento.
+     */
+    public EstatisticasProdutosDTO getEstatisticas() {
+        return produtoSearchIndex.getEstatisticas();
+    }
+
     public ProdutoModel createProduto(ProdutoModelDTO produtoDTO) {
         try {
             logger.info("Criando produto");
             ProdutoModel produto = new ProdutoModel();
             BeanUtils.copyProperties(produtoDTO, produto);
-            return produtosRepository.save(produto);
+            ProdutoModel produtoCriado = armazenamentoProdutos.salvar(produto);
+            produtoCache.put(produtoCriado);
+            produtoSearchIndex.indexar(produtoCriado);
+            produtoEventos.criado(produtoCriado);
+            return produtoCriado;
         } catch (Exception e) {
             logger.error("Falha ao criar o produto", e);
             throw e;
         }
     }
 
-    public void processarArquivoCSV(MultipartFile file) throws CsvValidationException, IOException, InvocationTargetException, IllegalAccessException, NoSuchMethodException {
+    public void processarArquivoCSV(MultipartFile file) throws CsvValidationException, IOException, SQLException {
+        processarArquivoCSV(file, false);
+    }
+
+    /**
+     * Processa um arquivo CSV de produtos, depois de admitido pelo {@link AdmissaoImportacoes}.
+     *
+     * @param file Arquivo CSV a ser processado.
+     * @param copy Se {@code true}, utiliza o COPY do PostgreSQL quando disponível; nos demais bancos de dados
+     *             o arquivo é importado pelo JPA.
+     * @throws ImportacaoRecusadaException Exceção lançada caso o limite de importações simultâneas tenha sido atingido.
+     */
+    public void processarArquivoCSV(MultipartFile file, boolean copy) throws CsvValidationException, IOException, SQLException {
+        admissaoImportacoes.admitir();
         try {
             logger.info("Processando arquivo CSV");
-            try (CSVReader csvReader = new CSVReader(new InputStreamReader(file.getInputStream()))) {
-                String[] header = csvReader.readNext();
-
-                String[] linhaCsv;
-                while ((linhaCsv = csvReader.readNext()) != null) {
-                    var produtoModel = new ProdutoModel();
-                    for (String nomeColuna : header) {
-                        String valorColuna = linhaCsv[Arrays.asList(header).indexOf(nomeColuna)];
-                        produtoModel.getClass().getMethod("set" + capitalize(nomeColuna),
-                                String.class).invoke(produtoModel, valorColuna);
-                    }
-                    produtosRepository.save(produtoModel);
+            boolean usarCopy = copy && produtoCopyImporter.isDisponivel();
+            if (copy && !usarCopy) {
+                logger.warn("COPY indisponível para o banco de dados configurado, importando pelo JPA");
+            }
+            if (!usarCopy && file.getSize() >= tamanhoMinimoParalelo.toBytes()) {
+                // Arquivos grandes são gravados em disco para serem mapeados em memória e lidos em paralelo
+                Path arquivo = Files.createTempFile("produtos-", ".csv");
+                try {
+                    file.transferTo(arquivo);
+                    importarCsv(arquivo, new ImportacaoCsv(false));
+                } finally {
+                    Files.deleteIfExists(arquivo);
                 }
+                return;
+            }
+            try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+                if (usarCopy) {
+                    // Os produtos gravados são lidos de volta em lotes e somados ao índice e aos totais, sem reconstruí-los
+                    long gravados = produtoCopyImporter.importar(reader, tamanhoLote, lote -> {
+                        produtoSearchIndex.indexar(lote);
+                        produtoEventos.criados(lote);
+                    });
+                    importacaoMetricas.linhasGravadas(gravados);
+                    return;
+                }
+                importarCsv(reader, new ImportacaoCsv(false));
             }
         } catch (Exception e) {
             logger.error("Falha ao processar o arquivo CSV", e);
             throw e;
+        } finally {
+            admissaoImportacoes.liberar();
         }
     }
 
+    /**
+     * Verifica se as importações com upsert podem ser executadas, antes de receber o arquivo.
+     *
+     * @throws IllegalStateException Caso o banco de dados não possua o índice único da chave natural.
+     */
+    public void verificarImportacaoUpsert() {
+        try {
+            produtoUpsertImporter.verificarIndiceUnico();
+        } catch (Exception e) {
+            logger.error("Importação com upsert indisponível", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Processa um arquivo CSV de produtos com upsert: produtos já existentes com a mesma chave natural
+     * ({@code produtos.csv.upsert.chave}) são atualizados, e um arquivo idêntico a um já importado é ignorado.
+     *
+     * @param file Arquivo CSV a ser processado.
+     * @return Importação finalizada, com a quantidade de produtos inseridos, atualizados e inalterados.
+     * @throws ImportacaoRecusadaException Exceção lançada caso o limite de importações simultâneas tenha sido atingido.
+     * @throws IllegalStateException       Caso o banco de dados não possua o índice único da chave natural.
+     */
+    public ImportacaoCsv processarArquivoCSVUpsert(MultipartFile file) throws CsvValidationException, IOException {
+        verificarImportacaoUpsert();
+        admissaoImportacoes.admitir();
+        try {
+            logger.info("Processando arquivo CSV com upsert");
+            Path arquivo = Files.createTempFile("produtos-", ".csv");
+            try {
+                file.transferTo(arquivo);
+                ImportacaoCsv importacao = new ImportacaoCsv(false, true);
+                importarCsv(arquivo, importacao);
+                return importacao;
+            } finally {
+                Files.deleteIfExists(arquivo);
+            }
+        } catch (Exception e) {
+            logger.error("Falha ao processar o arquivo CSV com upsert", e);
+            throw e;
+        } finally {
+            admissaoImportacoes.liberar();
+        }
+    }
+
+    /**
+     * Lê os produtos de um CSV e os persiste em lotes, atualizando o andamento da importação.
+     * A leitura é interrompida caso o cancelamento da importação seja solicitado.
+     *
+     * @param reader     Conteúdo do arquivo CSV, incluindo o cabeçalho.
+     * @param importacao Importação cujo andamento será atualizado.
+     * @throws CsvValidationException Exceção lançada caso ocorra um erro de validação do CSV.
+     * @throws IOException            Exceção lançada caso ocorra um erro de leitura do arquivo.
+     */
+    public void importarCsv(Reader reader, ImportacaoCsv importacao) throws CsvValidationException, IOException {
+        if (!importacao.iniciar()) {
+            return;
+        }
+        importacaoMetricas.iniciar(importacao);
+        try {
+            CSVReader csvReader = ProdutoCsvMapper.leitor(reader);
+            ProdutoCsvMapper mapper = ProdutoCsvMapper.fromHeader(csvReader.readNext());
+
+            List<ProdutoModel> lote = new ArrayList<>(tamanhoLote);
+            String[] linhaCsv;
+            while (!importacao.isCancelamentoSolicitado() && (linhaCsv = csvReader.readNext()) != null) {
+                importacao.linhaLida();
+                importacaoMetricas.linhaLida();
+                try {
+                    lote.add(mapper.toProduto(linhaCsv));
+                } catch (IllegalArgumentException e) {
+                    String mensagem = "Linha " + csvReader.getLinesRead() + " do CSV inválida: " + e.getMessage();
+                    if (!importacao.isRejeitarLinhasInvalidas()) {
+                        throw new IllegalArgumentException(mensagem, e);
+                    }
+                    logger.warn(mensagem);
+                    importacao.linhaRejeitada();
+                    importacaoMetricas.linhaRejeitada();
+                    continue;
+                }
+                if (lote.size() >= tamanhoLote) {
+                    gravarLote(lote, importacao);
+                    lote = new ArrayList<>(tamanhoLote);
+                }
+            }
+            if (!lote.isEmpty() && !importacao.isCancelamentoSolicitado()) {
+                gravarLote(lote, importacao);
+            }
+            concluirImportacao(importacao);
+        } finally {
+            importacaoMetricas.finalizar(importacao);
+        }
+    }
+
+    /**
+     * Importa um arquivo CSV gravado em disco. Arquivos a partir de {@code produtos.csv.paralelo.tamanho-minimo}
+     * são lidos em paralelo pelo {@link LeitorCsvParalelo}, e os lotes são gravados por esta thread à medida que
+     * ficam prontos; os demais são lidos por {@link #importarCsv(Reader, ImportacaoCsv)}.
+     *
+     * <p>
+     * Nas importações com upsert o arquivo é identificado pelo hash SHA-256 do seu conteúdo: um arquivo já importado
+     * com sucesso é ignorado sem ser lido novamente, e a importação é finalizada com o status
+     * {@link ImportacaoCsv.Status#IGNORADA}.
+     *
+     * @param arquivo    Arquivo CSV em UTF-8, incluindo o cabeçalho.
+     * @param importacao Importação cujo andamento será atualizado.
+     * @throws CsvValidationException Exceção lançada caso ocorra um erro de validação do CSV.
+     * @throws IOException            Exceção lançada caso ocorra um erro de leitura do arquivo.
+     */
+    public void importarCsv(Path arquivo, ImportacaoCsv importacao) throws CsvValidationException, IOException {
+        if (!importacao.isUpsert()) {
+            importarArquivo(arquivo, importacao);
+            return;
+        }
+        String hash = calcularHash(arquivo);
+        Optional<ArquivoImportadoModel> importado = armazenamentoProdutos.buscarArquivoImportado(hash);
+        if (importado.isPresent()) {
+            if (importacao.ignorar()) {
+                logger.info("Arquivo CSV " + hash + " já importado em " + importado.get().getDataImportacao()
+                        + ", importação ignorada");
+            }
+            return;
+        }
+        importarArquivo(arquivo, importacao);
+        if (importacao.getStatus() == ImportacaoCsv.Status.CONCLUIDA) {
+            armazenamentoProdutos.registrarArquivoImportado(new ArquivoImportadoModel(hash, importacao.getFim(),
+                    importacao.getLinhasInseridas(), importacao.getLinhasAtualizadas(),
+                    importacao.getLinhasInalteradas(), importacao.getLinhasRejeitadas()));
+        }
+    }
+
+    private void importarArquivo(Path arquivo, ImportacaoCsv importacao) throws CsvValidationException, IOException {
+        if (Files.size(arquivo) < tamanhoMinimoParalelo.toBytes()) {
+            try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+                importarCsv(reader, importacao);
+            }
+            return;
+        }
+        if (!importacao.iniciar()) {
+            return;
+        }
+        importacaoMetricas.iniciar(importacao);
+        try {
+            leitorCsvParalelo.ler(arquivo, tamanhoLote, importacao, lote -> {
+                importacao.linhasLidas(lote.linhasLidas());
+                importacaoMetricas.linhasLidas(lote.linhasLidas());
+                importacao.linhasRejeitadas(lote.linhasRejeitadas());
+                importacaoMetricas.linhasRejeitadas(lote.linhasRejeitadas());
+                if (!lote.produtos().isEmpty()) {
+                    gravarLote(lote.produtos(), importacao);
+                }
+            });
+            concluirImportacao(importacao);
+        } finally {
+            importacaoMetricas.finalizar(importacao);
+        }
+    }
+
+    private void gravarLote(List<ProdutoModel> lote, ImportacaoCsv importacao) {
+        limitarVazao(lote.size(), importacao);
+        if (importacao.isUpsert()) {
+            ProdutoUpsertImporter.ResultadoUpsert resultado = produtoUpsertImporter.gravar(lote);
+            for (ProdutoModel produto : resultado.gravados()) {
+                produtoCache.invalidate(produto.getId());
+            }
+            produtoSearchIndex.indexar(resultado.gravados());
+            produtoEventos.criados(resultado.gravados().subList(0, resultado.inseridos()));
+            produtoEventos.atualizados(resultado.gravados().subList(resultado.inseridos(), resultado.gravados().size()));
+            importacao.linhasUpsert(resultado.inseridos(), resultado.atualizados(), resultado.inalterados());
+            importacao.linhasRejeitadas(resultado.rejeitados());
+            importacaoMetricas.linhasGravadas(resultado.inseridos() + resultado.atualizados());
+            importacaoMetricas.linhasRejeitadas(resultado.rejeitados());
+            return;
+        }
+        armazenamentoProdutos.salvarTodos(lote);
+        produtoSearchIndex.indexar(lote);
+        produtoEventos.criados(lote);
+        importacao.linhasGravadas(lote.size());
+        importacaoMetricas.linhasGravadas(lote.size());
+    }
+
+    /**
+     * Aguarda até que a gravação de um lote respeite o limite de {@code produtos.csv.linhas-por-segundo}, para que a
+     * importação não ocupe o banco de dados continuamente. A espera é encerrada caso o cancelamento da importação seja
+     * solicitado.
+     */
+    private void limitarVazao(int linhas, ImportacaoCsv importacao) {
+        if (linhasPorSegundo <= 0) {
+            return;
+        }
+        long fim = System.nanoTime() + importacao.reservarGravacao(linhas, linhasPorSegundo);
+        try {
+            long restante;
+            while ((restante = fim - System.nanoTime()) > 0 && !importacao.isCancelamentoSolicitado()) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(restante, ESPERA_MAXIMA_LIMITE_NANOS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void concluirImportacao(ImportacaoCsv importacao) {
+        importacao.concluir();
+        String gravados = importacao.isUpsert()
+                ? importacao.getLinhasInseridas() + " produtos inseridos, " + importacao.getLinhasAtualizadas()
+                        + " atualizados, " + importacao.getLinhasInalteradas() + " inalterados, "
+                : importacao.getLinhasGravadas() + " produtos gravados, ";
+        logger.info("Arquivo CSV processado: " + gravados + importacao.getLinhasRejeitadas() + " linhas rejeitadas ("
+                + importacao.getLinhasPorSegundo() + " linhas/s)");
+    }
+
+    /**
+     * Calcula o hash SHA-256 do conteúdo de um arquivo, em hexadecimal.
+     */
+    static String calcularHash(Path arquivo) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(arquivo), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     public boolean deleteProduto(UUID id) {
         try {
             logger.info("Deletando produto com ID: " + id);
-            if (produtosRepository.existsById(id)) {
-                produtosRepository.deleteById(id);
+            if (armazenamentoProdutos.excluir(id) > 0) {
+                produtoCache.invalidate(id);
+                produtoSearchIndex.remover(id);
+                produtoEventos.excluido(id);
                 return true;
             }
             return false;
@@ -115,16 +649,93 @@ public class ProdutoService {
     public ProdutoModel updateProduto(UUID id, ProdutoModelDTO produtoDTO) {
         try {
             logger.info("Atualizando produto com ID: " + id);
-            Optional<ProdutoModel> produtoOptional = produtosRepository.findById(id);
-            if (produtoOptional.isPresent()) {
-                ProdutoModel produto = produtoOptional.get();
-                BeanUtils.copyProperties(produtoDTO, produto);
-                return produtosRepository.save(produto);
+            int atualizados = armazenamentoProdutos.atualizar(id, produtoDTO.nome(), produtoDTO.valor(),
+                    produtoDTO.descricao(), produtoDTO.quantidade_estoque(), produtoDTO.peso());
+            if (atualizados == 0) {
+                return null;
             }
-            return null;
+            ProdutoModel produtoAtualizado = new ProdutoModel();
+            BeanUtils.copyProperties(produtoDTO, produtoAtualizado);
+            produtoAtualizado.setId(id);
+            produtoCache.invalidate(id);
+            produtoSearchIndex.indexar(produtoAtualizado);
+            produtoEventos.atualizado(produtoAtualizado);
+            return produtoAtualizado;
         } catch (Exception e) {
             logger.error("Falha ao atualizar o produto com ID: " + id, e);
             throw e;
         }
     }
+
+    /**
+     * Atualiza apenas os campos informados de um produto e retorna o produto resultante.
+     *
+     * @return O produto atualizado, ou null se o produto não existir.
+     */
+    public ProdutoModel patchProduto(UUID id, ProdutoPatchDTO produtoDTO) {
+        try {
+            logger.info("Atualizando parcialmente produto com ID: " + id);
+            if (produtoDTO.isVazio()) {
+                return armazenamentoProdutos.buscarPorId(id).orElse(null);
+            }
+            if (armazenamentoProdutos.atualizarParcialmente(id, produtoDTO) == 0) {
+                return null;
+            }
+            ProdutoModel produtoAtualizado = armazenamentoProdutos.buscarPorId(id).orElse(null);
+            produtoCache.invalidate(id);
+            if (produtoAtualizado != null) {
+                produtoSearchIndex.indexar(produtoAtualizado);
+                produtoEventos.atualizado(produtoAtualizado);
+            }
+            return produtoAtualizado;
+        } catch (Exception e) {
+            logger.error("Falha ao atualizar parcialmente o produto com ID: " + id, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Soma {@code delta} à quantidade em estoque de um produto com um único comando UPDATE condicional, de forma que
+     * ajustes simultâneos do mesmo produto não se sobrescrevem.
+     *
+     * @return O produto com o estoque atualizado, ou null se o produto não existir.
+     * @throws IllegalStateException Caso o estoque resultante fique negativo; nesse caso nada é alterado.
+     */
+    public ProdutoModel ajustarEstoque(UUID id, long delta) {
+        try {
+            logger.info("Ajustando estoque do produto com ID: " + id + " em " + delta);
+            if (armazenamentoProdutos.ajustarEstoque(id, delta) == 0) {
+                if (!armazenamentoProdutos.existe(id)) {
+                    return null;
+                }
+                throw new IllegalStateException("Estoque insuficiente para o produto com ID: " + id);
+            }
+            ProdutoModel produtoAtualizado = armazenamentoProdutos.buscarPorId(id).orElse(null);
+            produtoCache.invalidate(id);
+            if (produtoAtualizado != null) {
+                produtoSearchIndex.indexar(produtoAtualizado);
+                produtoEventos.atualizado(produtoAtualizado);
+            }
+            return produtoAtualizado;
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Falha ao ajustar o estoque do produto com ID: " + id, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Registra um ajuste de estoque no {@link AcumuladorEstoque}, que o grava em lote posteriormente.
+     * A existência do produto é verificada pelo cache de produtos.
+     *
+     * @return {@code false} se o produto não for encontrado; nesse caso o ajuste não é registrado.
+     */
+    public boolean acumularAjusteEstoque(UUID id, long delta) {
+        if (getProduto(id, false) == null) {
+            return false;
+        }
+        acumuladorEstoque.acumular(id, delta);
+        return true;
+    }
 }
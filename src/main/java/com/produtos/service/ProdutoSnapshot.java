@@ -0,0 +1,28 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Cópia imutável dos dados de um produto, armazenada no {@link ProdutoCache} e no {@link ProdutoSearchIndex}. Também é
+ * a representação do produto sem links, retornada para o media type {@code application/vnd.produtos.simples+json} e
+ * transmitida nos eventos de alteração.
+ */
+public record ProdutoSnapshot(UUID id, String nome, BigDecimal valor, String descricao, Long quantidade_estoque,
+                              BigDecimal peso) {
+
+    public static ProdutoSnapshot of(ProdutoModel produto) {
+        return new ProdutoSnapshot(produto.getId(), produto.getNome(), produto.getValor(), produto.getDescricao(),
+                produto.getQuantidade_estoque(), produto.getPeso());
+    }
+
+    /**
+     * Cria um novo {@link ProdutoModel} com os dados da cópia. Cada chamada retorna uma nova instância, que pode
+     * receber links sem afetar o cache.
+     */
+    public ProdutoModel toModel() {
+        return new ProdutoModel(id, nome, valor, descricao, quantidade_estoque, peso);
+    }
+}
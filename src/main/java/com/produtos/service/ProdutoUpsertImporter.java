@@ -0,0 +1,292 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+import com.produtos.model.UuidV7Generator;
+import com.produtos.repository.ArmazenamentoProdutos;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Grava lotes de produtos importados de um CSV inserindo os produtos novos e atualizando os já existentes, que são
+ * identificados por uma chave natural configurável ({@code produtos.csv.upsert.chave}, por padrão o nome).
+ * No PostgreSQL cada lote é gravado com um único {@code INSERT ... ON CONFLICT DO UPDATE}, que só altera as linhas
+ * cujo conteúdo mudou; nos demais bancos de dados, e no armazenamento em log, os produtos existentes são
+ * buscados e comparados através do {@link ArmazenamentoProdutos}.
+ * <p>
+ * O {@code ON CONFLICT} exige um índice único nas colunas da chave, que não é criado pela aplicação: ele faz parte
+ * do esquema ({@code db/indice-chave-natural.sql}) e vale para todas as gravações, não só para as importações.
+ * Sem ele a importação com upsert é recusada antes de ler o arquivo.
+ */
+@Component
+public class ProdutoUpsertImporter {
+
+    /**
+     * Colunas gravadas pelo upsert, além do ID.
+     */
+    static final List<String> COLUNAS = List.of("nome", "valor", "descricao", "quantidade_estoque", "peso");
+
+    private static final Map<String, String> TIPOS = Map.of(
+            "nome", "text",
+            "valor", "numeric(12, 2)",
+            "descricao", "text",
+            "quantidade_estoque", "bigint",
+            "peso", "numeric(12, 3)");
+
+    private static final Map<String, Function<ProdutoModel, Object>> GETTERS = Map.of(
+            "nome", ProdutoModel::getNome,
+            "valor", ProdutoModel::getValor,
+            "descricao", ProdutoModel::getDescricao,
+            "quantidade_estoque", ProdutoModel::getQuantidade_estoque,
+            "peso", ProdutoModel::getPeso);
+
+    /**
+     * Maior quantidade de linhas por comando, respeitando o limite de 32767 parâmetros do protocolo do PostgreSQL.
+     */
+    static final int LINHAS_POR_COMANDO = Short.MAX_VALUE / (COLUNAS.size() + 1);
+
+    /**
+     * Verifica se existe um índice único válido, sem condição, cujas colunas (sem as do {@code INCLUDE}) são as
+     * informadas, em ordem alfabética e separadas por vírgula.
+     */
+    private static final String CONSULTA_INDICE_UNICO = "SELECT EXISTS (SELECT 1 FROM pg_index i"
+            + " WHERE i.indrelid = 'produtos'::regclass AND i.indisunique AND i.indisvalid AND i.indpred IS NULL"
+            + " AND i.indnkeyatts = ?"
+            + " AND (SELECT array_agg(a.attname::text ORDER BY a.attname) FROM generate_series(0, i.indnkeyatts - 1) k"
+            + " JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[k])"
+            + " = string_to_array(?, ','))";
+
+    @Autowired(required = false)
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ArmazenamentoProdutos armazenamentoProdutos;
+
+    @Autowired
+    ProdutoCopyImporter produtoCopyImporter;
+
+    /**
+     * Atributos que identificam um produto na importação com upsert.
+     */
+    @Value("${produtos.csv.upsert.chave:nome}")
+    List<String> chave = List.of("nome");
+
+    private volatile boolean indiceVerificado;
+
+    Logger logger = LoggerFactory.getLogger(ProdutoUpsertImporter.class);
+
+    /**
+     * Resultado da gravação de um lote.
+     *
+     * @param gravados    Produtos inseridos ou atualizados, com o ID atribuído; os {@code inseridos} primeiros são
+     *                    os produtos novos.
+     * @param inseridos   Quantidade de produtos novos.
+     * @param atualizados Quantidade de produtos existentes cujo conteúdo foi alterado.
+     * @param inalterados Quantidade de linhas idênticas ao produto já gravado.
+     * @param rejeitados  Quantidade de linhas sem valor para algum atributo da chave.
+     */
+    public record ResultadoUpsert(List<ProdutoModel> gravados, int inseridos, int atualizados, int inalterados,
+                                  int rejeitados) {
+    }
+
+    /**
+     * Valida os atributos configurados como chave.
+     *
+     * @throws IllegalArgumentException Caso algum atributo não corresponda a uma coluna do CSV.
+     */
+    @PostConstruct
+    void validarChave() {
+        chave = ProdutoCsvMapper.resolverColunas(chave.toArray(new String[0])).stream().distinct().toList();
+    }
+
+    /**
+     * Grava um lote de produtos. Quando a mesma chave aparece mais de uma vez no lote, prevalece a última linha.
+     *
+     * @param lote Produtos lidos do CSV, ainda sem ID.
+     * @return Produtos gravados e contadores do lote.
+     * @throws IllegalStateException Caso o índice único da chave não exista no PostgreSQL.
+     */
+    public ResultadoUpsert gravar(List<ProdutoModel> lote) {
+        Map<List<Object>, ProdutoModel> porChave = new LinkedHashMap<>();
+        int rejeitados = 0;
+        int repetidosAlterados = 0;
+        int repetidosIguais = 0;
+        for (ProdutoModel produto : lote) {
+            List<Object> valores = chave(produto);
+            if (valores.contains(null)) {
+                rejeitados++;
+                continue;
+            }
+            ProdutoModel anterior = porChave.put(valores, produto);
+            if (anterior != null) {
+                if (iguais(anterior, produto)) {
+                    repetidosIguais++;
+                } else {
+                    repetidosAlterados++;
+                }
+            }
+        }
+        if (rejeitados > 0) {
+            logger.warn(rejeitados + " linhas sem valor para a chave " + chave + " rejeitadas");
+        }
+
+        ResultadoUpsert resultado = produtoCopyImporter.isDisponivel()
+                ? gravarComOnConflict(new ArrayList<>(porChave.values()))
+                : gravarComArmazenamento(porChave);
+        return new ResultadoUpsert(resultado.gravados(), resultado.inseridos(),
+                resultado.atualizados() + repetidosAlterados, resultado.inalterados() + repetidosIguais, rejeitados);
+    }
+
+    private ResultadoUpsert gravarComOnConflict(List<ProdutoModel> produtos) {
+        verificarIndiceUnico();
+        List<ProdutoModel> inseridos = new ArrayList<>();
+        List<ProdutoModel> atualizados = new ArrayList<>();
+        for (int inicio = 0; inicio < produtos.size(); inicio += LINHAS_POR_COMANDO) {
+            List<ProdutoModel> parte = produtos.subList(inicio, Math.min(produtos.size(), inicio + LINHAS_POR_COMANDO));
+            Map<List<Object>, ProdutoModel> porChave = new HashMap<>();
+            for (ProdutoModel produto : parte) {
+                porChave.put(chave(produto), produto);
+            }
+            jdbcTemplate.query(comandoUpsert(chave, parte.size()), statement -> {
+                int parametro = 1;
+                for (ProdutoModel produto : parte) {
+                    statement.setObject(parametro++, UuidV7Generator.gerar());
+                    for (String coluna : COLUNAS) {
+                        statement.setObject(parametro++, GETTERS.get(coluna).apply(produto));
+                    }
+                }
+            }, resultSet -> {
+                List<Object> valores = new ArrayList<>(chave.size());
+                for (int i = 0; i < chave.size(); i++) {
+                    valores.add(normalizar(resultSet.getObject(3 + i)));
+                }
+                ProdutoModel produto = porChave.get(valores);
+                produto.setId(resultSet.getObject(1, UUID.class));
+                (resultSet.getBoolean(2) ? inseridos : atualizados).add(produto);
+            });
+        }
+        List<ProdutoModel> gravados = new ArrayList<>(inseridos);
+        gravados.addAll(atualizados);
+        return new ResultadoUpsert(gravados, inseridos.size(), atualizados.size(), produtos.size() - gravados.size(), 0);
+    }
+
+    private ResultadoUpsert gravarComArmazenamento(Map<List<Object>, ProdutoModel> porChave) {
+        return transactionTemplate.execute(status -> {
+            Map<List<Object>, ProdutoModel> existentes = new HashMap<>();
+            for (ProdutoModel existente : armazenamentoProdutos.buscarPorChave(chave, porChave.keySet())) {
+                existentes.put(chave(existente), existente);
+            }
+            List<ProdutoModel> atualizados = new ArrayList<>();
+            List<ProdutoModel> novos = new ArrayList<>();
+            int inalterados = 0;
+            for (Map.Entry<List<Object>, ProdutoModel> linha : porChave.entrySet()) {
+                ProdutoModel existente = existentes.get(linha.getKey());
+                if (existente == null) {
+                    novos.add(linha.getValue());
+                } else if (iguais(existente, linha.getValue())) {
+                    inalterados++;
+                } else {
+                    BeanUtils.copyProperties(linha.getValue(), existente, "id");
+                    atualizados.add(existente);
+                }
+            }
+            List<ProdutoModel> gravados = new ArrayList<>(armazenamentoProdutos.salvarTodos(novos));
+            // No JPA os produtos existentes já são gerenciados; no log eles precisam ser gravados novamente
+            gravados.addAll(armazenamentoProdutos.salvarTodos(atualizados));
+            return new ResultadoUpsert(gravados, novos.size(), atualizados.size(), inalterados, 0);
+        });
+    }
+
+    /**
+     * Verifica se o PostgreSQL possui o índice único exigido pelo {@code ON CONFLICT}: um índice único válido, sem
+     * condição, cujas colunas são exatamente as da chave, em qualquer ordem. Nos demais bancos de dados o upsert não
+     * depende de índice. Uma vez encontrado, o índice não é verificado novamente.
+     *
+     * @throws IllegalStateException Caso o índice não exista.
+     */
+    public void verificarIndiceUnico() {
+        if (indiceVerificado || !produtoCopyImporter.isDisponivel()) {
+            return;
+        }
+        Boolean existe = jdbcTemplate.queryForObject(CONSULTA_INDICE_UNICO, Boolean.class, chave.size(),
+                String.join(",", chave.stream().sorted().toList()));
+        if (!Boolean.TRUE.equals(existe)) {
+            throw new IllegalStateException("Importação com upsert indisponível: a tabela produtos não possui o índice "
+                    + "único da chave " + chave + "; remova os produtos repetidos com db/chave-natural.sql e crie o "
+                    + "índice com db/indice-chave-natural.sql");
+        }
+        indiceVerificado = true;
+    }
+
+    /**
+     * Monta o comando que insere {@code linhas} produtos, atualizando os que já existem com a mesma chave apenas
+     * quando algum valor muda. Cada linha retornada contém o ID, se o produto foi inserido e os valores da chave.
+     */
+    static String comandoUpsert(List<String> chave, int linhas) {
+        StringJoiner valores = new StringJoiner(", ");
+        StringJoiner parametros = new StringJoiner(", ", "(", ")");
+        parametros.add("?::uuid");
+        for (String coluna : COLUNAS) {
+            parametros.add("?::" + TIPOS.get(coluna));
+        }
+        for (int i = 0; i < linhas; i++) {
+            valores.add(parametros.toString());
+        }
+        List<String> atualizadas = COLUNAS.stream().filter(coluna -> !chave.contains(coluna)).toList();
+        String conflito;
+        if (atualizadas.isEmpty()) {
+            conflito = "DO NOTHING";
+        } else {
+            conflito = "DO UPDATE SET "
+                    + String.join(", ", atualizadas.stream().map(coluna -> coluna + " = EXCLUDED." + coluna).toList())
+                    + " WHERE (" + String.join(", ", atualizadas.stream().map(coluna -> "p." + coluna).toList())
+                    + ") IS DISTINCT FROM ("
+                    + String.join(", ", atualizadas.stream().map(coluna -> "EXCLUDED." + coluna).toList()) + ")";
+        }
+        return "INSERT INTO produtos AS p (id, " + String.join(", ", COLUNAS) + ") VALUES " + valores
+                + " ON CONFLICT (" + String.join(", ", chave) + ") " + conflito
+                + " RETURNING p.id, p.xmax = 0, " + String.join(", ", chave.stream().map(coluna -> "p." + coluna).toList());
+    }
+
+    private List<Object> chave(ProdutoModel produto) {
+        List<Object> valores = new ArrayList<>(chave.size());
+        for (String atributo : chave) {
+            valores.add(normalizar(GETTERS.get(atributo).apply(produto)));
+        }
+        return valores;
+    }
+
+    /**
+     * Remove os zeros à direita dos decimais, para que valores iguais com escalas diferentes formem a mesma chave.
+     */
+    private static Object normalizar(Object valor) {
+        return valor instanceof BigDecimal decimal ? decimal.stripTrailingZeros() : valor;
+    }
+
+    private static boolean iguais(ProdutoModel produto, ProdutoModel outro) {
+        for (String coluna : COLUNAS) {
+            Object valor = GETTERS.get(coluna).apply(produto);
+            Object outroValor = GETTERS.get(coluna).apply(outro);
+            boolean igual = valor instanceof BigDecimal decimal && outroValor instanceof BigDecimal outroDecimal
+                    ? decimal.compareTo(outroDecimal) == 0
+                    : Objects.equals(valor, outroValor);
+            if (!igual) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
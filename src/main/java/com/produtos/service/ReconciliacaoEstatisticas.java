@@ -0,0 +1,78 @@
+package com.produtos.service;
+
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.repository.ArmazenamentoProdutos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compara periodicamente os totais do estoque mantidos pelo {@link ProdutoSearchIndex} com os calculados a partir do
+ * armazenamento, para detectar alterações que não passaram pela aplicação ou não chegaram ao índice.
+ * <p>
+ * Como o índice é atualizado logo depois de cada gravação, uma gravação em andamento durante a comparação causa uma
+ * divergência passageira. Por isso os totais do índice são lidos antes e depois do cálculo no armazenamento, e a
+ * comparação é descartada se o índice recebeu alguma escrita nesse intervalo, o que acontece a cada lote de uma
+ * importação em andamento. Uma gravação já confirmada no banco de dados, mas ainda não aplicada ao índice, também
+ * passa pela comparação; por isso o índice só é reconstruído, recalculando os totais, quando a divergência é
+ * encontrada em duas comparações seguidas.
+ */
+@Component
+public class ReconciliacaoEstatisticas {
+
+    @Autowired
+    ArmazenamentoProdutos armazenamentoProdutos;
+
+    @Autowired
+    ProdutoSearchIndex produtoSearchIndex;
+
+    private boolean divergenciaAnterior;
+
+    Logger logger = LoggerFactory.getLogger(ReconciliacaoEstatisticas.class);
+
+    @Scheduled(initialDelayString = "${produtos.estatisticas.reconciliacao.intervalo:PT10M}",
+            fixedDelayString = "${produtos.estatisticas.reconciliacao.intervalo:PT10M}")
+    void reconciliarPeriodicamente() {
+        try {
+            reconciliar();
+        } catch (Exception e) {
+            logger.error("Falha ao reconciliar as estatísticas dos produtos", e);
+        }
+    }
+
+    /**
+     * Compara os totais mantidos em memória com os do armazenamento.
+     *
+     * @return {@code true} se o índice foi reconstruído.
+     */
+    public boolean reconciliar() {
+        long inicio = System.nanoTime();
+        ProdutoSearchIndex.InstantaneoEstatisticas antes = produtoSearchIndex.getInstantaneoEstatisticas();
+        EstatisticasProdutosDTO armazenadas = armazenamentoProdutos.calcularEstatisticas();
+        ProdutoSearchIndex.InstantaneoEstatisticas depois = produtoSearchIndex.getInstantaneoEstatisticas();
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        if (antes.versao() != depois.versao()) {
+            logger.info("Índice de busca alterado durante a reconciliação das estatísticas, comparação descartada");
+            return false;
+        }
+        EstatisticasProdutosDTO mantidas = depois.estatisticas();
+        if (armazenadas.equivale(mantidas)) {
+            divergenciaAnterior = false;
+            logger.info("Estatísticas dos produtos conferidas com o armazenamento em " + duracaoMs + " ms");
+            return false;
+        }
+        if (!divergenciaAnterior) {
+            divergenciaAnterior = true;
+            logger.info("Estatísticas dos produtos divergem do armazenamento, verificando novamente na próxima "
+                    + "reconciliação: mantidas " + mantidas + ", armazenadas " + armazenadas);
+            return false;
+        }
+        divergenciaAnterior = false;
+        logger.warn("Estatísticas dos produtos divergem do armazenamento: mantidas " + mantidas + ", armazenadas "
+                + armazenadas + "; reconstruindo o índice de busca");
+        produtoSearchIndex.reconstruir();
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package com.produtos.service;
+
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais do estoque mantidos incrementalmente pelo {@link ProdutoSearchIndex}: cada produto indexado é somado aos
+ * totais, e a versão anterior de um produto reindexado ou removido é subtraída. Não é thread-safe; as alterações são
+ * feitas sob o bloqueio de escrita do índice.
+ */
+class TotaisProdutos {
+
+    private long produtos;
+
+    private long produtosSemEstoque;
+
+    private long quantidadeEstoque;
+
+    private BigDecimal valorEstoque = BigDecimal.ZERO;
+
+    private BigDecimal pesoEstoque = BigDecimal.ZERO;
+
+    void somar(ProdutoSnapshot produto) {
+        aplicar(produto, 1);
+    }
+
+    void subtrair(ProdutoSnapshot produto) {
+        aplicar(produto, -1);
+    }
+
+    private void aplicar(ProdutoSnapshot produto, long sinal) {
+        produtos += sinal;
+        Long quantidade = produto.quantidade_estoque();
+        if (quantidade == null || quantidade == 0) {
+            produtosSemEstoque += sinal;
+            return;
+        }
+        quantidadeEstoque += sinal * quantidade;
+        BigDecimal unidades = BigDecimal.valueOf(sinal * quantidade);
+        if (produto.valor() != null) {
+            valorEstoque = valorEstoque.add(produto.valor().multiply(unidades));
+        }
+        if (produto.peso() != null) {
+            pesoEstoque = pesoEstoque.add(produto.peso().multiply(unidades));
+        }
+    }
+
+    void limpar() {
+        produtos = 0;
+        produtosSemEstoque = 0;
+        quantidadeEstoque = 0;
+        valorEstoque = BigDecimal.ZERO;
+        pesoEstoque = BigDecimal.ZERO;
+    }
+
+    EstatisticasProdutosDTO toDTO() {
+        return new EstatisticasProdutosDTO(produtos, produtosSemEstoque, quantidadeEstoque, valorEstoque, pesoEstoque);
+    }
+}
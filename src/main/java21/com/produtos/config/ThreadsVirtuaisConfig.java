@@ -0,0 +1,54 @@
+package com.produtos.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executa as requisições do Tomcat, as respostas assíncronas (como a listagem NDJSON), as importações de CSV e as
+ * transmissões de eventos de produtos em threads virtuais. Disponível somente no Java 21 ou superior e habilitado
+ * com {@code produtos.threads-virtuais=true}.
+ * <p>
+ * Com threads virtuais a quantidade de requisições simultâneas deixa de ser limitada por
+ * {@code server.tomcat.threads.max}; o acesso ao banco de dados continua limitado pelo pool de conexões
+ * ({@code spring.datasource.hikari.maximum-pool-size}), e as requisições excedentes aguardam uma conexão livre.
+ */
+@Configuration
+@ConditionalOnProperty(name = "produtos.threads-virtuais", havingValue = "true")
+public class ThreadsVirtuaisConfig implements WebMvcConfigurer {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> threadsVirtuaisTomcat() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Threads do {@code importacaoExecutor}. A quantidade de importações simultâneas e o tamanho da fila continuam
+     * limitados por {@code produtos.csv.jobs.threads} e {@code produtos.csv.jobs.fila}.
+     */
+    @Bean
+    public ThreadFactory importacaoThreadFactory() {
+        return Thread.ofVirtual().name("importacao-csv-", 1).factory();
+    }
+
+    /**
+     * Threads do {@code eventosExecutor}, uma por assinante de {@code GET /api/produtos/changes}. A quantidade de
+     * assinantes continua limitada por {@code produtos.eventos.assinantes-maximo}.
+     */
+    @Bean
+    public ThreadFactory eventosThreadFactory() {
+        return Thread.ofVirtual().name("eventos-produtos-", 1).factory();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor()));
+    }
+}
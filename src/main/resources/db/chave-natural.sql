@@ -0,0 +1,12 @@
+-- Remove os produtos repetidos pela chave natural da importação com upsert (produtos.csv.upsert.chave, por padrão
+-- o nome), mantendo apenas o de maior ID (o mais recente, para IDs UUID versão 7). Necessário antes de criar o
+-- índice único com o script indice-chave-natural.sql. Para outra chave, ajuste as colunas do PARTITION BY e do WHERE.
+BEGIN;
+
+DELETE FROM produtos p
+USING (SELECT id, row_number() OVER (PARTITION BY nome ORDER BY id DESC) AS posicao
+       FROM produtos
+       WHERE nome IS NOT NULL) repetidos
+WHERE p.id = repetidos.id AND repetidos.posicao > 1;
+
+COMMIT;
@@ -0,0 +1,9 @@
+-- Cria o índice único da chave natural (produtos.csv.upsert.chave, por padrão o nome), exigido pelo
+-- INSERT ... ON CONFLICT da importação com upsert. Com o índice, nenhuma gravação (criação, atualização ou
+-- importação) pode repetir a chave de outro produto. Remova antes os produtos repetidos com o script
+-- chave-natural.sql. Para outra chave, ajuste as colunas do índice.
+--
+-- O índice é criado com CONCURRENTLY, sem bloquear as gravações na tabela, e por isso não pode ser executado dentro
+-- de uma transação. Se a criação falhar (por exemplo, por um produto repetido gravado durante a criação), o índice
+-- inválido resultante deve ser removido com DROP INDEX CONCURRENTLY uk_produtos_nome antes de uma nova tentativa.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_produtos_nome ON produtos (nome);
@@ -0,0 +1,8 @@
+-- Cria o índice por nome e ID usado pela paginação por cursor da listagem, que sem ele precisa ordenar a tabela
+-- inteira a cada página. Necessário apenas em bancos de dados criados antes da alteração (com ddl-auto diferente de
+-- create/create-drop); nos demais o índice é criado a partir do mapeamento da entidade.
+--
+-- O índice é criado com CONCURRENTLY, sem bloquear as gravações na tabela, e por isso não pode ser executado dentro
+-- de uma transação. Se a criação falhar, o índice inválido resultante deve ser removido com
+-- DROP INDEX CONCURRENTLY idx_produtos_nome_id antes de uma nova tentativa.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_produtos_nome_id ON produtos (nome, id);
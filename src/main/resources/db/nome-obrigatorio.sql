@@ -0,0 +1,10 @@
+-- Torna obrigatório o nome dos produtos, do qual depende a paginação por cursor (ordenada por nome e ID).
+-- Necessário apenas em bancos de dados criados antes da alteração (com ddl-auto diferente de create/create-drop).
+-- Produtos sem nome, que só podiam ser gravados pela importação com COPY, recebem o ID como nome.
+BEGIN;
+
+UPDATE produtos SET nome = id::text WHERE nome IS NULL OR btrim(nome) = '';
+
+ALTER TABLE produtos ALTER COLUMN nome SET NOT NULL;
+
+COMMIT;
@@ -0,0 +1,14 @@
+-- Converte as colunas valor, quantidade_estoque e peso da tabela produtos de texto para tipos numéricos.
+-- Necessário apenas em bancos de dados criados antes da alteração dos tipos (com ddl-auto diferente de
+-- create/create-drop). Valores que não representam um número válido são convertidos para NULL.
+BEGIN;
+
+ALTER TABLE produtos
+    ALTER COLUMN valor TYPE numeric(12, 2) USING
+        CASE WHEN valor ~ '^\s*[0-9]+([.,][0-9]+)?\s*$' THEN replace(btrim(valor), ',', '.')::numeric(12, 2) END,
+    ALTER COLUMN quantidade_estoque TYPE bigint USING
+        CASE WHEN quantidade_estoque ~ '^\s*[0-9]+\s*$' THEN btrim(quantidade_estoque)::bigint END,
+    ALTER COLUMN peso TYPE numeric(12, 3) USING
+        CASE WHEN peso ~ '^\s*[0-9]+([.,][0-9]+)?\s*$' THEN replace(btrim(peso), ',', '.')::numeric(12, 3) END;
+
+COMMIT;
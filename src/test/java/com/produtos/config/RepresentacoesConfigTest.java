@@ -0,0 +1,85 @@
+package com.produtos.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.produtos.model.DTO.PaginaProdutosSimplesDTO;
+import com.produtos.model.DTO.ProdutoModelDTO;
+import com.produtos.model.ProdutoModel;
+import com.produtos.service.ProdutoService;
+import com.produtos.service.ProdutoSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RepresentacoesConfigTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ProdutoService produtoService;
+
+    private ProdutoModel criar() {
+        return produtoService.createProduto(new ProdutoModelDTO(UUID.randomUUID() + " Produto", new BigDecimal("10.50"),
+                "Descricao", 5L, new BigDecimal("1.250")));
+    }
+
+    private byte[] obter(String caminho, String accept) throws Exception {
+        return mockMvc.perform(get(caminho).accept(accept))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(accept))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Test
+    void testProdutoEmCbor() throws Exception {
+        ProdutoModel produto = criar();
+
+        byte[] cbor = obter("/api/produtos/" + produto.getId(), "application/cbor");
+
+        assertEquals(ProdutoSnapshot.of(produto), new CBORMapper().readValue(cbor, ProdutoSnapshot.class));
+        byte[] json = obter("/api/produtos/" + produto.getId(), "application/vnd.produtos.simples+json");
+        assertTrue(cbor.length < json.length);
+    }
+
+    @Test
+    void testListagemEmSmile() throws Exception {
+        criar();
+
+        byte[] smile = obter("/api/produtos?tamanho=10", "application/x-jackson-smile");
+
+        PaginaProdutosSimplesDTO pagina = new SmileMapper().readValue(smile, PaginaProdutosSimplesDTO.class);
+        assertFalse(pagina.produtos().isEmpty());
+        assertEquals(new ObjectMapper().readValue(obter("/api/produtos?tamanho=10", "application/vnd.produtos.simples+json"),
+                PaginaProdutosSimplesDTO.class), pagina);
+    }
+
+    @Test
+    void testJsonContinuaSendoOPadrao() throws Exception {
+        ProdutoModel produto = criar();
+
+        mockMvc.perform(get("/api/produtos/" + produto.getId()))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON))
+                .andExpect(jsonPath("$.nome").value(produto.getNome()));
+        mockMvc.perform(get("/api/produtos/" + produto.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
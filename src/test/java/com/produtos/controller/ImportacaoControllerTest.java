@@ -0,0 +1,103 @@
+package com.produtos.controller;
+
+import com.produtos.model.DTO.ImportacaoCsvDTO;
+import com.produtos.service.ImportacaoCsv;
+import com.produtos.service.ImportacaoCsvService;
+import com.produtos.service.ImportacaoRecusadaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImportacaoControllerTest {
+
+    @Mock
+    private ImportacaoCsvService importacaoCsvService;
+
+    private ImportacaoController importacaoController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        importacaoController = new ImportacaoController(importacaoCsvService);
+    }
+
+    @Test
+    void postImportacao_ValidMultipartFile_ReturnsAccepted() throws IOException {
+        MultipartFile file = new MockMultipartFile("test.csv", "content".getBytes());
+        ImportacaoCsv importacao = new ImportacaoCsv(true);
+        when(importacaoCsvService.agendarImportacao(file, false)).thenReturn(importacao);
+
+        ResponseEntity<ImportacaoCsvDTO> response = importacaoController.postImportacao(file, false);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(importacao.getId(), response.getBody().id());
+        assertTrue(response.getHeaders().getLocation().toString().endsWith("/api/produtos/importacoes/" + importacao.getId()));
+    }
+
+    @Test
+    void postImportacao_FilaCheia_ReturnsTooManyRequests() throws IOException {
+        MultipartFile file = new MockMultipartFile("test.csv", "content".getBytes());
+        when(importacaoCsvService.agendarImportacao(file, false))
+                .thenThrow(new ImportacaoRecusadaException("fila cheia", Duration.ofSeconds(10)));
+
+        ResponseEntity<ImportacaoCsvDTO> response = importacaoController.postImportacao(file, false);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("10", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void postImportacao_UpsertSemIndiceUnico_ReturnsConflict() throws IOException {
+        MultipartFile file = new MockMultipartFile("test.csv", "content".getBytes());
+        when(importacaoCsvService.agendarImportacao(file, true)).thenThrow(new IllegalStateException("sem índice"));
+
+        ResponseEntity<ImportacaoCsvDTO> response = importacaoController.postImportacao(file, true);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void getImportacao_ValidId_ReturnsImportacao() {
+        ImportacaoCsv importacao = new ImportacaoCsv(true);
+        when(importacaoCsvService.getImportacao(importacao.getId())).thenReturn(importacao);
+
+        ResponseEntity<ImportacaoCsvDTO> response = importacaoController.getImportacao(importacao.getId());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ImportacaoCsv.Status.PENDENTE, response.getBody().status());
+    }
+
+    @Test
+    void getImportacao_InvalidId_ReturnsNotFound() {
+        UUID id = UUID.randomUUID();
+        when(importacaoCsvService.getImportacao(id)).thenReturn(null);
+
+        ResponseEntity<ImportacaoCsvDTO> response = importacaoController.getImportacao(id);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void deleteImportacao_InvalidId_ReturnsNotFound() {
+        UUID id = UUID.randomUUID();
+        when(importacaoCsvService.cancelarImportacao(id)).thenReturn(null);
+
+        ResponseEntity<ImportacaoCsvDTO> response = importacaoController.deleteImportacao(id);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
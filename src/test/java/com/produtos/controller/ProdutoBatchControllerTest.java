@@ -0,0 +1,86 @@
+package com.produtos.controller;
+
+import com.produtos.model.DTO.OperacaoDTO;
+import com.produtos.model.DTO.ResultadoOperacaoDTO;
+import com.produtos.service.ProdutoBatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProdutoBatchControllerTest {
+
+    @Mock
+    private ProdutoBatchService produtoBatchService;
+
+    private ProdutoBatchController produtoBatchController;
+
+    private final List<OperacaoDTO> operacoes = List.of(new OperacaoDTO(OperacaoDTO.Tipo.DELETE, UUID.randomUUID(), null));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        produtoBatchController = new ProdutoBatchController(produtoBatchService);
+    }
+
+    @Test
+    void postBatch_TodasAplicadas_ReturnsOk() {
+        List<ResultadoOperacaoDTO> resultados = List.of(
+                new ResultadoOperacaoDTO(0, OperacaoDTO.Tipo.DELETE, operacoes.get(0).id(), 204, null));
+        when(produtoBatchService.executar(operacoes, true)).thenReturn(resultados);
+
+        ResponseEntity<List<ResultadoOperacaoDTO>> response = produtoBatchController.postBatch(operacoes, true);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(resultados, response.getBody());
+    }
+
+    @Test
+    void postBatch_AtomicoComFalha_ReturnsUnprocessableEntity() {
+        when(produtoBatchService.executar(operacoes, true)).thenReturn(List.of(
+                new ResultadoOperacaoDTO(0, OperacaoDTO.Tipo.DELETE, operacoes.get(0).id(), 404, "Produto não encontrado")));
+
+        ResponseEntity<List<ResultadoOperacaoDTO>> response = produtoBatchController.postBatch(operacoes, true);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+    }
+
+    @Test
+    void postBatch_AtomicoComConflito_ReturnsConflict() {
+        List<ResultadoOperacaoDTO> resultados = List.of(new ResultadoOperacaoDTO(0, OperacaoDTO.Tipo.DELETE,
+                operacoes.get(0).id(), 409, "Lote não aplicado: uk_produtos_nome"));
+        when(produtoBatchService.executar(operacoes, true)).thenReturn(resultados);
+
+        ResponseEntity<List<ResultadoOperacaoDTO>> response = produtoBatchController.postBatch(operacoes, true);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(resultados, response.getBody());
+    }
+
+    @Test
+    void postBatch_IndividualComFalha_ReturnsMultiStatus() {
+        when(produtoBatchService.executar(operacoes, false)).thenReturn(List.of(
+                new ResultadoOperacaoDTO(0, OperacaoDTO.Tipo.DELETE, operacoes.get(0).id(), 404, "Produto não encontrado")));
+
+        ResponseEntity<List<ResultadoOperacaoDTO>> response = produtoBatchController.postBatch(operacoes, false);
+
+        assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+    }
+
+    @Test
+    void postBatch_AcimaDoLimite_ReturnsBadRequest() {
+        when(produtoBatchService.executar(operacoes, true)).thenThrow(new IllegalArgumentException("limite"));
+
+        ResponseEntity<List<ResultadoOperacaoDTO>> response = produtoBatchController.postBatch(operacoes, true);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
@@ -1,23 +1,50 @@
 package com.produtos.controller;
 
+import com.produtos.model.DTO.AjusteEstoqueDTO;
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.model.DTO.FiltroBuscaDTO;
+import com.produtos.model.DTO.ImportacaoCsvDTO;
+import com.produtos.model.DTO.PaginaProdutosDTO;
+import com.produtos.model.DTO.PaginaProdutosSimplesDTO;
+import com.produtos.model.DTO.ProdutoCacheDTO;
 import com.produtos.model.DTO.ProdutoModelDTO;
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.DTO.ResultadoBuscaDTO;
 import com.produtos.model.ProdutoModel;
+import com.produtos.service.ImportacaoCsv;
+import com.produtos.service.ImportacaoRecusadaException;
+import com.produtos.service.ProdutoEventos;
 import com.produtos.service.ProdutoService;
+import com.produtos.service.ProdutoSnapshot;
 import com.opencsv.exceptions.CsvValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,19 +54,22 @@ class ProdutoControllerTest {
     @Mock
     private ProdutoService produtoService;
 
+    @Mock
+    private ProdutoEventos produtoEventos;
+
     private ProdutoController produtoController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        produtoController = new ProdutoController(produtoService);
+        produtoController = new ProdutoController(produtoService, produtoEventos);
     }
 
     @Test
     void getProduto_ValidId_ReturnsProdutoModel() {
         UUID id = UUID.randomUUID();
         ProdutoModel produto = new ProdutoModel(id,
-                "Produto 1", "10.0", "Descricao produto 1", "15", "7");
+                "Produto 1", new BigDecimal("10.0"), "Descricao produto 1", 15L, new BigDecimal("7"));
         when(produtoService.getProduto(id)).thenReturn(produto);
 
         ResponseEntity<ProdutoModel> response = produtoController.getProduto(id);
@@ -59,37 +89,193 @@ class ProdutoControllerTest {
         assertNull(response.getBody());
     }
 
+    @Test
+    void getProdutoSimples_ValidId_ReturnsProdutoSemLinks() {
+        UUID id = UUID.randomUUID();
+        ProdutoModel produto = new ProdutoModel(id,
+                "Produto 1", new BigDecimal("10.0"), "Descricao produto 1", 15L, new BigDecimal("7"));
+        when(produtoService.getProduto(id, false)).thenReturn(produto);
+
+        ResponseEntity<ProdutoSnapshot> response = produtoController.getProdutoSimples(id);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new ProdutoSnapshot(id, "Produto 1", new BigDecimal("10.0"), "Descricao produto 1", 15L,
+                new BigDecimal("7")), response.getBody());
+    }
+
+    @Test
+    void getProdutoSimples_InvalidId_ReturnsNotFound() {
+        UUID id = UUID.randomUUID();
+        when(produtoService.getProduto(id, false)).thenReturn(null);
+
+        ResponseEntity<ProdutoSnapshot> response = produtoController.getProdutoSimples(id);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void getProdutosSimples_ReturnsPaginaSemLinks() {
+        List<ProdutoModel> produtos = List.of(new ProdutoModel(UUID.randomUUID(),
+                "Produto 1", new BigDecimal("10.0"), "Descricao produto 1", 10L, new BigDecimal("2")));
+        when(produtoService.getProdutos(null, 1, false)).thenReturn(new PaginaProdutosDTO(produtos, "abc", 1));
+
+        ResponseEntity<PaginaProdutosSimplesDTO> response = produtoController.getProdutosSimples(null, 1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().produtos().size());
+        assertEquals("abc", response.getBody().proximoCursor());
+    }
+
     @Test
     void getProdutos_ReturnsListOfProdutoModel() {
         List<ProdutoModel> produtos = new ArrayList<>();
         produtos.add(new ProdutoModel(UUID.randomUUID(),
-                "Produto 1", "10.0", "Descricao produto 1", "10", "2"));
+                "Produto 1", new BigDecimal("10.0"), "Descricao produto 1", 10L, new BigDecimal("2")));
         produtos.add(new ProdutoModel(UUID.randomUUID(),
-                "Produto 2", "50.0", "Descricao produto 2", "63", "5"));
-        when(produtoService.getProdutos()).thenReturn(produtos);
+                "Produto 2", new BigDecimal("50.0"), "Descricao produto 2", 63L, new BigDecimal("5")));
+        when(produtoService.getProdutos(null, null)).thenReturn(new PaginaProdutosDTO(produtos, null, 50));
 
-        ResponseEntity<List<ProdutoModel>> response = produtoController.getProdutos();
+        ResponseEntity<CollectionModel<ProdutoModel>> response = produtoController.getProdutos(null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(produtos, response.getBody());
+        assertEquals(produtos, new ArrayList<>(response.getBody().getContent()));
+        assertFalse(response.getBody().getLink(IanaLinkRelations.NEXT).isPresent());
+    }
+
+    @Test
+    void getProdutos_ComProximaPagina_ReturnsNextLink() {
+        List<ProdutoModel> produtos = List.of(new ProdutoModel(UUID.randomUUID(),
+                "Produto 1", new BigDecimal("10.0"), "Descricao produto 1", 10L, new BigDecimal("2")));
+        when(produtoService.getProdutos(null, 1)).thenReturn(new PaginaProdutosDTO(produtos, "abc", 1));
+
+        ResponseEntity<CollectionModel<ProdutoModel>> response = produtoController.getProdutos(null, 1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String next = response.getBody().getRequiredLink(IanaLinkRelations.NEXT).getHref();
+        assertTrue(next.contains("cursor=abc"));
+        assertTrue(next.contains("tamanho=1"));
     }
 
     @Test
     void getProdutos_ReturnsNotFound() {
-        when(produtoService.getProdutos()).thenReturn(new ArrayList<>());
+        when(produtoService.getProdutos(null, null)).thenReturn(new PaginaProdutosDTO(new ArrayList<>(), null, 50));
 
-        ResponseEntity<List<ProdutoModel>> response = produtoController.getProdutos();
+        ResponseEntity<CollectionModel<ProdutoModel>> response = produtoController.getProdutos(null, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
     }
 
+    @Test
+    void getProdutos_CursorInvalido_ReturnsBadRequest() {
+        when(produtoService.getProdutos("invalido", null)).thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        ResponseEntity<CollectionModel<ProdutoModel>> response = produtoController.getProdutos("invalido", null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void getProdutosNdjson_ReturnsStreamingBody() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = produtoController.getProdutosNdjson();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        verify(produtoService, times(1)).escreverProdutosNdjson(outputStream);
+    }
+
+    @Test
+    void getAlteracoes_RetomaDoParametroOuDoHeader() {
+        SseEmitter emitter = new SseEmitter();
+        when(produtoEventos.assinar(any())).thenReturn(emitter);
+
+        ResponseEntity<SseEmitter> response = produtoController.getAlteracoes(10L, 20L);
+        produtoController.getAlteracoes(10L, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(emitter, response.getBody());
+        verify(produtoEventos).assinar(20L);
+        verify(produtoEventos).assinar(10L);
+    }
+
+    @Test
+    void getAlteracoes_LimiteDeAssinantes_ReturnsServiceUnavailable() {
+        when(produtoEventos.assinar(any())).thenThrow(new TaskRejectedException("limite"));
+
+        ResponseEntity<SseEmitter> response = produtoController.getAlteracoes(null, null);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    @Test
+    void getProdutosCsv_ReturnsCsvSemCompressao() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = produtoController.getProdutosCsv(null);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("text/csv;charset=UTF-8", response.getHeaders().getContentType().toString());
+        assertEquals("attachment; filename=\"produtos.csv\"", response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        verify(produtoService, times(1)).escreverProdutosCsv(outputStream);
+    }
+
+    @Test
+    void getProdutosCsv_ComprimeQuandoAceitaGzip() throws IOException {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("nome\nProduto 1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(produtoService).escreverProdutosCsv(any());
+
+        ResponseEntity<StreamingResponseBody> response = produtoController.getProdutosCsv("br, gzip;q=0.8");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals("nome\nProduto 1\n", new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void getProdutosCsv_NaoComprimeComGzipRecusado() {
+        ResponseEntity<StreamingResponseBody> response = produtoController.getProdutosCsv("gzip;q=0, identity");
+
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void searchProdutos_ReturnsResultado() {
+        FiltroBuscaDTO filtro = new FiltroBuscaDTO("caf", null, new BigDecimal("10"), null, null, null);
+        ResultadoBuscaDTO resultado = new ResultadoBuscaDTO(new ArrayList<>(), 0, 0, 20);
+        when(produtoService.buscarProdutos(filtro, 0, 20)).thenReturn(resultado);
+
+        ResponseEntity<ResultadoBuscaDTO> response = produtoController.searchProdutos("caf", null,
+                new BigDecimal("10"), null, null, null, 0, 20);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(resultado, response.getBody());
+    }
+
+    @Test
+    void getCache_ReturnsEstatisticas() {
+        ProdutoCacheDTO estatisticas = new ProdutoCacheDTO(1, 3, 1, 0, 0.75);
+        when(produtoService.getEstatisticasCache()).thenReturn(estatisticas);
+
+        ResponseEntity<ProdutoCacheDTO> response = produtoController.getCache();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(estatisticas, response.getBody());
+    }
+
     @Test
     void postProduto_ValidProdutoModelDTO_ReturnsCreated() {
         ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto 1",
-                "10.0", "Descricao produto 1", "10", "2");
+                new BigDecimal("10.0"), "Descricao produto 1", 10L, new BigDecimal("2"));
         ProdutoModel produto = new ProdutoModel(UUID.randomUUID(),
-                "Produto 1", "10.0", "Descricao produto 1", "15", "7");
+                "Produto 1", new BigDecimal("10.0"), "Descricao produto 1", 15L, new BigDecimal("7"));
         when(produtoService.createProduto(produtoDTO)).thenReturn(produto);
 
         ResponseEntity<ProdutoModel> response = produtoController.postProduto(produtoDTO);
@@ -99,13 +285,81 @@ class ProdutoControllerTest {
     }
 
     @Test
-    void postProdutosUpload_ValidMultipartFile_ReturnsOk() throws IOException, CsvValidationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+    void postProduto_ChaveRepetida_ReturnsConflict() {
+        ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto 1", null, null, null, null);
+        when(produtoService.createProduto(produtoDTO)).thenThrow(new DataIntegrityViolationException("uk_produtos_nome"));
+
+        ResponseEntity<ProdutoModel> response = produtoController.postProduto(produtoDTO);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void getEstatisticas_ReturnsTotais() {
+        EstatisticasProdutosDTO estatisticas = new EstatisticasProdutosDTO(3, 1, 7, new BigDecimal("70.00"),
+                new BigDecimal("3.500"));
+        when(produtoService.getEstatisticas()).thenReturn(estatisticas);
+
+        ResponseEntity<EstatisticasProdutosDTO> response = produtoController.getEstatisticas();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(estatisticas, response.getBody());
+    }
+
+    @Test
+    void postProdutosUpload_ValidMultipartFile_ReturnsOk() throws IOException, CsvValidationException, SQLException {
+        MultipartFile file = new MockMultipartFile("test.csv", "content".getBytes());
+
+        ResponseEntity<ImportacaoCsvDTO> response = produtoController.postProdutosUpload(file, false, false);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(produtoService, times(1)).processarArquivoCSV(file, false);
+    }
+
+    @Test
+    void postProdutosUpload_Copy_ReturnsOk() throws IOException, CsvValidationException, SQLException {
+        MultipartFile file = new MockMultipartFile("test.csv", "content".getBytes());
+
+        ResponseEntity<ImportacaoCsvDTO> response = produtoController.postProdutosUpload(file, true, false);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(produtoService, times(1)).processarArquivoCSV(file, true);
+    }
+
+    @Test
+    void postProdutosUpload_Upsert_ReturnsContagens() throws IOException, CsvValidationException, SQLException {
         MultipartFile file = new MockMultipartFile("test.csv", "content".getBytes());
+        ImportacaoCsv importacao = new ImportacaoCsv(false, true);
+        when(produtoService.processarArquivoCSVUpsert(file)).thenReturn(importacao);
 
-        ResponseEntity<Void> response = produtoController.postProdutosUpload(file);
+        ResponseEntity<ImportacaoCsvDTO> response = produtoController.postProdutosUpload(file, true, true);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(produtoService, times(1)).processarArquivoCSV(file);
+        assertEquals(importacao.getId(), response.getBody().id());
+        verify(produtoService, never()).processarArquivoCSV(any(), anyBoolean());
+    }
+
+    @Test
+    void postProdutosUpload_UpsertSemIndiceUnico_ReturnsConflict() throws IOException, CsvValidationException, SQLException {
+        MultipartFile file = new MockMultipartFile("test.csv", "content".getBytes());
+        doThrow(new IllegalStateException("sem índice")).when(produtoService).verificarImportacaoUpsert();
+
+        ResponseEntity<ImportacaoCsvDTO> response = produtoController.postProdutosUpload(file, false, true);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        verify(produtoService, never()).processarArquivoCSVUpsert(any());
+    }
+
+    @Test
+    void postProdutosUpload_ImportacoesEsgotadas_ReturnsTooManyRequests() throws IOException, CsvValidationException, SQLException {
+        MultipartFile file = new MockMultipartFile("test.csv", "content".getBytes());
+        doThrow(new ImportacaoRecusadaException("fila cheia", Duration.ofSeconds(10)))
+                .when(produtoService).processarArquivoCSV(file, false);
+
+        ResponseEntity<ImportacaoCsvDTO> response = produtoController.postProdutosUpload(file, false, false);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("10", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
     }
 
     @Test
@@ -134,9 +388,9 @@ class ProdutoControllerTest {
     void putProduto_ValidIdAndProdutoModelDTO_ReturnsProdutoModel() {
         UUID id = UUID.randomUUID();
         ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto 1",
-                "10.0", "Descricao produto 1", "10", "2");
+                new BigDecimal("10.0"), "Descricao produto 1", 10L, new BigDecimal("2"));
         ProdutoModel produto = new ProdutoModel(id,
-                "Produto 1", "10.0", "Descricao produto 1", "15", "7");;
+                "Produto 1", new BigDecimal("10.0"), "Descricao produto 1", 15L, new BigDecimal("7"));;
         when(produtoService.updateProduto(id, produtoDTO)).thenReturn(produto);
 
         ResponseEntity<ProdutoModel> response = produtoController.putProduto(id, produtoDTO);
@@ -149,7 +403,7 @@ class ProdutoControllerTest {
     void putProduto_InvalidId_ReturnsNotFound() {
         UUID id = UUID.randomUUID();
         ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto 1",
-                "10.0", "Descricao produto 1", "10", "2");
+                new BigDecimal("10.0"), "Descricao produto 1", 10L, new BigDecimal("2"));
         when(produtoService.updateProduto(id, produtoDTO)).thenReturn(null);
 
         ResponseEntity<ProdutoModel> response = produtoController.putProduto(id, produtoDTO);
@@ -157,4 +411,107 @@ class ProdutoControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
     }
+
+    @Test
+    void putProduto_ChaveRepetida_ReturnsConflict() {
+        UUID id = UUID.randomUUID();
+        ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto 2", null, null, null, null);
+        when(produtoService.updateProduto(id, produtoDTO)).thenThrow(new DataIntegrityViolationException("uk_produtos_nome"));
+
+        ResponseEntity<ProdutoModel> response = produtoController.putProduto(id, produtoDTO);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void patchProduto_ValidId_ReturnsProdutoModel() {
+        UUID id = UUID.randomUUID();
+        ProdutoPatchDTO produtoDTO = new ProdutoPatchDTO(null, new BigDecimal("12.0"), null, null, null);
+        ProdutoModel produto = new ProdutoModel(id,
+                "Produto 1", new BigDecimal("12.0"), "Descricao produto 1", 15L, new BigDecimal("7"));
+        when(produtoService.patchProduto(id, produtoDTO)).thenReturn(produto);
+
+        ResponseEntity<ProdutoModel> response = produtoController.patchProduto(id, produtoDTO);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(produto, response.getBody());
+    }
+
+    @Test
+    void patchProduto_InvalidId_ReturnsNotFound() {
+        UUID id = UUID.randomUUID();
+        ProdutoPatchDTO produtoDTO = new ProdutoPatchDTO("Produto 1", null, null, null, null);
+        when(produtoService.patchProduto(id, produtoDTO)).thenReturn(null);
+
+        ResponseEntity<ProdutoModel> response = produtoController.patchProduto(id, produtoDTO);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void patchProduto_ChaveRepetida_ReturnsConflict() {
+        UUID id = UUID.randomUUID();
+        ProdutoPatchDTO produtoDTO = new ProdutoPatchDTO("Produto 2", null, null, null, null);
+        when(produtoService.patchProduto(id, produtoDTO)).thenThrow(new DataIntegrityViolationException("uk_produtos_nome"));
+
+        ResponseEntity<ProdutoModel> response = produtoController.patchProduto(id, produtoDTO);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void postEstoque_ReturnsProdutoAtualizado() {
+        UUID id = UUID.randomUUID();
+        ProdutoModel produto = new ProdutoModel(id,
+                "Produto 1", new BigDecimal("10.0"), "Descricao produto 1", 12L, new BigDecimal("7"));
+        when(produtoService.ajustarEstoque(id, 2)).thenReturn(produto);
+
+        ResponseEntity<ProdutoModel> response = produtoController.postEstoque(id, new AjusteEstoqueDTO(2L), false);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(produto, response.getBody());
+    }
+
+    @Test
+    void postEstoque_EstoqueInsuficiente_ReturnsConflict() {
+        UUID id = UUID.randomUUID();
+        when(produtoService.ajustarEstoque(id, -20)).thenThrow(new IllegalStateException("Estoque insuficiente"));
+
+        ResponseEntity<ProdutoModel> response = produtoController.postEstoque(id, new AjusteEstoqueDTO(-20L), false);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void postEstoque_InvalidId_ReturnsNotFound() {
+        UUID id = UUID.randomUUID();
+        when(produtoService.ajustarEstoque(id, 1)).thenReturn(null);
+
+        ResponseEntity<ProdutoModel> response = produtoController.postEstoque(id, new AjusteEstoqueDTO(1L), false);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void postEstoque_Acumulado_ReturnsAccepted() {
+        UUID id = UUID.randomUUID();
+        when(produtoService.acumularAjusteEstoque(id, -1)).thenReturn(true);
+
+        ResponseEntity<ProdutoModel> response = produtoController.postEstoque(id, new AjusteEstoqueDTO(-1L), true);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(produtoService).acumularAjusteEstoque(id, -1);
+        verify(produtoService, never()).ajustarEstoque(any(), anyLong());
+    }
+
+    @Test
+    void postEstoque_AcumuladoProdutoInexistente_ReturnsNotFound() {
+        UUID id = UUID.randomUUID();
+        when(produtoService.acumularAjusteEstoque(id, -1)).thenReturn(false);
+
+        ResponseEntity<ProdutoModel> response = produtoController.postEstoque(id, new AjusteEstoqueDTO(-1L), true);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
 }
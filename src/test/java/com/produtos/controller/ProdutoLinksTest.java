@@ -0,0 +1,56 @@
+package com.produtos.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class ProdutoLinksTest {
+
+    private final ProdutoLinks produtoLinks = new ProdutoLinks();
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/produtos");
+        request.setServerName("produtos.example.com");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void produto_IgualAoLinkDoMethodOn() {
+        UUID id = UUID.randomUUID();
+
+        Link link = produtoLinks.base().produto(id);
+
+        Link esperado = linkTo(methodOn(ProdutoController.class).getProduto(id)).withSelfRel();
+        assertEquals(esperado.toString(), link.toString());
+        assertEquals("http://produtos.example.com:8080/api/produtos/" + id, link.getHref());
+        assertEquals(IanaLinkRelations.SELF, link.getRel());
+    }
+
+    @Test
+    void listagem_IgualAoLinkDoMethodOn() {
+        Link link = produtoLinks.base().listagem();
+
+        Link esperado = linkTo(methodOn(ProdutoController.class).getProdutos(null, null)).withRel("Lista de produtos");
+        assertEquals(esperado.toString(), link.toString());
+        assertEquals(esperado.getVariableNames(), link.getVariableNames());
+        assertTrue(link.isTemplated());
+    }
+}
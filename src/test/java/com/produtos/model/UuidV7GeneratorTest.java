@@ -0,0 +1,71 @@
+package com.produtos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void testGerarVersaoEVariante() {
+        UUID id = UuidV7Generator.gerar();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void testGerarComInstanteAtual() {
+        long antes = System.currentTimeMillis();
+        UUID id = UuidV7Generator.gerar();
+        long depois = System.currentTimeMillis();
+
+        long instante = id.getMostSignificantBits() >>> 16;
+        assertTrue(instante >= antes);
+        // o contador pode adiantar o instante quando muitos ids são gerados no mesmo milissegundo
+        assertTrue(instante <= depois + 1);
+    }
+
+    @Test
+    void testGerarEmOrdemCrescente() {
+        UUID anterior = UuidV7Generator.gerar();
+        for (int i = 0; i < 100_000; i++) {
+            UUID atual = UuidV7Generator.gerar();
+            // a ordem textual é a mesma da comparação por bytes usada pelo índice do banco
+            assertTrue(anterior.toString().compareTo(atual.toString()) < 0, anterior + " >= " + atual);
+            anterior = atual;
+        }
+    }
+
+    @Test
+    void testGerarSemRepeticaoEntreThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<UUID>>> tarefas = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            tarefas.add(executor.submit(() -> {
+                List<UUID> ids = new ArrayList<>();
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(UuidV7Generator.gerar());
+                }
+                return ids;
+            }));
+        }
+        Set<UUID> todos = new HashSet<>();
+        for (Future<List<UUID>> tarefa : tarefas) {
+            todos.addAll(tarefa.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(200_000, todos.size());
+    }
+}
@@ -0,0 +1,238 @@
+package com.produtos.repository;
+
+import com.produtos.model.ArquivoImportadoModel;
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.ProdutoModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArmazenamentoProdutosLogTest {
+
+    @TempDir
+    Path diretorio;
+
+    private ArmazenamentoProdutosLog armazenamento;
+
+    private ArmazenamentoProdutosLog abrir() throws IOException {
+        ArmazenamentoProdutosLog armazenamento = new ArmazenamentoProdutosLog();
+        armazenamento.diretorio = diretorio;
+        armazenamento.tamanhoRegiao = DataSize.ofKilobytes(4);
+        armazenamento.abrir();
+        return armazenamento;
+    }
+
+    private ArmazenamentoProdutosLog reabrir() throws IOException {
+        armazenamento.fechar();
+        armazenamento = abrir();
+        return armazenamento;
+    }
+
+    private static ProdutoModel produto(String nome) {
+        return new ProdutoModel(null, nome, new BigDecimal("10.50"), "Descricao de " + nome, 5L, new BigDecimal("1.250"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (armazenamento != null) {
+            armazenamento.fechar();
+        }
+    }
+
+    @Test
+    void testProdutosSobrevivemAReabertura() throws IOException {
+        armazenamento = abrir();
+        ProdutoModel completo = armazenamento.salvar(produto("Produto 1"));
+        ProdutoModel vazio = armazenamento.salvar(new ProdutoModel(null, "Produto 2", null, null, null, null));
+
+        reabrir();
+
+        ProdutoModel lido = armazenamento.buscarPorId(completo.getId()).orElseThrow();
+        assertEquals("Produto 1", lido.getNome());
+        assertEquals(new BigDecimal("10.50"), lido.getValor());
+        assertEquals("Descricao de Produto 1", lido.getDescricao());
+        assertEquals(5L, lido.getQuantidade_estoque());
+        assertEquals(new BigDecimal("1.250"), lido.getPeso());
+        ProdutoModel lidoVazio = armazenamento.buscarPorId(vazio.getId()).orElseThrow();
+        assertNull(lidoVazio.getValor());
+        assertNull(lidoVazio.getDescricao());
+        assertNull(lidoVazio.getQuantidade_estoque());
+        assertNull(lidoVazio.getPeso());
+    }
+
+    @Test
+    void testAtualizacoesEExclusoesSobrevivemAReabertura() throws IOException {
+        armazenamento = abrir();
+        UUID atualizado = armazenamento.salvar(produto("Produto 1")).getId();
+        UUID parcial = armazenamento.salvar(produto("Produto 2")).getId();
+        UUID excluido = armazenamento.salvar(produto("Produto 3")).getId();
+
+        assertEquals(1, armazenamento.atualizar(atualizado, "Produto 1b", new BigDecimal("20.00"), null, 1L, null));
+        assertEquals(1, armazenamento.atualizarParcialmente(parcial, new ProdutoPatchDTO(null, new BigDecimal("30.00"), null, null, null)));
+        assertEquals(1, armazenamento.excluir(excluido));
+        assertEquals(0, armazenamento.excluir(excluido));
+        assertEquals(0, armazenamento.atualizar(excluido, "Produto 3", null, null, null, null));
+        assertTrue(armazenamento.getBytesObsoletos() > 0);
+
+        reabrir();
+
+        assertEquals("Produto 1b", armazenamento.buscarPorId(atualizado).orElseThrow().getNome());
+        assertNull(armazenamento.buscarPorId(atualizado).orElseThrow().getDescricao());
+        ProdutoModel lido = armazenamento.buscarPorId(parcial).orElseThrow();
+        assertEquals(new BigDecimal("30.00"), lido.getValor());
+        assertEquals("Descricao de Produto 2", lido.getDescricao());
+        assertFalse(armazenamento.existe(excluido));
+        assertEquals(List.of("Produto 1b", "Produto 2"), nomes(armazenamento.buscarPrimeiraPagina(10)));
+    }
+
+    @Test
+    void testListagemOrdenadaPorNomeEId() throws IOException {
+        armazenamento = abrir();
+        ProdutoModel b1 = armazenamento.salvar(produto("B"));
+        ProdutoModel semNome = armazenamento.salvar(produto(null));
+        ProdutoModel a = armazenamento.salvar(produto("A"));
+        ProdutoModel b2 = armazenamento.salvar(produto("B"));
+
+        List<ProdutoModel> primeira = armazenamento.buscarPrimeiraPagina(2);
+        assertEquals(List.of(a.getId(), b1.getId()), ids(primeira));
+        List<ProdutoModel> segunda = armazenamento.buscarPaginaApos(b1.getNome(), b1.getId(), 2);
+        assertEquals(List.of(b2.getId(), semNome.getId()), ids(segunda));
+
+        // Renomear reposiciona o produto na listagem
+        armazenamento.atualizarParcialmente(a.getId(), new ProdutoPatchDTO("C", null, null, null, null));
+        try (Stream<ProdutoModel> produtos = armazenamento.percorrerOrdenados()) {
+            assertEquals(List.of(b1.getId(), b2.getId(), a.getId(), semNome.getId()), ids(produtos.toList()));
+        }
+    }
+
+    @Test
+    void testRegistrosOcupamVariasRegioes() throws IOException {
+        armazenamento = abrir();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(armazenamento.salvar(produto(String.format("Produto %03d", i))).getId());
+        }
+        assertTrue(armazenamento.getTamanho() > 4 * 4096);
+
+        reabrir();
+
+        assertEquals(ids, ids(armazenamento.buscarPorIds(ids)));
+        assertEquals(200, armazenamento.buscarPrimeiraPagina(500).size());
+    }
+
+    @Test
+    void testCompactacaoDescartaVersoesObsoletas() throws IOException {
+        armazenamento = abrir();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(armazenamento.salvar(produto("Produto " + i)).getId());
+        }
+        for (int i = 0; i < 5; i++) {
+            for (UUID id : ids) {
+                armazenamento.ajustarEstoque(id, 1);
+            }
+        }
+        armazenamento.excluirTodos(ids.subList(50, 100));
+        armazenamento.registrarArquivoImportado(new ArquivoImportadoModel("abc", Instant.now(), 1, 0, 0, 0));
+        long tamanhoAnterior = armazenamento.getTamanho();
+
+        armazenamento.compactar();
+
+        assertEquals(0, armazenamento.getBytesObsoletos());
+        assertTrue(armazenamento.getTamanho() < tamanhoAnterior / 5);
+        reabrir();
+        assertEquals(50, armazenamento.buscarPrimeiraPagina(500).size());
+        assertEquals(10L, armazenamento.buscarPorId(ids.get(0)).orElseThrow().getQuantidade_estoque());
+        assertTrue(armazenamento.buscarArquivoImportado("abc").isPresent());
+        assertEquals(0, armazenamento.getBytesObsoletos());
+    }
+
+    @Test
+    void testRegistroIncompletoEDescartadoNaAbertura() throws IOException {
+        armazenamento = abrir();
+        UUID primeiro = armazenamento.salvar(produto("Produto 1")).getId();
+        UUID ultimo = armazenamento.salvar(produto("Produto 2")).getId();
+        long fim = armazenamento.getTamanho();
+        armazenamento.fechar();
+
+        // Simula uma interrupção durante a gravação do último registro
+        try (FileChannel canal = FileChannel.open(diretorio.resolve(ArmazenamentoProdutosLog.ARQUIVO),
+                StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 0}), fim - 4);
+        }
+        armazenamento = abrir();
+
+        assertTrue(armazenamento.existe(primeiro));
+        assertFalse(armazenamento.existe(ultimo));
+        UUID novo = armazenamento.salvar(produto("Produto 3")).getId();
+        reabrir();
+        assertTrue(armazenamento.existe(primeiro));
+        assertTrue(armazenamento.existe(novo));
+    }
+
+    @Test
+    void testAjusteDeEstoque() throws IOException {
+        armazenamento = abrir();
+        UUID id = armazenamento.salvar(produto("Produto 1")).getId();
+
+        assertEquals(0, armazenamento.ajustarEstoque(id, -6));
+        assertEquals(5L, armazenamento.buscarPorId(id).orElseThrow().getQuantidade_estoque());
+        assertEquals(1, armazenamento.ajustarEstoqueLimitado(id, -6));
+        assertEquals(0L, armazenamento.buscarPorId(id).orElseThrow().getQuantidade_estoque());
+        assertEquals(0, armazenamento.ajustarEstoque(UUID.randomUUID(), 1));
+    }
+
+    @Test
+    void testBuscarPorChave() throws IOException {
+        armazenamento = abrir();
+        ProdutoModel leve = armazenamento.salvar(produto("Produto 1"));
+        ProdutoModel pesado = armazenamento.salvar(new ProdutoModel(null, "Produto 1", null, null, null, new BigDecimal("9.000")));
+        armazenamento.salvar(produto("Produto 2"));
+
+        assertEquals(List.of(pesado.getId()), ids(armazenamento.buscarPorChave(List.of("nome", "peso"),
+                List.of(List.of("Produto 1", new BigDecimal("9"))))));
+        assertEquals(List.of(leve.getId()), ids(armazenamento.buscarPorChave(List.of("peso", "descricao"),
+                List.of(List.of(new BigDecimal("1.25"), "Descricao de Produto 1")))));
+        assertEquals(2, armazenamento.buscarPorChave(List.of("nome"), List.of(List.of("Produto 1"))).size());
+    }
+
+    @Test
+    void testArquivosImportadosSobrevivemAReabertura() throws IOException {
+        armazenamento = abrir();
+        Instant dataImportacao = Instant.parse("2024-01-02T03:04:05.123456789Z");
+        armazenamento.registrarArquivoImportado(new ArquivoImportadoModel("abc", dataImportacao, 1, 2, 3, 4));
+
+        reabrir();
+
+        ArquivoImportadoModel arquivo = armazenamento.buscarArquivoImportado("abc").orElseThrow();
+        assertEquals(dataImportacao, arquivo.getDataImportacao());
+        assertEquals(1, arquivo.getLinhasInseridas());
+        assertEquals(2, arquivo.getLinhasAtualizadas());
+        assertEquals(3, arquivo.getLinhasInalteradas());
+        assertEquals(4, arquivo.getLinhasRejeitadas());
+        assertTrue(armazenamento.buscarArquivoImportado("def").isEmpty());
+    }
+
+    private static List<UUID> ids(List<ProdutoModel> produtos) {
+        return produtos.stream().map(ProdutoModel::getId).toList();
+    }
+
+    private static List<String> nomes(List<ProdutoModel> produtos) {
+        return produtos.stream().map(ProdutoModel::getNome).toList();
+    }
+}
@@ -0,0 +1,142 @@
+package com.produtos.repository;
+
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.ProdutoModel;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProdutosRepositoryTest {
+
+    @Autowired
+    private ProdutosRepository produtosRepository;
+
+    private ProdutoModel salvarProduto() {
+        return produtosRepository.save(new ProdutoModel(null, "Produto 1", new BigDecimal("10.00"), "Descricao",
+                5L, new BigDecimal("1.000")));
+    }
+
+    @Test
+    void testSalvarGeraIdsOrdenadosPeloTempo() {
+        List<ProdutoModel> produtos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            produtos.add(new ProdutoModel(null, "Produto " + i, null, null, null, null));
+        }
+
+        List<ProdutoModel> salvos = produtosRepository.saveAll(produtos);
+
+        for (int i = 0; i < salvos.size(); i++) {
+            assertEquals(7, salvos.get(i).getId().version());
+            if (i > 0) {
+                assertTrue(salvos.get(i - 1).getId().toString().compareTo(salvos.get(i).getId().toString()) < 0);
+            }
+            assertTrue(produtosRepository.existsById(salvos.get(i).getId()));
+        }
+    }
+
+    @Test
+    void testExcluirPorId() {
+        ProdutoModel produto = salvarProduto();
+
+        assertEquals(1, produtosRepository.excluirPorId(produto.getId()));
+        assertEquals(0, produtosRepository.excluirPorId(produto.getId()));
+        assertFalse(produtosRepository.existsById(produto.getId()));
+    }
+
+    @Test
+    void testAtualizar() {
+        ProdutoModel produto = salvarProduto();
+
+        int atualizados = produtosRepository.atualizar(produto.getId(), "Produto 2", new BigDecimal("20.00"), null,
+                7L, new BigDecimal("2.000"));
+
+        assertEquals(1, atualizados);
+        ProdutoModel atualizado = produtosRepository.findById(produto.getId()).orElseThrow();
+        assertEquals("Produto 2", atualizado.getNome());
+        assertNull(atualizado.getDescricao());
+        assertEquals(7L, atualizado.getQuantidade_estoque());
+        assertEquals(0, produtosRepository.atualizar(UUID.randomUUID(), "Produto", null, null, null, null));
+    }
+
+    @Test
+    void testAtualizarParcialmente() {
+        ProdutoModel produto = salvarProduto();
+
+        int atualizados = produtosRepository.atualizarParcialmente(produto.getId(),
+                new ProdutoPatchDTO(null, new BigDecimal("12.50"), null, 9L, null));
+
+        assertEquals(1, atualizados);
+        ProdutoModel atualizado = produtosRepository.findById(produto.getId()).orElseThrow();
+        assertEquals("Produto 1", atualizado.getNome());
+        assertEquals("Descricao", atualizado.getDescricao());
+        assertEquals(0, new BigDecimal("12.50").compareTo(atualizado.getValor()));
+        assertEquals(9L, atualizado.getQuantidade_estoque());
+        assertEquals(0, produtosRepository.atualizarParcialmente(UUID.randomUUID(),
+                new ProdutoPatchDTO("Produto", null, null, null, null)));
+    }
+
+    @Test
+    void testAjustarEstoqueNaoFicaNegativo() {
+        ProdutoModel produto = salvarProduto();
+
+        assertEquals(1, produtosRepository.ajustarEstoque(produto.getId(), -5));
+        assertEquals(0, produtosRepository.ajustarEstoque(produto.getId(), -1));
+        assertEquals(1, produtosRepository.ajustarEstoque(produto.getId(), 3));
+
+        assertEquals(3L, produtosRepository.findById(produto.getId()).orElseThrow().getQuantidade_estoque());
+    }
+
+    @Test
+    void testAjustarEstoqueLimitadoEmZero() {
+        ProdutoModel produto = salvarProduto();
+
+        assertEquals(1, produtosRepository.ajustarEstoqueLimitado(produto.getId(), -8));
+
+        assertEquals(0L, produtosRepository.findById(produto.getId()).orElseThrow().getQuantidade_estoque());
+        assertEquals(0, produtosRepository.ajustarEstoqueLimitado(UUID.randomUUID(), 1));
+    }
+
+    @Test
+    void testAjustesDeEstoqueConcorrentesNaoSePerdem() throws Exception {
+        ProdutoModel produto = salvarProduto();
+        int threads = 8;
+        int ajustesPorThread = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long delta = t % 2 == 0 ? 3 : -1;
+            tarefas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < ajustesPorThread; i++) {
+                    produtosRepository.ajustarEstoque(produto.getId(), delta);
+                }
+                return null;
+            }));
+        }
+        inicio.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        long esperado = 5 + (threads / 2) * ajustesPorThread * 3L - (threads / 2) * ajustesPorThread;
+        assertEquals(esperado, produtosRepository.findById(produto.getId()).orElseThrow().getQuantidade_estoque());
+    }
+}
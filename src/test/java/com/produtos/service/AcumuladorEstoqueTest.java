@@ -0,0 +1,188 @@
+package com.produtos.service;
+
+import com.produtos.repository.ArmazenamentoProdutos;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AcumuladorEstoqueTest {
+
+    @Mock
+    private ArmazenamentoProdutos armazenamentoProdutos;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ProdutoSearchIndex produtoSearchIndex;
+
+    @Mock
+    private ProdutoEventos produtoEventos;
+
+    @Spy
+    private ProdutoCache produtoCache = new ProdutoCache(1000, Duration.ofMinutes(5));
+
+    @InjectMocks
+    private AcumuladorEstoque acumuladorEstoque;
+
+    /**
+     * Estoque gravado no "banco de dados", por produto.
+     */
+    private final Map<UUID, AtomicLong> estoques = new ConcurrentHashMap<>();
+
+    public AcumuladorEstoqueTest() {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(armazenamentoProdutos.ajustarEstoqueLimitado(any(), anyLong())).thenAnswer(invocation -> {
+            AtomicLong estoque = estoques.get(invocation.<UUID>getArgument(0));
+            if (estoque == null) {
+                return 0;
+            }
+            estoque.addAndGet(invocation.getArgument(1));
+            return 1;
+        });
+    }
+
+    /**
+     * Vários pedidos ajustam o estoque dos mesmos produtos enquanto o acumulador grava os lotes continuamente.
+     * Ao final, o estoque gravado de cada produto deve ser exatamente a soma de todos os ajustes.
+     */
+    @Test
+    void testNenhumAjusteEPerdido() throws Exception {
+        List<UUID> produtos = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        produtos.forEach(id -> estoques.put(id, new AtomicLong(1_000_000)));
+        Map<UUID, AtomicLong> esperados = new ConcurrentHashMap<>();
+        produtos.forEach(id -> esperados.put(id, new AtomicLong(1_000_000)));
+
+        int threads = 8;
+        int ajustesPorThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean executando = new AtomicBoolean(true);
+        Future<?> gravador = executor.submit(() -> {
+            while (executando.get()) {
+                acumuladorEstoque.gravar();
+            }
+        });
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> pedidos = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            pedidos.add(executor.submit(() -> {
+                inicio.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ajustesPorThread; i++) {
+                    UUID id = produtos.get(random.nextInt(produtos.size()));
+                    long delta = random.nextInt(-3, 4);
+                    acumuladorEstoque.acumular(id, delta);
+                    esperados.get(id).addAndGet(delta);
+                }
+                return null;
+            }));
+        }
+        inicio.countDown();
+        for (Future<?> pedido : pedidos) {
+            pedido.get(60, TimeUnit.SECONDS);
+        }
+        executando.set(false);
+        gravador.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+        acumuladorEstoque.gravar();
+
+        for (UUID id : produtos) {
+            assertEquals(esperados.get(id).get(), estoques.get(id).get());
+            assertEquals(0, acumuladorEstoque.pendente(id));
+        }
+    }
+
+    /**
+     * Cada pedido ajusta um produto diferente, de forma que os contadores ficam ociosos e são removidos pelas
+     * gravações enquanto outros pedidos ainda somam ajustes aos mesmos produtos.
+     */
+    @Test
+    void testContadoresOciososSaoRemovidosSemPerderAjustes() throws Exception {
+        List<UUID> produtos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID id = UUID.randomUUID();
+            produtos.add(id);
+            estoques.put(id, new AtomicLong());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        AtomicBoolean executando = new AtomicBoolean(true);
+        Future<?> gravador = executor.submit(() -> {
+            while (executando.get()) {
+                acumuladorEstoque.gravar();
+            }
+        });
+        List<Future<?>> pedidos = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            pedidos.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    acumuladorEstoque.acumular(produtos.get(random.nextInt(produtos.size())), 1);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> pedido : pedidos) {
+            pedido.get(60, TimeUnit.SECONDS);
+        }
+        executando.set(false);
+        gravador.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+        acumuladorEstoque.gravar();
+        acumuladorEstoque.gravar();
+
+        assertEquals(80_000, estoques.values().stream().mapToLong(AtomicLong::get).sum());
+        assertEquals(0, acumuladorEstoque.produtosPendentes());
+    }
+
+    @Test
+    void testFalhaNaGravacaoDevolveOsAjustes() {
+        UUID id = UUID.randomUUID();
+        estoques.put(id, new AtomicLong(10));
+        acumuladorEstoque.acumular(id, 4);
+        doThrow(new IllegalStateException("banco indisponível")).when(transactionTemplate).executeWithoutResult(any());
+
+        assertThrows(IllegalStateException.class, () -> acumuladorEstoque.gravar());
+
+        assertEquals(4, acumuladorEstoque.pendente(id));
+        assertEquals(10, estoques.get(id).get());
+    }
+
+    @Test
+    void testGravarInvalidaCacheDosProdutosAtualizados() {
+        UUID existente = UUID.randomUUID();
+        UUID inexistente = UUID.randomUUID();
+        estoques.put(existente, new AtomicLong(10));
+        acumuladorEstoque.acumular(existente, -2);
+        acumuladorEstoque.acumular(inexistente, 5);
+
+        assertEquals(1, acumuladorEstoque.gravar());
+
+        assertEquals(8, estoques.get(existente).get());
+        verify(produtoCache).invalidate(existente);
+        verify(produtoCache, never()).invalidate(inexistente);
+        verify(armazenamentoProdutos).buscarPorIds(List.of(existente));
+        assertEquals(0, acumuladorEstoque.gravar());
+        assertEquals(0, acumuladorEstoque.produtosPendentes());
+    }
+}
@@ -0,0 +1,97 @@
+package com.produtos.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissaoImportacoesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdmissaoImportacoes admissao(int simultaneas, int fila, Duration esperaMaxima) {
+        AdmissaoImportacoes admissao = new AdmissaoImportacoes();
+        admissao.simultaneas = simultaneas;
+        admissao.fila = fila;
+        admissao.esperaMaxima = esperaMaxima;
+        admissao.tentarNovamente = Duration.ofSeconds(15);
+        admissao.importacaoMetricas = new ImportacaoMetricas(meterRegistry);
+        admissao.iniciar();
+        return admissao;
+    }
+
+    @Test
+    void testAdmiteAteOLimiteDeSimultaneas() {
+        AdmissaoImportacoes admissao = admissao(2, 0, Duration.ofSeconds(1));
+
+        admissao.admitir();
+        admissao.admitir();
+        ImportacaoRecusadaException e = assertThrows(ImportacaoRecusadaException.class, admissao::admitir);
+
+        assertEquals(Duration.ofSeconds(15), e.getTentarNovamente());
+        assertEquals(1, meterRegistry.get("produtos.importacao.recusadas").counter().count());
+        admissao.liberar();
+        admissao.admitir();
+        assertEquals(0, admissao.getVagasLivres());
+    }
+
+    @Test
+    void testUploadAguardaNaFilaAteAVagaSerLiberada() throws Exception {
+        AdmissaoImportacoes admissao = admissao(1, 1, Duration.ofSeconds(5));
+        admissao.admitir();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> aguardando = executor.submit(admissao::admitir);
+            while (admissao.getAguardando() == 0) {
+                Thread.sleep(5);
+            }
+            assertFalse(aguardando.isDone());
+
+            admissao.liberar();
+            aguardando.get(5, TimeUnit.SECONDS);
+            assertEquals(0, admissao.getAguardando());
+            assertEquals(0, admissao.getVagasLivres());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFilaCheiaRecusaImediatamente() throws Exception {
+        AdmissaoImportacoes admissao = admissao(1, 1, Duration.ofSeconds(5));
+        admissao.admitir();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> aguardando = executor.submit(admissao::admitir);
+            while (admissao.getAguardando() == 0) {
+                Thread.sleep(5);
+            }
+
+            long inicio = System.nanoTime();
+            assertThrows(ImportacaoRecusadaException.class, admissao::admitir);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 1000);
+
+            admissao.liberar();
+            aguardando.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testEsperaMaximaEsgotadaRecusa() {
+        AdmissaoImportacoes admissao = admissao(1, 1, Duration.ofMillis(50));
+        admissao.admitir();
+
+        assertThrows(ImportacaoRecusadaException.class, admissao::admitir);
+
+        assertEquals(0, admissao.getAguardando());
+        assertEquals(1, meterRegistry.get("produtos.importacao.recusadas").counter().count());
+    }
+}
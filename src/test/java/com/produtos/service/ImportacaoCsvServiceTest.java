@@ -0,0 +1,179 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+import com.produtos.repository.ArmazenamentoProdutos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImportacaoCsvServiceTest {
+
+    @Mock
+    private ThreadPoolTaskExecutor importacaoExecutor;
+
+    @InjectMocks
+    private ImportacaoCsvService importacaoCsvService;
+
+    private final ArmazenamentoProdutos armazenamentoProdutos = mock(ArmazenamentoProdutos.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    public ImportacaoCsvServiceTest() {
+        MockitoAnnotations.openMocks(this);
+        ProdutoService produtoService = new ProdutoService();
+        produtoService.armazenamentoProdutos = armazenamentoProdutos;
+        produtoService.produtoSearchIndex = new ProdutoSearchIndex();
+        produtoService.produtoEventos = mock(ProdutoEventos.class);
+        produtoService.importacaoMetricas = new ImportacaoMetricas(meterRegistry);
+        importacaoCsvService.produtoService = produtoService;
+        AdmissaoImportacoes admissaoImportacoes = new AdmissaoImportacoes();
+        admissaoImportacoes.importacaoMetricas = produtoService.importacaoMetricas;
+        admissaoImportacoes.iniciar();
+        importacaoCsvService.admissaoImportacoes = admissaoImportacoes;
+    }
+
+    @Test
+    void testImportacaoRejeitaLinhasInvalidas() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                ("nome,valor\nProduto 1,10.0\nProduto 2\nProduto 3,30.0\nProduto 4,abc\n").getBytes());
+
+        ImportacaoCsv importacao = importacaoCsvService.agendarImportacao(file);
+        assertEquals(ImportacaoCsv.Status.PENDENTE, importacao.getStatus());
+
+        ArgumentCaptor<Runnable> tarefa = ArgumentCaptor.forClass(Runnable.class);
+        verify(importacaoExecutor).execute(tarefa.capture());
+        tarefa.getValue().run();
+
+        assertEquals(ImportacaoCsv.Status.CONCLUIDA, importacao.getStatus());
+        assertEquals(4, importacao.getLinhasLidas());
+        assertEquals(2, importacao.getLinhasGravadas());
+        assertEquals(2, importacao.getLinhasRejeitadas());
+        assertSame(importacao, importacaoCsvService.getImportacao(importacao.getId()));
+        assertEquals(4, meterRegistry.get("produtos.importacao.linhas").tag("situacao", "lidas").counter().count());
+        assertEquals(2, meterRegistry.get("produtos.importacao.linhas").tag("situacao", "gravadas").counter().count());
+        assertEquals(2, meterRegistry.get("produtos.importacao.linhas").tag("situacao", "rejeitadas").counter().count());
+        assertEquals(0, meterRegistry.get("produtos.importacao.em.andamento").gauge().value());
+
+        ArgumentCaptor<List<ProdutoModel>> lote = ArgumentCaptor.forClass(List.class);
+        verify(armazenamentoProdutos).salvarTodos(lote.capture());
+        assertEquals("Produto 3", lote.getValue().get(1).getNome());
+    }
+
+    @Test
+    void testImportacaoUpsertSemIndiceUnicoRecusada() throws Exception {
+        ProdutoUpsertImporter produtoUpsertImporter = mock(ProdutoUpsertImporter.class);
+        doThrow(new IllegalStateException("sem índice")).when(produtoUpsertImporter).verificarIndiceUnico();
+        importacaoCsvService.produtoService.produtoUpsertImporter = produtoUpsertImporter;
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv", "nome\nProduto 1\n".getBytes());
+
+        assertThrows(IllegalStateException.class, () -> importacaoCsvService.agendarImportacao(file, true));
+
+        verify(importacaoExecutor, never()).execute(any());
+    }
+
+    @Test
+    void testCancelarImportacaoPendente() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome\nProduto 1\n".getBytes());
+
+        ImportacaoCsv importacao = importacaoCsvService.agendarImportacao(file);
+        importacaoCsvService.cancelarImportacao(importacao.getId());
+
+        ArgumentCaptor<Runnable> tarefa = ArgumentCaptor.forClass(Runnable.class);
+        verify(importacaoExecutor).execute(tarefa.capture());
+        tarefa.getValue().run();
+
+        assertEquals(ImportacaoCsv.Status.CANCELADA, importacao.getStatus());
+        verify(armazenamentoProdutos, never()).salvarTodos(any());
+    }
+
+    @Test
+    void testAgendarImportacaoFilaCheia() {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome\nProduto 1\n".getBytes());
+        doThrow(new TaskRejectedException("fila cheia")).when(importacaoExecutor).execute(any(Runnable.class));
+
+        ImportacaoRecusadaException e = assertThrows(ImportacaoRecusadaException.class,
+                () -> importacaoCsvService.agendarImportacao(file));
+
+        assertEquals(Duration.ofSeconds(10), e.getTentarNovamente());
+        assertEquals(1, meterRegistry.get("produtos.importacao.recusadas").counter().count());
+    }
+
+    @Test
+    void testImportacaoAguardaVaga() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome\nProduto 1\n".getBytes());
+        ImportacaoCsv importacao = importacaoCsvService.agendarImportacao(file);
+        ArgumentCaptor<Runnable> tarefa = ArgumentCaptor.forClass(Runnable.class);
+        verify(importacaoExecutor).execute(tarefa.capture());
+        importacaoCsvService.admissaoImportacoes.aguardar();
+        importacaoCsvService.admissaoImportacoes.aguardar();
+
+        Thread execucao = new Thread(tarefa.getValue());
+        execucao.start();
+        execucao.join(200);
+        assertEquals(ImportacaoCsv.Status.PENDENTE, importacao.getStatus());
+
+        importacaoCsvService.admissaoImportacoes.liberar();
+        execucao.join(5000);
+        assertEquals(ImportacaoCsv.Status.CONCLUIDA, importacao.getStatus());
+        assertEquals(1, importacaoCsvService.admissaoImportacoes.getVagasLivres());
+    }
+
+    @Test
+    void testImportacaoCanceladaNaoAguardaVaga() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome\nProduto 1\n".getBytes());
+        ImportacaoCsv importacao = importacaoCsvService.agendarImportacao(file);
+        importacaoCsvService.cancelarImportacao(importacao.getId());
+        ArgumentCaptor<Runnable> tarefa = ArgumentCaptor.forClass(Runnable.class);
+        verify(importacaoExecutor).execute(tarefa.capture());
+        importacaoCsvService.admissaoImportacoes.aguardar();
+        importacaoCsvService.admissaoImportacoes.aguardar();
+
+        Thread execucao = new Thread(tarefa.getValue());
+        execucao.start();
+        execucao.join(5000);
+
+        assertFalse(execucao.isAlive());
+        assertEquals(ImportacaoCsv.Status.CANCELADA, importacao.getStatus());
+        assertEquals(0, importacaoCsvService.admissaoImportacoes.getVagasLivres());
+        verify(armazenamentoProdutos, never()).salvarTodos(any());
+    }
+
+    @Test
+    void testImportacaoCanceladaEnquantoAguardaLiberaVaga() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome\nProduto 1\n".getBytes());
+        ImportacaoCsv importacao = importacaoCsvService.agendarImportacao(file);
+        ArgumentCaptor<Runnable> tarefa = ArgumentCaptor.forClass(Runnable.class);
+        verify(importacaoExecutor).execute(tarefa.capture());
+        importacaoCsvService.admissaoImportacoes.aguardar();
+        importacaoCsvService.admissaoImportacoes.aguardar();
+
+        Thread execucao = new Thread(tarefa.getValue());
+        execucao.start();
+        execucao.join(200);
+        importacaoCsvService.cancelarImportacao(importacao.getId());
+        importacaoCsvService.admissaoImportacoes.liberar();
+        execucao.join(5000);
+
+        assertFalse(execucao.isAlive());
+        assertEquals(ImportacaoCsv.Status.CANCELADA, importacao.getStatus());
+        assertEquals(1, importacaoCsvService.admissaoImportacoes.getVagasLivres());
+        verify(armazenamentoProdutos, never()).salvarTodos(any());
+    }
+}
@@ -0,0 +1,238 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+import com.opencsv.CSVReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorCsvParaleloTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final LeitorCsvParalelo leitor = new LeitorCsvParalelo();
+
+    LeitorCsvParaleloTest() {
+        leitor.threads = 4;
+        leitor.tamanhoBloco = DataSize.ofBytes(256);
+        leitor.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        leitor.encerrar();
+    }
+
+    private Path arquivo(String conteudo) throws IOException {
+        return Files.writeString(Files.createTempFile(diretorio, "produtos-", ".csv"), conteudo, StandardCharsets.UTF_8);
+    }
+
+    private List<LeitorCsvParalelo.BlocoCsv> dividir(Path arquivo, long tamanhoBloco, long janelaVarredura) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo)) {
+            return LeitorCsvParalelo.dividir(canal, tamanhoBloco, janelaVarredura);
+        }
+    }
+
+    @Test
+    void testDividirNaoSeparaCamposEntreAspas() throws Exception {
+        Path arquivo = arquivo("nome,descricao\nProduto 1,\"Linha 1\nLinha 2\"\r\nProduto 2,\"a \"\" b\n\"\nProduto 3,c");
+
+        List<LeitorCsvParalelo.BlocoCsv> blocos = dividir(arquivo, 1, 1024);
+
+        assertEquals(List.of(new LeitorCsvParalelo.BlocoCsv(0, 15, 0),
+                new LeitorCsvParalelo.BlocoCsv(15, 44, 1),
+                new LeitorCsvParalelo.BlocoCsv(44, 64, 3),
+                new LeitorCsvParalelo.BlocoCsv(64, 75, 5)), blocos);
+    }
+
+    @Test
+    void testDividirTrataBarraInvertidaComoCaractereComum() throws Exception {
+        Path arquivo = arquivo("nome,descricao\nCabo 3\\4,\"C:\\dir \"\"x\\\"\" y\"\nProduto \\,\"a\\\"\nProduto 3,c");
+
+        List<LeitorCsvParalelo.BlocoCsv> blocos = dividir(arquivo, 1, 1024);
+
+        assertEquals(List.of(new LeitorCsvParalelo.BlocoCsv(0, 15, 0),
+                new LeitorCsvParalelo.BlocoCsv(15, 42, 1),
+                new LeitorCsvParalelo.BlocoCsv(42, 57, 2),
+                new LeitorCsvParalelo.BlocoCsv(57, 68, 3)), blocos);
+    }
+
+    @Test
+    void testDividirEquivaleAoCsvReader() throws Exception {
+        Random random = new Random(42);
+        char[] caracteres = {'a', 'a', 'a', ',', '"', '"', '\\', '\n', '\r'};
+        for (int n = 0; n < 2000; n++) {
+            StringBuilder conteudo = new StringBuilder("nome\n");
+            for (int i = random.nextInt(40); i > 0; i--) {
+                conteudo.append(caracteres[random.nextInt(caracteres.length)]);
+            }
+            List<String> esperado = new ArrayList<>();
+            try {
+                registros(conteudo.toString(), 0, esperado);
+            } catch (IOException e) {
+                // Aspas não fechadas: o arquivo seria rejeitado de qualquer forma
+                continue;
+            }
+
+            List<String> lido = new ArrayList<>();
+            // Janelas pequenas para que aspas e escapes fiquem divididos entre duas janelas
+            for (LeitorCsvParalelo.BlocoCsv bloco : dividir(arquivo(conteudo.toString()), 1, 1 + n % 5)) {
+                registros(conteudo.substring((int) bloco.inicio(), (int) bloco.fim()), bloco.linhaAnterior(), lido);
+            }
+            assertEquals(esperado, lido, conteudo.toString());
+        }
+    }
+
+    /**
+     * Lê os registros pelo {@link CSVReader} de {@link ProdutoCsvMapper#leitor}, anotando a linha do arquivo em que cada um termina.
+     */
+    private static void registros(String conteudo, long linhaAnterior, List<String> registros) throws IOException {
+        try (CSVReader csvReader = ProdutoCsvMapper.leitor(new StringReader(conteudo))) {
+            String[] registro;
+            while ((registro = csvReader.readNext()) != null) {
+                registros.add((linhaAnterior + csvReader.getLinesRead()) + ":" + Arrays.toString(registro));
+            }
+        } catch (com.opencsv.exceptions.CsvValidationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Test
+    void testLerEntregaTodasAsLinhas() throws Exception {
+        StringBuilder conteudo = new StringBuilder("nome,valor,descricao\n");
+        for (int i = 0; i < 5000; i++) {
+            conteudo.append("Produto ").append(i).append(',').append(i % 100).append(".50,")
+                    .append(i % 7 == 0 ? "\"Com, virgula\ne quebra\"" : "Descricao").append('\n');
+        }
+        List<ProdutoModel> produtos = new ArrayList<>();
+        List<String> threads = new ArrayList<>();
+
+        leitor.ler(arquivo(conteudo.toString()), 100, new ImportacaoCsv(false), lote -> {
+            assertTrue(lote.produtos().size() <= 100);
+            assertEquals(lote.produtos().size(), lote.linhasLidas());
+            produtos.addAll(lote.produtos());
+            threads.add(Thread.currentThread().getName());
+        });
+
+        assertEquals(5000, produtos.size());
+        assertEquals(5000, produtos.stream().map(ProdutoModel::getNome).distinct().count());
+        assertEquals(715, produtos.stream().filter(p -> p.getDescricao().equals("Com, virgula\ne quebra")).count());
+        assertTrue(threads.stream().allMatch(Thread.currentThread().getName()::equals));
+    }
+
+    @Test
+    void testLerBarraInvertidaEAspas() throws Exception {
+        Path arquivo = arquivo("nome,descricao\nCabo 3\\4,\"C:\\dir \"\"x\\\"\" y\"\n\"Fim \\\",\"a\\\nb\\\"\n");
+        List<ProdutoModel> produtos = new ArrayList<>();
+
+        leitor.ler(arquivo, 100, new ImportacaoCsv(false), lote -> produtos.addAll(lote.produtos()));
+
+        assertEquals(2, produtos.size());
+        assertEquals("Cabo 3\\4", produtos.get(0).getNome());
+        assertEquals("C:\\dir \"x\\\" y", produtos.get(0).getDescricao());
+        assertEquals("Fim \\", produtos.get(1).getNome());
+        assertEquals("a\\\nb\\", produtos.get(1).getDescricao());
+    }
+
+    @Test
+    void testLerInformaLinhaDaLinhaInvalida() throws Exception {
+        StringBuilder conteudo = new StringBuilder("nome,valor,descricao\n");
+        for (int i = 0; i < 200; i++) {
+            conteudo.append("Produto ").append(i).append(",1.0,\"Linha 1\nLinha 2\"\n");
+        }
+        conteudo.append("Produto invalido,abc,Descricao\n");
+        Path arquivo = arquivo(conteudo.toString());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> leitor.ler(arquivo, 50, new ImportacaoCsv(false), lote -> {
+                }));
+
+        assertTrue(e.getMessage().startsWith("Linha 402 do CSV inválida"), e.getMessage());
+    }
+
+    @Test
+    void testLerNaoEntregaLotesQuandoHaLinhaInvalida() throws Exception {
+        StringBuilder conteudo = new StringBuilder("nome,valor\n");
+        for (int i = 0; i < 2000; i++) {
+            conteudo.append("Produto ").append(i).append(i == 1990 ? ",abc\n" : ",1.0\n");
+        }
+        Path arquivo = arquivo(conteudo.toString());
+        List<LeitorCsvParalelo.LoteCsv> lotes = new ArrayList<>();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> leitor.ler(arquivo, 10, new ImportacaoCsv(false), lotes::add));
+
+        assertTrue(e.getMessage().startsWith("Linha 1992 do CSV inválida"), e.getMessage());
+        assertTrue(lotes.isEmpty());
+    }
+
+    @Test
+    void testLerInformaPrimeiraLinhaInvalidaDoArquivo() throws Exception {
+        StringBuilder conteudo = new StringBuilder("nome,valor\n");
+        for (int i = 0; i < 2000; i++) {
+            conteudo.append("Produto ").append(i).append(i == 150 || i == 1900 ? ",abc\n" : ",1.0\n");
+        }
+        Path arquivo = arquivo(conteudo.toString());
+
+        for (int i = 0; i < 20; i++) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> leitor.ler(arquivo, 10, new ImportacaoCsv(false), lote -> {
+                    }));
+
+            assertTrue(e.getMessage().startsWith("Linha 152 do CSV inválida"), e.getMessage());
+        }
+    }
+
+    @Test
+    void testLerRejeitaLinhasInvalidas() throws Exception {
+        Path arquivo = arquivo("nome,valor\nProduto 1,10.0\nProduto 2\nProduto 3,30.0\nProduto 4,abc\n");
+        List<LeitorCsvParalelo.LoteCsv> lotes = new ArrayList<>();
+
+        leitor.ler(arquivo, 100, new ImportacaoCsv(true), lotes::add);
+
+        assertEquals(4, lotes.stream().mapToInt(LeitorCsvParalelo.LoteCsv::linhasLidas).sum());
+        assertEquals(2, lotes.stream().mapToInt(LeitorCsvParalelo.LoteCsv::linhasRejeitadas).sum());
+        assertEquals(2, lotes.stream().mapToInt(lote -> lote.produtos().size()).sum());
+    }
+
+    @Test
+    void testLerInterrompeAoCancelar() throws Exception {
+        StringBuilder conteudo = new StringBuilder("nome\n");
+        for (int i = 0; i < 10000; i++) {
+            conteudo.append("Produto ").append(i).append('\n');
+        }
+        ImportacaoCsv importacao = new ImportacaoCsv(true);
+        importacao.iniciar();
+        List<LeitorCsvParalelo.LoteCsv> lotes = new ArrayList<>();
+
+        leitor.ler(arquivo(conteudo.toString()), 10, importacao, lote -> {
+            lotes.add(lote);
+            importacao.cancelar();
+        });
+
+        assertEquals(1, lotes.size());
+    }
+
+    @Test
+    void testLerArquivoVazio() throws Exception {
+        Path arquivo = arquivo("");
+
+        assertThrows(IllegalArgumentException.class, () -> leitor.ler(arquivo, 10, new ImportacaoCsv(false), lote -> {
+        }));
+    }
+}
@@ -0,0 +1,194 @@
+package com.produtos.service;
+
+import com.produtos.model.DTO.OperacaoDTO;
+import com.produtos.model.DTO.ProdutoModelDTO;
+import com.produtos.model.DTO.ResultadoOperacaoDTO;
+import com.produtos.model.ProdutoModel;
+import com.produtos.repository.ArmazenamentoProdutos;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProdutoBatchServiceTest {
+
+    @Mock
+    private ArmazenamentoProdutos armazenamentoProdutos;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ProdutoSearchIndex produtoSearchIndex;
+
+    @Mock
+    private ProdutoEventos produtoEventos;
+
+    @Spy
+    private ProdutoCache produtoCache = new ProdutoCache(1000, Duration.ofMinutes(5));
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private ProdutoBatchService produtoBatchService;
+
+    private final ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto", new BigDecimal("10.00"), "Descricao",
+            5L, new BigDecimal("1.5"));
+
+    public ProdutoBatchServiceTest() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        when(armazenamentoProdutos.salvarTodos(anyCollection())).thenAnswer(invocation -> {
+            Iterable<ProdutoModel> produtos = invocation.getArgument(0);
+            produtos.forEach(produto -> {
+                if (produto.getId() == null) {
+                    produto.setId(UUID.randomUUID());
+                }
+            });
+            return List.copyOf((java.util.Collection<ProdutoModel>) produtos);
+        });
+    }
+
+    @Test
+    void testExecutarOperacoesMistas() {
+        UUID idAlterado = UUID.randomUUID();
+        UUID idExcluido = UUID.randomUUID();
+        when(armazenamentoProdutos.buscarPorIds(anyCollection())).thenReturn(List.of(
+                new ProdutoModel(idAlterado, "Antigo", BigDecimal.ONE, "", 1L, BigDecimal.ONE),
+                new ProdutoModel(idExcluido, "Excluido", BigDecimal.ONE, "", 1L, BigDecimal.ONE)));
+
+        List<ResultadoOperacaoDTO> resultados = produtoBatchService.executar(List.of(
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null, produtoDTO),
+                new OperacaoDTO(OperacaoDTO.Tipo.UPDATE, idAlterado, produtoDTO),
+                new OperacaoDTO(OperacaoDTO.Tipo.DELETE, idExcluido, null)), true);
+
+        assertEquals(201, resultados.get(0).status());
+        assertNotNull(resultados.get(0).id());
+        assertEquals(200, resultados.get(1).status());
+        assertEquals(204, resultados.get(2).status());
+        verify(armazenamentoProdutos, times(1)).buscarPorIds(anyCollection());
+        verify(armazenamentoProdutos, times(2)).salvarTodos(anyCollection());
+        verify(armazenamentoProdutos).excluirTodos(argThat(ids -> ids.iterator().next().equals(idExcluido)));
+        verify(produtoCache).invalidate(idAlterado);
+        verify(produtoSearchIndex).remover(idExcluido);
+        verify(produtoEventos).criados(argThat(produtos -> produtos.size() == 1));
+        verify(produtoEventos).atualizados(argThat(produtos -> produtos.iterator().next().getId().equals(idAlterado)));
+        verify(produtoEventos).excluidos(argThat(ids -> ids.contains(idExcluido)));
+    }
+
+    @Test
+    void testAtomicoNaoAplicaLoteComFalha() {
+        UUID idInexistente = UUID.randomUUID();
+        when(armazenamentoProdutos.buscarPorIds(anyCollection())).thenReturn(List.of());
+
+        List<ResultadoOperacaoDTO> resultados = produtoBatchService.executar(List.of(
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null, produtoDTO),
+                new OperacaoDTO(OperacaoDTO.Tipo.DELETE, idInexistente, null)), true);
+
+        assertEquals(424, resultados.get(0).status());
+        assertEquals(404, resultados.get(1).status());
+        verify(armazenamentoProdutos, never()).salvarTodos(anyCollection());
+        verify(armazenamentoProdutos, never()).excluirTodos(any());
+    }
+
+    @Test
+    void testAtomicoFalhaNaGravacaoRetornaResultadoPorOperacao() {
+        UUID idExcluido = UUID.randomUUID();
+        when(armazenamentoProdutos.buscarPorIds(anyCollection())).thenReturn(List.of(
+                new ProdutoModel(idExcluido, "Excluido", BigDecimal.ONE, "", 1L, BigDecimal.ONE)));
+        doThrow(new DataIntegrityViolationException("uk_produtos_nome")).when(armazenamentoProdutos).sincronizar();
+
+        List<ResultadoOperacaoDTO> resultados = produtoBatchService.executar(List.of(
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null, produtoDTO),
+                new OperacaoDTO(OperacaoDTO.Tipo.DELETE, idExcluido, null)), true);
+
+        assertEquals(2, resultados.size());
+        assertEquals(409, resultados.get(0).status());
+        assertEquals("Lote não aplicado: uk_produtos_nome", resultados.get(0).erro());
+        assertEquals(409, resultados.get(1).status());
+        verifyNoInteractions(produtoEventos);
+        verify(produtoSearchIndex, never()).remover(any());
+    }
+
+    @Test
+    void testAtomicoRecusaOperacaoInvalida() {
+        List<ResultadoOperacaoDTO> resultados = produtoBatchService.executar(List.of(
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null, produtoDTO),
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null,
+                        new ProdutoModelDTO("", new BigDecimal("-1"), null, null, null))), true);
+
+        assertEquals(424, resultados.get(0).status());
+        assertEquals(400, resultados.get(1).status());
+        assertTrue(resultados.get(1).erro().contains("nome"));
+        assertTrue(resultados.get(1).erro().contains("valor"));
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void testIndividualAplicaOperacoesValidas() {
+        when(armazenamentoProdutos.buscarPorIds(anyCollection())).thenReturn(List.of());
+
+        List<ResultadoOperacaoDTO> resultados = produtoBatchService.executar(List.of(
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null, produtoDTO),
+                new OperacaoDTO(OperacaoDTO.Tipo.UPDATE, null, produtoDTO),
+                new OperacaoDTO(OperacaoDTO.Tipo.DELETE, UUID.randomUUID(), null)), false);
+
+        assertEquals(201, resultados.get(0).status());
+        assertEquals(400, resultados.get(1).status());
+        assertEquals(404, resultados.get(2).status());
+        verify(produtoSearchIndex).indexar(argThat((List<ProdutoModel> produtos) -> produtos.size() == 1));
+    }
+
+    @Test
+    void testIndividualRepeteOperacoesQuandoOLoteFalha() {
+        when(armazenamentoProdutos.buscarPorIds(anyCollection())).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("falha")).doNothing().doThrow(new DataIntegrityViolationException("falha"))
+                .when(armazenamentoProdutos).sincronizar();
+
+        List<ResultadoOperacaoDTO> resultados = produtoBatchService.executar(List.of(
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null, produtoDTO),
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null, produtoDTO)), false);
+
+        assertEquals(201, resultados.get(0).status());
+        assertEquals(409, resultados.get(1).status());
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void testIndividualOutrasFalhasDoBancoDeDados() {
+        when(armazenamentoProdutos.buscarPorIds(anyCollection())).thenReturn(List.of());
+        doThrow(new IllegalStateException("falha")).when(armazenamentoProdutos).sincronizar();
+
+        List<ResultadoOperacaoDTO> resultados = produtoBatchService.executar(List.of(
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null, produtoDTO)), false);
+
+        assertEquals(500, resultados.get(0).status());
+        assertEquals("falha", resultados.get(0).erro());
+    }
+
+    @Test
+    void testLoteAcimaDoLimite() {
+        produtoBatchService.tamanhoMaximo = 1;
+
+        assertThrows(IllegalArgumentException.class, () -> produtoBatchService.executar(List.of(
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null, produtoDTO),
+                new OperacaoDTO(OperacaoDTO.Tipo.CREATE, null, produtoDTO)), true));
+    }
+}
@@ -0,0 +1,115 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoCacheTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    @Test
+    void testProdutoInexistenteNaoEArmazenado() {
+        ProdutoCache produtoCache = new ProdutoCache(10, Duration.ofMinutes(5));
+        AtomicInteger cargas = new AtomicInteger();
+
+        assertNull(produtoCache.get(ID, id -> { cargas.incrementAndGet(); return null; }));
+        assertNull(produtoCache.get(ID, id -> { cargas.incrementAndGet(); return null; }));
+
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void testFalhaNaCargaNaoEArmazenada() {
+        ProdutoCache produtoCache = new ProdutoCache(10, Duration.ofMinutes(5));
+
+        assertThrows(IllegalStateException.class,
+                () -> produtoCache.get(ID, id -> { throw new IllegalStateException("banco indisponível"); }));
+        ProdutoModel produto = produtoCache.get(ID, id -> produto(id, 1));
+
+        assertEquals(1, produto.getValor().intValueExact());
+    }
+
+    @Test
+    void testRemoveEntradasAlemDoTamanhoMaximo() {
+        ProdutoCache produtoCache = new ProdutoCache(10, Duration.ofMinutes(5));
+        for (int i = 0; i < 100; i++) {
+            produtoCache.put(produto(UUID.randomUUID(), i));
+        }
+        produtoCache.executarManutencao();
+
+        assertTrue(produtoCache.estatisticas().remocoes() > 0);
+        assertTrue(produtoCache.estatisticas().tamanho() <= 10);
+    }
+
+    /**
+     * Leitores carregam o produto de um "banco de dados" lento enquanto um escritor grava novas versões e invalida
+     * o cache. Toda leitura iniciada depois que uma invalidação terminou deve enxergar ao menos aquela versão.
+     */
+    @Test
+    void testNenhumaLeituraAntigaAposAtualizacao() throws Exception {
+        ProdutoCache produtoCache = new ProdutoCache(1000, Duration.ofMinutes(5));
+        AtomicReference<ProdutoModel> bancoDeDados = new AtomicReference<>(produto(ID, 0));
+        AtomicInteger versaoPublicada = new AtomicInteger();
+        AtomicBoolean executando = new AtomicBoolean(true);
+        AtomicInteger leiturasAntigas = new AtomicInteger();
+        Function<UUID, ProdutoModel> loader = id -> {
+            ProdutoModel produto = bancoDeDados.get();
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(50_000));
+            return produto;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] leitores = new Future<?>[7];
+            for (int i = 0; i < leitores.length; i++) {
+                leitores[i] = executor.submit(() -> {
+                    while (executando.get()) {
+                        int versaoMinima = versaoPublicada.get();
+                        int versaoLida = produtoCache.get(ID, loader).getValor().intValueExact();
+                        if (versaoLida < versaoMinima) {
+                            leiturasAntigas.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            Future<?> escritor = executor.submit(() -> {
+                for (int versao = 1; versao <= 500; versao++) {
+                    bancoDeDados.set(produto(ID, versao));
+                    produtoCache.invalidate(ID);
+                    versaoPublicada.set(versao);
+                    assertEquals(versao, produtoCache.get(ID, loader).getValor().intValueExact());
+                }
+            });
+
+            escritor.get(30, TimeUnit.SECONDS);
+            executando.set(false);
+            for (Future<?> leitor : leitores) {
+                leitor.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, leiturasAntigas.get());
+    }
+
+    private static ProdutoModel produto(UUID id, int versao) {
+        return new ProdutoModel(id, "Produto", BigDecimal.valueOf(versao), "Descricao", 1L, new BigDecimal("1"));
+    }
+}
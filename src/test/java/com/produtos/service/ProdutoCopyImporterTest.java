@@ -0,0 +1,208 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProdutoCopyImporterTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private ResultSet gravados;
+
+    @InjectMocks
+    private ProdutoCopyImporter produtoCopyImporter;
+
+    public ProdutoCopyImporterTest() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testComandoCopySegueOrdemDoCabecalho() {
+        String comando = ProdutoCopyImporter.comandoCopy(new String[]{"Peso", "nome", "valor"});
+
+        assertEquals("COPY produtos_staging (peso, nome, valor) FROM STDIN WITH (FORMAT csv)", comando);
+    }
+
+    @Test
+    void testComandoCopyColunaDesconhecida() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ProdutoCopyImporter.comandoCopy(new String[]{"nome", "cor"}));
+    }
+
+    @Test
+    void testDisponivelComDriverPostgres() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+
+        assertTrue(produtoCopyImporter.isDisponivel());
+        assertTrue(produtoCopyImporter.isDisponivel());
+
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void testIndisponivelEmOutrosBancos() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+
+        assertFalse(produtoCopyImporter.isDisponivel());
+    }
+
+    @Test
+    void testExpressoesRespeitamLimitesDasColunas() {
+        Pattern valor = Pattern.compile(ProdutoCopyImporter.VALOR);
+        Pattern peso = Pattern.compile(ProdutoCopyImporter.PESO);
+        Pattern inteiro = Pattern.compile(ProdutoCopyImporter.INTEIRO);
+
+        assertTrue(valor.matcher("1234567890.99").matches());
+        assertTrue(valor.matcher(" 0001234567890.9900 ").matches());
+        assertTrue(valor.matcher("5.").matches());
+        assertFalse(valor.matcher("12345678901").matches());
+        assertFalse(valor.matcher("1.005").matches());
+        assertFalse(valor.matcher("-1").matches());
+        assertFalse(valor.matcher("1e3").matches());
+        assertFalse(valor.matcher("abc").matches());
+        assertTrue(peso.matcher("123456789.500").matches());
+        assertFalse(peso.matcher("1234567890").matches());
+        assertFalse(peso.matcher("1.0005").matches());
+        assertTrue(inteiro.matcher("000999999999999999999").matches());
+        assertFalse(inteiro.matcher("9223372036854775807").matches());
+        assertFalse(inteiro.matcher("-1").matches());
+        assertFalse(inteiro.matcher("1.0").matches());
+    }
+
+    @Test
+    void testNomeExigeCaractereQueNaoSejaEspaco() {
+        Pattern nome = Pattern.compile(ProdutoCopyImporter.NOME);
+
+        assertTrue(nome.matcher(" Produto ").find());
+        assertFalse(nome.matcher("").find());
+        assertFalse(nome.matcher(" \t ").find());
+        assertTrue(ProdutoCopyImporter.CONTAR_INVALIDOS.contains("coalesce(nome ~ '\\S', false)"));
+    }
+
+    @Test
+    void testExpressoesAceitamApenasValoresAceitosPeloMapper() {
+        ProdutoCsvMapper mapper = ProdutoCsvMapper.fromHeader(new String[]{"nome", "valor", "quantidade_estoque", "peso"});
+        String[] valores = {"0", "00", "1", "1.", "1.5", "1.50", "1.500", "1.005", "99999999999", "9999999999.99",
+                "0000000000001.1", " 7 ", "-0", "+1", ".5", "1e2", "1,5", "999999999999999999", "9999999999999999999"};
+
+        for (String valor : valores) {
+            if (Pattern.matches(ProdutoCopyImporter.VALOR, valor)) {
+                assertDoesNotThrow(() -> mapper.toProduto(new String[]{"Produto", valor, "", ""}), valor);
+            }
+            if (Pattern.matches(ProdutoCopyImporter.PESO, valor)) {
+                assertDoesNotThrow(() -> mapper.toProduto(new String[]{"Produto", "", "", valor}), valor);
+            }
+            if (Pattern.matches(ProdutoCopyImporter.INTEIRO, valor)) {
+                assertDoesNotThrow(() -> mapper.toProduto(new String[]{"Produto", "", valor, ""}), valor);
+            }
+        }
+    }
+
+    @Test
+    void testImportarRecusaRegistrosInvalidosSemGravar() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString(), any(Reader.class))).thenReturn(3L);
+        when(statement.executeQuery(ProdutoCopyImporter.CONTAR_INVALIDOS)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(2L);
+        when(resultSet.getLong(2)).thenReturn(2L);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> produtoCopyImporter.importar(new StringReader("nome,valor\nA,1\nB,abc\nC,-1\n"), 10, lote -> fail()));
+
+        assertEquals("Registro 2 do CSV inválido: 2 registros sem nome ou com valores inválidos", e.getMessage());
+        verify(statement, never()).executeUpdate(ProdutoCopyImporter.INSERIR_PRODUTOS);
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    void testImportarGravaRegistrosValidos() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString(), any(Reader.class))).thenReturn(2L);
+        when(statement.executeQuery(ProdutoCopyImporter.CONTAR_INVALIDOS)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(0L);
+        when(statement.executeUpdate(ProdutoCopyImporter.INSERIR_PRODUTOS)).thenReturn(3);
+        UUID[] ids = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        when(statement.executeQuery(ProdutoCopyImporter.LER_IMPORTADOS)).thenReturn(gravados);
+        when(gravados.next()).thenReturn(true, true, true, false);
+        when(gravados.getObject(1, UUID.class)).thenReturn(ids[0], ids[1], ids[2]);
+        when(gravados.getString(2)).thenReturn("A", "B", "C");
+        when(gravados.getBigDecimal(3)).thenReturn(new BigDecimal("1.00"));
+        when(gravados.getObject(5, Long.class)).thenReturn(3L);
+        List<List<ProdutoModel>> lotes = new ArrayList<>();
+
+        long quantidade = produtoCopyImporter.importar(
+                new StringReader("nome,valor,quantidade_estoque\nA,1,3\nB,1,3\nC,1,3\n"), 2, lotes::add);
+
+        assertEquals(3, quantidade);
+        assertEquals(List.of(2, 1), lotes.stream().map(List::size).toList());
+        ProdutoModel produto = lotes.get(0).get(0);
+        assertEquals(ids[0], produto.getId());
+        assertEquals("A", produto.getNome());
+        assertEquals(new BigDecimal("1.00"), produto.getValor());
+        assertEquals(3L, produto.getQuantidade_estoque());
+        assertNull(produto.getPeso());
+        assertEquals(ids[2], lotes.get(1).get(0).getId());
+
+        verify(copyManager).copyIn(eq("COPY produtos_staging (nome, valor, quantidade_estoque) FROM STDIN WITH (FORMAT csv)"), any(Reader.class));
+        verify(statement).setFetchSize(2);
+        // Os produtos são lidos depois da confirmação da inserção, e a tabela de IDs é removida em seguida
+        InOrder ordem = inOrder(statement, connection);
+        ordem.verify(statement).executeUpdate(ProdutoCopyImporter.INSERIR_PRODUTOS);
+        ordem.verify(connection).commit();
+        ordem.verify(statement).executeQuery(ProdutoCopyImporter.LER_IMPORTADOS);
+        ordem.verify(statement).execute(ProdutoCopyImporter.REMOVER_TABELA_IMPORTADOS);
+        ordem.verify(connection).commit();
+    }
+}
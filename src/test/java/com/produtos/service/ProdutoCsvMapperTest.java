@@ -0,0 +1,68 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoCsvMapperTest {
+
+    private final ProdutoCsvMapper mapper = ProdutoCsvMapper.fromHeader(
+            new String[]{"nome", "valor", "descricao", "quantidade_estoque", "peso"});
+
+    @Test
+    void testToProduto() {
+        ProdutoModel produto = mapper.toProduto(new String[]{"Produto 1", "1234567890.99", "Descricao", "3", "123456789.500"});
+
+        assertEquals("Produto 1", produto.getNome());
+        assertEquals(new BigDecimal("1234567890.99"), produto.getValor());
+        assertEquals("Descricao", produto.getDescricao());
+        assertEquals(3L, produto.getQuantidade_estoque());
+        assertEquals(new BigDecimal("123456789.500"), produto.getPeso());
+    }
+
+    @Test
+    void testToProdutoValoresVazios() {
+        ProdutoModel produto = mapper.toProduto(new String[]{"Produto 1", "", "", " ", ""});
+
+        assertNull(produto.getValor());
+        assertNull(produto.getQuantidade_estoque());
+        assertNull(produto.getPeso());
+    }
+
+    @Test
+    void testToProdutoRecusaNomeEmBranco() {
+        assertThrows(IllegalArgumentException.class, () -> mapper.toProduto(new String[]{" ", "1.00", "", "1", ""}));
+        assertThrows(IllegalArgumentException.class, () -> ProdutoCsvMapper.fromHeader(new String[]{"valor"})
+                .toProduto(new String[]{"1.00"}));
+    }
+
+    @Test
+    void testToProdutoRecusaValoresNegativos() {
+        assertThrows(IllegalArgumentException.class, () -> mapper.toProduto(new String[]{"Produto", "-0.01", "", "", ""}));
+        assertThrows(IllegalArgumentException.class, () -> mapper.toProduto(new String[]{"Produto", "", "", "-1", ""}));
+        assertThrows(IllegalArgumentException.class, () -> mapper.toProduto(new String[]{"Produto", "", "", "", "-1"}));
+    }
+
+    @Test
+    void testToProdutoRecusaDigitosExcedentes() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> mapper.toProduto(new String[]{"Produto", "1.005", "", "", ""}));
+        assertTrue(e.getMessage().startsWith("Valor inválido para a coluna valor: 1.005"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> mapper.toProduto(new String[]{"Produto", "12345678901", "", "", ""}));
+        assertThrows(IllegalArgumentException.class, () -> mapper.toProduto(new String[]{"Produto", "1E+10", "", "", ""}));
+        assertThrows(IllegalArgumentException.class, () -> mapper.toProduto(new String[]{"Produto", "", "", "", "0.0001"}));
+        assertThrows(IllegalArgumentException.class, () -> mapper.toProduto(new String[]{"Produto", "", "", "", "1234567890"}));
+    }
+
+    @Test
+    void testToProdutoAceitaZerosADireita() {
+        ProdutoModel produto = mapper.toProduto(new String[]{"Produto", "1.5000", "", "0", "0.00000"});
+
+        assertEquals(0, new BigDecimal("1.50").compareTo(produto.getValor()));
+        assertEquals(0L, produto.getQuantidade_estoque());
+        assertEquals(0, BigDecimal.ZERO.compareTo(produto.getPeso()));
+    }
+}
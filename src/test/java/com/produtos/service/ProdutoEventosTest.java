@@ -0,0 +1,151 @@
+package com.produtos.service;
+
+import com.produtos.controller.ProdutoController;
+import com.produtos.model.DTO.EventoProdutoDTO;
+import com.produtos.model.ProdutoModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProdutoEventosTest {
+
+    private final ProdutoEventos produtoEventos = new ProdutoEventos();
+
+    private final ThreadPoolTaskExecutor eventosExecutor = new ThreadPoolTaskExecutor();
+
+    ProdutoEventosTest() {
+        produtoEventos.tamanhoBuffer = 4;
+        produtoEventos.heartbeat = Duration.ofMillis(50);
+        produtoEventos.iniciar();
+        eventosExecutor.setCorePoolSize(1);
+        eventosExecutor.setMaxPoolSize(1);
+        eventosExecutor.setQueueCapacity(0);
+        eventosExecutor.initialize();
+        produtoEventos.eventosExecutor = eventosExecutor;
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventosExecutor.shutdown();
+    }
+
+    private static ProdutoModel produto(String nome) {
+        return new ProdutoModel(UUID.randomUUID(), nome, new BigDecimal("10.00"), null, 1L, null);
+    }
+
+    @Test
+    void testEventosRecebemSequenciasCrescentes() throws InterruptedException {
+        long inicio = produtoEventos.getUltimaSequencia();
+        ProdutoModel criado = produto("Produto 1");
+        UUID excluido = UUID.randomUUID();
+
+        produtoEventos.criado(criado);
+        produtoEventos.atualizado(criado);
+        produtoEventos.excluido(excluido);
+
+        List<EventoProdutoDTO> eventos = produtoEventos.aguardar(inicio, 10, Duration.ZERO);
+        assertEquals(List.of(inicio + 1, inicio + 2, inicio + 3), eventos.stream().map(EventoProdutoDTO::sequencia).toList());
+        assertEquals(List.of(EventoProdutoDTO.Tipo.CREATE, EventoProdutoDTO.Tipo.UPDATE, EventoProdutoDTO.Tipo.DELETE),
+                eventos.stream().map(EventoProdutoDTO::tipo).toList());
+        assertEquals(criado.getId(), eventos.get(0).produto().id());
+        assertEquals(excluido, eventos.get(2).id());
+        assertNull(eventos.get(2).produto());
+        assertEquals(inicio + 3, produtoEventos.getUltimaSequencia());
+        assertEquals(2, produtoEventos.aguardar(inicio + 1, 10, Duration.ZERO).size());
+        assertEquals(1, produtoEventos.aguardar(inicio, 1, Duration.ZERO).size());
+    }
+
+    @Test
+    void testAguardarRetornaQuandoUmEventoEPublicado() throws Exception {
+        long inicio = produtoEventos.getUltimaSequencia();
+        CompletableFuture<List<EventoProdutoDTO>> eventos = CompletableFuture.supplyAsync(() -> {
+            try {
+                return produtoEventos.aguardar(inicio, 10, Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Thread.sleep(50);
+        produtoEventos.excluido(UUID.randomUUID());
+
+        assertEquals(1, eventos.get(5, TimeUnit.SECONDS).size());
+        assertTrue(produtoEventos.aguardar(inicio + 1, 10, Duration.ofMillis(10)).isEmpty());
+    }
+
+    @Test
+    void testPosicaoDescartadaDoBufferOuDesconhecida() throws InterruptedException {
+        long inicio = produtoEventos.getUltimaSequencia();
+        List<ProdutoModel> produtos = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            produtos.add(produto("Produto " + i));
+        }
+
+        produtoEventos.criados(produtos);
+
+        assertNull(produtoEventos.aguardar(inicio, 10, Duration.ZERO));
+        assertNull(produtoEventos.aguardar(inicio + 1, 10, Duration.ZERO));
+        assertEquals(4, produtoEventos.aguardar(inicio + 2, 10, Duration.ZERO).size());
+        assertNull(produtoEventos.aguardar(inicio + 7, 10, Duration.ZERO));
+        // Uma posição anterior a um reinício é anterior ao início do buffer
+        Thread.sleep(2);
+        ProdutoEventos reiniciado = new ProdutoEventos();
+        reiniciado.iniciar();
+        assertNull(reiniciado.aguardar(inicio + 2, 10, Duration.ZERO));
+    }
+
+    @Test
+    void testTransmissaoRetomaDoUltimoEventoEEnviaResetAoAssinanteAtrasado() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ProdutoController(null, produtoEventos)).build();
+        long inicio = produtoEventos.getUltimaSequencia();
+        ProdutoModel produto1 = produto("Produto 1");
+        ProdutoModel produto2 = produto("Produto 2");
+        produtoEventos.criados(List.of(produto1, produto2));
+
+        MvcResult resultado = mockMvc.perform(get("/api/produtos/changes").header("Last-Event-ID", inicio + 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        long limite = System.currentTimeMillis() + 5000;
+        while (!resultado.getResponse().getContentAsString().contains(produto2.getId().toString())
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        // Sobrescreve o buffer antes que o assinante leia os novos eventos
+        List<ProdutoModel> produtos = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            produtos.add(produto("Produto " + i));
+        }
+        produtoEventos.criados(produtos);
+        mockMvc.perform(asyncDispatch(resultado)).andExpect(status().isOk());
+
+        String conteudo = resultado.getResponse().getContentAsString();
+        assertFalse(conteudo.contains(produto1.getId().toString()));
+        assertTrue(conteudo.contains("id:" + (inicio + 2) + "\nevent:CREATE\ndata:{\"sequencia\":" + (inicio + 2)));
+        assertTrue(conteudo.contains("id:" + (inicio + 8) + "\nevent:RESET\n"));
+    }
+
+    @Test
+    void testAssinantesAlemDoLimiteSaoRecusados() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ProdutoController(null, produtoEventos)).build();
+
+        mockMvc.perform(get("/api/produtos/changes")).andExpect(request().asyncStarted());
+        mockMvc.perform(get("/api/produtos/changes")).andExpect(status().isServiceUnavailable());
+    }
+}
@@ -0,0 +1,297 @@
+package com.produtos.service;
+
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.model.DTO.FiltroBuscaDTO;
+import com.produtos.model.ProdutoModel;
+import com.produtos.repository.ArmazenamentoProdutos;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProdutoSearchIndexTest {
+
+    @Mock
+    private ArmazenamentoProdutos armazenamentoProdutos;
+
+    @InjectMocks
+    private ProdutoSearchIndex produtoSearchIndex;
+
+    private final ProdutoModel cafe = produto("Café Especial", "Grãos torrados", "35.90", 10L);
+    private final ProdutoModel cafeteira = produto("Cafeteira Elétrica", "Prepara café coado", "199.00", 3L);
+    private final ProdutoModel caneca = produto("Caneca", "Caneca de porcelana para café", "25.00", 0L);
+    private final ProdutoModel cha = produto("Chá Verde", "Folhas desidratadas", "12.50", 40L);
+
+    public ProdutoSearchIndexTest() {
+        MockitoAnnotations.openMocks(this);
+        when(armazenamentoProdutos.percorrerOrdenados()).thenReturn(Stream.of(cafe, cafeteira, caneca, cha));
+        produtoSearchIndex.reconstruir();
+    }
+
+    @Test
+    void testReconstruirIndexaTodosOsProdutos() {
+        assertEquals(4, produtoSearchIndex.tamanho());
+    }
+
+    @Test
+    void testBuscaPorPrefixoIgnoraAcentosEMaiusculas() {
+        List<UUID> ids = buscar(new FiltroBuscaDTO("CAFE", null, null, null, null, null));
+
+        assertEquals(List.of(cafe.getId(), cafeteira.getId()), ids);
+    }
+
+    @Test
+    void testBuscaPorTextoOrdenaPorRelevancia() {
+        List<UUID> ids = buscar(new FiltroBuscaDTO(null, "café", null, null, null, null));
+
+        assertEquals(List.of(cafe.getId(), cafeteira.getId(), caneca.getId()), ids);
+    }
+
+    @Test
+    void testBuscaPorTextoCurto() {
+        List<UUID> ids = buscar(new FiltroBuscaDTO(null, "ch", null, null, null, null));
+
+        assertEquals(List.of(cha.getId()), ids);
+    }
+
+    @Test
+    void testBuscaPorFaixaDeValorEEstoque() {
+        List<UUID> ids = buscar(new FiltroBuscaDTO(null, null, new BigDecimal("20"), new BigDecimal("100"), 1L, null));
+
+        assertEquals(List.of(cafe.getId()), ids);
+    }
+
+    @Test
+    void testPaginacao() {
+        FiltroBuscaDTO filtro = new FiltroBuscaDTO(null, "caf", null, null, null, null);
+
+        ProdutoSearchIndex.ResultadoBusca pagina = produtoSearchIndex.buscar(filtro, 1, 2);
+
+        assertEquals(3, pagina.total());
+        assertEquals(1, pagina.produtos().size());
+        assertEquals(caneca.getId(), pagina.produtos().get(0).getId());
+    }
+
+    @Test
+    void testIndexarSubstituiVersaoAnterior() {
+        ProdutoModel atualizado = new ProdutoModel(cha.getId(), "Mate", new BigDecimal("9.90"), "Erva mate", 5L, BigDecimal.ONE);
+
+        produtoSearchIndex.indexar(atualizado);
+
+        assertTrue(buscar(new FiltroBuscaDTO("cha", null, null, null, null, null)).isEmpty());
+        assertEquals(List.of(cha.getId()), buscar(new FiltroBuscaDTO(null, "mate", null, null, null, null)));
+    }
+
+    @Test
+    void testRemover() {
+        produtoSearchIndex.remover(cafe.getId());
+
+        assertEquals(List.of(cafeteira.getId()), buscar(new FiltroBuscaDTO("cafe", null, null, null, null, null)));
+        assertEquals(3, produtoSearchIndex.tamanho());
+    }
+
+    @Test
+    void testBuscaPorTextoCurtoEncontraNomesCurtos() {
+        ProdutoModel curto = produto("Ch", null, "1.00", 1L);
+        produtoSearchIndex.indexar(curto);
+
+        assertEquals(List.of(curto.getId(), cha.getId()), buscar(new FiltroBuscaDTO(null, "ch", null, null, null, null)));
+        assertEquals(List.of(curto.getId()), buscar(new FiltroBuscaDTO(null, "h", null, null, 1L, 1L)));
+    }
+
+    @Test
+    void testIndexarAtualizaFaixasDeValorEEstoque() {
+        produtoSearchIndex.indexar(new ProdutoModel(cha.getId(), "Chá Verde", new BigDecimal("500.0"), null, null, null));
+
+        assertEquals(List.of(cha.getId()), buscar(new FiltroBuscaDTO(null, null, new BigDecimal("500.00"), null, null, null)));
+        assertTrue(buscar(new FiltroBuscaDTO(null, null, new BigDecimal("12.5"), new BigDecimal("12.5"), null, null)).isEmpty());
+        assertTrue(buscar(new FiltroBuscaDTO(null, null, null, null, 40L, null)).isEmpty());
+        assertTrue(buscar(new FiltroBuscaDTO(null, null, new BigDecimal("100"), new BigDecimal("20"), null, null)).isEmpty());
+    }
+
+    /**
+     * Compara a busca pelos índices com uma busca que percorre e ordena todos os produtos, com produtos e filtros
+     * aleatórios, incluindo atualizações e remoções.
+     */
+    @Test
+    void testBuscaEquivaleAPercorrerTodosOsProdutos() {
+        Random random = new Random(7);
+        Map<UUID, ProdutoModel> produtos = new HashMap<>();
+        for (ProdutoModel produto : List.of(cafe, cafeteira, caneca, cha)) {
+            produtos.put(produto.getId(), produto);
+        }
+        List<UUID> ids = new ArrayList<>(produtos.keySet());
+        for (int i = 0; i < 3000; i++) {
+            UUID id = i % 3 == 0 && !ids.isEmpty() ? ids.get(random.nextInt(ids.size())) : UUID.randomUUID();
+            if (i % 10 == 0) {
+                produtoSearchIndex.remover(id);
+                produtos.remove(id);
+                continue;
+            }
+            ProdutoModel produto = new ProdutoModel(id, textoAleatorio(random), random.nextInt(5) == 0 ? null
+                    : new BigDecimal(random.nextInt(50)).movePointLeft(random.nextInt(3)), textoAleatorio(random),
+                    random.nextInt(5) == 0 ? null : (long) random.nextInt(20), null);
+            produtoSearchIndex.indexar(produto);
+            produtos.put(id, produto);
+            ids.add(id);
+        }
+        assertEquals(produtos.size(), produtoSearchIndex.tamanho());
+
+        for (int i = 0; i < 500; i++) {
+            BigDecimal valorMin = random.nextInt(3) == 0 ? new BigDecimal(random.nextInt(50)).movePointLeft(1) : null;
+            BigDecimal valorMax = random.nextInt(3) == 0 ? new BigDecimal(random.nextInt(50)).movePointLeft(1) : null;
+            Long estoqueMin = random.nextInt(3) == 0 ? (long) random.nextInt(20) : null;
+            Long estoqueMax = random.nextInt(3) == 0 ? (long) random.nextInt(20) : null;
+            String prefixo = random.nextInt(3) == 0 ? textoAleatorio(random) : null;
+            String texto = random.nextInt(2) == 0 ? textoAleatorio(random) : null;
+            FiltroBuscaDTO filtro = new FiltroBuscaDTO(prefixo, texto, valorMin, valorMax, estoqueMin, estoqueMax);
+            int pagina = random.nextInt(4);
+            int tamanho = 1 + random.nextInt(30);
+
+            ProdutoSearchIndex.ResultadoBusca resultado = produtoSearchIndex.buscar(filtro, pagina, tamanho);
+
+            List<ProdutoModel> esperados = percorrer(produtos.values(), filtro);
+            assertEquals(esperados.size(), resultado.total(), filtro.toString());
+            List<UUID> esperadosNaPagina = esperados.stream().skip((long) pagina * tamanho).limit(tamanho)
+                    .map(ProdutoModel::getId).toList();
+            assertEquals(esperadosNaPagina, resultado.produtos().stream().map(ProdutoModel::getId).toList(), filtro.toString());
+        }
+    }
+
+    private static String textoAleatorio(Random random) {
+        String[] partes = {"a", "b", "ab", "Ã", "c", " "};
+        StringBuilder texto = new StringBuilder();
+        for (int i = random.nextInt(6); i > 0; i--) {
+            texto.append(partes[random.nextInt(partes.length)]);
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Busca percorrendo todos os produtos, com os critérios e a ordenação documentados em
+     * {@link ProdutoSearchIndex#buscar}.
+     */
+    private static List<ProdutoModel> percorrer(Collection<ProdutoModel> produtos, FiltroBuscaDTO filtro) {
+        String prefixo = filtro.prefixo() == null || filtro.prefixo().isBlank() ? null
+                : ProdutoSearchIndex.normalizar(filtro.prefixo());
+        String texto = filtro.texto() == null || filtro.texto().isBlank() ? null
+                : ProdutoSearchIndex.normalizar(filtro.texto());
+        Map<UUID, Integer> pontuacoes = new HashMap<>();
+        List<ProdutoModel> encontrados = new ArrayList<>();
+        for (ProdutoModel produto : produtos) {
+            String nome = ProdutoSearchIndex.normalizar(produto.getNome());
+            String descricao = ProdutoSearchIndex.normalizar(produto.getDescricao());
+            if ((prefixo != null && !nome.startsWith(prefixo))
+                    || (texto != null && !nome.contains(texto) && !descricao.contains(texto))
+                    || (filtro.valorMin() != null && (produto.getValor() == null || produto.getValor().compareTo(filtro.valorMin()) < 0))
+                    || (filtro.valorMax() != null && (produto.getValor() == null || produto.getValor().compareTo(filtro.valorMax()) > 0))
+                    || (filtro.estoqueMin() != null && (produto.getQuantidade_estoque() == null || produto.getQuantidade_estoque() < filtro.estoqueMin()))
+                    || (filtro.estoqueMax() != null && (produto.getQuantidade_estoque() == null || produto.getQuantidade_estoque() > filtro.estoqueMax()))) {
+                continue;
+            }
+            int pontuacao = texto == null ? 0 : nome.equals(texto) ? 4 : nome.startsWith(texto) ? 3 : nome.contains(texto) ? 2 : 1;
+            pontuacoes.put(produto.getId(), pontuacao);
+            encontrados.add(produto);
+        }
+        return encontrados.stream()
+                .sorted(Comparator.<ProdutoModel>comparingInt(produto -> pontuacoes.get(produto.getId())).reversed()
+                        .thenComparing(produto -> ProdutoSearchIndex.normalizar(produto.getNome()))
+                        .thenComparing(ProdutoModel::getId))
+                .toList();
+    }
+
+    @Test
+    void testEstatisticasDosProdutosIndexados() {
+        // 35,90 x 10 + 199,00 x 3 + 12,50 x 40; a caneca está sem estoque
+        assertEstatisticas(4, 1, 53, "1456.00", "53");
+
+        produtoSearchIndex.indexar(new ProdutoModel(cha.getId(), "Chá Verde", new BigDecimal("10.00"), null, 4L, null));
+        assertEstatisticas(4, 1, 17, "996.00", "13");
+
+        produtoSearchIndex.indexar(List.of(new ProdutoModel(caneca.getId(), "Caneca", null, null, 2L, BigDecimal.ONE),
+                new ProdutoModel(UUID.randomUUID(), "Chaleira", new BigDecimal("80.00"), null, null, null)));
+        assertEstatisticas(5, 1, 19, "996.00", "15");
+
+        produtoSearchIndex.remover(cafe.getId());
+        produtoSearchIndex.remover(UUID.randomUUID());
+        assertEstatisticas(4, 1, 9, "637.00", "5");
+    }
+
+    @Test
+    void testReconstruirRecalculaEstatisticas() {
+        produtoSearchIndex.remover(cafe.getId());
+        when(armazenamentoProdutos.percorrerOrdenados()).thenReturn(Stream.of(cafe));
+
+        produtoSearchIndex.reconstruir();
+
+        assertEstatisticas(1, 0, 10, "359.00", "10");
+    }
+
+    @Test
+    void testInstantaneoEstatisticasMudaDeVersaoACadaEscrita() {
+        ProdutoSearchIndex.InstantaneoEstatisticas antes = produtoSearchIndex.getInstantaneoEstatisticas();
+        assertEquals(antes, produtoSearchIndex.getInstantaneoEstatisticas());
+
+        produtoSearchIndex.remover(cafe.getId());
+
+        ProdutoSearchIndex.InstantaneoEstatisticas depois = produtoSearchIndex.getInstantaneoEstatisticas();
+        assertEquals(antes.versao() + 1, depois.versao());
+        assertSame(produtoSearchIndex.getEstatisticas(), depois.estatisticas());
+    }
+
+    @Test
+    void testReconstruirReaplicaEscritasFeitasDuranteALeitura() throws Exception {
+        ProdutoModel chaleira = produto("Chaleira", "Chaleira de inox", "80.00", 5L);
+        ProdutoModel cafeAlterado = new ProdutoModel(cafe.getId(), "Café Tradicional", new BigDecimal("20.00"),
+                "Grãos moídos", 2L, BigDecimal.ONE);
+        when(armazenamentoProdutos.percorrerOrdenados()).thenReturn(Stream.of(cafe, cafeteira, caneca, cha)
+                .peek(produto -> {
+                    if (produto == caneca) {
+                        // Escritas de outra thread no meio da leitura, que não aguardam a reconstrução
+                        Thread escrita = new Thread(() -> {
+                            produtoSearchIndex.indexar(List.of(chaleira, cafeAlterado));
+                            produtoSearchIndex.remover(cafeteira.getId());
+                        });
+                        escrita.start();
+                        try {
+                            escrita.join(5000);
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        assertFalse(escrita.isAlive());
+                        // As buscas continuam nos índices atuais, que já recebem as escritas
+                        assertEquals(4, produtoSearchIndex.tamanho());
+                    }
+                }));
+
+        produtoSearchIndex.reconstruir();
+
+        assertEquals(4, produtoSearchIndex.tamanho());
+        assertEquals(List.of(cafe.getId()), buscar(new FiltroBuscaDTO("cafe", null, null, null, null, null)));
+        assertEquals(List.of(chaleira.getId()), buscar(new FiltroBuscaDTO("chal", null, null, null, null, null)));
+        assertEquals(List.of(), buscar(new FiltroBuscaDTO(null, "especial", null, null, null, null)));
+        assertEstatisticas(4, 1, 47, "940.00", "47");
+    }
+
+    private void assertEstatisticas(long produtos, long produtosSemEstoque, long quantidadeEstoque, String valorEstoque,
+                                    String pesoEstoque) {
+        EstatisticasProdutosDTO estatisticas = produtoSearchIndex.getEstatisticas();
+        assertTrue(new EstatisticasProdutosDTO(produtos, produtosSemEstoque, quantidadeEstoque,
+                new BigDecimal(valorEstoque), new BigDecimal(pesoEstoque)).equivale(estatisticas), estatisticas.toString());
+    }
+
+    private List<UUID> buscar(FiltroBuscaDTO filtro) {
+        return produtoSearchIndex.buscar(filtro, 0, 10).produtos().stream().map(ProdutoModel::getId).toList();
+    }
+
+    private static ProdutoModel produto(String nome, String descricao, String valor, Long estoque) {
+        return new ProdutoModel(UUID.randomUUID(), nome, new BigDecimal(valor), descricao, estoque, BigDecimal.ONE);
+    }
+}
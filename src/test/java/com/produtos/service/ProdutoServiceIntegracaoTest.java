@@ -0,0 +1,168 @@
+package com.produtos.service;
+
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.model.DTO.PaginaProdutosDTO;
+import com.produtos.model.DTO.ProdutoModelDTO;
+import com.produtos.model.DTO.ProdutoPatchDTO;
+import com.produtos.model.ProdutoModel;
+import com.produtos.repository.ArmazenamentoProdutos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do {@link ProdutoService} com um armazenamento real, executados para cada implementação de
+ * {@link com.produtos.repository.ArmazenamentoProdutos} pelas subclasses.
+ */
+abstract class ProdutoServiceIntegracaoTest {
+
+    @Autowired
+    ProdutoService produtoService;
+
+    @Autowired
+    ArmazenamentoProdutos armazenamentoProdutos;
+
+    /**
+     * Prefixo dos nomes dos produtos criados pelo teste, já que o banco de dados é compartilhado entre os testes.
+     */
+    private final String prefixo = UUID.randomUUID() + " ";
+
+    private ProdutoModel criar(String nome, String valor, long estoque) {
+        return produtoService.createProduto(new ProdutoModelDTO(prefixo + nome, new BigDecimal(valor), "Descricao",
+                estoque, new BigDecimal("1.500")));
+    }
+
+    @Test
+    void testCriarObterAtualizarEExcluir() {
+        ProdutoModel produto = criar("Produto 1", "10.00", 5);
+
+        ProdutoModel obtido = produtoService.getProduto(produto.getId(), false);
+        assertEquals(prefixo + "Produto 1", obtido.getNome());
+        assertEquals(0, new BigDecimal("10.00").compareTo(obtido.getValor()));
+
+        assertNotNull(produtoService.updateProduto(produto.getId(), new ProdutoModelDTO(prefixo + "Produto 1b",
+                new BigDecimal("20.00"), null, 1L, null)));
+        obtido = produtoService.getProduto(produto.getId(), false);
+        assertEquals(prefixo + "Produto 1b", obtido.getNome());
+        assertNull(obtido.getDescricao());
+
+        ProdutoModel alterado = produtoService.patchProduto(produto.getId(),
+                new ProdutoPatchDTO(null, null, "Nova descricao", null, null));
+        assertEquals(prefixo + "Produto 1b", alterado.getNome());
+        assertEquals("Nova descricao", alterado.getDescricao());
+
+        assertTrue(produtoService.deleteProduto(produto.getId()));
+        assertFalse(produtoService.deleteProduto(produto.getId()));
+        assertNull(produtoService.getProduto(produto.getId(), false));
+        assertNull(produtoService.updateProduto(produto.getId(), new ProdutoModelDTO("X", null, null, null, null)));
+        assertNull(produtoService.patchProduto(produto.getId(), new ProdutoPatchDTO("X", null, null, null, null)));
+    }
+
+    @Test
+    void testAjustarEstoque() {
+        ProdutoModel produto = criar("Produto 1", "10.00", 5);
+
+        assertEquals(8L, produtoService.ajustarEstoque(produto.getId(), 3).getQuantidade_estoque());
+        assertThrows(IllegalStateException.class, () -> produtoService.ajustarEstoque(produto.getId(), -9));
+        assertEquals(8L, produtoService.getProduto(produto.getId(), false).getQuantidade_estoque());
+        assertNull(produtoService.ajustarEstoque(UUID.randomUUID(), 1));
+    }
+
+    @Test
+    void testListagemPercorreTodosOsProdutosEmOrdem() {
+        List<UUID> criados = new ArrayList<>();
+        for (String nome : List.of("C", "A", "B", "A")) {
+            criados.add(criar(nome, "1.00", 1).getId());
+        }
+
+        List<ProdutoModel> listados = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaProdutosDTO pagina = produtoService.getProdutos(cursor, 2, false);
+            listados.addAll(pagina.produtos());
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+
+        List<UUID> ordenados = listados.stream().map(ProdutoModel::getId).filter(criados::contains).toList();
+        assertEquals(List.of(criados.get(1), criados.get(3), criados.get(2), criados.get(0)), ordenados);
+        assertEquals(listados.size(), listados.stream().map(ProdutoModel::getId).distinct().count());
+    }
+
+    @Test
+    void testExportarCsv() throws Exception {
+        ProdutoModel produto = criar("Produto exportado", "10.00", 5);
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        produtoService.escreverProdutosCsv(saida);
+
+        assertTrue(saida.toString(StandardCharsets.UTF_8).contains(produto.getNome()));
+    }
+
+    @Test
+    void testImportacaoComUpsertIgnoraArquivoRepetido() throws Exception {
+        String csv = "nome,valor,quantidade_estoque\n" + prefixo + "Produto 1,10.00,1\n" + prefixo + "Produto 2,20.00,2\n";
+
+        ImportacaoCsv primeira = produtoService.processarArquivoCSVUpsert(arquivo(csv));
+        assertEquals(ImportacaoCsv.Status.CONCLUIDA, primeira.getStatus());
+        assertEquals(2, primeira.getLinhasInseridas());
+
+        ImportacaoCsv repetida = produtoService.processarArquivoCSVUpsert(arquivo(csv));
+        assertEquals(ImportacaoCsv.Status.IGNORADA, repetida.getStatus());
+
+        ImportacaoCsv alterada = produtoService.processarArquivoCSVUpsert(arquivo(csv.replace("20.00", "25.00")
+                + prefixo + "Produto 3,30.00,3\n"));
+        assertEquals(ImportacaoCsv.Status.CONCLUIDA, alterada.getStatus());
+        assertEquals(1, alterada.getLinhasInseridas());
+        assertEquals(1, alterada.getLinhasAtualizadas());
+        assertEquals(1, alterada.getLinhasInalteradas());
+    }
+
+    @Test
+    void testEstatisticasAcompanhamAsAlteracoes() throws Exception {
+        EstatisticasProdutosDTO antes = produtoService.getEstatisticas();
+        assertTrue(antes.equivale(armazenamentoProdutos.calcularEstatisticas()));
+
+        ProdutoModel produto = criar("Produto 1", "10.00", 5);
+        assertEstatisticas(antes, 1, 0, 5, "50.00", "7.500");
+
+        produtoService.updateProduto(produto.getId(), new ProdutoModelDTO(prefixo + "Produto 1", new BigDecimal("20.00"),
+                null, 2L, new BigDecimal("1.500")));
+        assertEstatisticas(antes, 1, 0, 2, "40.00", "3.000");
+
+        produtoService.ajustarEstoque(produto.getId(), -2);
+        assertEstatisticas(antes, 1, 1, 0, "0", "0");
+
+        produtoService.processarArquivoCSVUpsert(arquivo("nome,valor,quantidade_estoque,peso\n"
+                + prefixo + "Produto 1,20.00,3,1.500\n" + prefixo + "Produto 2,5.00,4,\n"));
+        assertEstatisticas(antes, 2, 0, 7, "80.00", "4.500");
+
+        produtoService.deleteProduto(produto.getId());
+        assertEstatisticas(antes, 1, 0, 4, "20.00", "0");
+    }
+
+    /**
+     * Verifica a variação das estatísticas mantidas pelo serviço e das calculadas a partir do armazenamento.
+     */
+    private void assertEstatisticas(EstatisticasProdutosDTO antes, long produtos, long produtosSemEstoque,
+                                    long quantidadeEstoque, String valorEstoque, String pesoEstoque) {
+        EstatisticasProdutosDTO esperadas = new EstatisticasProdutosDTO(antes.produtos() + produtos,
+                antes.produtosSemEstoque() + produtosSemEstoque, antes.quantidadeEstoque() + quantidadeEstoque,
+                antes.valorEstoque().add(new BigDecimal(valorEstoque)), antes.pesoEstoque().add(new BigDecimal(pesoEstoque)));
+        assertTrue(esperadas.equivale(produtoService.getEstatisticas()), "Mantidas: " + produtoService.getEstatisticas());
+        assertTrue(esperadas.equivale(armazenamentoProdutos.calcularEstatisticas()),
+                "Armazenadas: " + armazenamentoProdutos.calcularEstatisticas());
+    }
+
+    private static MockMultipartFile arquivo(String conteudo) {
+        return new MockMultipartFile("file", "produtos.csv", "text/csv", conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,7 @@
+package com.produtos.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ProdutoServiceJpaIntegracaoTest extends ProdutoServiceIntegracaoTest {
+}
@@ -0,0 +1,24 @@
+package com.produtos.service;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+
+@SpringBootTest
+@ActiveProfiles("embarcado")
+@DirtiesContext
+class ProdutoServiceLogIntegracaoTest extends ProdutoServiceIntegracaoTest {
+
+    @TempDir
+    static Path diretorio;
+
+    @DynamicPropertySource
+    static void propriedades(DynamicPropertyRegistry registry) {
+        registry.add("produtos.armazenamento.log.diretorio", diretorio::toString);
+    }
+}
@@ -1,17 +1,37 @@
 package com.produtos.service;
 
+import com.produtos.controller.ProdutoLinks;
+import com.produtos.model.ArquivoImportadoModel;
+import com.produtos.model.DTO.PaginaProdutosDTO;
 import com.produtos.model.DTO.ProdutoModelDTO;
+import com.produtos.model.DTO.ProdutoPatchDTO;
 import com.produtos.model.ProdutoModel;
-import com.produtos.repository.ProdutosRepository;
+import com.produtos.repository.ArmazenamentoProdutos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.mockito.Spy;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -19,7 +39,37 @@ import static org.mockito.Mockito.*;
 class ProdutoServiceTest {
 
     @Mock
-    private ProdutosRepository produtosRepository;
+    private ArmazenamentoProdutos armazenamentoProdutos;
+
+    @Mock
+    private ProdutoCopyImporter produtoCopyImporter;
+
+    @Mock
+    private ProdutoSearchIndex produtoSearchIndex;
+
+    @Mock
+    private ProdutoEventos produtoEventos;
+
+    @Mock
+    private AcumuladorEstoque acumuladorEstoque;
+
+    @Mock
+    private LeitorCsvParalelo leitorCsvParalelo;
+
+    @Mock
+    private ProdutoUpsertImporter produtoUpsertImporter;
+
+    @Mock
+    private AdmissaoImportacoes admissaoImportacoes;
+
+    @Spy
+    private ProdutoCache produtoCache = new ProdutoCache(1000, Duration.ofMinutes(5));
+
+    @Spy
+    private ProdutoLinks produtoLinks = new ProdutoLinks();
+
+    @Spy
+    private ImportacaoMetricas importacaoMetricas = new ImportacaoMetricas(new SimpleMeterRegistry());
 
     @InjectMocks
     private ProdutoService produtoService;
@@ -34,29 +84,29 @@ class ProdutoServiceTest {
         ProdutoModel produtoModel = new ProdutoModel();
         produtoModel.setId(id);
         produtoModel.setNome("Produto 1");
-        produtoModel.setValor("10.0");
+        produtoModel.setValor(new BigDecimal("10.0"));
 
-        when(produtosRepository.findById(id)).thenReturn(Optional.of(produtoModel));
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.of(produtoModel));
         
         ProdutoModel result = produtoService.getProduto(id);
 
         assertNotNull(result);
         assertEquals(id, result.getId());
         assertEquals("Produto 1", result.getNome());
-        assertEquals("10.0", result.getValor());
+        assertEquals(new BigDecimal("10.0"), result.getValor());
 
-        verify(produtosRepository).findById(id);
+        verify(armazenamentoProdutos).buscarPorId(id);
     }
 
     @Test
     void testGetProdutoNotExists() {
         UUID id = UUID.randomUUID();
-        when(produtosRepository.findById(id)).thenReturn(Optional.empty());
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.empty());
 
         ProdutoModel result = produtoService.getProduto(id);
         assertNull(result);
 
-        verify(produtosRepository).findById(id);
+        verify(armazenamentoProdutos).buscarPorId(id);
     }
 
     @Test
@@ -68,34 +118,92 @@ class ProdutoServiceTest {
         ProdutoModel produto1 = new ProdutoModel();
         produto1.setId(id1);
         produto1.setNome("Produto 1");
-        produto1.setValor("10.0");
+        produto1.setValor(new BigDecimal("10.0"));
 
         ProdutoModel produto2 = new ProdutoModel();
         produto2.setId(id2);
         produto2.setNome("Produto 2");
-        produto2.setValor("20.0");
+        produto2.setValor(new BigDecimal("20.0"));
 
         listaProdutos.add(produto1);
         listaProdutos.add(produto2);
 
-        when(produtosRepository.findAll()).thenReturn(listaProdutos);
+        when(armazenamentoProdutos.buscarPrimeiraPagina(anyInt())).thenReturn(listaProdutos);
 
-        List<ProdutoModel> result = produtoService.getProdutos();
+        PaginaProdutosDTO result = produtoService.getProdutos(null, null);
 
         assertNotNull(result);
-        assertEquals(2, result.size());
+        assertEquals(2, result.produtos().size());
+        assertNull(result.proximoCursor());
 
-        ProdutoModel resultProduto1 = result.get(0);
+        ProdutoModel resultProduto1 = result.produtos().get(0);
         assertEquals(id1, resultProduto1.getId());
         assertEquals("Produto 1", resultProduto1.getNome());
-        assertEquals("10.0", resultProduto1.getValor());
+        assertEquals(new BigDecimal("10.0"), resultProduto1.getValor());
 
-        ProdutoModel resultProduto2 = result.get(1);
+        ProdutoModel resultProduto2 = result.produtos().get(1);
         assertEquals(id2, resultProduto2.getId());
         assertEquals("Produto 2", resultProduto2.getNome());
-        assertEquals("20.0", resultProduto2.getValor());
+        assertEquals(new BigDecimal("20.0"), resultProduto2.getValor());
 
-        verify(produtosRepository).findAll();
+        verify(armazenamentoProdutos).buscarPrimeiraPagina(51);
+        assertEquals("/api/produtos/" + id1, resultProduto1.getRequiredLink(IanaLinkRelations.SELF).getHref());
+        verify(produtoLinks, times(1)).base();
+    }
+
+    @Test
+    void testGetProdutosSemLinks() {
+        ProdutoModel produto = new ProdutoModel(UUID.randomUUID(), "Produto 1", new BigDecimal("10.0"), "", 1L, new BigDecimal("1"));
+        when(armazenamentoProdutos.buscarPrimeiraPagina(anyInt())).thenReturn(new ArrayList<>(List.of(produto)));
+
+        PaginaProdutosDTO result = produtoService.getProdutos(null, null, false);
+
+        assertFalse(result.produtos().get(0).hasLinks());
+        verify(produtoLinks, never()).base();
+    }
+
+    @Test
+    void testCursorRecusaProdutoSemNome() {
+        ProdutoModel produto = new ProdutoModel(UUID.randomUUID(), null, null, null, null, null);
+
+        assertThrows(NullPointerException.class, () -> CursorProduto.of(produto));
+    }
+
+    @Test
+    void testGetProdutosComProximaPagina() {
+        ProdutoModel produto1 = new ProdutoModel(UUID.randomUUID(), "Produto 1", new BigDecimal("10.0"), "", 1L, new BigDecimal("1"));
+        ProdutoModel produto2 = new ProdutoModel(UUID.randomUUID(), "Produto 2", new BigDecimal("20.0"), "", 1L, new BigDecimal("1"));
+        when(armazenamentoProdutos.buscarPrimeiraPagina(2))
+                .thenReturn(new ArrayList<>(List.of(produto1, produto2)));
+
+        PaginaProdutosDTO result = produtoService.getProdutos(null, 1);
+
+        assertEquals(1, result.produtos().size());
+        assertSame(produto1, result.produtos().get(0));
+        CursorProduto cursor = CursorProduto.decodificar(result.proximoCursor());
+        assertEquals("Produto 1", cursor.nome());
+        assertEquals(produto1.getId(), cursor.id());
+
+        when(armazenamentoProdutos.buscarPaginaApos("Produto 1", produto1.getId(), 2))
+                .thenReturn(new ArrayList<>(List.of(produto2)));
+
+        PaginaProdutosDTO proxima = produtoService.getProdutos(result.proximoCursor(), 1);
+
+        assertEquals(1, proxima.produtos().size());
+        assertSame(produto2, proxima.produtos().get(0));
+        assertNull(proxima.proximoCursor());
+    }
+
+    @Test
+    void testGetProdutosLimitaTamanhoDaPagina() {
+        produtoService.getProdutos(null, 100_000);
+
+        verify(armazenamentoProdutos).buscarPrimeiraPagina(501);
+    }
+
+    @Test
+    void testGetProdutosCursorInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> produtoService.getProdutos("###", null));
     }
 
     @Test
@@ -103,7 +211,7 @@ class ProdutoServiceTest {
 
         UUID id = UUID.randomUUID();
 
-        when(produtosRepository.existsById(id)).thenReturn(true);
+        when(armazenamentoProdutos.excluir(id)).thenReturn(1);
 
 
         boolean result = produtoService.deleteProduto(id);
@@ -111,8 +219,8 @@ class ProdutoServiceTest {
 
         assertTrue(result);
 
-        verify(produtosRepository).existsById(id);
-        verify(produtosRepository).deleteById(id);
+        verify(armazenamentoProdutos).excluir(id);
+        verify(armazenamentoProdutos, never()).existe(id);
     }
 
     @Test
@@ -120,7 +228,7 @@ class ProdutoServiceTest {
 
         UUID id = UUID.randomUUID();
 
-        when(produtosRepository.existsById(id)).thenReturn(false);
+        when(armazenamentoProdutos.excluir(id)).thenReturn(0);
 
 
         boolean result = produtoService.deleteProduto(id);
@@ -128,8 +236,8 @@ class ProdutoServiceTest {
 
         assertFalse(result);
 
-        verify(produtosRepository).existsById(id);
-        verify(produtosRepository, never()).deleteById(id);
+        verify(armazenamentoProdutos).excluir(id);
+        verify(produtoSearchIndex, never()).remover(id);
     }
 
     @Test
@@ -137,26 +245,10 @@ class ProdutoServiceTest {
 
         UUID id = UUID.randomUUID();
         ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto Atualizado",
-                "50.0", "Produto Atualizado", "10", "50");
-
-        ProdutoModel produtoExistente = new ProdutoModel();
-        produtoExistente.setId(id);
-        produtoExistente.setNome("Produto Antigo");
-        produtoExistente.setValor("20.0");
-        produtoExistente.setDescricao("Descricao do produto antigo");
-        produtoExistente.setQuantidade_estoque("2");
-        produtoExistente.setPeso("1");
+                new BigDecimal("50.0"), "Produto Atualizado", 10L, new BigDecimal("50"));
 
-        ProdutoModel produtoAtualizado = new ProdutoModel();
-        produtoAtualizado.setId(id);
-        produtoAtualizado.setNome("Produto Atualizado");
-        produtoAtualizado.setValor("50.0");
-        produtoExistente.setDescricao("Descricao do produto atualizado");
-        produtoExistente.setQuantidade_estoque("5");
-        produtoExistente.setPeso("1");
-
-        when(produtosRepository.findById(id)).thenReturn(Optional.of(produtoExistente));
-        when(produtosRepository.save(any(ProdutoModel.class))).thenReturn(produtoAtualizado);
+        when(armazenamentoProdutos.atualizar(id, "Produto Atualizado", new BigDecimal("50.0"), "Produto Atualizado",
+                10L, new BigDecimal("50"))).thenReturn(1);
 
 
         ProdutoModel result = produtoService.updateProduto(id, produtoDTO);
@@ -165,10 +257,11 @@ class ProdutoServiceTest {
         assertNotNull(result);
         assertEquals(id, result.getId());
         assertEquals("Produto Atualizado", result.getNome());
-        assertEquals("50.0", result.getValor());
+        assertEquals(new BigDecimal("50.0"), result.getValor());
+        assertEquals(10L, result.getQuantidade_estoque());
 
-        verify(produtosRepository).findById(id);
-        verify(produtosRepository).save(any(ProdutoModel.class));
+        verify(armazenamentoProdutos, never()).buscarPorId(id);
+        verify(armazenamentoProdutos, never()).salvar(any(ProdutoModel.class));
     }
 
     @Test
@@ -176,15 +269,459 @@ class ProdutoServiceTest {
 
         UUID id = UUID.randomUUID();
         ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto Update",
-                "10.0", "Update", "10", "20");
+                new BigDecimal("10.0"), "Update", 10L, new BigDecimal("20"));
 
-        when(produtosRepository.findById(id)).thenReturn(Optional.empty());
+        when(armazenamentoProdutos.atualizar(eq(id), any(), any(), any(), any(), any())).thenReturn(0);
 
         ProdutoModel result = produtoService.updateProduto(id, produtoDTO);
 
         assertNull(result);
 
-        verify(produtosRepository).findById(id);
-        verify(produtosRepository, never()).save(any(ProdutoModel.class));
+        verify(produtoCache, never()).invalidate(id);
+        verify(produtoSearchIndex, never()).indexar(any(ProdutoModel.class));
+    }
+
+    @Test
+    void testProcessarArquivoCSVRecusado() {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv", "nome\nProduto 1\n".getBytes());
+        doThrow(new ImportacaoRecusadaException("fila cheia", Duration.ofSeconds(10))).when(admissaoImportacoes).admitir();
+
+        assertThrows(ImportacaoRecusadaException.class, () -> produtoService.processarArquivoCSV(file));
+
+        verify(armazenamentoProdutos, never()).salvarTodos(any());
+        verify(admissaoImportacoes, never()).liberar();
+    }
+
+    @Test
+    void testProcessarArquivoCSVLiberaVagaAposFalha() {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv", "nome\nProduto 1\n".getBytes());
+        when(armazenamentoProdutos.salvarTodos(any())).thenThrow(new IllegalStateException("banco indisponível"));
+
+        assertThrows(IllegalStateException.class, () -> produtoService.processarArquivoCSV(file));
+
+        verify(admissaoImportacoes).admitir();
+        verify(admissaoImportacoes).liberar();
+    }
+
+    @Test
+    void testProcessarArquivoCSVLimitaLinhasPorSegundo() throws Exception {
+        StringBuilder csv = new StringBuilder("nome\n");
+        for (int i = 0; i < 30; i++) {
+            csv.append("Produto ").append(i).append('\n');
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv", csv.toString().getBytes());
+        produtoService.tamanhoLote = 10;
+        produtoService.linhasPorSegundo = 100;
+
+        long inicio = System.nanoTime();
+        produtoService.processarArquivoCSV(file);
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // O primeiro lote é gravado imediatamente, e cada um dos seguintes 100 ms depois do anterior
+        verify(armazenamentoProdutos, times(3)).salvarTodos(any());
+        assertTrue(duracaoMs >= 190, "Importação concluída em " + duracaoMs + " ms");
+    }
+
+    @Test
+    void testProcessarArquivoCSVPersisteEmLotes() throws Exception {
+        StringBuilder csv = new StringBuilder("nome,valor,descricao,quantidade_estoque,peso\n");
+        for (int i = 0; i < 5; i++) {
+            csv.append("Produto ").append(i).append(",10.0,Descricao,3,1\n");
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv", csv.toString().getBytes());
+        produtoService.tamanhoLote = 2;
+
+        produtoService.processarArquivoCSV(file);
+
+        ArgumentCaptor<List<ProdutoModel>> captor = ArgumentCaptor.forClass(List.class);
+        verify(armazenamentoProdutos, times(3)).salvarTodos(captor.capture());
+        List<List<ProdutoModel>> lotes = captor.getAllValues();
+        assertEquals(2, lotes.get(0).size());
+        assertEquals(2, lotes.get(1).size());
+        assertEquals(1, lotes.get(2).size());
+
+        ProdutoModel primeiro = lotes.get(0).get(0);
+        assertEquals("Produto 0", primeiro.getNome());
+        assertEquals(new BigDecimal("10.0"), primeiro.getValor());
+        assertEquals("Descricao", primeiro.getDescricao());
+        assertEquals(3L, primeiro.getQuantidade_estoque());
+        assertEquals(new BigDecimal("1"), primeiro.getPeso());
+        verify(importacaoMetricas, times(5)).linhaLida();
+        verify(importacaoMetricas).finalizar(any(ImportacaoCsv.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testProcessarArquivoCSVGrandeLidoEmParalelo() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome,valor\nProduto 1,10.0\nProduto 2,abc\n".getBytes());
+        produtoService.tamanhoMinimoParalelo = DataSize.ofBytes(file.getSize());
+        List<ProdutoModel> lote = List.of(new ProdutoModel(null, "Produto 1", new BigDecimal("10.0"), null, null, null));
+        doAnswer(invocation -> {
+            assertTrue(Files.exists(invocation.<Path>getArgument(0)));
+            invocation.<Consumer<LeitorCsvParalelo.LoteCsv>>getArgument(3).accept(new LeitorCsvParalelo.LoteCsv(lote, 2, 1));
+            return null;
+        }).when(leitorCsvParalelo).ler(any(Path.class), eq(produtoService.tamanhoLote), any(ImportacaoCsv.class), any(Consumer.class));
+
+        produtoService.processarArquivoCSV(file);
+
+        ArgumentCaptor<Path> arquivo = ArgumentCaptor.forClass(Path.class);
+        verify(leitorCsvParalelo).ler(arquivo.capture(), anyInt(), any(ImportacaoCsv.class), any(Consumer.class));
+        assertFalse(Files.exists(arquivo.getValue()));
+        verify(armazenamentoProdutos).salvarTodos(lote);
+        verify(produtoSearchIndex).indexar(lote);
+        verify(importacaoMetricas).linhasLidas(2);
+        verify(importacaoMetricas).linhasRejeitadas(1);
+        verify(importacaoMetricas).linhasGravadas(1);
+    }
+
+    @Test
+    void testProcessarArquivoCSVUpsert() throws Exception {
+        byte[] conteudo = "nome,valor\nProduto 1,10.0\nProduto 2,20.0\nProduto 3,30.0\n".getBytes();
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv", conteudo);
+        ProdutoModel inserido = new ProdutoModel(UUID.randomUUID(), "Produto 1", new BigDecimal("10.0"), null, null, null);
+        ProdutoModel atualizado = new ProdutoModel(UUID.randomUUID(), "Produto 2", new BigDecimal("20.0"), null, null, null);
+        produtoCache.put(atualizado);
+        when(produtoUpsertImporter.gravar(anyList())).thenReturn(
+                new ProdutoUpsertImporter.ResultadoUpsert(List.of(inserido, atualizado), 1, 1, 1, 0));
+
+        ImportacaoCsv importacao = produtoService.processarArquivoCSVUpsert(file);
+
+        assertEquals(ImportacaoCsv.Status.CONCLUIDA, importacao.getStatus());
+        assertEquals(3, importacao.getLinhasLidas());
+        assertEquals(1, importacao.getLinhasInseridas());
+        assertEquals(1, importacao.getLinhasAtualizadas());
+        assertEquals(1, importacao.getLinhasInalteradas());
+        assertEquals(2, importacao.getLinhasGravadas());
+        verify(armazenamentoProdutos, never()).salvarTodos(any());
+        verify(produtoSearchIndex).indexar(List.of(inserido, atualizado));
+        verify(produtoCache).invalidate(atualizado.getId());
+        verify(produtoEventos).criados(List.of(inserido));
+        verify(produtoEventos).atualizados(List.of(atualizado));
+
+        ArgumentCaptor<ArquivoImportadoModel> registro = ArgumentCaptor.forClass(ArquivoImportadoModel.class);
+        verify(armazenamentoProdutos).registrarArquivoImportado(registro.capture());
+        Path arquivo = Files.createTempFile("produtos-", ".csv");
+        try {
+            Files.write(arquivo, conteudo);
+            assertEquals(ProdutoService.calcularHash(arquivo), registro.getValue().getHash());
+        } finally {
+            Files.delete(arquivo);
+        }
+        assertEquals(64, registro.getValue().getHash().length());
+        assertEquals(1, registro.getValue().getLinhasInseridas());
+    }
+
+    @Test
+    void testProcessarArquivoCSVUpsertArquivoJaImportado() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome,valor\nProduto 1,10.0\n".getBytes());
+        when(armazenamentoProdutos.buscarArquivoImportado(anyString())).thenReturn(
+                Optional.of(new ArquivoImportadoModel("hash", Instant.now(), 1, 0, 0, 0)));
+
+        ImportacaoCsv importacao = produtoService.processarArquivoCSVUpsert(file);
+
+        assertEquals(ImportacaoCsv.Status.IGNORADA, importacao.getStatus());
+        assertEquals(0, importacao.getLinhasLidas());
+        verify(produtoUpsertImporter, never()).gravar(any());
+        verify(armazenamentoProdutos, never()).registrarArquivoImportado(any());
+    }
+
+    @Test
+    void testProcessarArquivoCSVUpsertComFalhaNaoRegistraArquivo() {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome,valor\nProduto 1,abc\n".getBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> produtoService.processarArquivoCSVUpsert(file));
+
+        verify(armazenamentoProdutos, never()).registrarArquivoImportado(any());
+    }
+
+    @Test
+    void testProcessarArquivoCSVColunaDesconhecida() {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome,cor\nProduto 1,azul\n".getBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> produtoService.processarArquivoCSV(file));
+
+        verify(armazenamentoProdutos, never()).salvarTodos(any());
+    }
+
+    @Test
+    void testProcessarArquivoCSVCopyIndisponivelUsaJpa() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome,valor\nProduto 1,10.0\n".getBytes());
+        when(produtoCopyImporter.isDisponivel()).thenReturn(false);
+
+        produtoService.processarArquivoCSV(file, true);
+
+        verify(produtoCopyImporter, never()).importar(any(), anyInt(), any());
+        verify(armazenamentoProdutos).salvarTodos(any());
+    }
+
+    @Test
+    void testProcessarArquivoCSVCopyDisponivel() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome,valor\nProduto 1,10.0\n".getBytes());
+        when(produtoCopyImporter.isDisponivel()).thenReturn(true);
+
+        List<ProdutoModel> gravados = List.of(new ProdutoModel(UUID.randomUUID(), "Produto 1", new BigDecimal("10.00"), null, null, null));
+        when(produtoCopyImporter.importar(any(), anyInt(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<List<ProdutoModel>>>getArgument(2).accept(gravados);
+            return 1L;
+        });
+
+        produtoService.processarArquivoCSV(file, true);
+
+        verify(armazenamentoProdutos, never()).salvarTodos(any());
+        verify(produtoSearchIndex).indexar(gravados);
+        verify(produtoSearchIndex, never()).reconstruir();
+        verify(produtoEventos).criados(gravados);
+    }
+
+    @Test
+    void testEscreverProdutosNdjson() throws Exception {
+        ProdutoModel produto1 = new ProdutoModel(UUID.randomUUID(), "Produto 1", new BigDecimal("10.0"), "Descricao 1", 3L, new BigDecimal("1"));
+        ProdutoModel produto2 = new ProdutoModel(UUID.randomUUID(), "Produto 2", new BigDecimal("20.0"), null, 5L, new BigDecimal("2"));
+        when(armazenamentoProdutos.percorrerOrdenados()).thenReturn(Stream.of(produto1, produto2));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        produtoService.escreverProdutosNdjson(outputStream);
+
+        String[] linhas = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals("{\"id\":\"" + produto1.getId() + "\",\"nome\":\"Produto 1\",\"valor\":10.0,"
+                + "\"descricao\":\"Descricao 1\",\"quantidade_estoque\":3,\"peso\":1}", linhas[0]);
+        assertTrue(linhas[1].contains("\"descricao\":null"));
+    }
+
+    @Test
+    void testEscreverProdutosCsv() throws Exception {
+        ProdutoModel produto1 = new ProdutoModel(UUID.randomUUID(), "Produto 1", new BigDecimal("1E+1"), "Descricao 1", 3L, new BigDecimal("1.250"));
+        ProdutoModel produto2 = new ProdutoModel(UUID.randomUUID(), "Produto 2", null, "Com, virgula e \"aspas\"", null, null);
+        when(armazenamentoProdutos.percorrerOrdenados()).thenReturn(Stream.of(produto1, produto2));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        produtoService.escreverProdutosCsv(outputStream);
+
+        String[] linhas = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, linhas.length);
+        assertEquals("nome,valor,descricao,quantidade_estoque,peso", linhas[0]);
+        assertEquals("\"Produto 1\",10,\"Descricao 1\",3,1.250", linhas[1]);
+    }
+
+    @Test
+    void testEscreverProdutosCsvReimportavel() throws Exception {
+        ProdutoModel produto1 = new ProdutoModel(UUID.randomUUID(), "Produto 1", new BigDecimal("10.90"), "Linha 1\nLinha 2", 3L, new BigDecimal("1.250"));
+        ProdutoModel produto2 = new ProdutoModel(UUID.randomUUID(), "Produto 2", null, "Com, virgula e \"aspas\"", null, null);
+        ProdutoModel produto3 = new ProdutoModel(UUID.randomUUID(), "Cabo 3\\4", null, "C:\\dir \"x\\\" y", null, null);
+        List<ProdutoModel> originais = List.of(produto1, produto2, produto3);
+        when(armazenamentoProdutos.percorrerOrdenados()).thenReturn(originais.stream());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        produtoService.escreverProdutosCsv(outputStream);
+
+        produtoService.processarArquivoCSV(new MockMultipartFile("file", "produtos.csv", "text/csv",
+                outputStream.toByteArray()));
+
+        ArgumentCaptor<List<ProdutoModel>> captor = ArgumentCaptor.forClass(List.class);
+        verify(armazenamentoProdutos).salvarTodos(captor.capture());
+        List<ProdutoModel> importados = captor.getValue();
+        assertEquals(3, importados.size());
+        for (int i = 0; i < importados.size(); i++) {
+            ProdutoModel original = originais.get(i);
+            assertEquals(original.getNome(), importados.get(i).getNome());
+            assertEquals(original.getValor(), importados.get(i).getValor());
+            assertEquals(original.getDescricao(), importados.get(i).getDescricao());
+            assertEquals(original.getQuantidade_estoque(), importados.get(i).getQuantidade_estoque());
+            assertEquals(original.getPeso(), importados.get(i).getPeso());
+        }
+    }
+
+    @Test
+    void testGetProdutoUsaCache() {
+        UUID id = UUID.randomUUID();
+        ProdutoModel produtoModel = new ProdutoModel(id, "Produto 1", new BigDecimal("10.0"), "Descricao", 1L, new BigDecimal("1"));
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.of(produtoModel));
+
+        ProdutoModel primeiro = produtoService.getProduto(id);
+        ProdutoModel segundo = produtoService.getProduto(id);
+
+        assertNotSame(primeiro, segundo);
+        assertEquals(1, segundo.getLinks().stream().count());
+        verify(armazenamentoProdutos, times(1)).buscarPorId(id);
+        assertEquals(1, produtoService.getEstatisticasCache().acertos());
+        assertEquals(1, produtoService.getEstatisticasCache().falhas());
+    }
+
+    @Test
+    void testUpdateProdutoInvalidaCache() {
+        UUID id = UUID.randomUUID();
+        ProdutoModel produtoModel = new ProdutoModel(id, "Produto 1", new BigDecimal("10.0"), "Descricao", 1L, new BigDecimal("1"));
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.of(produtoModel));
+        when(armazenamentoProdutos.atualizar(eq(id), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            produtoModel.setNome(invocation.getArgument(1));
+            return 1;
+        });
+        produtoService.getProduto(id);
+
+        produtoService.updateProduto(id, new ProdutoModelDTO("Produto 2", new BigDecimal("20.0"), "Descricao", 1L, new BigDecimal("1")));
+
+        assertEquals("Produto 2", produtoService.getProduto(id).getNome());
+        verify(produtoCache).invalidate(id);
+    }
+
+    @Test
+    void testDeleteProdutoInvalidaCache() {
+        UUID id = UUID.randomUUID();
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.of(new ProdutoModel(id, "Produto 1", new BigDecimal("10.0"), "", 1L, new BigDecimal("1"))));
+        when(armazenamentoProdutos.excluir(id)).thenReturn(1);
+        produtoService.getProduto(id);
+
+        produtoService.deleteProduto(id);
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.empty());
+
+        assertNull(produtoService.getProduto(id));
+    }
+
+    @Test
+    void testProcessarArquivoCSVValorNumericoInvalido() {
+        MockMultipartFile file = new MockMultipartFile("file", "produtos.csv", "text/csv",
+                "nome,valor\nProduto 1,dez reais\n".getBytes());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> produtoService.processarArquivoCSV(file));
+
+        assertTrue(e.getMessage().contains("coluna valor"));
+        verify(armazenamentoProdutos, never()).salvarTodos(any());
+    }
+
+    @Test
+    void testEscritasAtualizamIndiceDeBusca() {
+        UUID id = UUID.randomUUID();
+        ProdutoModel produto = new ProdutoModel(id, "Produto 1", new BigDecimal("10.0"), "Descricao", 1L, new BigDecimal("1"));
+        when(armazenamentoProdutos.salvar(any(ProdutoModel.class))).thenReturn(produto);
+        when(armazenamentoProdutos.atualizar(eq(id), any(), any(), any(), any(), any())).thenReturn(1);
+        when(armazenamentoProdutos.excluir(id)).thenReturn(1);
+        ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto 1", new BigDecimal("10.0"), "Descricao", 1L, new BigDecimal("1"));
+
+        produtoService.createProduto(produtoDTO);
+        produtoService.updateProduto(id, produtoDTO);
+        produtoService.deleteProduto(id);
+
+        verify(produtoSearchIndex, times(2)).indexar(produto);
+        verify(produtoSearchIndex).remover(id);
+    }
+
+    @Test
+    void testEscritasPublicamEventos() {
+        UUID id = UUID.randomUUID();
+        ProdutoModel produto = new ProdutoModel(id, "Produto 1", new BigDecimal("10.0"), "Descricao", 1L, new BigDecimal("1"));
+        when(armazenamentoProdutos.salvar(any(ProdutoModel.class))).thenReturn(produto);
+        when(armazenamentoProdutos.atualizar(eq(id), any(), any(), any(), any(), any())).thenReturn(1);
+        when(armazenamentoProdutos.atualizarParcialmente(eq(id), any())).thenReturn(1);
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.of(produto));
+        when(armazenamentoProdutos.excluir(id)).thenReturn(1, 0);
+        ProdutoModelDTO produtoDTO = new ProdutoModelDTO("Produto 1", new BigDecimal("10.0"), "Descricao", 1L, new BigDecimal("1"));
+
+        produtoService.createProduto(produtoDTO);
+        produtoService.updateProduto(id, produtoDTO);
+        produtoService.patchProduto(id, new ProdutoPatchDTO(null, null, null, 2L, null));
+        produtoService.deleteProduto(id);
+        produtoService.deleteProduto(id);
+
+        verify(produtoEventos).criado(produto);
+        verify(produtoEventos, times(2)).atualizado(argThat(atualizado -> atualizado.getId().equals(id)));
+        verify(produtoEventos).excluido(id);
+    }
+
+    @Test
+    void testPatchProdutoAtualizaCamposInformados() {
+        UUID id = UUID.randomUUID();
+        ProdutoPatchDTO produtoDTO = new ProdutoPatchDTO(null, new BigDecimal("15.00"), null, null, null);
+        ProdutoModel produto = new ProdutoModel(id, "Produto 1", new BigDecimal("15.00"), "Descricao", 1L, new BigDecimal("1"));
+        when(armazenamentoProdutos.atualizarParcialmente(id, produtoDTO)).thenReturn(1);
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.of(produto));
+
+        ProdutoModel result = produtoService.patchProduto(id, produtoDTO);
+
+        assertSame(produto, result);
+        verify(produtoCache).invalidate(id);
+        verify(produtoSearchIndex).indexar(produto);
+        verify(armazenamentoProdutos, never()).salvar(any(ProdutoModel.class));
+    }
+
+    @Test
+    void testPatchProdutoNotExists() {
+        UUID id = UUID.randomUUID();
+        ProdutoPatchDTO produtoDTO = new ProdutoPatchDTO("Produto", null, null, null, null);
+        when(armazenamentoProdutos.atualizarParcialmente(id, produtoDTO)).thenReturn(0);
+
+        assertNull(produtoService.patchProduto(id, produtoDTO));
+        verify(armazenamentoProdutos, never()).buscarPorId(id);
+        verify(produtoCache, never()).invalidate(id);
+    }
+
+    @Test
+    void testPatchProdutoSemCampos() {
+        UUID id = UUID.randomUUID();
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.empty());
+
+        assertNull(produtoService.patchProduto(id, new ProdutoPatchDTO(null, null, null, null, null)));
+        verify(armazenamentoProdutos, never()).atualizarParcialmente(any(), any());
+    }
+
+    @Test
+    void testAjustarEstoque() {
+        UUID id = UUID.randomUUID();
+        ProdutoModel produto = new ProdutoModel(id, "Produto 1", new BigDecimal("10.0"), "Descricao", 7L, new BigDecimal("1"));
+        when(armazenamentoProdutos.ajustarEstoque(id, -3)).thenReturn(1);
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.of(produto));
+
+        ProdutoModel result = produtoService.ajustarEstoque(id, -3);
+
+        assertSame(produto, result);
+        verify(produtoCache).invalidate(id);
+        verify(produtoSearchIndex).indexar(produto);
+        verify(armazenamentoProdutos, never()).existe(id);
+    }
+
+    @Test
+    void testAjustarEstoqueInsuficiente() {
+        UUID id = UUID.randomUUID();
+        when(armazenamentoProdutos.ajustarEstoque(id, -3)).thenReturn(0);
+        when(armazenamentoProdutos.existe(id)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> produtoService.ajustarEstoque(id, -3));
+        verify(produtoCache, never()).invalidate(id);
+    }
+
+    @Test
+    void testAjustarEstoqueProdutoNotExists() {
+        UUID id = UUID.randomUUID();
+        when(armazenamentoProdutos.ajustarEstoque(id, 1)).thenReturn(0);
+        when(armazenamentoProdutos.existe(id)).thenReturn(false);
+
+        assertNull(produtoService.ajustarEstoque(id, 1));
+    }
+
+    @Test
+    void testAcumularAjusteEstoque() {
+        UUID id = UUID.randomUUID();
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.of(new ProdutoModel(id, "Produto", null, null, 3L, null)));
+
+        assertTrue(produtoService.acumularAjusteEstoque(id, -1));
+
+        verify(acumuladorEstoque).acumular(id, -1);
+        verify(armazenamentoProdutos, never()).ajustarEstoque(any(), anyLong());
+    }
+
+    @Test
+    void testAcumularAjusteEstoqueProdutoInexistente() {
+        UUID id = UUID.randomUUID();
+        when(armazenamentoProdutos.buscarPorId(id)).thenReturn(Optional.empty());
+
+        assertFalse(produtoService.acumularAjusteEstoque(id, -1));
+
+        verify(acumuladorEstoque, never()).acumular(any(), anyLong());
     }
 }
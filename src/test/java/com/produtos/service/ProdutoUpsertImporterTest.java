@@ -0,0 +1,163 @@
+package com.produtos.service;
+
+import com.produtos.model.ProdutoModel;
+import com.produtos.repository.ArmazenamentoProdutosJpa;
+import com.produtos.repository.ProdutosRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({ProdutoUpsertImporter.class, ProdutoCopyImporter.class, ArmazenamentoProdutosJpa.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProdutoUpsertImporterTest {
+
+    @Autowired
+    private ProdutoUpsertImporter produtoUpsertImporter;
+
+    @Autowired
+    private ProdutosRepository produtosRepository;
+
+    private final String prefixo = UUID.randomUUID() + " ";
+
+    private ProdutoModel produto(String nome, String valor, String peso) {
+        return new ProdutoModel(null, nome == null ? null : prefixo + nome, valor == null ? null : new BigDecimal(valor),
+                "Descricao", 1L, peso == null ? null : new BigDecimal(peso));
+    }
+
+    private ProdutoModel buscar(String nome) {
+        List<ProdutoModel> produtos = produtosRepository.buscarPorChave(List.of("nome"), List.of(List.of(prefixo + nome)));
+        assertEquals(1, produtos.size());
+        return produtos.get(0);
+    }
+
+    @Test
+    void testGravarInsereAtualizaEIgnoraInalterados() {
+        produtoUpsertImporter.gravar(List.of(produto("Produto 1", "10.00", null), produto("Produto 2", "20.00", null)));
+        ProdutoModel original = buscar("Produto 1");
+
+        ProdutoUpsertImporter.ResultadoUpsert resultado = produtoUpsertImporter.gravar(List.of(
+                produto("Produto 1", "10.0", null),
+                produto("Produto 2", "25.00", null),
+                produto("Produto 3", "30.00", null)));
+
+        assertEquals(1, resultado.inseridos());
+        assertEquals(1, resultado.atualizados());
+        assertEquals(1, resultado.inalterados());
+        assertEquals(0, resultado.rejeitados());
+        assertEquals(List.of(prefixo + "Produto 3", prefixo + "Produto 2"),
+                resultado.gravados().stream().map(ProdutoModel::getNome).toList());
+        resultado.gravados().forEach(produto -> assertNotNull(produto.getId()));
+        assertEquals(original.getId(), buscar("Produto 1").getId());
+        assertEquals(0, new BigDecimal("25").compareTo(buscar("Produto 2").getValor()));
+        assertEquals(resultado.gravados().get(1).getId(), buscar("Produto 2").getId());
+    }
+
+    @Test
+    void testGravarChaveRepetidaNoLotePrevaleceUltimaLinha() {
+        ProdutoUpsertImporter.ResultadoUpsert resultado = produtoUpsertImporter.gravar(List.of(
+                produto("Produto 1", "10.00", null),
+                produto("Produto 1", "10.00", null),
+                produto("Produto 1", "12.00", null)));
+
+        assertEquals(1, resultado.inseridos());
+        assertEquals(1, resultado.atualizados());
+        assertEquals(1, resultado.inalterados());
+        assertEquals(0, new BigDecimal("12").compareTo(buscar("Produto 1").getValor()));
+    }
+
+    @Test
+    void testGravarRejeitaLinhasSemChave() {
+        ProdutoUpsertImporter.ResultadoUpsert resultado = produtoUpsertImporter.gravar(List.of(
+                produto(null, "10.00", null),
+                produto("Produto 1", "10.00", null)));
+
+        assertEquals(1, resultado.rejeitados());
+        assertEquals(1, resultado.inseridos());
+    }
+
+    @Test
+    void testGravarChaveComposta() {
+        produtoUpsertImporter.chave = List.of("Nome", "peso");
+        produtoUpsertImporter.validarChave();
+        try {
+            produtoUpsertImporter.gravar(List.of(produto("Produto 1", "10.00", "1.000")));
+
+            ProdutoUpsertImporter.ResultadoUpsert resultado = produtoUpsertImporter.gravar(List.of(
+                    produto("Produto 1", "11.00", "1"),
+                    produto("Produto 1", "10.00", "2.000")));
+
+            assertEquals(1, resultado.inseridos());
+            assertEquals(1, resultado.atualizados());
+            List<List<Object>> chaves = new ArrayList<>();
+            chaves.add(List.of(prefixo + "Produto 1", new BigDecimal("1.000")));
+            chaves.add(List.of(prefixo + "Produto 1", new BigDecimal("2.000")));
+            assertEquals(2, produtosRepository.buscarPorChave(List.of("nome", "peso"), chaves).size());
+        } finally {
+            produtoUpsertImporter.chave = List.of("nome");
+        }
+    }
+
+    @Test
+    void testValidarChaveDesconhecida() {
+        produtoUpsertImporter.chave = List.of("cor");
+        try {
+            assertThrows(IllegalArgumentException.class, () -> produtoUpsertImporter.validarChave());
+        } finally {
+            produtoUpsertImporter.chave = List.of("nome");
+        }
+    }
+
+    @Test
+    void testVerificarIndiceUnicoForaDoPostgreSQL() {
+        assertDoesNotThrow(() -> produtoUpsertImporter.verificarIndiceUnico());
+    }
+
+    @Test
+    void testVerificarIndiceUnicoAusente() {
+        ProdutoUpsertImporter importer = new ProdutoUpsertImporter();
+        importer.produtoCopyImporter = mock(ProdutoCopyImporter.class);
+        importer.jdbcTemplate = mock(JdbcTemplate.class);
+        when(importer.produtoCopyImporter.isDisponivel()).thenReturn(true);
+        when(importer.jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq(1), eq("nome"))).thenReturn(false);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, importer::verificarIndiceUnico);
+        assertTrue(e.getMessage().contains("db/indice-chave-natural.sql"), e.getMessage());
+
+        when(importer.jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq(1), eq("nome"))).thenReturn(true);
+        importer.verificarIndiceUnico();
+        importer.verificarIndiceUnico();
+        verify(importer.jdbcTemplate, times(2)).queryForObject(anyString(), eq(Boolean.class), eq(1), eq("nome"));
+    }
+
+    @Test
+    void testComandoUpsert() {
+        String comando = ProdutoUpsertImporter.comandoUpsert(List.of("nome"), 2);
+
+        assertEquals("INSERT INTO produtos AS p (id, nome, valor, descricao, quantidade_estoque, peso) VALUES "
+                + "(?::uuid, ?::text, ?::numeric(12, 2), ?::text, ?::bigint, ?::numeric(12, 3)), "
+                + "(?::uuid, ?::text, ?::numeric(12, 2), ?::text, ?::bigint, ?::numeric(12, 3)) "
+                + "ON CONFLICT (nome) DO UPDATE SET valor = EXCLUDED.valor, descricao = EXCLUDED.descricao, "
+                + "quantidade_estoque = EXCLUDED.quantidade_estoque, peso = EXCLUDED.peso "
+                + "WHERE (p.valor, p.descricao, p.quantidade_estoque, p.peso) IS DISTINCT FROM "
+                + "(EXCLUDED.valor, EXCLUDED.descricao, EXCLUDED.quantidade_estoque, EXCLUDED.peso) "
+                + "RETURNING p.id, p.xmax = 0, p.nome", comando);
+        assertTrue(ProdutoUpsertImporter.comandoUpsert(ProdutoUpsertImporter.COLUNAS, 1)
+                .contains("ON CONFLICT (nome, valor, descricao, quantidade_estoque, peso) DO NOTHING RETURNING"));
+        assertTrue(ProdutoUpsertImporter.LINHAS_POR_COMANDO * (ProdutoUpsertImporter.COLUNAS.size() + 1) <= Short.MAX_VALUE);
+    }
+}
@@ -0,0 +1,91 @@
+package com.produtos.service;
+
+import com.produtos.model.DTO.EstatisticasProdutosDTO;
+import com.produtos.repository.ArmazenamentoProdutos;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReconciliacaoEstatisticasTest {
+
+    @Mock
+    private ArmazenamentoProdutos armazenamentoProdutos;
+
+    @Mock
+    private ProdutoSearchIndex produtoSearchIndex;
+
+    @InjectMocks
+    private ReconciliacaoEstatisticas reconciliacaoEstatisticas;
+
+    private final EstatisticasProdutosDTO mantidas = new EstatisticasProdutosDTO(2, 0, 5, new BigDecimal("50.00"),
+            new BigDecimal("5.000"));
+
+    public ReconciliacaoEstatisticasTest() {
+        MockitoAnnotations.openMocks(this);
+        when(produtoSearchIndex.getInstantaneoEstatisticas())
+                .thenReturn(new ProdutoSearchIndex.InstantaneoEstatisticas(1, mantidas));
+    }
+
+    @Test
+    void testEstatisticasEquivalentesNaoReconstroemOIndice() {
+        when(armazenamentoProdutos.calcularEstatisticas()).thenReturn(new EstatisticasProdutosDTO(2, 0, 5,
+                new BigDecimal("50"), new BigDecimal("5")));
+
+        assertFalse(reconciliacaoEstatisticas.reconciliar());
+        assertFalse(reconciliacaoEstatisticas.reconciliar());
+
+        verify(produtoSearchIndex, never()).reconstruir();
+    }
+
+    @Test
+    void testDivergenciaPassageiraNaoReconstroiOIndice() {
+        when(armazenamentoProdutos.calcularEstatisticas())
+                .thenReturn(new EstatisticasProdutosDTO(3, 0, 6, new BigDecimal("60.00"), new BigDecimal("6.000")))
+                .thenReturn(mantidas)
+                .thenReturn(new EstatisticasProdutosDTO(3, 0, 6, new BigDecimal("60.00"), new BigDecimal("6.000")));
+
+        assertFalse(reconciliacaoEstatisticas.reconciliar());
+        assertFalse(reconciliacaoEstatisticas.reconciliar());
+        assertFalse(reconciliacaoEstatisticas.reconciliar());
+
+        verify(produtoSearchIndex, never()).reconstruir();
+    }
+
+    @Test
+    void testDivergenciaPersistenteReconstroiOIndice() {
+        when(armazenamentoProdutos.calcularEstatisticas()).thenReturn(new EstatisticasProdutosDTO(2, 0, 5,
+                new BigDecimal("45.00"), new BigDecimal("5.000")));
+
+        assertFalse(reconciliacaoEstatisticas.reconciliar());
+        assertTrue(reconciliacaoEstatisticas.reconciliar());
+
+        verify(produtoSearchIndex, times(1)).reconstruir();
+    }
+
+    @Test
+    void testEscritaDuranteOCalculoDescartaAComparacao() {
+        EstatisticasProdutosDTO atualizadas = new EstatisticasProdutosDTO(3, 0, 6, new BigDecimal("60.00"),
+                new BigDecimal("6.000"));
+        when(produtoSearchIndex.getInstantaneoEstatisticas())
+                .thenReturn(new ProdutoSearchIndex.InstantaneoEstatisticas(1, mantidas))
+                .thenReturn(new ProdutoSearchIndex.InstantaneoEstatisticas(2, atualizadas))
+                .thenReturn(new ProdutoSearchIndex.InstantaneoEstatisticas(2, atualizadas))
+                .thenReturn(new ProdutoSearchIndex.InstantaneoEstatisticas(3, mantidas))
+                .thenReturn(new ProdutoSearchIndex.InstantaneoEstatisticas(3, mantidas))
+                .thenReturn(new ProdutoSearchIndex.InstantaneoEstatisticas(4, atualizadas));
+        when(armazenamentoProdutos.calcularEstatisticas()).thenReturn(new EstatisticasProdutosDTO(4, 0, 7,
+                new BigDecimal("70.00"), new BigDecimal("7.000")));
+
+        assertFalse(reconciliacaoEstatisticas.reconciliar());
+        assertFalse(reconciliacaoEstatisticas.reconciliar());
+        assertFalse(reconciliacaoEstatisticas.reconciliar());
+
+        verify(produtoSearchIndex, never()).reconstruir();
+    }
+}